@@ -2,6 +2,7 @@ plugins {
     java
     jacoco
     id("org.springframework.boot") version "3.5.5"
+    id("org.springframework.boot.aot") version "3.5.5"
     id("io.spring.dependency-management") version "1.1.7"
 }
 
@@ -18,6 +19,15 @@ repositories {
     mavenCentral()
 }
 
+// End-to-end load generator (./gradlew loadTest), kept out of the application and the test suite
+val loadtest by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations["loadtestImplementation"].extendsFrom(configurations.implementation.get())
+configurations["loadtestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
@@ -27,6 +37,124 @@ dependencies {
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.assertj:assertj-core:3.26.3")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    "loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
+}
+
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs the open-loop load generator; pass options with -PloadtestArgs=\"--rate=500 --duration=60\""
+    group = "verification"
+    classpath = loadtest.runtimeClasspath
+    mainClass = "edu.trincoll.loadtest.LoadGenerator"
+    args = (findProperty("loadtestArgs") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Checkout throughput of the durable file-backed store against the in-memory default: the same
+// checkout/return workload run once per storage mode, reported under build/loadtest/storage-*
+val storageBenchmarkRuns = mapOf("Memory" to "", "Durable" to "durable").map { (mode, profile) ->
+    tasks.register<JavaExec>("storageBenchmark$mode") {
+        group = "verification"
+        classpath = loadtest.runtimeClasspath
+        mainClass = "edu.trincoll.loadtest.LoadGenerator"
+        args = listOf("--label=storage-${mode.lowercase()}-${System.currentTimeMillis()}", "--profile=$profile",
+            "--mix=checkout:50,return:50", "--rate=1000", "--duration=60") +
+            (findProperty("loadtestArgs") as String? ?: "").split(" ").filter { it.isNotBlank() }
+    }
+}
+
+tasks.register("storageBenchmark") {
+    description = "Runs the checkout/return load against in-memory and durable storage; override options with -PloadtestArgs"
+    group = "verification"
+    dependsOn(storageBenchmarkRuns)
+}
+
+// Fast-startup mode: the bootJar carries the AOT-generated context (processAot, built for the
+// fast-startup profile since AOT fixes the bean graph at build time), extracted so the JVM can
+// map an AppCDS archive recorded by a training run that exits once the context is refreshed.
+tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+    args("--spring.profiles.active=fast-startup")
+}
+
+val javaLauncher21 = javaToolchains.launcherFor { languageVersion = JavaLanguageVersion.of(21) }
+val fastStartupDir = layout.buildDirectory.dir("fast-startup")
+val fastStartupJar = fastStartupDir.map { it.file("app/${tasks.bootJar.get().archiveFileName.get()}") }
+val cdsArchiveFile = fastStartupDir.map { it.file("app.jsa") }
+
+val extractBootJar by tasks.registering(Exec::class) {
+    description = "Extracts the boot jar into the plain-jar layout class-data sharing needs"
+    group = "build"
+    dependsOn(tasks.bootJar)
+    inputs.file(tasks.bootJar.flatMap { it.archiveFile })
+    outputs.dir(fastStartupDir.map { it.dir("app") })
+    doFirst {
+        executable = javaLauncher21.get().executablePath.asFile.path
+        args("-Djarmode=tools", "-jar", tasks.bootJar.get().archiveFile.get().asFile.path,
+            "extract", "--force", "--destination", fastStartupDir.get().dir("app").asFile.path)
+    }
+}
+
+tasks.register<Exec>("cdsArchive") {
+    description = "Records the AppCDS archive for fast-startup mode with a training run"
+    group = "build"
+    dependsOn(extractBootJar)
+    inputs.dir(fastStartupDir.map { it.dir("app") })
+    outputs.file(cdsArchiveFile)
+    doFirst {
+        executable = javaLauncher21.get().executablePath.asFile.path
+        args("-XX:ArchiveClassesAtExit=${cdsArchiveFile.get().asFile}", "-Dspring.aot.enabled=true",
+            "-Dspring.context.exit=onRefresh", "-jar", fastStartupJar.get().asFile.path,
+            "--spring.profiles.active=fast-startup")
+    }
+}
+
+tasks.register<Exec>("runFastStartup") {
+    description = "Runs the application in fast-startup mode (AOT context, AppCDS, schema validation, warm-up)"
+    group = "application"
+    dependsOn("cdsArchive")
+    doFirst {
+        executable = javaLauncher21.get().executablePath.asFile.path
+        args("-XX:SharedArchiveFile=${cdsArchiveFile.get().asFile}", "-Dspring.aot.enabled=true",
+            "-jar", fastStartupJar.get().asFile.path, "--spring.profiles.active=fast-startup")
+    }
+}
+
+tasks.register<JavaExec>("startupBenchmark") {
+    description = "Compares time-to-first-request of the default and fast-startup modes; options via -PstartupArgs=\"--runs=10\""
+    group = "verification"
+    dependsOn(tasks.bootJar, "cdsArchive")
+    classpath = loadtest.runtimeClasspath
+    mainClass = "edu.trincoll.loadtest.StartupBenchmark"
+    javaLauncher = javaLauncher21
+    args = listOf(
+        "--jar=${tasks.bootJar.get().archiveFile.get().asFile}",
+        "--extracted-jar=${fastStartupJar.get().asFile}",
+        "--cds-archive=${cdsArchiveFile.get().asFile}"
+    ) + (findProperty("startupArgs") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+tasks.register<JavaExec>("fuzzySearchBenchmark") {
+    description = "Measures typo-tolerant title lookup latency on a synthetic 2M-title catalog; options via -PfuzzyArgs=\"--titles=500000\""
+    group = "verification"
+    classpath = loadtest.runtimeClasspath
+    mainClass = "edu.trincoll.loadtest.FuzzySearchBenchmark"
+    maxHeapSize = "6g"
+    args = (findProperty("fuzzyArgs") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+tasks.register<JavaExec>("circulationStoreBenchmark") {
+    description = "Times checkout+return cycles through the JPA and JDBC circulation stores; options via -PcirculationStoreArgs=\"--cycles=5000\""
+    group = "verification"
+    classpath = loadtest.runtimeClasspath
+    mainClass = "edu.trincoll.loadtest.CirculationStoreBenchmark"
+    args = (findProperty("circulationStoreArgs") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+tasks.register<JavaExec>("admissionBenchmark") {
+    description = "Measures circulation p99 under report overload with and without admission control; options via -PadmissionArgs=\"--report-callers=200\""
+    group = "verification"
+    classpath = loadtest.runtimeClasspath
+    mainClass = "edu.trincoll.loadtest.AdmissionOverloadBenchmark"
+    args = (findProperty("admissionArgs") as String? ?: "").split(" ").filter { it.isNotBlank() }
 }
 
 tasks.withType<Test> {
@@ -35,6 +163,9 @@ tasks.withType<Test> {
 }
 
 tasks.test {
+    useJUnitPlatform {
+        excludeTags("stress")
+    }
     testLogging {
         events("passed", "skipped", "failed")
         exceptionFormat = org.gradle.api.tasks.testing.logging.TestExceptionFormat.FULL
@@ -43,6 +174,22 @@ tasks.test {
     finalizedBy(tasks.jacocoTestReport)
 }
 
+// Thousands of concurrent checkouts and returns per circulation store; size with
+// -Dlibrary.stress.operations=... and -Dlibrary.stress.threads=...
+tasks.register<Test>("stressTest") {
+    description = "Runs the multi-threaded circulation stress tests excluded from the test task"
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("stress")
+    }
+    System.getProperties().stringPropertyNames()
+        .filter { it.startsWith("library.stress.") }
+        .forEach { systemProperty(it, System.getProperty(it)) }
+    shouldRunAfter(tasks.test)
+}
+
 tasks.jacocoTestReport {
     dependsOn(tasks.test)
     reports {
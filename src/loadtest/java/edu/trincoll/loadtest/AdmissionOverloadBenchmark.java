@@ -0,0 +1,140 @@
+package edu.trincoll.loadtest;
+
+import edu.trincoll.service.admission.AdaptiveConcurrencyLimiter;
+import edu.trincoll.service.admission.LoadSheddingException;
+import edu.trincoll.service.admission.Priority;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circulation tail latency under report overload, with and without admission control.
+ * <p>
+ * A stand-in database with a few connections and fixed-length queries is flooded by report
+ * traffic while a handful of circulation callers measure their own latency. Without the limiter
+ * circulation queues behind every report; with it the limit settles near the latency target and
+ * reports are shed instead. Options: {@code --connections} (4), {@code --query-ms} (5),
+ * {@code --report-callers} (96), {@code --circulation-callers} (4), {@code --calls} (100 per
+ * circulation caller), {@code --target-ms} (15).
+ */
+public final class AdmissionOverloadBenchmark {
+
+    private AdmissionOverloadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        Overload overload = new Overload(
+                Integer.parseInt(options.getOrDefault("connections", "4")),
+                Long.parseLong(options.getOrDefault("query-ms", "5")),
+                Integer.parseInt(options.getOrDefault("report-callers", "96")),
+                Integer.parseInt(options.getOrDefault("circulation-callers", "4")),
+                Integer.parseInt(options.getOrDefault("calls", "100")));
+        long targetMs = Long.parseLong(options.getOrDefault("target-ms", "15"));
+
+        Histogram unprotected = overload.circulationLatency(null);
+        report("without admission control", unprotected);
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 50, targetMs, 1_000);
+        Histogram limited = overload.circulationLatency(limiter);
+        report("with admission control", limited);
+        System.out.printf(Locale.ROOT, "  final limit %d, reports shed %d, circulation shed %d%n", limiter.limit(),
+                limiter.shedCount(Priority.REPORT), limiter.shedCount(Priority.CIRCULATION));
+    }
+
+    private record Overload(int connections, long queryMs, int reportCallers, int circulationCallers, int calls) {
+
+        Histogram circulationLatency(AdaptiveConcurrencyLimiter limiter) throws Exception {
+            Semaphore database = new Semaphore(connections, true);
+            Runnable query = () -> {
+                database.acquireUninterruptibly();
+                try {
+                    sleep(queryMs);
+                } finally {
+                    database.release();
+                }
+            };
+            AtomicBoolean running = new AtomicBoolean(true);
+            Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3);
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < reportCallers; i++) {
+                    executor.submit(() -> {
+                        while (running.get()) {
+                            try {
+                                run(limiter, Priority.REPORT, query);
+                            } catch (LoadSheddingException e) {
+                                sleep(2);
+                            }
+                        }
+                    });
+                }
+                sleep(300); // let the limit settle
+
+                List<CompletableFuture<Void>> circulation = new ArrayList<>();
+                for (int i = 0; i < circulationCallers; i++) {
+                    circulation.add(CompletableFuture.runAsync(() -> {
+                        for (int n = 0; n < calls; n++) {
+                            long start = System.nanoTime();
+                            run(limiter, Priority.CIRCULATION, query);
+                            latency.recordValue(System.nanoTime() - start);
+                        }
+                    }, executor));
+                }
+                try {
+                    CompletableFuture.allOf(circulation.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+                } finally {
+                    running.set(false);
+                }
+            }
+            return latency;
+        }
+    }
+
+    private static void run(AdaptiveConcurrencyLimiter limiter, Priority priority, Runnable work) {
+        if (limiter == null) {
+            work.run();
+        } else {
+            limiter.call(priority, () -> {
+                work.run();
+                return null;
+            });
+        }
+    }
+
+    private static void report(String label, Histogram latency) {
+        System.out.printf(Locale.ROOT, "Circulation %s: %d calls, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", label,
+                latency.getTotalCount(), millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getMaxValue()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
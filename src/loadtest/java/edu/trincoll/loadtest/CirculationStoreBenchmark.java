@@ -0,0 +1,109 @@
+package edu.trincoll.loadtest;
+
+import edu.trincoll.LibraryApplication;
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.repository.circulation.CirculationStore;
+import edu.trincoll.repository.circulation.JpaCirculationStore;
+import edu.trincoll.service.BookService;
+import edu.trincoll.service.MemberService;
+import edu.trincoll.service.event.BookLifecycleListener;
+import edu.trincoll.service.feed.CatalogChangeRecorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Checkout+return cycles through the JPA and the JDBC circulation store on the same database.
+ * <p>
+ * The application runs with {@code library.circulation.store=jdbc}; the JPA store is built
+ * beside it, and each store is plugged into its own BookService and MemberService doing the
+ * work LibraryService does per operation (read outside, write in one transaction). Options:
+ * {@code --cycles} (500), {@code --warmup} (50).
+ */
+public final class CirculationStoreBenchmark {
+
+    private static final String ISBN = "bench-1";
+    private static final String EMAIL = "bench@example.com";
+
+    private CirculationStoreBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        int cycles = Integer.parseInt(options.getOrDefault("cycles", "500"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "50"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.edu.trincoll=INFO",
+                        "library.circulation.store=jdbc")
+                .run()) {
+            BookRepository bookRepository = context.getBean(BookRepository.class);
+            MemberRepository memberRepository = context.getBean(MemberRepository.class);
+            bookRepository.save(new Book(ISBN, "Benchmark", "Author", LocalDate.of(2000, 1, 1)));
+            memberRepository.save(new Member("Benchmark", EMAIL, MembershipType.REGULAR));
+
+            Cycles jpa = new Cycles(context, new JpaCirculationStore(bookRepository, memberRepository));
+            Cycles jdbc = new Cycles(context, context.getBean(CirculationStore.class));
+            jpa.run(warmup);
+            jdbc.run(warmup);
+
+            long jpaNanos = jpa.run(cycles);
+            long jdbcNanos = jdbc.run(cycles);
+            System.out.printf(Locale.ROOT, "%d checkout+return cycles: jpa %.1f us/cycle, jdbc %.1f us/cycle%n",
+                    cycles, jpaNanos / 1000.0 / cycles, jdbcNanos / 1000.0 / cycles);
+        }
+    }
+
+    private static final class Cycles {
+        private final BookService books;
+        private final MemberService members;
+        private final TransactionOperations circulationTransactions;
+
+        private Cycles(ConfigurableApplicationContext context, CirculationStore store) {
+            List<BookLifecycleListener> listeners = context.getBeanProvider(BookLifecycleListener.class)
+                    .orderedStream().toList();
+            this.books = new BookService(context.getBean(BookRepository.class), store,
+                    context.getBean(CatalogChangeRecorder.class), listeners);
+            this.members = new MemberService(context.getBean(MemberRepository.class), store);
+            this.circulationTransactions = context.getBean("circulationTransactions", TransactionOperations.class);
+        }
+
+        long run(int cycles) {
+            long start = System.nanoTime();
+            for (int i = 0; i < cycles; i++) {
+                Book book = books.findByIsbn(ISBN);
+                Member member = members.findByEmail(EMAIL);
+                circulationTransactions.executeWithoutResult(status -> {
+                    books.checkoutBook(book, member, 14);
+                    members.incrementCheckoutCount(member);
+                });
+                Book out = books.findByIsbn(ISBN);
+                Member borrower = members.findByEmail(EMAIL);
+                circulationTransactions.executeWithoutResult(status -> {
+                    books.returnBook(out);
+                    members.decrementCheckoutCount(borrower);
+                });
+            }
+            return System.nanoTime() - start;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package edu.trincoll.loadtest;
+
+import edu.trincoll.service.search.FuzzyIndex;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of typo-tolerant title lookups on a synthetic catalog, in process and without the
+ * database, so the number is the index's own.
+ * <p>
+ * Titles are two to six words drawn Zipf-distributed from a vocabulary of pronounceable made-up
+ * words, so a few words are as common as "the" and most are rare. Each query takes two words of
+ * a random title and drops or swaps a letter in each word longer than three letters, the way a
+ * patron mistypes. Options: {@code --titles} (2000000), {@code --vocabulary} (200000),
+ * {@code --queries} (20000), {@code --max-edits} (2), {@code --max-results} (50),
+ * {@code --max-candidates} (5000), {@code --seed}.
+ */
+public final class FuzzySearchBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "ro", "mi", "ter", "lan", "po", "sha", "vel", "dor", "in",
+            "gue", "bri", "al", "tho", "nes", "cy", "wu", "ex", "qua", "zen", "har", "ry", "ot", "ble"};
+
+    private FuzzySearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        int titles = Integer.parseInt(options.getOrDefault("titles", "2000000"));
+        int vocabularySize = Integer.parseInt(options.getOrDefault("vocabulary", "200000"));
+        int queries = Integer.parseInt(options.getOrDefault("queries", "20000"));
+        int maxEdits = Integer.parseInt(options.getOrDefault("max-edits", "2"));
+        int maxResults = Integer.parseInt(options.getOrDefault("max-results", "50"));
+        int maxCandidates = Integer.parseInt(options.getOrDefault("max-candidates", "5000"));
+        SplittableRandom random = new SplittableRandom(Long.parseLong(options.getOrDefault("seed", "42")));
+
+        String[] vocabulary = vocabulary(vocabularySize, random);
+        ZipfianSampler words = new ZipfianSampler(vocabularySize, 1.0);
+        String[] catalog = new String[titles];
+        FuzzyIndex.Builder builder = new FuzzyIndex.Builder();
+        long started = System.nanoTime();
+        for (int i = 0; i < titles; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 2 + random.nextInt(5); w > 0; w--) {
+                title.append(vocabulary[words.next(random)]).append(' ');
+            }
+            catalog[i] = title.toString();
+            builder.add(String.format(Locale.ROOT, "isbn-%010d", i), catalog[i]);
+        }
+        FuzzyIndex index = builder.build();
+        System.out.printf(Locale.ROOT, "Indexed %d titles, %d distinct words, in %d ms%n", index.books(),
+                index.terms(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        Histogram latency = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+        long hits = 0;
+        int warmup = Math.max(1000, queries / 10);
+        for (int q = -warmup; q < queries; q++) {
+            String query = mistype(catalog[random.nextInt(titles)], random);
+            long before = System.nanoTime();
+            int found = index.search(query, maxEdits, maxResults, maxCandidates).size();
+            long elapsed = System.nanoTime() - before;
+            if (q >= 0) {
+                latency.recordValue(elapsed);
+                hits += found;
+            }
+        }
+        System.out.printf(Locale.ROOT, "%d queries, %.1f hits each: p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms%n",
+                queries, (double) hits / queries, millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()));
+    }
+
+    private static String[] vocabulary(int size, SplittableRandom random) {
+        Set<String> words = new HashSet<>(size * 2);
+        while (words.size() < size) {
+            StringBuilder word = new StringBuilder();
+            for (int s = 1 + random.nextInt(4); s > 0; s--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(word.toString());
+        }
+        List<String> shuffled = new ArrayList<>(words);
+        for (int i = shuffled.size() - 1; i > 0; i--) {
+            Collections.swap(shuffled, i, random.nextInt(i + 1));
+        }
+        return shuffled.toArray(String[]::new);
+    }
+
+    private static String mistype(String title, SplittableRandom random) {
+        String[] words = title.trim().split(" ");
+        StringBuilder query = new StringBuilder();
+        for (int n = 0; n < 2 && n < words.length; n++) {
+            String word = words[random.nextInt(words.length)];
+            if (word.length() > 3) {
+                int at = random.nextInt(word.length() - 1);
+                word = random.nextBoolean()
+                        ? word.substring(0, at) + word.substring(at + 1)
+                        : word.substring(0, at) + word.charAt(at + 1) + word.charAt(at) + word.substring(at + 2);
+            }
+            query.append(word).append(' ');
+        }
+        return query.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
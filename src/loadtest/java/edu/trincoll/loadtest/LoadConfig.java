@@ -0,0 +1,65 @@
+package edu.trincoll.loadtest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load generator options, parsed from {@code --name=value} arguments.
+ *
+ * @param rate            requests per second, issued open-loop whatever the response times
+ * @param mix             relative weight of each operation
+ * @param zipfExponent    popularity skew of books; 0 is uniform, around 1 is typical
+ * @param maxOutstanding  requests allowed in flight; the rest wait, and the wait is measured
+ * @param profile         Spring profile to run under, e.g. {@code durable} for the file-backed
+ *                        store; empty for the default in-memory database
+ */
+record LoadConfig(int members, int books, int rate, int durationSeconds, int warmupSeconds,
+                  double zipfExponent, Map<Operation, Integer> mix, int maxOutstanding,
+                  Path outputDir, String label, String profile) {
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        LoadConfig config = new LoadConfig(
+                Integer.parseInt(options.getOrDefault("members", "1000")),
+                Integer.parseInt(options.getOrDefault("books", "5000")),
+                Integer.parseInt(options.getOrDefault("rate", "200")),
+                Integer.parseInt(options.getOrDefault("duration", "60")),
+                Integer.parseInt(options.getOrDefault("warmup", "10")),
+                Double.parseDouble(options.getOrDefault("zipf", "0.99")),
+                parseMix(options.getOrDefault("mix", "checkout:40,return:30,search:25,report:5")),
+                Integer.parseInt(options.getOrDefault("max-outstanding", "256")),
+                Path.of(options.getOrDefault("out", "build/loadtest")),
+                options.getOrDefault("label",
+                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))),
+                options.getOrDefault("profile", ""));
+        if (config.members < 1 || config.books < 1 || config.rate < 1 || config.durationSeconds < 1
+                || config.maxOutstanding < 1) {
+            throw new IllegalArgumentException("members, books, rate, duration and max-outstanding must be positive");
+        }
+        return config;
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.split(":");
+            mix.put(Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Operation mix must have a positive total weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,198 @@
+package edu.trincoll.loadtest;
+
+import edu.trincoll.LibraryApplication;
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryFacade;
+import edu.trincoll.service.LibraryService;
+import edu.trincoll.service.notification.NotificationService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the whole application context.
+ * <p>
+ * Requests are scheduled at fixed intervals for the target rate and each one's latency is
+ * measured from when it was <em>due</em> to start, not from when it actually started. When the
+ * system stalls, the requests queued behind the stall are charged for the wait, so the
+ * histograms are corrected for coordinated omission by construction. Measurements from the
+ * warm-up period are discarded.
+ * <p>
+ * Writes, per run label: one {@code .hgrm} percentile distribution per operation, a
+ * {@code summary.csv}, and a {@code histograms.hlog} tagged by operation, which can be compared
+ * across versions with HdrHistogram's log tools.
+ */
+public final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadConfig config;
+    private final Workload workload;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> refusals = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    private LoadGenerator(LoadConfig config, Workload workload) {
+        this.config = config;
+        this.workload = workload;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            refusals.put(operation, new LongAdder());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(config.profile().isEmpty() ? new String[0] : config.profile().split(","))
+                // A file-backed store gets a fresh directory per run, so every run seeds the same data.
+                .properties("spring.jpa.show-sql=false", "logging.level.edu.trincoll=INFO",
+                        "library.storage.dir=" + config.outputDir().resolve(config.label()).resolve("db").toAbsolutePath())
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean("quietNotifications",
+                        NotificationService.class, QuietNotifications::new, bd -> bd.setPrimary(true)))
+                .run()) {
+            Workload workload = new Workload(config, context.getBean(LibraryService.class),
+                    context.getBean(LibraryFacade.class));
+            System.out.printf("Seeding %d members and %d books...%n", config.members(), config.books());
+            workload.seed(context.getBean(BookRepository.class), context.getBean(MemberRepository.class));
+            new LoadGenerator(config, workload).run();
+        }
+    }
+
+    private void run() throws IOException, InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long total = (long) config.rate() * (config.warmupSeconds() + config.durationSeconds());
+        long warmupEnd = (long) config.rate() * config.warmupSeconds();
+        Semaphore outstanding = new Semaphore(config.maxOutstanding());
+
+        System.out.printf("Running %d req/s for %ds after %ds warm-up, mix %s, storage %s%n",
+                config.rate(), config.durationSeconds(), config.warmupSeconds(), config.mix(),
+                config.profile().contains("durable") ? "file" : "in-memory");
+        long start = System.nanoTime();
+        long measuredFrom = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (i == warmupEnd) {
+                    recorders.values().forEach(Recorder::reset);
+                    refusals.values().forEach(LongAdder::reset);
+                    errors.values().forEach(LongAdder::reset);
+                    measuredFrom = due;
+                }
+                Operation operation = workload.nextOperation();
+                executor.execute(() -> issue(operation, due, outstanding));
+            }
+        }
+        double measuredSeconds = (System.nanoTime() - (measuredFrom == 0 ? start : measuredFrom)) / 1e9;
+        writeReports(measuredSeconds);
+    }
+
+    private void issue(Operation operation, long due, Semaphore outstanding) {
+        outstanding.acquireUninterruptibly();
+        try {
+            if (!workload.execute(operation)) {
+                refusals.get(operation).increment();
+            }
+        } catch (RuntimeException e) {
+            errors.get(operation).increment();
+        } finally {
+            outstanding.release();
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+            recorders.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        }
+    }
+
+    private void writeReports(double measuredSeconds) throws IOException {
+        Path dir = config.outputDir().resolve(config.label());
+        Files.createDirectories(dir);
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+
+        try (PrintStream csv = new PrintStream(Files.newOutputStream(dir.resolve("summary.csv")));
+             PrintStream hlog = new PrintStream(Files.newOutputStream(dir.resolve("histograms.hlog")))) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(hlog);
+            logWriter.outputComment("label=" + config.label() + " rate=" + config.rate() + " mix=" + config.mix()
+                    + " profile=" + config.profile());
+            logWriter.outputLogFormatVersion();
+            logWriter.outputLegend();
+
+            csv.println("operation,count,refused,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms");
+            System.out.printf("%n%-9s %8s %8s %7s %9s %9s %9s %9s %9s%n",
+                    "op", "count", "refused", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+                Operation operation = entry.getKey();
+                Histogram h = entry.getValue();
+                if (h.getTotalCount() == 0) {
+                    continue;
+                }
+                h.setTag(operation.name().toLowerCase(Locale.ROOT));
+                logWriter.outputIntervalHistogram(h);
+                try (PrintStream hgrm = new PrintStream(Files.newOutputStream(
+                        dir.resolve(operation.name().toLowerCase(Locale.ROOT) + ".hgrm")))) {
+                    h.outputPercentileDistribution(hgrm, 1000.0);
+                }
+                csv.printf(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        operation, h.getTotalCount(), refusals.get(operation).sum(), errors.get(operation).sum(),
+                        h.getTotalCount() / measuredSeconds, ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9),
+                        h.getMaxValue() / 1000.0);
+                System.out.printf(Locale.ROOT, "%-9s %8d %8d %7d %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                        operation, h.getTotalCount(), refusals.get(operation).sum(), errors.get(operation).sum(),
+                        ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0);
+            }
+        }
+        System.out.println("\nReports written to " + dir.toAbsolutePath());
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Stands in for the console notifier so a run's output is the report, not one line per loan.
+     */
+    private static final class QuietNotifications implements NotificationService {
+        @Override
+        public void sendCheckoutNotification(Member member, Book book, LocalDate dueDate) {
+        }
+
+        @Override
+        public void sendReturnNotification(Member member, Book book, double lateFee) {
+        }
+
+        @Override
+        public void sendDueDateReminder(Member member, Book book, LocalDate dueDate) {
+        }
+
+        @Override
+        public void sendHoldExpiredNotification(Member member, Book book) {
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package edu.trincoll.loadtest;
+
+/**
+ * The calls the load generator issues, each recorded in its own latency histogram.
+ */
+enum Operation {
+    CHECKOUT,
+    RETURN,
+    SEARCH,
+    REPORT
+}
@@ -0,0 +1,177 @@
+package edu.trincoll.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a freshly launched instance takes to serve its first request, the number
+ * that matters during a rolling restart.
+ * <p>
+ * Each run starts the application in its own JVM, polls {@code /api/ready} until it answers
+ * 200 (as a load balancer would), then issues one search and times it. Recorded per run:
+ * process start to ready, the first request's own latency, and process start to first response
+ * ({@code time_to_first_request_ms}). Modes are run alternately so drift on the machine affects
+ * both alike:
+ * <ul>
+ *   <li>{@code default}: {@code java -jar} on the boot jar with the default profile;</li>
+ *   <li>{@code fast-startup}: the extracted jar with the AOT-generated context, the AppCDS
+ *       archive and the fast-startup profile (schema validation and warm-up).</li>
+ * </ul>
+ * Writes {@code startup.csv} with one row per run and prints the medians.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final Map<String, String> options;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupBenchmark(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        for (String required : List.of("jar", "extracted-jar", "cds-archive")) {
+            if (!options.containsKey(required)) {
+                throw new IllegalArgumentException("Missing --" + required);
+            }
+        }
+        new StartupBenchmark(options).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        long timeoutMs = Long.parseLong(options.getOrDefault("timeout-ms", "120000"));
+        String label = options.getOrDefault("label",
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Path dir = Path.of(options.getOrDefault("out", "build/startup-benchmark")).resolve(label);
+        Files.createDirectories(dir);
+
+        Map<String, List<Sample>> samples = new HashMap<>();
+        try (PrintStream csv = new PrintStream(Files.newOutputStream(dir.resolve("startup.csv")))) {
+            csv.println("mode,run,ready_ms,first_request_latency_ms,time_to_first_request_ms");
+            for (int run = 1; run <= runs; run++) {
+                for (String mode : List.of("default", "fast-startup")) {
+                    Sample sample = measure(command(mode), timeoutMs);
+                    samples.computeIfAbsent(mode, m -> new ArrayList<>()).add(sample);
+                    csv.printf(Locale.ROOT, "%s,%d,%d,%d,%d%n", mode, run, sample.readyMs(),
+                            sample.firstRequestMs(), sample.timeToFirstRequestMs());
+                    System.out.printf(Locale.ROOT, "%-12s run %d: ready %d ms, first request %d ms, total %d ms%n",
+                            mode, run, sample.readyMs(), sample.firstRequestMs(), sample.timeToFirstRequestMs());
+                }
+            }
+        }
+
+        System.out.printf("%n%-12s %10s %18s %24s%n", "mode", "ready ms", "first request ms", "time to first request ms");
+        for (String mode : List.of("default", "fast-startup")) {
+            List<Sample> runsOfMode = samples.get(mode);
+            System.out.printf(Locale.ROOT, "%-12s %10d %18d %24d%n", mode,
+                    median(runsOfMode.stream().mapToLong(Sample::readyMs).toArray()),
+                    median(runsOfMode.stream().mapToLong(Sample::firstRequestMs).toArray()),
+                    median(runsOfMode.stream().mapToLong(Sample::timeToFirstRequestMs).toArray()));
+        }
+        System.out.println("\nResults written to " + dir.toAbsolutePath());
+    }
+
+    private List<String> command(String mode) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return switch (mode) {
+            case "default" -> List.of(java, "-jar", options.get("jar"));
+            case "fast-startup" -> List.of(java, "-XX:SharedArchiveFile=" + options.get("cds-archive"),
+                    "-Dspring.aot.enabled=true", "-jar", options.get("extracted-jar"),
+                    "--spring.profiles.active=fast-startup");
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        };
+    }
+
+    private Sample measure(List<String> baseCommand, long timeoutMs) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>(baseCommand);
+        command.add("--server.port=" + port);
+        command.add("--library.recommendations.checkpoint-file=" + Files.createTempFile("co-borrowing", ".bin"));
+        URI ready = URI.create("http://localhost:" + port + "/api/ready");
+        URI search = URI.create("http://localhost:" + port + "/api/books/search?type=title&q=java");
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = started + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (status(ready) != 200) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Not ready within " + timeoutMs + " ms: " + command);
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            long readyAt = System.nanoTime();
+            int searchStatus = status(search);
+            long answeredAt = System.nanoTime();
+            if (searchStatus != 200) {
+                throw new IllegalStateException("First request failed with HTTP " + searchStatus);
+            }
+            return new Sample(
+                    TimeUnit.NANOSECONDS.toMillis(readyAt - started),
+                    TimeUnit.NANOSECONDS.toMillis(answeredAt - readyAt),
+                    TimeUnit.NANOSECONDS.toMillis(answeredAt - started));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private int status(URI uri) throws InterruptedException {
+        try {
+            return http.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1; // not listening yet
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Sample(long readyMs, long firstRequestMs, long timeToFirstRequestMs) {
+    }
+}
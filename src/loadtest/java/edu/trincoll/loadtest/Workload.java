@@ -0,0 +1,113 @@
+package edu.trincoll.loadtest;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryFacade;
+import edu.trincoll.service.LibraryService;
+import edu.trincoll.service.report.ReportType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeds the catalog and turns an {@link Operation} into a call on the service layer. Book
+ * popularity follows a Zipfian distribution over rank; members are picked uniformly. Returns
+ * are drawn from the books this run has lent, so most of them succeed.
+ */
+final class Workload {
+
+    private static final int SEED_BATCH = 500;
+
+    private final LoadConfig config;
+    private final LibraryService libraryService;
+    private final LibraryFacade facade;
+    private final ZipfianSampler popularity;
+    private final Queue<String> lent = new ConcurrentLinkedQueue<>();
+    private final Operation[] wheel;
+
+    Workload(LoadConfig config, LibraryService libraryService, LibraryFacade facade) {
+        this.config = config;
+        this.libraryService = libraryService;
+        this.facade = facade;
+        this.popularity = new ZipfianSampler(config.books(), config.zipfExponent());
+        List<Operation> slots = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> entry : config.mix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                slots.add(entry.getKey());
+            }
+        }
+        this.wheel = slots.toArray(Operation[]::new);
+    }
+
+    void seed(BookRepository bookRepository, MemberRepository memberRepository) {
+        MembershipType[] tiers = MembershipType.values();
+        List<Member> members = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < config.members(); i++) {
+            members.add(new Member("Load Member " + i, memberEmail(i), tiers[i % tiers.length]));
+            if (members.size() == SEED_BATCH || i == config.members() - 1) {
+                memberRepository.saveAll(members);
+                members.clear();
+            }
+        }
+        List<Book> books = new ArrayList<>(SEED_BATCH);
+        for (int rank = 0; rank < config.books(); rank++) {
+            books.add(new Book(isbn(rank), title(rank), "Author " + (rank % 97), LocalDate.of(2000, 1, 1)));
+            if (books.size() == SEED_BATCH || rank == config.books() - 1) {
+                bookRepository.saveAll(books);
+                books.clear();
+            }
+        }
+    }
+
+    Operation nextOperation() {
+        return wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+    }
+
+    /**
+     * @return false if the service answered with a refusal (not available, limit reached, ...)
+     */
+    boolean execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case CHECKOUT -> {
+                String isbn = isbn(popularity.next(random));
+                String result = libraryService.checkoutBook(isbn, memberEmail(random.nextInt(config.members())));
+                boolean ok = result.startsWith("Book checked out successfully");
+                if (ok) {
+                    lent.add(isbn);
+                }
+                yield ok;
+            }
+            case RETURN -> {
+                String isbn = lent.poll();
+                yield libraryService.returnBook(isbn != null ? isbn : isbn(popularity.next(random)))
+                        .startsWith("Book returned");
+            }
+            case SEARCH -> !libraryService.searchBooks(title(popularity.next(random)), "title").isEmpty();
+            case REPORT -> {
+                ReportType[] types = ReportType.values();
+                yield !facade.getReport(types[random.nextInt(types.length)]).content().isEmpty();
+            }
+        };
+    }
+
+    private static String isbn(int rank) {
+        return "load-" + rank;
+    }
+
+    private static String title(int rank) {
+        return "Load Title " + rank;
+    }
+
+    private static String memberEmail(int i) {
+        return "load" + i + "@example.com";
+    }
+}
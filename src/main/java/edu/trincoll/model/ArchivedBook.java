@@ -0,0 +1,74 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * A retired ({@code LOST} or {@code DAMAGED}) book moved out of {@code books}. The ISBN is not
+ * unique here: a title can be re-acquired, retired and archived again.
+ */
+@Entity
+@Table(name = "books_archive", indexes = @Index(name = "idx_books_archive_isbn", columnList = "isbn"))
+public class ArchivedBook {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String isbn;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private String author;
+
+    @Column(name = "publication_date")
+    private LocalDate publicationDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookStatus status;
+
+    @Column(name = "retired_on", nullable = false)
+    private LocalDate retiredOn;
+
+    @Column(name = "archived_on", nullable = false)
+    private LocalDate archivedOn;
+
+    public ArchivedBook() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public LocalDate getPublicationDate() {
+        return publicationDate;
+    }
+
+    public BookStatus getStatus() {
+        return status;
+    }
+
+    public LocalDate getRetiredOn() {
+        return retiredOn;
+    }
+
+    public LocalDate getArchivedOn() {
+        return archivedOn;
+    }
+}
@@ -0,0 +1,74 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * A closed {@link Loan} moved out of the hot table, keeping its original id.
+ */
+@Entity
+@Table(name = "loans_archive", indexes = {
+        @Index(name = "idx_loans_archive_member_email", columnList = "member_email"),
+        @Index(name = "idx_loans_archive_isbn", columnList = "isbn")})
+public class ArchivedLoan {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String isbn;
+
+    @Column(name = "member_email", nullable = false)
+    private String memberEmail;
+
+    @Column(name = "checked_out_on", nullable = false)
+    private LocalDate checkedOutOn;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "closed_on", nullable = false)
+    private LocalDate closedOn;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private LoanOutcome outcome;
+
+    @Column(name = "archived_on", nullable = false)
+    private LocalDate archivedOn;
+
+    public ArchivedLoan() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getMemberEmail() {
+        return memberEmail;
+    }
+
+    public LocalDate getCheckedOutOn() {
+        return checkedOutOn;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public LocalDate getClosedOn() {
+        return closedOn;
+    }
+
+    public LoanOutcome getOutcome() {
+        return outcome;
+    }
+
+    public LocalDate getArchivedOn() {
+        return archivedOn;
+    }
+}
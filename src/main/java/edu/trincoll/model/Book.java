@@ -1,5 +1,6 @@
 package edu.trincoll.model;
 
+import edu.trincoll.service.coherence.ChangeLogEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,6 +8,7 @@ import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(ChangeLogEntityListener.class)
 @Table(name = "books")
 public class Book {
     @Id
@@ -38,6 +40,13 @@ public class Book {
     @Column(name = "due_date")
     private LocalDate dueDate;
 
+    /** When the book became LOST or DAMAGED; retired books are archived once old enough. */
+    @Column(name = "retired_on")
+    private LocalDate retiredOn;
+
+    @Version
+    private long version;
+
     // Constructors
     public Book() {
     }
@@ -49,6 +58,22 @@ public class Book {
         this.publicationDate = publicationDate;
     }
 
+    /**
+     * A detached copy of {@code other}, id and version included.
+     */
+    public Book(Book other) {
+        this.id = other.id;
+        this.isbn = other.isbn;
+        this.title = other.title;
+        this.author = other.author;
+        this.publicationDate = other.publicationDate;
+        this.status = other.status;
+        this.checkedOutBy = other.checkedOutBy;
+        this.dueDate = other.dueDate;
+        this.retiredOn = other.retiredOn;
+        this.version = other.version;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -114,6 +139,22 @@ public class Book {
         this.dueDate = dueDate;
     }
 
+    public LocalDate getRetiredOn() {
+        return retiredOn;
+    }
+
+    public void setRetiredOn(LocalDate retiredOn) {
+        this.retiredOn = retiredOn;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,76 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.LocalDate;
+
+/**
+ * One physical copy of a {@link Title}, identified by its barcode and circulating on its own.
+ * The (title, status) index lets checkout find an available copy without scanning the rest.
+ */
+@Entity
+@Table(name = "book_copies",
+        indexes = @Index(name = "idx_book_copies_title_status", columnList = "title_id, status"))
+public class BookCopy {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "title_id", nullable = false)
+    private Title title;
+
+    @NotBlank(message = "Barcode is required")
+    @Column(unique = true, nullable = false)
+    private String barcode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookStatus status = BookStatus.AVAILABLE;
+
+    @Column(name = "checked_out_by")
+    private String checkedOutBy;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Version
+    private long version;
+
+    public BookCopy() {
+    }
+
+    public BookCopy(Title title, String barcode) {
+        this.title = title;
+        this.barcode = barcode;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Title getTitle() {
+        return title;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public BookStatus getStatus() {
+        return status;
+    }
+
+    public String getCheckedOutBy() {
+        return checkedOutBy;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
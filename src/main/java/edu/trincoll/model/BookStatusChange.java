@@ -0,0 +1,72 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One book status transition, appended in the same transaction as the change. The id is the
+ * feed offset. Rows are written with plain JDBC by the recorder and only read through JPA.
+ * With book sharding, rows written on another shard are relayed here and keep their shard and
+ * id there in {@code sourceShard}/{@code sourceId}, so a row is never relayed twice.
+ */
+@Entity
+@Table(name = "book_status_changes",
+        indexes = @Index(name = "idx_book_status_changes_changed_at", columnList = "changed_at"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_book_status_changes_source",
+                columnNames = {"source_shard", "source_id"}))
+public class BookStatusChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String isbn;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status")
+    private BookStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false)
+    private BookStatus toStatus;
+
+    @Column(name = "member_email")
+    private String memberEmail;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    @Column(name = "source_shard")
+    private String sourceShard;
+
+    @Column(name = "source_id")
+    private Long sourceId;
+
+    public BookStatusChange() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public BookStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public BookStatus getToStatus() {
+        return toStatus;
+    }
+
+    public String getMemberEmail() {
+        return memberEmail;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package edu.trincoll.model;
+
+/**
+ * Distinct counts kept as daily HyperLogLog sketches.
+ */
+public enum CardinalityMetric {
+    /** Members who checked something out, one sketch per membership tier. */
+    ACTIVE_BORROWERS,
+    /** ISBNs checked out, one sketch for the whole library. */
+    TITLES_CIRCULATED
+}
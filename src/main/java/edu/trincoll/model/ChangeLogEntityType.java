@@ -0,0 +1,9 @@
+package edu.trincoll.model;
+
+/**
+ * Entities whose changes are recorded in the change log, keyed by ISBN and email respectively.
+ */
+public enum ChangeLogEntityType {
+    BOOK,
+    MEMBER
+}
@@ -0,0 +1,68 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One committed change to a book or member, appended in the same transaction as the change.
+ * Rows are written with plain JDBC by the entity listener and only read through JPA. With book
+ * sharding, entries written on another shard are relayed here like {@link BookStatusChange} rows.
+ */
+@Entity
+@Table(name = "change_log", indexes = @Index(name = "idx_change_log_changed_at", columnList = "changed_at"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_change_log_source", columnNames = {"source_shard", "source_id"}))
+public class ChangeLogEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private ChangeLogEntityType entityType;
+
+    @Column(name = "entity_key", nullable = false)
+    private String entityKey;
+
+    @Column(name = "entity_version", nullable = false)
+    private long entityVersion;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+
+    @Column(name = "source_shard")
+    private String sourceShard;
+
+    @Column(name = "source_id")
+    private Long sourceId;
+
+    public ChangeLogEntry() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ChangeLogEntityType getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityKey() {
+        return entityKey;
+    }
+
+    public long getEntityVersion() {
+        return entityVersion;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
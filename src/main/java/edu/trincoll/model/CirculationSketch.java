@@ -0,0 +1,70 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * A serialized HyperLogLog sketch for one metric, day and dimension (membership tier, or
+ * {@code ALL}). Flushes merge into the stored registers, so concurrent writers are caught by
+ * the version check rather than overwriting each other.
+ */
+@Entity
+@Table(name = "circulation_sketches",
+        uniqueConstraints = @UniqueConstraint(name = "uk_circulation_sketches_key",
+                columnNames = {"metric", "sketch_date", "dimension"}))
+public class CirculationSketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private CardinalityMetric metric;
+
+    @Column(name = "sketch_date", nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false, length = 32)
+    private String dimension;
+
+    @Column(nullable = false, length = 16384)
+    private byte[] registers;
+
+    @Version
+    private Long version;
+
+    public CirculationSketch() {
+    }
+
+    public CirculationSketch(CardinalityMetric metric, LocalDate date, String dimension, byte[] registers) {
+        this.metric = metric;
+        this.date = date;
+        this.dimension = dimension;
+        this.registers = registers;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public CardinalityMetric getMetric() {
+        return metric;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    public void setRegisters(byte[] registers) {
+        this.registers = registers;
+    }
+}
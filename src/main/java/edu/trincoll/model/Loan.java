@@ -0,0 +1,71 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * One loan of a book, opened at checkout and closed by the return or write-off, in the same
+ * transaction as the change. Closed loans move to {@link ArchivedLoan} once old enough. Rows
+ * are written with plain JDBC by the loan recorder; the entity defines the table.
+ */
+@Entity
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_member_email", columnList = "member_email"),
+        @Index(name = "idx_loans_isbn_closed_on", columnList = "isbn, closed_on"),
+        @Index(name = "idx_loans_closed_on", columnList = "closed_on")})
+public class Loan {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String isbn;
+
+    @Column(name = "member_email", nullable = false)
+    private String memberEmail;
+
+    @Column(name = "checked_out_on", nullable = false)
+    private LocalDate checkedOutOn;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "closed_on")
+    private LocalDate closedOn;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private LoanOutcome outcome;
+
+    public Loan() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getMemberEmail() {
+        return memberEmail;
+    }
+
+    public LocalDate getCheckedOutOn() {
+        return checkedOutOn;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public LocalDate getClosedOn() {
+        return closedOn;
+    }
+
+    public LoanOutcome getOutcome() {
+        return outcome;
+    }
+}
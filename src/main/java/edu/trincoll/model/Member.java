@@ -1,5 +1,6 @@
 package edu.trincoll.model;
 
+import edu.trincoll.service.coherence.ChangeLogEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -7,6 +8,7 @@ import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(ChangeLogEntityListener.class)
 @Table(name = "members")
 public class Member {
     @Id
@@ -32,6 +34,9 @@ public class Member {
     @Column(name = "books_checked_out")
     private int booksCheckedOut = 0;
 
+    @Version
+    private long version;
+
     // Constructors
     public Member() {
     }
@@ -96,6 +101,14 @@ public class Member {
         this.booksCheckedOut = booksCheckedOut;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,91 @@
+package edu.trincoll.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.LocalDate;
+
+/**
+ * A catalog title that may have many physical {@link BookCopy copies}.
+ * <p>
+ * {@code totalCopies} and {@code availableCopies} are maintained only by guarded bulk updates
+ * in {@link edu.trincoll.repository.TitleRepository}; they are not updatable through the
+ * entity, so saving a stale {@code Title} can never overwrite them.
+ */
+@Entity
+@Table(name = "titles")
+public class Title {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "ISBN is required")
+    @Column(unique = true, nullable = false)
+    private String isbn;
+
+    @NotBlank(message = "Title is required")
+    @Column(nullable = false)
+    private String title;
+
+    @NotBlank(message = "Author is required")
+    @Column(nullable = false)
+    private String author;
+
+    private LocalDate publicationDate;
+
+    @Column(name = "total_copies", nullable = false, updatable = false)
+    private int totalCopies;
+
+    @Column(name = "available_copies", nullable = false, updatable = false)
+    private int availableCopies;
+
+    public Title() {
+    }
+
+    public Title(String isbn, String title, String author, LocalDate publicationDate) {
+        this.isbn = isbn;
+        this.title = title;
+        this.author = author;
+        this.publicationDate = publicationDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public LocalDate getPublicationDate() {
+        return publicationDate;
+    }
+
+    public void setPublicationDate(LocalDate publicationDate) {
+        this.publicationDate = publicationDate;
+    }
+
+    public int getTotalCopies() {
+        return totalCopies;
+    }
+
+    public int getAvailableCopies() {
+        return availableCopies;
+    }
+}
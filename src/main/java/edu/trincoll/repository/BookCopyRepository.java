@@ -0,0 +1,44 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.BookCopy;
+import edu.trincoll.model.BookStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookCopyRepository extends JpaRepository<BookCopy, Long> {
+
+    Optional<BookCopy> findByBarcode(String barcode);
+
+    /**
+     * A few copies of a title in the given status, read off the (title, status) index.
+     */
+    List<BookCopy> findByTitleIdAndStatus(long titleId, BookStatus status, Limit limit);
+
+    /**
+     * Lends the copy if it is still available.
+     *
+     * @return 1 if the copy was claimed, 0 if another transaction got it first
+     */
+    @Modifying
+    @Query("update BookCopy c set c.status = :to, c.checkedOutBy = :memberEmail, c.dueDate = :dueDate, " +
+            "c.version = c.version + 1 where c.id = :id and c.status = :from")
+    int claim(@Param("id") long id, @Param("from") BookStatus from, @Param("to") BookStatus to,
+              @Param("memberEmail") String memberEmail, @Param("dueDate") LocalDate dueDate);
+
+    /**
+     * @return 1 if the copy was moved out of {@code from}, 0 if it was not in that status
+     */
+    @Modifying
+    @Query("update BookCopy c set c.status = :to, c.checkedOutBy = null, c.dueDate = null, " +
+            "c.version = c.version + 1 where c.id = :id and c.status = :from")
+    int release(@Param("id") long id, @Param("from") BookStatus from, @Param("to") BookStatus to);
+}
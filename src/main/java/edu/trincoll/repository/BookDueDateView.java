@@ -0,0 +1,18 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.BookStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the columns needed to rebuild due-date schedules without loading entities.
+ */
+public interface BookDueDateView {
+    String getIsbn();
+
+    BookStatus getStatus();
+
+    String getCheckedOutBy();
+
+    LocalDate getDueDate();
+}
@@ -0,0 +1,12 @@
+package edu.trincoll.repository;
+
+/**
+ * Projection of the columns a report line needs, so streaming reports hold no entities.
+ */
+public interface BookListingView {
+    String getIsbn();
+
+    String getTitle();
+
+    String getAuthor();
+}
@@ -2,12 +2,20 @@ package edu.trincoll.repository;
 
 import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
@@ -25,4 +33,70 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findByCheckedOutBy(String memberEmail);
 
     long countByStatus(BookStatus status);
+
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
+    /**
+     * Up to {@code limit} books in no particular order.
+     */
+    List<Book> findAllBy(Limit limit);
+
+    /**
+     * Retired books due for archiving: in one of {@code statuses} since before {@code cutoff}.
+     */
+    List<Book> findByStatusInAndRetiredOnBefore(Collection<BookStatus> statuses, LocalDate cutoff, Limit limit);
+
+    /**
+     * Retired books with no retirement date, e.g. set DAMAGED outside circulation.
+     */
+    List<Book> findByStatusInAndRetiredOnIsNull(Collection<BookStatus> statuses, Limit limit);
+
+    /**
+     * Streams every book that carries a due date. Must be consumed inside a transaction.
+     */
+    @Query("select b.isbn as isbn, b.status as status, b.checkedOutBy as checkedOutBy, b.dueDate as dueDate " +
+            "from Book b where b.dueDate is not null")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookDueDateView> streamScheduledDueDates();
+
+    /**
+     * Every book's circulation state, streamed for the nightly snapshot in the order it is
+     * encoded: grouped by status, then by due date and ISBN.
+     */
+    @Query("select b.isbn as isbn, b.author as author, b.status as status, b.dueDate as dueDate from Book b " +
+            "order by b.status, b.dueDate nulls first, b.isbn")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookSnapshotView> streamSnapshotRows();
+
+    /**
+     * Books in {@code status} ordered by title, case-insensitively. Must be consumed inside a transaction.
+     */
+    @Query("select b.isbn as isbn, b.title as title, b.author as author from Book b " +
+            "where b.status = :status order by lower(b.title)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookListingView> streamListingByStatus(@Param("status") BookStatus status);
+
+    /**
+     * Every book's title and author, for building the fuzzy search index. Must be consumed inside a transaction.
+     */
+    @Query("select b.isbn as isbn, b.title as title, b.author as author from Book b")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookListingView> streamListing();
+
+    /**
+     * Title matches for ranked search; {@code pattern} is a lower-case LIKE pattern with {@code !} as its
+     * escape character. Must be consumed inside a transaction.
+     */
+    @Query("select b.isbn as isbn, b.title as text, b.status as status from Book b " +
+            "where lower(b.title) like :pattern escape '!'")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<SearchCandidateView> streamTitleMatches(@Param("pattern") String pattern);
+
+    /**
+     * Author matches for ranked search, as {@link #streamTitleMatches}.
+     */
+    @Query("select b.isbn as isbn, b.author as text, b.status as status from Book b " +
+            "where lower(b.author) like :pattern escape '!'")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<SearchCandidateView> streamAuthorMatches(@Param("pattern") String pattern);
 }
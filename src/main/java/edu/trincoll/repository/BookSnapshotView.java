@@ -0,0 +1,18 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.BookStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the columns kept in a daily circulation snapshot.
+ */
+public interface BookSnapshotView {
+    String getIsbn();
+
+    String getAuthor();
+
+    BookStatus getStatus();
+
+    LocalDate getDueDate();
+}
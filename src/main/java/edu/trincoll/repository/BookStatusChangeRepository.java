@@ -0,0 +1,30 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.BookStatusChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface BookStatusChangeRepository extends JpaRepository<BookStatusChange, Long> {
+
+    /**
+     * Keyset page of the feed: the next {@code limit} changes after offset {@code afterId}.
+     */
+    List<BookStatusChange> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
+    @Query("select max(c.id) from BookStatusChange c")
+    Long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("delete from BookStatusChange c where c.changedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,30 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Keyset page of the log: the next {@code limit} entries after {@code afterId}.
+     */
+    List<ChangeLogEntry> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
+    @Query("select max(c.id) from ChangeLogEntry c")
+    Long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("delete from ChangeLogEntry c where c.changedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,19 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.CardinalityMetric;
+import edu.trincoll.model.CirculationSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CirculationSketchRepository extends JpaRepository<CirculationSketch, Long> {
+
+    Optional<CirculationSketch> findByMetricAndDateAndDimension(CardinalityMetric metric, LocalDate date,
+                                                                String dimension);
+
+    List<CirculationSketch> findByMetricAndDateBetween(CardinalityMetric metric, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,34 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.response = :response where r.key = :key and r.response is null")
+    int complete(@Param("key") String key, @Param("response") String response);
+
+    /**
+     * Deletes a claim that was never completed, provided nobody has re-claimed the key since
+     * {@code claimedAt}.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.response is null and r.createdAt = :claimedAt")
+    int releaseAbandoned(@Param("key") String key, @Param("claimedAt") Instant claimedAt);
+}
@@ -0,0 +1,14 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.MembershipType;
+
+/**
+ * One row of the members histogram: how many members of a tier have a given number of books out.
+ */
+public interface MemberLoadView {
+    MembershipType getMembershipType();
+
+    int getBooksCheckedOut();
+
+    long getMembers();
+}
@@ -3,8 +3,11 @@ package edu.trincoll.repository;
 import edu.trincoll.model.Member;
 import edu.trincoll.model.MembershipType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +19,33 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     List<Member> findByMembershipType(MembershipType membershipType);
 
     List<Member> findByBooksCheckedOutGreaterThan(int count);
+
+    long countByMembershipType(MembershipType membershipType);
+
+    @Query("select coalesce(sum(m.booksCheckedOut), 0) from Member m where m.membershipType = :type")
+    long sumBooksCheckedOutByMembershipType(@Param("type") MembershipType membershipType);
+
+    @Query("select min(m.id) from Member m")
+    Long findMinId();
+
+    @Query("select max(m.id) from Member m")
+    Long findMaxId();
+
+    /**
+     * Members per (tier, books checked out) for one id range; a few dozen rows at most.
+     */
+    @Query("select m.membershipType as membershipType, m.booksCheckedOut as booksCheckedOut, count(m) as members " +
+            "from Member m where m.id between :fromId and :toId " +
+            "group by m.membershipType, m.booksCheckedOut")
+    List<MemberLoadView> loadHistogram(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Overdue open loans per tier for one id range. Loans live with the members, so this is a
+     * local join even when the books are sharded.
+     */
+    @Query("select m.membershipType as membershipType, count(l) as count " +
+            "from Loan l, Member m where l.memberEmail = m.email and l.closedOn is null and l.dueDate < :today " +
+            "and m.id between :fromId and :toId group by m.membershipType")
+    List<TierCountView> countOverdueByTier(@Param("today") LocalDate today,
+                                           @Param("fromId") long fromId, @Param("toId") long toId);
 }
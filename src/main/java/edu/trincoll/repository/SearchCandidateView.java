@@ -0,0 +1,14 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.BookStatus;
+
+/**
+ * A search match before ranking: the matched text and what the ranking needs, no entity.
+ */
+public interface SearchCandidateView {
+    String getIsbn();
+
+    String getText();
+
+    BookStatus getStatus();
+}
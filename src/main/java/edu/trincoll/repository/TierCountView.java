@@ -0,0 +1,9 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.MembershipType;
+
+public interface TierCountView {
+    MembershipType getMembershipType();
+
+    long getCount();
+}
@@ -0,0 +1,11 @@
+package edu.trincoll.repository;
+
+public interface TitleAvailabilityView {
+    String getIsbn();
+
+    String getTitle();
+
+    int getTotalCopies();
+
+    int getAvailableCopies();
+}
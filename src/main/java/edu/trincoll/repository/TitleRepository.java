@@ -0,0 +1,46 @@
+package edu.trincoll.repository;
+
+import edu.trincoll.model.Title;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Titles and their copy counters. The counter updates are single guarded statements, so two
+ * concurrent checkouts of the last copy cannot both succeed.
+ */
+@Repository
+public interface TitleRepository extends JpaRepository<Title, Long> {
+
+    Optional<Title> findByIsbn(String isbn);
+
+    @Query("select t.isbn as isbn, t.title as title, t.totalCopies as totalCopies, " +
+            "t.availableCopies as availableCopies from Title t where t.isbn = :isbn")
+    Optional<TitleAvailabilityView> findAvailabilityByIsbn(@Param("isbn") String isbn);
+
+    @Query("select t.isbn as isbn, t.title as title, t.totalCopies as totalCopies, " +
+            "t.availableCopies as availableCopies from Title t order by t.title")
+    List<TitleAvailabilityView> findAllAvailability();
+
+    /**
+     * @return 1 if a copy was taken, 0 if none was available
+     */
+    @Modifying
+    @Query("update Title t set t.availableCopies = t.availableCopies - 1 where t.id = :id and t.availableCopies > 0")
+    int takeAvailableCopy(@Param("id") long id);
+
+    @Modifying
+    @Query("update Title t set t.availableCopies = t.availableCopies + 1 " +
+            "where t.id = :id and t.availableCopies < t.totalCopies")
+    int releaseCopy(@Param("id") long id);
+
+    @Modifying
+    @Query("update Title t set t.totalCopies = t.totalCopies + 1, t.availableCopies = t.availableCopies + 1 " +
+            "where t.id = :id")
+    int addCopy(@Param("id") long id);
+}
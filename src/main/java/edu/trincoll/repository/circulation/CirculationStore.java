@@ -0,0 +1,17 @@
+package edu.trincoll.repository.circulation;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+
+/**
+ * Persists the fields a checkout, return, hold or write-off changes: the book's status,
+ * borrower, due date and retirement date, and the member's checkout count. Both writes are optimistic: they fail with an
+ * {@link org.springframework.orm.ObjectOptimisticLockingFailureException} if the row changed
+ * since the entity was read. Selected with {@code library.circulation.store} ({@code jpa} or {@code jdbc}).
+ */
+public interface CirculationStore {
+
+    void saveCirculationState(Book book);
+
+    void saveCheckoutCount(Member member);
+}
@@ -0,0 +1,66 @@
+package edu.trincoll.repository.circulation;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.ChangeLogEntityType;
+import edu.trincoll.model.Member;
+import edu.trincoll.service.coherence.ChangeLogWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+
+/**
+ * Circulation writes as single versioned UPDATE statements, skipping the persistence context,
+ * merge, dirty checking and bean validation. Only the changed columns are written; the
+ * {@code where id = ? and version = ?} predicate carries the optimistic check and the new
+ * version is set back on the entity. The SQL is fixed, so the driver reuses its parsed
+ * statements. Writes the change log itself, since no JPA listener sees these updates.
+ * Cannot be combined with book sharding, which routes through the JPA repository.
+ */
+@Component
+@ConditionalOnProperty(name = "library.circulation.store", havingValue = "jdbc")
+public class JdbcCirculationStore implements CirculationStore {
+
+    private static final String UPDATE_BOOK =
+            "update books set status = ?, checked_out_by = ?, due_date = ?, retired_on = ?, version = version + 1 " +
+            "where id = ? and version = ?";
+    private static final String UPDATE_MEMBER =
+            "update members set books_checked_out = ?, version = version + 1 where id = ? and version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeLogWriter changeLogWriter;
+
+    public JdbcCirculationStore(JdbcTemplate jdbcTemplate, ChangeLogWriter changeLogWriter,
+                                @Value("${library.sharding.enabled:false}") boolean shardingEnabled) {
+        if (shardingEnabled) {
+            throw new IllegalStateException("library.circulation.store=jdbc cannot be used with library.sharding");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeLogWriter = changeLogWriter;
+    }
+
+    @Override
+    public void saveCirculationState(Book book) {
+        int updated = jdbcTemplate.update(UPDATE_BOOK, book.getStatus().name(), book.getCheckedOutBy(),
+                book.getDueDate() == null ? null : Date.valueOf(book.getDueDate()),
+                book.getRetiredOn() == null ? null : Date.valueOf(book.getRetiredOn()), book.getId(), book.getVersion());
+        if (updated != 1) {
+            throw new ObjectOptimisticLockingFailureException(Book.class, book.getId());
+        }
+        book.setVersion(book.getVersion() + 1);
+        changeLogWriter.append(ChangeLogEntityType.BOOK, book.getIsbn(), book.getVersion());
+    }
+
+    @Override
+    public void saveCheckoutCount(Member member) {
+        int updated = jdbcTemplate.update(UPDATE_MEMBER, member.getBooksCheckedOut(), member.getId(), member.getVersion());
+        if (updated != 1) {
+            throw new ObjectOptimisticLockingFailureException(Member.class, member.getId());
+        }
+        member.setVersion(member.getVersion() + 1);
+        changeLogWriter.append(ChangeLogEntityType.MEMBER, member.getEmail(), member.getVersion());
+    }
+}
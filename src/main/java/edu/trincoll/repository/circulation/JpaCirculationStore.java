@@ -0,0 +1,34 @@
+package edu.trincoll.repository.circulation;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saves the whole entity through Spring Data (merge, dirty check, validation). The default.
+ */
+@Component
+@ConditionalOnProperty(name = "library.circulation.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaCirculationStore implements CirculationStore {
+
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+
+    public JpaCirculationStore(BookRepository bookRepository, MemberRepository memberRepository) {
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+    }
+
+    @Override
+    public void saveCirculationState(Book book) {
+        bookRepository.save(book);
+    }
+
+    @Override
+    public void saveCheckoutCount(Member member) {
+        memberRepository.save(member);
+    }
+}
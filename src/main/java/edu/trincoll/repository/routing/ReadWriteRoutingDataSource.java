@@ -0,0 +1,74 @@
+package edu.trincoll.repository.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica whose lag is within the staleness bound,
+ * round-robin, and everything else to the primary. Falls back to the primary when no replica
+ * qualifies or the client wrote within the staleness bound ({@link ReadYourWrites}).
+ * <p>
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag of a transaction is only
+ * published after the transaction manager has asked for its connection.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<ReplicaNode> replicas;
+    private final long maxStalenessMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaNode> replicas, long maxStalenessMs) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxStalenessMs = maxStalenessMs;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(r -> targets.put(r.name(), r.dataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        initialize();
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    public List<ReplicaNode> replicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWrites.isPinned(maxStalenessMs)) {
+            return PRIMARY;
+        }
+        return selectReplica();
+    }
+
+    private String selectReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaNode replica = replicas.get((start + i) % size);
+            if (replica.healthy() && replica.lagMillis() <= maxStalenessMs) {
+                return replica.name();
+            }
+        }
+        return PRIMARY;
+    }
+}
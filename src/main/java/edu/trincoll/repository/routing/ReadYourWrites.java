@@ -0,0 +1,77 @@
+package edu.trincoll.repository.routing;
+
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Escape hatch from replica reads. A client's reads go to the primary for a short window after
+ * it writes (so a checkout followed by a search sees the checkout), and callers can force the
+ * primary explicitly with {@link #onPrimary(Supplier)}. Without replica routing this is a no-op.
+ * <p>
+ * The window belongs to a session. An HTTP request runs in the session of the client that sent
+ * it, opened by {@link #openSession} from the consistency token the client got back from its last
+ * write, so it holds whichever thread or instance serves the next request. Work outside a request
+ * uses a session per thread.
+ */
+public final class ReadYourWrites {
+    private static final ThreadLocal<Session> SESSION = ThreadLocal.withInitial(() -> new Session(0, token -> { }));
+    private static final ThreadLocal<Integer> FORCED = ThreadLocal.withInitial(() -> 0);
+
+    private ReadYourWrites() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        FORCED.set(FORCED.get() + 1);
+        try {
+            return work.get();
+        } finally {
+            FORCED.set(FORCED.get() - 1);
+        }
+    }
+
+    /**
+     * Runs this thread in a client's session until the returned scope is closed.
+     *
+     * @param lastWriteToken the token the client was handed after its last write, or 0
+     * @param onWrite        receives the client's new token whenever it writes
+     */
+    public static Scope openSession(long lastWriteToken, LongConsumer onWrite) {
+        Session previous = SESSION.get();
+        SESSION.set(new Session(lastWriteToken, onWrite));
+        return () -> SESSION.set(previous);
+    }
+
+    static void recordWrite() {
+        SESSION.get().recordWrite(System.currentTimeMillis());
+    }
+
+    static boolean isPinned(long windowMillis) {
+        if (FORCED.get() > 0) {
+            return true;
+        }
+        return System.currentTimeMillis() - SESSION.get().lastWriteMillis < windowMillis;
+    }
+
+    /**
+     * Restores the thread's previous session when closed.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Session {
+        private volatile long lastWriteMillis;
+        private final LongConsumer onWrite;
+
+        private Session(long lastWriteMillis, LongConsumer onWrite) {
+            this.lastWriteMillis = lastWriteMillis;
+            this.onWrite = onWrite;
+        }
+
+        private void recordWrite(long nowMillis) {
+            lastWriteMillis = nowMillis;
+            onWrite.accept(nowMillis);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package edu.trincoll.repository.routing;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Measures replica health and lag with a heartbeat row: the primary's row is stamped with the
+ * current time on every check, and a replica's lag is how far its copy of the row trails it.
+ */
+public class ReplicaHealthChecker {
+
+    static final String HEARTBEAT_TABLE = "replication_heartbeat";
+
+    private final JdbcTemplate primary;
+    private final List<ReplicaNode> replicas;
+
+    public ReplicaHealthChecker(ReadWriteRoutingDataSource routing) {
+        this.primary = new JdbcTemplate(routing.primary());
+        this.replicas = routing.replicas();
+        this.primary.execute("create table if not exists " + HEARTBEAT_TABLE + " (id int primary key, beat_millis bigint not null)");
+        this.primary.update("merge into " + HEARTBEAT_TABLE + " key (id) values (1, ?)", System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${library.replicas.health-check-interval-ms:500}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        primary.update("update " + HEARTBEAT_TABLE + " set beat_millis = ? where id = 1", now);
+        for (ReplicaNode replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection()) {
+                if (!connection.isValid(1)) {
+                    replica.update(false, Long.MAX_VALUE);
+                    continue;
+                }
+                Long beat = new JdbcTemplate(replica.dataSource()).queryForObject(
+                        "select max(beat_millis) from " + HEARTBEAT_TABLE, Long.class);
+                replica.update(true, beat == null ? Long.MAX_VALUE : Math.max(0, now - beat));
+            } catch (Exception e) {
+                replica.update(false, Long.MAX_VALUE);
+            }
+        }
+    }
+}
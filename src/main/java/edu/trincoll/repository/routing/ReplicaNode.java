@@ -0,0 +1,39 @@
+package edu.trincoll.repository.routing;
+
+import javax.sql.DataSource;
+
+/**
+ * A replica and its last observed health and replication lag.
+ */
+public final class ReplicaNode {
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy;
+    private volatile long lagMillis = Long.MAX_VALUE;
+
+    ReplicaNode(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public boolean healthy() {
+        return healthy;
+    }
+
+    public long lagMillis() {
+        return lagMillis;
+    }
+
+    void update(boolean healthy, long lagMillis) {
+        this.healthy = healthy;
+        this.lagMillis = lagMillis;
+    }
+}
@@ -0,0 +1,18 @@
+package edu.trincoll.repository.routing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * {@code library.replicas.*}: read replicas of the primary ({@code spring.datasource.*}).
+ */
+@ConfigurationProperties("library.replicas")
+public record ReplicaProperties(boolean enabled,
+                                List<String> urls,
+                                @DefaultValue("sa") String username,
+                                @DefaultValue("") String password,
+                                @DefaultValue("2000") long maxStalenessMs,
+                                @DefaultValue("500") long healthCheckIntervalMs) {
+}
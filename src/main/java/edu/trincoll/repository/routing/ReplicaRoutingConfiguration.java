@@ -0,0 +1,59 @@
+package edu.trincoll.repository.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to {@code library.replicas.urls}; the primary stays the
+ * {@code spring.datasource.*} database. Off by default, and not combinable with book sharding.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 ReplicaProperties properties,
+                                                                 @Value("${library.sharding.enabled:false}") boolean shardingEnabled) {
+        if (shardingEnabled) {
+            throw new IllegalStateException("library.replicas and library.sharding cannot be enabled together");
+        }
+        if (properties.urls() == null || properties.urls().isEmpty()) {
+            throw new IllegalStateException("library.replicas.urls must list at least one JDBC URL");
+        }
+        List<ReplicaNode> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.urls().size(); i++) {
+            DataSource dataSource = DataSourceBuilder.create()
+                    .url(properties.urls().get(i))
+                    .username(properties.username())
+                    .password(properties.password())
+                    .build();
+            replicas.add(new ReplicaNode("replica-" + i, dataSource));
+        }
+        DataSource primary = dataSourceProperties.initializeDataSourceBuilder().build();
+        return new ReadWriteRoutingDataSource(primary, replicas, properties.maxStalenessMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new ReplicaHealthChecker(readWriteRoutingDataSource);
+    }
+}
@@ -0,0 +1,51 @@
+package edu.trincoll.repository.shard;
+
+import edu.trincoll.util.Hashing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring with virtual nodes. Adding a shard only moves the keys
+ * that the new shard takes over; nothing moves between existing shards.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> shards;
+    private final int virtualNodes;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        this.virtualNodes = virtualNodes;
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(Hashing.hash64(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    public String shardFor(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(Hashing.hash64(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public ConsistentHashRing withShard(String shard) {
+        if (shards.contains(shard)) {
+            throw new IllegalArgumentException("Shard already present: " + shard);
+        }
+        List<String> next = new ArrayList<>(shards);
+        next.add(shard);
+        return new ConsistentHashRing(next, virtualNodes);
+    }
+}
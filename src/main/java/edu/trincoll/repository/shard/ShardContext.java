@@ -0,0 +1,92 @@
+package edu.trincoll.repository.shard;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound shard selection read by {@link ShardRoutingDataSource} when a connection is opened.
+ * <p>
+ * A transaction keeps the connection it opened first, so it is tied to that connection's shard.
+ * Asking for another shard inside the same transaction fails instead of silently running on the
+ * first one; select the shard before the transaction begins.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return the shard selected for this thread, or null for the home shard
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @throws IllegalStateException if a transaction is active on this thread and already uses another shard
+     */
+    public static <T> T callOn(String shard, Supplier<T> work) {
+        bindTransaction(shard);
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Ties the transaction active on this thread, if any, to {@code shard}.
+     *
+     * @throws IllegalStateException if the transaction is already tied to another shard
+     */
+    static void bindTransaction(String shard) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        TransactionShard bound = (TransactionShard) TransactionSynchronizationManager.getResource(TransactionShard.class);
+        if (bound == null) {
+            TransactionShard binding = new TransactionShard(shard);
+            TransactionSynchronizationManager.bindResource(TransactionShard.class, binding);
+            TransactionSynchronizationManager.registerSynchronization(binding);
+        } else if (!bound.shard.equals(shard)) {
+            throw new IllegalStateException("The current transaction runs on " + bound.shard
+                    + " and cannot switch to " + shard + "; select the shard before the transaction begins");
+        }
+    }
+
+    /**
+     * The shard of one transaction, unbound while the transaction is suspended and when it completes.
+     */
+    private static final class TransactionShard implements TransactionSynchronization {
+        private final String shard;
+
+        private TransactionShard(String shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TransactionShard.class);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TransactionShard.class, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TransactionShard.class);
+        }
+    }
+}
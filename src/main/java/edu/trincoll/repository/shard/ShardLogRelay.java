@@ -0,0 +1,121 @@
+package edu.trincoll.repository.shard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves {@code book_status_changes} and {@code change_log} rows from the other shards onto the
+ * home shard, where the catalog feed, the change-log tailer and the fuzzy index read them.
+ * <p>
+ * A circulation change to a book commits on the book's shard together with its feed and
+ * change-log rows, so those rows cannot be written to the home shard directly. Each pass reads
+ * the committed rows of every other shard, appends them to the home table in the order they
+ * were written (they get home ids, so feed offsets stay one global sequence) and then deletes
+ * them from their shard. The home row keeps the source shard and id under a unique key: a pass
+ * that dies between the append and the delete, or runs on two instances at once, relays a row
+ * at most once.
+ */
+@Component
+@ConditionalOnProperty(name = "library.sharding.enabled", havingValue = "true")
+public class ShardLogRelay {
+
+    private static final List<RelayedTable> TABLES = List.of(
+            new RelayedTable("book_status_changes", List.of("isbn", "from_status", "to_status", "member_email", "changed_at")),
+            new RelayedTable("change_log", List.of("entity_type", "entity_key", "entity_version", "changed_at", "node_id")));
+
+    private final ShardRoutingDataSource routingDataSource;
+    private final ShardRouter router;
+    private final int batchSize;
+
+    public ShardLogRelay(ShardRoutingDataSource routingDataSource, ShardRouter router, ShardingProperties properties) {
+        this.routingDataSource = routingDataSource;
+        this.router = router;
+        this.batchSize = properties.relayBatchSize();
+    }
+
+    /**
+     * @return the number of rows appended to the home shard
+     */
+    @Scheduled(fixedDelayString = "${library.sharding.relay-interval-ms:200}")
+    public synchronized long relay() {
+        long relayed = 0;
+        for (RelayedTable table : TABLES) {
+            relayed += relay(table);
+        }
+        return relayed;
+    }
+
+    private long relay(RelayedTable table) {
+        String home = router.homeShard();
+        List<PendingRow> pending = new ArrayList<>();
+        for (String shard : router.shards()) {
+            if (!shard.equals(home)) {
+                pending.addAll(new JdbcTemplate(routingDataSource.shard(shard)).query(table.selectBatch(),
+                        (rs, i) -> PendingRow.read(shard, rs, table.columns().size()), batchSize));
+            }
+        }
+        pending.sort(Comparator.comparing(PendingRow::changedAt).thenComparing(PendingRow::sourceId));
+
+        JdbcTemplate target = new JdbcTemplate(routingDataSource.shard(home));
+        Map<String, List<Object[]>> relayedByShard = new LinkedHashMap<>();
+        long appended = 0;
+        for (PendingRow row : pending) {
+            try {
+                appended += target.update(table.append(), row.appendArgs());
+            } catch (DuplicateKeyException e) {
+                // relayed by an earlier pass or another instance; only the delete is left
+            }
+            relayedByShard.computeIfAbsent(row.sourceShard(), s -> new ArrayList<>()).add(new Object[]{row.sourceId()});
+        }
+        relayedByShard.forEach((shard, ids) ->
+                new JdbcTemplate(routingDataSource.shard(shard)).batchUpdate(table.delete(), ids));
+        return appended;
+    }
+
+    private record RelayedTable(String name, List<String> columns) {
+
+        String selectBatch() {
+            return "select id, " + String.join(", ", columns) + " from " + name + " order by id limit ?";
+        }
+
+        String append() {
+            return "insert into " + name + " (" + String.join(", ", columns) + ", source_shard, source_id) values ("
+                    + "?, ".repeat(columns.size() + 1) + "?)";
+        }
+
+        String delete() {
+            return "delete from " + name + " where id = ?";
+        }
+    }
+
+    private record PendingRow(String sourceShard, long sourceId, Object[] values, Timestamp changedAt) {
+
+        static PendingRow read(String shard, ResultSet rs, int columns) throws SQLException {
+            Object[] values = new Object[columns];
+            for (int i = 0; i < columns; i++) {
+                values[i] = rs.getObject(i + 2);
+            }
+            return new PendingRow(shard, rs.getLong("id"), values, rs.getTimestamp("changed_at"));
+        }
+
+        Object[] appendArgs() {
+            Object[] args = new Object[values.length + 2];
+            System.arraycopy(values, 0, args, 0, values.length);
+            args[values.length] = sourceShard;
+            args[values.length + 1] = sourceId;
+            return args;
+        }
+    }
+}
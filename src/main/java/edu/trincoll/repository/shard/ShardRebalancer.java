@@ -0,0 +1,135 @@
+package edu.trincoll.repository.shard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Adds a shard while the application keeps serving traffic.
+ * <p>
+ * The new ring is published first, so reads try the new owner and fall back to the old one.
+ * Each old shard is then walked in id order in batches, and only the books the new shard now
+ * owns are copied over. A book is deleted from its old shard only if it is unchanged since it
+ * was copied; otherwise it is copied again. The migration stays open (dual reads) until every
+ * shard has been drained, and can be resumed with {@link #resume()} after a failure.
+ */
+@Component
+@ConditionalOnProperty(name = "library.sharding.enabled", havingValue = "true")
+public class ShardRebalancer {
+
+    private static final String COLUMNS =
+            "select id, isbn, title, author, publication_date, status, checked_out_by, due_date, version from books ";
+    private static final String SELECT_BATCH = COLUMNS + "where id > ? order by id limit ?";
+    private static final String SELECT_ONE = COLUMNS + "where id = ?";
+    private static final String UPSERT =
+            "merge into books (isbn, title, author, publication_date, status, checked_out_by, due_date, version) " +
+            "key (isbn) values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_IF_UNCHANGED = "delete from books where id = ? and version = ?";
+
+    private static final RowMapper<BookRow> BOOK_ROW = (rs, i) -> new BookRow(
+            rs.getLong("id"), rs.getString("isbn"), rs.getString("title"), rs.getString("author"),
+            toLocalDate(rs.getDate("publication_date")), rs.getString("status"),
+            rs.getString("checked_out_by"), toLocalDate(rs.getDate("due_date")), rs.getLong("version"));
+
+    private final ShardingProperties properties;
+    private final ShardRoutingDataSource routingDataSource;
+    private final ShardRouter router;
+    private final ShardSchemaInitializer schemaInitializer;
+
+    public ShardRebalancer(ShardingProperties properties, ShardRoutingDataSource routingDataSource,
+                           ShardRouter router, ShardSchemaInitializer schemaInitializer) {
+        this.properties = properties;
+        this.routingDataSource = routingDataSource;
+        this.router = router;
+        this.schemaInitializer = schemaInitializer;
+    }
+
+    /**
+     * @return the number of books moved onto the new shard
+     */
+    public synchronized long addShard(String url) {
+        if (router.isMigrating()) {
+            throw new IllegalStateException("A shard migration is already running; resume it first");
+        }
+        String shard = ShardingProperties.shardId(router.shards().size());
+        routingDataSource.addShard(shard, ShardingConfiguration.createShardDataSource(properties, url));
+        schemaInitializer.ensureSchema(shard);
+        router.beginMigration(router.ring().withShard(shard));
+        return drainInto(shard);
+    }
+
+    public synchronized long resume() {
+        if (!router.isMigrating()) {
+            return 0;
+        }
+        List<String> shards = router.shards();
+        return drainInto(shards.get(shards.size() - 1));
+    }
+
+    private long drainInto(String newShard) {
+        ConsistentHashRing ring = router.ring();
+        JdbcTemplate target = new JdbcTemplate(routingDataSource.shard(newShard));
+        long moved = 0;
+        for (String source : ring.shards()) {
+            if (!source.equals(newShard)) {
+                moved += drain(new JdbcTemplate(routingDataSource.shard(source)), target, ring, newShard);
+            }
+        }
+        router.completeMigration();
+        return moved;
+    }
+
+    private long drain(JdbcTemplate source, JdbcTemplate target, ConsistentHashRing ring, String newShard) {
+        long moved = 0;
+        long lastId = 0;
+        while (true) {
+            List<BookRow> batch = source.query(SELECT_BATCH, BOOK_ROW, lastId, properties.rebalanceBatchSize());
+            if (batch.isEmpty()) {
+                return moved;
+            }
+            lastId = batch.get(batch.size() - 1).id();
+            for (BookRow row : batch) {
+                if (newShard.equals(ring.shardFor(row.isbn()))) {
+                    move(source, target, row);
+                    moved++;
+                }
+            }
+        }
+    }
+
+    private void move(JdbcTemplate source, JdbcTemplate target, BookRow row) {
+        BookRow current = row;
+        while (true) {
+            target.update(UPSERT, current.isbn(), current.title(), current.author(),
+                    toDate(current.publicationDate()), current.status(), current.checkedOutBy(), toDate(current.dueDate()),
+                    current.version());
+            int deleted = source.update(DELETE_IF_UNCHANGED, current.id(), current.version());
+            if (deleted == 1) {
+                return;
+            }
+            List<BookRow> reread = source.query(SELECT_ONE, BOOK_ROW, current.id());
+            if (reread.isEmpty()) {
+                return; // deleted (or already moved) concurrently
+            }
+            current = reread.get(0);
+        }
+    }
+
+    private static Date toDate(LocalDate date) {
+        return date == null ? null : Date.valueOf(date);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+
+    private record BookRow(long id, String isbn, String title, String author, LocalDate publicationDate,
+                           String status, String checkedOutBy, LocalDate dueDate, long version) {
+    }
+}
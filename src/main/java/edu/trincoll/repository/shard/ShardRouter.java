@@ -0,0 +1,62 @@
+package edu.trincoll.repository.shard;
+
+import java.util.List;
+
+/**
+ * Maps ISBNs to shards. While a shard is being added, keys may still sit on their previous
+ * owner, so lookups try the new owner first and fall back to the old one.
+ */
+public class ShardRouter {
+
+    private volatile ConsistentHashRing ring;
+    private volatile ConsistentHashRing previous;
+
+    public ShardRouter(ConsistentHashRing ring) {
+        this.ring = ring;
+    }
+
+    public String homeShard() {
+        return ring.shards().get(0);
+    }
+
+    public List<String> shards() {
+        return ring.shards();
+    }
+
+    public String shardFor(String isbn) {
+        return ring.shardFor(isbn);
+    }
+
+    /**
+     * Shards that may hold {@code isbn}, most likely first.
+     */
+    public List<String> candidatesFor(String isbn) {
+        String owner = ring.shardFor(isbn);
+        ConsistentHashRing old = previous;
+        if (old == null) {
+            return List.of(owner);
+        }
+        String oldOwner = old.shardFor(isbn);
+        return owner.equals(oldOwner) ? List.of(owner) : List.of(owner, oldOwner);
+    }
+
+    public boolean isMigrating() {
+        return previous != null;
+    }
+
+    ConsistentHashRing ring() {
+        return ring;
+    }
+
+    synchronized void beginMigration(ConsistentHashRing next) {
+        if (previous != null) {
+            throw new IllegalStateException("A shard migration is already running");
+        }
+        previous = ring;
+        ring = next;
+    }
+
+    synchronized void completeMigration() {
+        previous = null;
+    }
+}
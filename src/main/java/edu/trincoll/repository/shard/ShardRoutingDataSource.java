@@ -0,0 +1,48 @@
+package edu.trincoll.repository.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Routes each new connection to the shard named in {@link ShardContext}; with no shard
+ * selected it uses the home shard, which also holds the unsharded tables. A connection opened
+ * for a transaction ties that transaction to its shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Map<String, DataSource> shards = new LinkedHashMap<>();
+    private final String homeShard;
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards, String homeShard) {
+        this.shards.putAll(shards);
+        this.homeShard = homeShard;
+        setTargetDataSources(new LinkedHashMap<>(this.shards));
+        setDefaultTargetDataSource(shards.get(homeShard));
+        setLenientFallback(false);
+        initialize();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = ShardContext.current() == null ? homeShard : ShardContext.current();
+        ShardContext.bindTransaction(shard);
+        return shard;
+    }
+
+    public synchronized DataSource shard(String shard) {
+        DataSource dataSource = shards.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return dataSource;
+    }
+
+    public synchronized void addShard(String shard, DataSource dataSource) {
+        shards.put(shard, dataSource);
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        initialize();
+    }
+}
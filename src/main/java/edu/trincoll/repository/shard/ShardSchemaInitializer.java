@@ -0,0 +1,45 @@
+package edu.trincoll.repository.shard;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.relational.SchemaManager;
+import org.hibernate.tool.schema.spi.SchemaManagementException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate generates the schema only through the home shard's connection. This creates the
+ * mapped tables on every other shard that does not already have a valid schema.
+ */
+@Component
+@ConditionalOnProperty(name = "library.sharding.enabled", havingValue = "true")
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRouter router;
+
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory, ShardRouter router) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.router = router;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        router.shards().stream()
+                .filter(shard -> !shard.equals(router.homeShard()))
+                .forEach(this::ensureSchema);
+    }
+
+    public void ensureSchema(String shard) {
+        SchemaManager schema = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+        ShardContext.callOn(shard, () -> {
+            try {
+                schema.validateMappedObjects();
+            } catch (SchemaManagementException e) {
+                schema.exportMappedObjects(true);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,179 @@
+package edu.trincoll.repository.shard;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * One stream over the same streaming query run on every shard.
+ * <p>
+ * Each shard's query runs on its own virtual thread, in its own read-only transaction opened
+ * after the shard is selected, and hands rows over through a small bounded queue; only a few
+ * rows per shard are in memory at a time. Unordered results are read one shard after another.
+ * Ordered results are merged by the query's sort key, so the stream keeps its ORDER BY. Closing
+ * the stream stops the shard queries.
+ */
+final class ShardStreams {
+
+    private static final int BUFFER = 256;
+    private static final long POLL_MILLIS = 100;
+
+    private ShardStreams() {
+    }
+
+    /**
+     * @param queries one query per shard, each returning a stream that must be consumed in a transaction
+     * @param order   the order every shard returns its rows in, or null if unordered
+     */
+    static Stream<Object> merge(Map<String, Supplier<Stream<?>>> queries, TransactionTemplate readOnly,
+                                Comparator<Object> order) {
+        List<Feed> feeds = new ArrayList<>();
+        queries.forEach((shard, query) -> {
+            Feed feed = new Feed();
+            feeds.add(feed);
+            Thread.ofVirtual().name("shard-stream-" + shard).start(() -> feed.produce(shard, query, readOnly));
+        });
+        Spliterator<Object> rows = order == null ? new Concatenated(feeds) : new Merged(feeds, order);
+        return StreamSupport.stream(rows, false).onClose(() -> feeds.forEach(Feed::cancel));
+    }
+
+    private static final class Concatenated extends Spliterators.AbstractSpliterator<Object> {
+        private final List<Feed> feeds;
+        private int current;
+
+        private Concatenated(List<Feed> feeds) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+            this.feeds = feeds;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Object> action) {
+            while (current < feeds.size()) {
+                Object row = feeds.get(current).take();
+                if (row != Feed.END) {
+                    action.accept(row);
+                    return true;
+                }
+                current++;
+            }
+            return false;
+        }
+    }
+
+    private static final class Merged extends Spliterators.AbstractSpliterator<Object> {
+        private final List<Feed> feeds;
+        private final PriorityQueue<Head> heads;
+        private boolean started;
+
+        private Merged(List<Feed> feeds, Comparator<Object> order) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.ORDERED);
+            this.feeds = feeds;
+            this.heads = new PriorityQueue<>(Math.max(1, feeds.size()), Comparator.comparing(Head::row, order));
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Object> action) {
+            if (!started) {
+                started = true;
+                feeds.forEach(this::refill);
+            }
+            Head head = heads.poll();
+            if (head == null) {
+                return false;
+            }
+            refill(head.feed());
+            action.accept(head.row());
+            return true;
+        }
+
+        private void refill(Feed feed) {
+            Object row = feed.take();
+            if (row != Feed.END) {
+                heads.add(new Head(row, feed));
+            }
+        }
+
+        private record Head(Object row, Feed feed) {
+        }
+    }
+
+    /**
+     * Rows of one shard, followed by {@link #END} or the failure that stopped the query.
+     */
+    private static final class Feed {
+        private static final Object END = new Object();
+
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(BUFFER);
+        private volatile boolean cancelled;
+        private volatile RuntimeException failure;
+
+        void produce(String shard, Supplier<Stream<?>> query, TransactionTemplate readOnly) {
+            try {
+                ShardContext.callOn(shard, () -> readOnly.execute(status -> {
+                    try (Stream<?> rows = query.get()) {
+                        rows.forEach(this::put);
+                    }
+                    return null;
+                }));
+            } catch (CancellationException e) {
+                return;
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            try {
+                put(END);
+            } catch (CancellationException e) {
+                // nobody is reading any more
+            }
+        }
+
+        Object take() {
+            try {
+                Object row = queue.take();
+                if (row == END && failure != null) {
+                    throw failure;
+                }
+                return row;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new IllegalStateException("Interrupted while reading a shard stream", e);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            queue.clear();
+        }
+
+        private void put(Object row) {
+            try {
+                while (!queue.offer(row, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        throw new CancellationException();
+                    }
+                }
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+        }
+    }
+}
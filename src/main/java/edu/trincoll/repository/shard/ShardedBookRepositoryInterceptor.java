@@ -0,0 +1,295 @@
+package edu.trincoll.repository.shard;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.repository.BookListingView;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.BookSnapshotView;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sits in front of the BookRepository when sharding is enabled. Every method is either routed or
+ * fanned out explicitly; anything else is rejected.
+ * <ul>
+ *   <li>ISBN-keyed calls ({@code findByIsbn}, {@code findByIsbnIn}, {@code save}, {@code delete}
+ *       and their batch forms) go to the owning shard, on the caller's thread and transaction.</li>
+ *   <li>The queries in {@link #FAN_OUT} run on every shard in parallel, each in its own
+ *       transaction, and are merged: lists concatenated (and cut to their {@link Limit}), counts
+ *       summed, streams read lazily shard by shard or merged by their ORDER BY.</li>
+ *   <li>Id-keyed calls ({@code findById}, {@code deleteById}, ...) are rejected: ids are only
+ *       unique within a shard. So are paged, sorted and example queries, which cannot be merged.</li>
+ * </ul>
+ * A caller that has selected a shard with {@link ShardContext} gets that shard only. Merged lists
+ * are not re-sorted; callers that need an order sort in memory, as the report generators do.
+ */
+public class ShardedBookRepositoryInterceptor implements MethodInterceptor {
+
+    private enum Merge { LIST, LIMITED_LIST, SUM, WRITE, STREAM }
+
+    private static final Map<String, Merge> FAN_OUT = Map.ofEntries(
+            Map.entry("findAll()", Merge.LIST),
+            Map.entry("findByStatus(BookStatus)", Merge.LIST),
+            Map.entry("findByAuthor(String)", Merge.LIST),
+            Map.entry("findByTitleContainingIgnoreCase(String)", Merge.LIST),
+            Map.entry("findByDueDateBefore(LocalDate)", Merge.LIST),
+            Map.entry("findByCheckedOutBy(String)", Merge.LIST),
+            Map.entry("findAllBy(Limit)", Merge.LIMITED_LIST),
+            Map.entry("findByStatusInAndRetiredOnBefore(Collection,LocalDate,Limit)", Merge.LIMITED_LIST),
+            Map.entry("findByStatusInAndRetiredOnIsNull(Collection,Limit)", Merge.LIMITED_LIST),
+            Map.entry("count()", Merge.SUM),
+            Map.entry("countByStatus(BookStatus)", Merge.SUM),
+            Map.entry("deleteAll()", Merge.WRITE),
+            Map.entry("deleteAllInBatch()", Merge.WRITE),
+            Map.entry("streamScheduledDueDates()", Merge.STREAM),
+            Map.entry("streamSnapshotRows()", Merge.STREAM),
+            Map.entry("streamListing()", Merge.STREAM),
+            Map.entry("streamTitleMatches(String)", Merge.STREAM),
+            Map.entry("streamAuthorMatches(String)", Merge.STREAM),
+            Map.entry("streamListingByStatus(BookStatus)", Merge.STREAM));
+
+    /**
+     * The ORDER BY of each ordered stream, as a comparator over its rows.
+     */
+    private static final Map<String, Comparator<Object>> STREAM_ORDER = Map.of(
+            "streamListingByStatus(BookStatus)",
+            Comparator.comparing(row -> ((BookListingView) row).getTitle().toLowerCase(Locale.ROOT)),
+            "streamSnapshotRows()",
+            Comparator.comparing((Object row) -> ((BookSnapshotView) row).getStatus().name())
+                    .thenComparing(row -> ((BookSnapshotView) row).getDueDate(), Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(row -> ((BookSnapshotView) row).getIsbn()));
+
+    private static final Method FIND_BY_ISBN = repositoryMethod("findByIsbn", String.class);
+    private static final Method SAVE = repositoryMethod("save", Object.class);
+    private static final Method SAVE_AND_FLUSH = repositoryMethod("saveAndFlush", Object.class);
+    private static final Method DELETE = repositoryMethod("delete", Object.class);
+
+    private final ShardRouter router;
+    private final TransactionTemplate readOnly;
+
+    public ShardedBookRepositoryInterceptor(ShardRouter router, TransactionTemplate readOnly) {
+        this.router = router;
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class || ShardContext.current() != null) {
+            return invocation.proceed();
+        }
+        Object target = invocation.getThis();
+        Object[] args = invocation.getArguments();
+        String signature = signature(method);
+
+        return switch (signature) {
+            case "findByIsbn(String)" -> findByIsbn(target, method, (String) args[0]);
+            case "findByIsbnIn(Collection)" -> findByIsbnIn(target, method, (Collection<?>) args[0]);
+            case "save(Object)", "saveAndFlush(Object)", "delete(Object)" ->
+                    onOwningShard(target, method, (Book) args[0]);
+            case "saveAll(Iterable)" -> eachOnOwningShard(target, SAVE, (Iterable<?>) args[0]);
+            case "saveAllAndFlush(Iterable)" -> eachOnOwningShard(target, SAVE_AND_FLUSH, (Iterable<?>) args[0]);
+            case "deleteAll(Iterable)", "deleteAllInBatch(Iterable)" -> {
+                eachOnOwningShard(target, DELETE, (Iterable<?>) args[0]);
+                yield null;
+            }
+            case "flush()" -> invocation.proceed();
+            default -> fanOut(target, method, args, signature);
+        };
+    }
+
+    private Object findByIsbn(Object target, Method method, String isbn) throws Throwable {
+        for (String shard : router.candidatesFor(isbn)) {
+            Optional<?> found = (Optional<?>) onShard(shard, target, method, new Object[]{isbn});
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Queries each shard for the ISBNs it may hold. During a migration a book can briefly be on
+     * both owners; the new owner's row wins.
+     */
+    private Object findByIsbnIn(Object target, Method method, Collection<?> isbns) throws Throwable {
+        Map<String, Object[]> argsByShard = new LinkedHashMap<>();
+        Map<String, List<String>> isbnsByShard = new LinkedHashMap<>();
+        for (Object isbn : isbns) {
+            for (String shard : router.candidatesFor((String) isbn)) {
+                isbnsByShard.computeIfAbsent(shard, s -> new ArrayList<>()).add((String) isbn);
+            }
+        }
+        isbnsByShard.forEach((shard, keys) -> argsByShard.put(shard, new Object[]{keys}));
+
+        Map<String, Book> found = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> partial : scatter(target, method, argsByShard).entrySet()) {
+            for (Object row : (List<?>) partial.getValue()) {
+                Book book = (Book) row;
+                if (!found.containsKey(book.getIsbn()) || partial.getKey().equals(router.shardFor(book.getIsbn()))) {
+                    found.put(book.getIsbn(), book);
+                }
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    private Object onOwningShard(Object target, Method method, Book book) throws Throwable {
+        return onShard(locate(target, book), target, method, new Object[]{book});
+    }
+
+    private List<Object> eachOnOwningShard(Object target, Method method, Iterable<?> books) throws Throwable {
+        List<Object> results = new ArrayList<>();
+        for (Object book : books) {
+            results.add(onOwningShard(target, method, (Book) book));
+        }
+        return results;
+    }
+
+    /**
+     * Picks the shard for a write. While a migration is running the book may still be on its
+     * previous owner; if the rebalancer has already copied it, the write goes to the copy and
+     * the entity's shard-local id is switched to the copy's id.
+     */
+    private String locate(Object target, Book book) throws Throwable {
+        List<String> candidates = router.candidatesFor(book.getIsbn());
+        if (candidates.size() == 1 || book.getId() == null) {
+            return candidates.get(0);
+        }
+        Optional<?> copied = (Optional<?>) onShard(candidates.get(0), target, FIND_BY_ISBN, new Object[]{book.getIsbn()});
+        if (copied.isEmpty()) {
+            return candidates.get(1);
+        }
+        book.setId(((Book) copied.get()).getId());
+        return candidates.get(0);
+    }
+
+    private Object fanOut(Object target, Method method, Object[] args, String signature) throws Throwable {
+        Merge merge = FAN_OUT.get(signature);
+        if (merge == null) {
+            throw new IllegalStateException("BookRepository." + signature + " is not supported with sharding: "
+                    + "look books up by ISBN or use a query that runs on every shard");
+        }
+        if (merge == Merge.WRITE && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("BookRepository." + signature
+                    + " writes to every shard and cannot join the current transaction");
+        }
+        if (merge == Merge.STREAM) {
+            Map<String, Supplier<Stream<?>>> queries = new LinkedHashMap<>();
+            for (String shard : router.shards()) {
+                queries.put(shard, () -> (Stream<?>) invoke(target, method, args));
+            }
+            return ShardStreams.merge(queries, readOnly, STREAM_ORDER.get(signature));
+        }
+
+        Map<String, Object[]> argsByShard = new LinkedHashMap<>();
+        router.shards().forEach(shard -> argsByShard.put(shard, args));
+        Collection<Object> partials = scatter(target, method, argsByShard).values();
+        return switch (merge) {
+            case LIST -> concat(partials);
+            case LIMITED_LIST -> limit(concat(partials), Arrays.stream(args)
+                    .filter(Limit.class::isInstance).map(Limit.class::cast).findFirst().orElse(Limit.unlimited()));
+            case SUM -> partials.stream().mapToLong(p -> p == null ? 0 : ((Number) p).longValue()).sum();
+            case WRITE -> null;
+            case STREAM -> throw new IllegalStateException("unreachable");
+        };
+    }
+
+    /**
+     * Runs {@code method} once per shard in parallel, outside any transaction of the caller.
+     */
+    private Map<String, Object> scatter(Object target, Method method, Map<String, Object[]> argsByShard)
+            throws Throwable {
+        Map<String, Future<Object>> futures = new LinkedHashMap<>();
+        Map<String, Object> partials = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            argsByShard.forEach((shard, args) ->
+                    futures.put(shard, executor.submit(() -> invokeOn(shard, target, method, args))));
+            for (Map.Entry<String, Future<Object>> future : futures.entrySet()) {
+                partials.put(future.getKey(), future.getValue().get());
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+        return partials;
+    }
+
+    private static List<Object> concat(Collection<Object> partials) {
+        List<Object> merged = new ArrayList<>();
+        partials.forEach(p -> ((Iterable<?>) p).forEach(merged::add));
+        return merged;
+    }
+
+    private static List<Object> limit(List<Object> rows, Limit limit) {
+        return limit.isLimited() && rows.size() > limit.max() ? new ArrayList<>(rows.subList(0, limit.max())) : rows;
+    }
+
+    private Object onShard(String shard, Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return invokeOn(shard, target, method, args);
+        } catch (RuntimeException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Object invokeOn(String shard, Object target, Method method, Object[] args) {
+        return ShardContext.callOn(shard, () -> invoke(target, method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ShardInvocationException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String signature(Method method) {
+        return Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName)
+                .collect(Collectors.joining(",", method.getName() + "(", ")"));
+    }
+
+    private static Method repositoryMethod(String name, Class<?>... parameterTypes) {
+        try {
+            return BookRepository.class.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof ShardInvocationException wrapped ? wrapped.getCause() : t;
+    }
+
+    private static final class ShardInvocationException extends RuntimeException {
+        private ShardInvocationException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
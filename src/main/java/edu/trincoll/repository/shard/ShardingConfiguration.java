@@ -0,0 +1,88 @@
+package edu.trincoll.repository.shard;
+
+import edu.trincoll.repository.BookRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash-shards the books table by ISBN across {@code library.sharding.urls}. Off by default.
+ * <p>
+ * The application DataSource becomes a {@link ShardRoutingDataSource} behind a lazy proxy,
+ * so a transaction's connection is chosen by the first statement it runs rather than when it
+ * begins, and the BookRepository bean is wrapped by {@link ShardedBookRepositoryInterceptor}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties) {
+        if (properties.urls() == null || properties.urls().isEmpty()) {
+            throw new IllegalStateException("library.sharding.urls must list at least one JDBC URL");
+        }
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (int i = 0; i < properties.urls().size(); i++) {
+            shards.put(ShardingProperties.shardId(i), createShardDataSource(properties, properties.urls().get(i)));
+        }
+        return new ShardRoutingDataSource(shards, ShardingProperties.shardId(0));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < properties.urls().size(); i++) {
+            ids.add(ShardingProperties.shardId(i));
+        }
+        return new ShardRouter(new ConsistentHashRing(ids, properties.virtualNodes()));
+    }
+
+    @Bean
+    public static BeanPostProcessor shardedBookRepositoryPostProcessor(ObjectProvider<ShardRouter> router,
+                                                                      ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof BookRepository)) {
+                    return bean;
+                }
+                TransactionTemplate readOnly = new TransactionTemplate(transactionManager.getObject());
+                readOnly.setReadOnly(true);
+                ProxyFactory proxy = new ProxyFactory(bean);
+                proxy.addInterface(BookRepository.class);
+                proxy.addAdvice(new ShardedBookRepositoryInterceptor(router.getObject(), readOnly));
+                return proxy.getProxy();
+            }
+        };
+    }
+
+    static DataSource createShardDataSource(ShardingProperties properties, String url) {
+        return DataSourceBuilder.create()
+                .url(url)
+                .username(properties.username())
+                .password(properties.password())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package edu.trincoll.repository.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * {@code library.sharding.*}: one JDBC URL per book shard. The first shard is the home shard
+ * and also holds every unsharded table (members and the rest). {@code relayBatchSize} caps the
+ * feed and change-log rows {@link ShardLogRelay} takes from each shard per table and pass.
+ */
+@ConfigurationProperties("library.sharding")
+public record ShardingProperties(boolean enabled,
+                                 List<String> urls,
+                                 @DefaultValue("sa") String username,
+                                 @DefaultValue("") String password,
+                                 @DefaultValue("128") int virtualNodes,
+                                 @DefaultValue("500") int rebalanceBatchSize,
+                                 @DefaultValue("500") int relayBatchSize) {
+
+    public static String shardId(int index) {
+        return "shard-" + index;
+    }
+}
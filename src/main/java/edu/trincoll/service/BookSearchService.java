@@ -2,10 +2,12 @@ package edu.trincoll.service;
 
 import edu.trincoll.model.Book;
 import edu.trincoll.repository.BookRepository;
+import edu.trincoll.service.coherence.CoherentCache;
+import edu.trincoll.service.search.RankedSearchService;
+import edu.trincoll.service.search.SearchField;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,38 +15,46 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class BookSearchService {
     private final BookRepository bookRepository;
+    private final CoherentCache<Book> bookCache;
+    private final RankedSearchService rankedSearchService;
 
-    public BookSearchService(BookRepository bookRepository) {
+    public BookSearchService(BookRepository bookRepository, CoherentCache<Book> bookCache,
+                             RankedSearchService rankedSearchService) {
         this.bookRepository = bookRepository;
+        this.bookCache = bookCache;
+        this.rankedSearchService = rankedSearchService;
     }
 
     /**
-     * Case-insensitive, contains-style title search.
+     * The first page of {@link RankedSearchService} title results: case-insensitive substring
+     * matches, then titles that match within a few typos. Use the ranked search to page further.
      */
     public List<Book> searchByTitle(String title) {
-        if (title == null || title.isBlank()) {
-            return Collections.emptyList();
-        }
-        return bookRepository.findByTitleContainingIgnoreCase(title.trim());
+        return firstPage(SearchField.TITLE, title);
     }
 
     /**
-     * Exact author match (adjust to a contains/ignore-case variant if your repo provides one).
+     * The first page of {@link RankedSearchService} author results, matched like titles.
      */
     public List<Book> searchByAuthor(String author) {
-        if (author == null || author.isBlank()) {
-            return Collections.emptyList();
-        }
-        return bookRepository.findByAuthor(author.trim());
+        return firstPage(SearchField.AUTHOR, author);
     }
 
     /**
-     * ISBN lookup; returns at most one book.
+     * ISBN lookup; returns at most one book. Served from the coherent cache; the caller gets its
+     * own copy, so changing it cannot leak into the cache.
      */
     public Optional<Book> searchByIsbn(String isbn) {
         if (isbn == null || isbn.isBlank()) {
             return Optional.empty();
         }
-        return bookRepository.findByIsbn(isbn.trim());
+        return bookCache.get(isbn.trim(), bookRepository::findByIsbn).map(Book::new);
+    }
+
+    private List<Book> firstPage(SearchField field, String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return rankedSearchService.search(field, query.trim(), null, null).results();
     }
 }
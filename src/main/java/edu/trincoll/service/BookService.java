@@ -4,16 +4,32 @@ import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
 import edu.trincoll.model.Member;
 import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.circulation.CirculationStore;
+import edu.trincoll.service.event.AfterCommit;
+import edu.trincoll.service.event.BookLifecycleListener;
+import edu.trincoll.service.feed.CatalogChangeRecorder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.List;
 
+/**
+ * The book side of circulation changes: the book's state, its feed entry and the lifecycle
+ * listeners. The borrower's side is committed with it by {@link CirculationUnitOfWork}.
+ */
 @Service
 public class BookService {
     private final BookRepository bookRepository;
+    private final CirculationStore circulationStore;
+    private final CatalogChangeRecorder changeRecorder;
+    private final List<BookLifecycleListener> listeners;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, CirculationStore circulationStore,
+                       CatalogChangeRecorder changeRecorder, List<BookLifecycleListener> listeners) {
         this.bookRepository = bookRepository;
+        this.circulationStore = circulationStore;
+        this.changeRecorder = changeRecorder;
+        this.listeners = listeners;
     }
 
     public Book findByIsbn(String isbn) {
@@ -22,16 +38,67 @@ public class BookService {
     }
 
     public void checkoutBook(Book book, Member member, int loanPeriodDays) {
+        BookStatus previous = book.getStatus();
         book.setStatus(BookStatus.CHECKED_OUT);
         book.setCheckedOutBy(member.getEmail());
         book.setDueDate(LocalDate.now().plusDays(loanPeriodDays));
-        bookRepository.save(book);
+        circulationStore.saveCirculationState(book);
+        changeRecorder.record(book.getIsbn(), previous, BookStatus.CHECKED_OUT, member.getEmail());
+        AfterCommit.run(() -> listeners.forEach(l -> l.onCheckout(book, member)));
     }
 
     public void returnBook(Book book) {
+        String previousBorrower = book.getCheckedOutBy();
+        BookStatus previous = book.getStatus();
         book.setStatus(BookStatus.AVAILABLE);
         book.setCheckedOutBy(null);
         book.setDueDate(null);
-        bookRepository.save(book);
+        circulationStore.saveCirculationState(book);
+        changeRecorder.record(book.getIsbn(), previous, BookStatus.AVAILABLE, previousBorrower);
+        AfterCommit.run(() -> listeners.forEach(l -> l.onReturn(book, previousBorrower)));
+    }
+
+    /**
+     * Reserves the book for a member. The hold is kept in {@code checkedOutBy}/{@code dueDate}
+     * and lasts through the last day of the hold period.
+     */
+    public void placeHold(Book book, Member member, int holdDays) {
+        BookStatus previous = book.getStatus();
+        book.setStatus(BookStatus.RESERVED);
+        book.setCheckedOutBy(member.getEmail());
+        book.setDueDate(LocalDate.now().plusDays(holdDays));
+        circulationStore.saveCirculationState(book);
+        changeRecorder.record(book.getIsbn(), previous, BookStatus.RESERVED, member.getEmail());
+        AfterCommit.run(() -> listeners.forEach(l -> l.onHold(book, member)));
+    }
+
+    /**
+     * Ends a hold that was not picked up in time and puts the book back on the shelf.
+     */
+    public void releaseHold(Book book) {
+        String previousHolder = book.getCheckedOutBy();
+        BookStatus previous = book.getStatus();
+        book.setStatus(BookStatus.AVAILABLE);
+        book.setCheckedOutBy(null);
+        book.setDueDate(null);
+        circulationStore.saveCirculationState(book);
+        changeRecorder.record(book.getIsbn(), previous, BookStatus.AVAILABLE, previousHolder);
+        AfterCommit.run(() -> listeners.forEach(l -> l.onHoldReleased(book, previousHolder)));
+    }
+
+    /**
+     * Writes the book off. Any loan or hold on it ends; the caller settles the borrower's count
+     * and loan.
+     */
+    public void markLost(Book book) {
+        String previousHolder = book.getCheckedOutBy();
+        BookStatus previous = book.getStatus();
+        book.setStatus(BookStatus.LOST);
+        book.setCheckedOutBy(null);
+        book.setDueDate(null);
+        book.setRetiredOn(LocalDate.now());
+        circulationStore.saveCirculationState(book);
+        changeRecorder.record(book.getIsbn(), previous, BookStatus.LOST, previousHolder);
+        AfterCommit.run(() -> listeners.forEach(l -> l.onLost(book, previousHolder)));
     }
 }
@@ -0,0 +1,27 @@
+package edu.trincoll.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The transaction an idempotent checkout or return runs in together with its idempotency record.
+ * With book sharding the book and the member live on different databases, which one local
+ * transaction cannot span, so none is opened here and {@link CirculationUnitOfWork} commits each
+ * side on its own shard.
+ */
+@Configuration
+public class CirculationTransactionConfiguration {
+
+    @Bean
+    public TransactionOperations circulationTransactions(PlatformTransactionManager transactionManager,
+                                                         @Value("${library.sharding.enabled:false}") boolean shardingEnabled) {
+        if (shardingEnabled) {
+            return TransactionOperations.withoutTransaction();
+        }
+        return new TransactionTemplate(transactionManager);
+    }
+}
@@ -0,0 +1,115 @@
+package edu.trincoll.service;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.shard.ShardContext;
+import edu.trincoll.repository.shard.ShardRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Commits a circulation change. The member side is the borrower's checkout count and loan row;
+ * the book side is the book, its feed entry and its change-log entry.
+ * <p>
+ * Without book sharding both sides commit in one transaction. With it the member and the loans
+ * live on the home shard and the book on its own shard, which one local transaction cannot span:
+ * the member side commits first on the home shard, then the book side in one transaction on the
+ * shard holding the book. If the book side fails, e.g. because another request changed the book
+ * first, the member side is undone before the failure is rethrown. Until then the member side is
+ * visible without the book side. Callers must not hold a transaction of their own when sharded.
+ */
+@Component
+public class CirculationUnitOfWork {
+
+    private static final int UNDO_ATTEMPTS = 3;
+
+    private final TransactionTemplate transactions;
+    private final BookRepository bookRepository;
+    private final ShardRouter shardRouter;
+
+    public CirculationUnitOfWork(PlatformTransactionManager transactionManager, BookRepository bookRepository,
+                                 ObjectProvider<ShardRouter> shardRouter) {
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.bookRepository = bookRepository;
+        this.shardRouter = shardRouter.getIfAvailable();
+    }
+
+    /**
+     * Commits a change to the book alone.
+     */
+    public void commit(Book book, Runnable bookSide) {
+        if (shardRouter == null) {
+            transactions.executeWithoutResult(status -> bookSide.run());
+            return;
+        }
+        onBookShard(book, bookSide);
+    }
+
+    /**
+     * Commits a change to the book and its borrower. {@code undoMemberSide} must reverse
+     * {@code memberSide} from freshly read state; it only runs with sharding.
+     */
+    public void commit(Book book, Runnable bookSide, Runnable memberSide, Runnable undoMemberSide) {
+        if (shardRouter == null) {
+            transactions.executeWithoutResult(status -> {
+                bookSide.run();
+                memberSide.run();
+            });
+            return;
+        }
+        transactions.executeWithoutResult(status -> memberSide.run());
+        try {
+            onBookShard(book, bookSide);
+        } catch (RuntimeException e) {
+            undo(undoMemberSide, e);
+            throw e;
+        }
+    }
+
+    private void onBookShard(Book book, Runnable bookSide) {
+        ShardContext.callOn(shardHolding(book), () -> {
+            transactions.executeWithoutResult(status -> bookSide.run());
+            return null;
+        });
+    }
+
+    /**
+     * The shard to write the book on. While a migration is running the book may still be on its
+     * previous owner; if it has already been copied, the copy is written and the entity's
+     * shard-local id is switched to the copy's id.
+     */
+    private String shardHolding(Book book) {
+        List<String> candidates = shardRouter.candidatesFor(book.getIsbn());
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        return ShardContext.callOn(candidates.get(0), () -> bookRepository.findByIsbn(book.getIsbn()))
+                .map(copy -> {
+                    book.setId(copy.getId());
+                    return candidates.get(0);
+                })
+                .orElse(candidates.get(1));
+    }
+
+    private void undo(Runnable undoMemberSide, RuntimeException failure) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactions.executeWithoutResult(status -> undoMemberSide.run());
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == UNDO_ATTEMPTS) {
+                    failure.addSuppressed(e);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                failure.addSuppressed(e);
+                return;
+            }
+        }
+    }
+}
@@ -19,4 +19,14 @@ public class EmailNotificationService implements NotificationService {
     public void sendReturnNotification(Member member, Book book, double lateFee) {
         System.out.println("Notification for " + member.getName() + ": Book returned: " + book.getTitle() + ". Late fee: " + lateFee);
     }
+
+    @Override
+    public void sendDueDateReminder(Member member, Book book, LocalDate dueDate) {
+        System.out.println("Notification for " + member.getName() + ": Book due soon: " + book.getTitle() + ". Due date: " + dueDate);
+    }
+
+    @Override
+    public void sendHoldExpiredNotification(Member member, Book book) {
+        System.out.println("Notification for " + member.getName() + ": Hold expired: " + book.getTitle());
+    }
 }
@@ -1,7 +1,14 @@
 package edu.trincoll.service;
 
+import edu.trincoll.service.dashboard.Dashboard;
+import edu.trincoll.service.dashboard.DashboardService;
 import edu.trincoll.service.report.AvailabilityReportGenerator;
+import edu.trincoll.service.report.CachedReport;
+import edu.trincoll.service.report.CirculationStatsReportGenerator;
+import edu.trincoll.service.report.MemberActivityReportGenerator;
 import edu.trincoll.service.report.OverdueReportGenerator;
+import edu.trincoll.service.report.ReportCache;
+import edu.trincoll.service.report.ReportType;
 import org.springframework.stereotype.Service;
 
 /**
@@ -45,18 +52,57 @@ public class LibraryFacade {
 
     private final AvailabilityReportGenerator availabilityReportGenerator;
     private final OverdueReportGenerator overdueReportGenerator;
+    private final MemberActivityReportGenerator memberActivityReportGenerator;
+    private final CirculationStatsReportGenerator circulationStatsReportGenerator;
+    private final ReportCache reportCache;
+    private final DashboardService dashboardService;
 
     public LibraryFacade(AvailabilityReportGenerator availabilityReportGenerator,
-                         OverdueReportGenerator overdueReportGenerator) {
+                         OverdueReportGenerator overdueReportGenerator,
+                         MemberActivityReportGenerator memberActivityReportGenerator,
+                         CirculationStatsReportGenerator circulationStatsReportGenerator,
+                         ReportCache reportCache,
+                         DashboardService dashboardService) {
         this.availabilityReportGenerator = availabilityReportGenerator;
         this.overdueReportGenerator = overdueReportGenerator;
+        this.memberActivityReportGenerator = memberActivityReportGenerator;
+        this.circulationStatsReportGenerator = circulationStatsReportGenerator;
+        this.reportCache = reportCache;
+        this.dashboardService = dashboardService;
     }
 
     public String generateAvailabilityReport() {
-        return availabilityReportGenerator.generateReport();
+        return getReport(ReportType.AVAILABILITY).content();
     }
 
     public String generateOverdueReport() {
-        return overdueReportGenerator.generateReport();
+        return getReport(ReportType.OVERDUE).content();
+    }
+
+    public String generateMemberActivityReport() {
+        return getReport(ReportType.MEMBER_ACTIVITY).content();
+    }
+
+    /**
+     * Returns the report from the cache, regenerating it only if circulation changed since it was built.
+     */
+    public CachedReport getReport(ReportType type) {
+        return switch (type) {
+            case AVAILABILITY -> reportCache.get(type, availabilityReportGenerator::generateReport);
+            case OVERDUE -> reportCache.get(type, overdueReportGenerator::generateReport);
+            case MEMBER_ACTIVITY -> reportCache.get(type, memberActivityReportGenerator::generateReport);
+            case CIRCULATION_STATS -> reportCache.get(type, circulationStatsReportGenerator::generateReport);
+        };
+    }
+
+    public String currentReportEtag(ReportType type) {
+        return reportCache.currentEtag(type);
+    }
+
+    /**
+     * Availability, overdue and membership figures in one call, gathered concurrently.
+     */
+    public Dashboard generateDashboard() {
+        return dashboardService.compose(this::generateAvailabilityReport, this::generateOverdueReport);
     }
 }
@@ -2,10 +2,12 @@ package edu.trincoll.service;
 
 import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.LoanOutcome;
 import edu.trincoll.model.Member;
 import edu.trincoll.model.MembershipType;
 import edu.trincoll.repository.BookRepository;
 import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.archive.LoanRecorder;
 import edu.trincoll.service.policy.CheckoutPolicy;
 import edu.trincoll.service.fee.LateFeeCalculator;
 import edu.trincoll.service.fee.LateFeeCalculatorFactory;
@@ -32,6 +34,8 @@ import java.util.List;
 @Service
 public class LibraryService {
 
+    static final int HOLD_DAYS = 7;
+
     private final BookService bookService;
     private final MemberService memberService;
     private final CheckoutPolicyFactory checkoutPolicyFactory;
@@ -39,8 +43,11 @@ public class LibraryService {
     private final BookRepository bookRepository;
     private final MemberRepository memberRepository;
     private final NotificationService notificationService;
+    private final LoanRecorder loanRecorder;
+    private final CirculationUnitOfWork circulation;
+    private final BookSearchService bookSearchService;
 
-    public LibraryService(BookService bookService, MemberService memberService, CheckoutPolicyFactory checkoutPolicyFactory, BookRepository bookRepository, MemberRepository memberRepository, LateFeeCalculatorFactory lateFeeCalculatorFactory, NotificationService notificationService) {
+    public LibraryService(BookService bookService, MemberService memberService, CheckoutPolicyFactory checkoutPolicyFactory, BookRepository bookRepository, MemberRepository memberRepository, LateFeeCalculatorFactory lateFeeCalculatorFactory, NotificationService notificationService, LoanRecorder loanRecorder, CirculationUnitOfWork circulation, BookSearchService bookSearchService) {
         this.bookService = bookService;
         this.memberService = memberService;
         this.checkoutPolicyFactory = checkoutPolicyFactory;
@@ -48,6 +55,9 @@ public class LibraryService {
         this.memberRepository = memberRepository;
         this.lateFeeCalculatorFactory = lateFeeCalculatorFactory;
         this.notificationService = notificationService;
+        this.loanRecorder = loanRecorder;
+        this.circulation = circulation;
+        this.bookSearchService = bookSearchService;
     }
 
     // TODO 1 (15 points): SRP Violation - This method has multiple responsibilities - KAYLA: DONE
@@ -60,8 +70,10 @@ public class LibraryService {
         // Find member
         Member member = memberService.findByEmail(memberEmail);
 
-        // Check if book is available
-        if (book.getStatus() != BookStatus.AVAILABLE) {
+        // Check if book is available (or on hold for this member)
+        boolean heldForMember = book.getStatus() == BookStatus.RESERVED
+                && memberEmail.equals(book.getCheckedOutBy());
+        if (book.getStatus() != BookStatus.AVAILABLE && !heldForMember) {
             return "Book is not available";
         }
 
@@ -75,11 +87,19 @@ public class LibraryService {
             return "Member has reached checkout limit";
         }
 
-        // Update book status
-        bookService.checkoutBook(book, member, policy.getLoanPeriodDays());
-
-        // Update member
-        memberService.incrementCheckoutCount(member);
+        // Update book and member together, see CirculationUnitOfWork
+        LocalDate today = LocalDate.now();
+        int loanPeriodDays = policy.getLoanPeriodDays();
+        circulation.commit(book,
+                () -> bookService.checkoutBook(book, member, loanPeriodDays),
+                () -> {
+                    memberService.incrementCheckoutCount(member);
+                    loanRecorder.open(isbn, memberEmail, today, today.plusDays(loanPeriodDays));
+                },
+                () -> {
+                    memberService.decrementCheckoutCount(memberService.findByEmail(memberEmail));
+                    loanRecorder.discard(isbn, memberEmail);
+                });
 
         // TODO 3 (10 points): SRP Violation - Notification logic should be separate - KAYLA: DONE
         // Create a NotificationService interface with email implementation
@@ -111,11 +131,11 @@ public class LibraryService {
             lateFee = calculator.calculateLateFee(daysLate);
         }
 
-        // Update book
-        bookService.returnBook(book);
-
-        // Update member
-        memberService.decrementCheckoutCount(member);
+        // Update book and member together, see CirculationUnitOfWork
+        circulation.commit(book,
+                () -> bookService.returnBook(book),
+                () -> closeLoan(member, isbn, LoanOutcome.RETURNED),
+                () -> reopenLoan(memberEmail, isbn, LoanOutcome.RETURNED));
 
         // Duplicated notification code (should use NotificationService)
         notificationService.sendReturnNotification(member, book, lateFee);
@@ -127,16 +147,87 @@ public class LibraryService {
         return "Book returned successfully";
     }
 
+    /**
+     * Writes a book off as lost. If it was on loan, the loan is closed and the borrower's
+     * checkout count released together with the write-off.
+     */
+    public String markLost(String isbn) {
+        Book book = bookService.findByIsbn(isbn);
+
+        if (book.getStatus() == BookStatus.LOST) {
+            return "Book is already marked as lost";
+        }
+
+        Member borrower = book.getStatus() == BookStatus.CHECKED_OUT
+                ? memberService.findByEmail(book.getCheckedOutBy())
+                : null;
+
+        if (borrower == null) {
+            circulation.commit(book, () -> bookService.markLost(book));
+        } else {
+            circulation.commit(book,
+                    () -> bookService.markLost(book),
+                    () -> closeLoan(borrower, isbn, LoanOutcome.LOST),
+                    () -> reopenLoan(borrower.getEmail(), isbn, LoanOutcome.LOST));
+        }
+
+        return "Book marked as lost";
+    }
+
+    /**
+     * Reserves an available book for a member for {@link #HOLD_DAYS} days; only that member can
+     * check it out meanwhile. A hold does not count toward the member's checkout limit.
+     */
+    public String placeHold(String isbn, String memberEmail) {
+        Book book = bookService.findByIsbn(isbn);
+        Member member = memberService.findByEmail(memberEmail);
+
+        if (book.getStatus() != BookStatus.AVAILABLE) {
+            return "Book is not available";
+        }
+
+        circulation.commit(book, () -> bookService.placeHold(book, member, HOLD_DAYS));
+        return "Book on hold until " + book.getDueDate();
+    }
+
+    /**
+     * Puts a book held for {@code holder} through {@code holdUntil} back on the shelf.
+     *
+     * @return false if the book is no longer under that hold, e.g. it was picked up meanwhile
+     */
+    public boolean releaseExpiredHold(String isbn, String holder, LocalDate holdUntil) {
+        Book book = bookService.findByIsbn(isbn);
+
+        if (book.getStatus() != BookStatus.RESERVED || !holder.equals(book.getCheckedOutBy())
+                || !holdUntil.equals(book.getDueDate())) {
+            return false;
+        }
+
+        circulation.commit(book, () -> bookService.releaseHold(book));
+        return true;
+    }
+
+    private void closeLoan(Member borrower, String isbn, LoanOutcome outcome) {
+        memberService.decrementCheckoutCount(borrower);
+        loanRecorder.close(isbn, borrower.getEmail(), outcome, LocalDate.now());
+    }
+
+    private void reopenLoan(String borrowerEmail, String isbn, LoanOutcome outcome) {
+        memberService.incrementCheckoutCount(memberService.findByEmail(borrowerEmail));
+        loanRecorder.reopen(isbn, borrowerEmail, outcome);
+    }
+
     // TODO 6 (10 points): SRP Violation - Search/query operations
     // Create a BookSearchService with different search strategies
     // This also demonstrates ISP - clients shouldn't depend on unused search methods
+    // Title and author results are the first page of the ranked search.
     public List<Book> searchBooks(String searchTerm, String searchType) {
         if ("title".equalsIgnoreCase(searchType)) {
-            return bookRepository.findByTitleContainingIgnoreCase(searchTerm);
+            return bookSearchService.searchByTitle(searchTerm);
         } else if ("author".equalsIgnoreCase(searchType)) {
-            return bookRepository.findByAuthor(searchTerm);
+            return bookSearchService.searchByAuthor(searchTerm);
         } else if ("isbn".equalsIgnoreCase(searchType)) {
-            return bookRepository.findByIsbn(searchTerm)
+            return bookSearchService.searchByIsbn(searchTerm)
                     .map(List::of)
                     .orElse(List.of());
         } else {
@@ -2,15 +2,18 @@ package edu.trincoll.service;
 
 import edu.trincoll.model.Member;
 import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.repository.circulation.CirculationStore;
 import org.springframework.stereotype.Service;
 
 @Service
 public class MemberService {
 
     private final MemberRepository memberRepository;
+    private final CirculationStore circulationStore;
 
-    public MemberService(MemberRepository memberRepository) {
+    public MemberService(MemberRepository memberRepository, CirculationStore circulationStore) {
         this.memberRepository = memberRepository;
+        this.circulationStore = circulationStore;
     }
 
     public Member findByEmail(String email) {
@@ -20,11 +23,11 @@ public class MemberService {
 
     public void incrementCheckoutCount(Member member) {
         member.setBooksCheckedOut(member.getBooksCheckedOut() + 1);
-        memberRepository.save(member);
+        circulationStore.saveCheckoutCount(member);
     }
 
     public void decrementCheckoutCount(Member member) {
         member.setBooksCheckedOut(member.getBooksCheckedOut() - 1);
-        memberRepository.save(member);
+        circulationStore.saveCheckoutCount(member);
     }
 }
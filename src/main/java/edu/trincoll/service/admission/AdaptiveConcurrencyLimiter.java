@@ -0,0 +1,193 @@
+package edu.trincoll.service.admission;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * AIMD concurrency limit in front of the service layer, driven by observed latency.
+ * <p>
+ * Every completed call is a sample. A call slower than the target latency cuts the limit by
+ * {@link #BACKOFF} (at most once per target interval, so one burst of slow calls counts once);
+ * a fast call made while the limit was at least half used adds {@code 1/limit}, about one per
+ * round of calls. Requests beyond their {@link Priority}'s share of the limit are shed with
+ * {@link LoadSheddingException}; circulation requests wait up to
+ * {@code library.admission.circulation-max-wait-ms} first.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    static final double BACKOFF = 0.9;
+    private static final double EWMA_WEIGHT = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final long circulationMaxWaitNanos;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+    private double averageLatencyNanos;
+
+    private final Map<Priority, LongAdder> admitted = new EnumMap<>(Priority.class);
+    private final Map<Priority, LongAdder> shed = new EnumMap<>(Priority.class);
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(@Value("${library.admission.initial-limit:20}") int initialLimit,
+                                      @Value("${library.admission.min-limit:2}") int minLimit,
+                                      @Value("${library.admission.max-limit:200}") int maxLimit,
+                                      @Value("${library.admission.target-latency-ms:100}") long targetLatencyMs,
+                                      @Value("${library.admission.circulation-max-wait-ms:500}") long circulationMaxWaitMs) {
+        this(initialLimit, minLimit, maxLimit, targetLatencyMs, circulationMaxWaitMs, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock the time source latencies are measured with, replaceable in tests
+     */
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyMs,
+                               long circulationMaxWaitMs, LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Admission limits must satisfy 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.circulationMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(circulationMaxWaitMs);
+        this.nanoClock = nanoClock;
+        this.lastDecreaseNanos = nanoClock.getAsLong() - targetLatencyNanos - 1;
+        for (Priority priority : Priority.values()) {
+            admitted.put(priority, new LongAdder());
+            shed.put(priority, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs {@code work} under a permit of the given priority.
+     *
+     * @throws LoadSheddingException if no permit could be had
+     */
+    public <T> T call(Priority priority, Supplier<T> work) {
+        try (Permit permit = acquire(priority)) {
+            return work.get();
+        }
+    }
+
+    public Permit acquire(Priority priority) {
+        long waitNanos = priority.waits() ? circulationMaxWaitNanos : 0;
+        lock.lock();
+        try {
+            while (inFlight >= allowed(priority)) {
+                if (waitNanos <= 0) {
+                    shed.get(priority).increment();
+                    throw new LoadSheddingException(priority, retryAfter());
+                }
+                waitNanos = released.awaitNanos(waitNanos);
+            }
+            inFlight++;
+            admitted.get(priority).increment();
+            return new Permit(inFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shed.get(priority).increment();
+            throw new LoadSheddingException(priority, retryAfter());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long admittedCount(Priority priority) {
+        return admitted.get(priority).sum();
+    }
+
+    public long shedCount(Priority priority) {
+        return shed.get(priority).sum();
+    }
+
+    private int allowed(Priority priority) {
+        return Math.max(1, (int) (limit * priority.limitShare()));
+    }
+
+    private void onComplete(long latencyNanos, int inFlightAtStart) {
+        lock.lock();
+        try {
+            inFlight--;
+            averageLatencyNanos = averageLatencyNanos == 0
+                    ? latencyNanos
+                    : averageLatencyNanos + EWMA_WEIGHT * (latencyNanos - averageLatencyNanos);
+            long now = nanoClock.getAsLong();
+            if (latencyNanos > targetLatencyNanos) {
+                if (now - lastDecreaseNanos > targetLatencyNanos) {
+                    limit = Math.max(minLimit, limit * BACKOFF);
+                    lastDecreaseNanos = now;
+                }
+            } else if (inFlightAtStart >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Roughly how long until the current in-flight work drains, rounded up to whole seconds.
+     */
+    private Duration retryAfter() {
+        double drainNanos = averageLatencyNanos * Math.max(1.0, inFlight / limit);
+        return Duration.ofSeconds(Math.max(1, (long) Math.ceil(drainNanos / 1_000_000_000.0)));
+    }
+
+    /**
+     * An admitted call. Closing it records the call's latency as a sample.
+     */
+    public final class Permit implements AutoCloseable {
+        private final long startNanos = nanoClock.getAsLong();
+        private final int inFlightAtStart;
+        private boolean closed;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                onComplete(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+            }
+        }
+    }
+}
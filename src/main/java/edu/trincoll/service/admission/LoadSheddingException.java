@@ -0,0 +1,27 @@
+package edu.trincoll.service.admission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is rejected by the concurrency limiter. Carries a hint for when the
+ * client should try again.
+ */
+public class LoadSheddingException extends RuntimeException {
+
+    private final Priority priority;
+    private final Duration retryAfter;
+
+    public LoadSheddingException(Priority priority, Duration retryAfter) {
+        super("Server is overloaded; " + priority.name().toLowerCase() + " request shed");
+        this.priority = priority;
+        this.retryAfter = retryAfter;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,29 @@
+package edu.trincoll.service.admission;
+
+/**
+ * Admission classes, highest first. Each class may only use its share of the current
+ * concurrency limit, so as load rises reports are shed first, then search, and circulation
+ * keeps the remaining headroom. Only circulation waits for a permit; the others are shed
+ * immediately.
+ */
+public enum Priority {
+    CIRCULATION(1.0, true),
+    SEARCH(0.75, false),
+    REPORT(0.5, false);
+
+    private final double limitShare;
+    private final boolean waits;
+
+    Priority(double limitShare, boolean waits) {
+        this.limitShare = limitShare;
+        this.waits = waits;
+    }
+
+    double limitShare() {
+        return limitShare;
+    }
+
+    boolean waits() {
+        return waits;
+    }
+}
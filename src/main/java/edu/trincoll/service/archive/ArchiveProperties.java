@@ -0,0 +1,27 @@
+package edu.trincoll.service.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code library.archive.*}: moving cold rows out of the hot tables.
+ *
+ * @param loanAgeDays       closed loans older than this move to {@code loans_archive}
+ * @param retiredAgeDays    books LOST or DAMAGED for longer than this move to {@code books_archive}
+ * @param batchSize         rows moved per transaction
+ * @param pauseMs           sleep between batches, so archiving never saturates the database
+ * @param maxBatchesPerRun  a run stops after this many batches per table and resumes next time
+ */
+@ConfigurationProperties("library.archive")
+public record ArchiveProperties(@DefaultValue("365") int loanAgeDays,
+                                @DefaultValue("90") int retiredAgeDays,
+                                @DefaultValue("500") int batchSize,
+                                @DefaultValue("100") long pauseMs,
+                                @DefaultValue("200") int maxBatchesPerRun) {
+
+    public ArchiveProperties {
+        if (loanAgeDays < 0 || retiredAgeDays < 0 || batchSize < 1 || pauseMs < 0 || maxBatchesPerRun < 1) {
+            throw new IllegalArgumentException("library.archive ages and pause must not be negative, batch sizes must be positive");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package edu.trincoll.service.archive;
+
+/**
+ * Rows moved by one archive run. {@code complete} is false if the run stopped at its batch
+ * limit with eligible rows left.
+ */
+public record ArchiveRun(int loansArchived, int booksArchived, boolean complete) {
+}
@@ -0,0 +1,190 @@
+package edu.trincoll.service.archive;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.shard.ShardContext;
+import edu.trincoll.repository.shard.ShardRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Moves cold rows out of the hot tables in throttled batches: loans closed more than
+ * {@code loanAgeDays} ago to {@code loans_archive}, and books retired (LOST or DAMAGED) more
+ * than {@code retiredAgeDays} ago to {@code books_archive}. Each batch is copied and deleted in
+ * one transaction, and batches are separated by {@code pauseMs} so a large backlog drains over
+ * several runs instead of competing with circulation. {@link LoanHistoryService} reads both tiers.
+ * <p>
+ * Books are read and deleted through the BookRepository, so the change log sees the deletes.
+ * With book sharding a transaction stays on the shard its first statement used, so book batches
+ * run shard by shard, each in a transaction opened after its shard is selected, and an archived
+ * book lands in the {@code books_archive} table of the shard that held it. Books are left alone
+ * while a shard migration is moving them. Loans are written on the member side of each
+ * circulation change, which always commits on the home shard whichever shard holds the book
+ * (see {@link edu.trincoll.service.CirculationUnitOfWork}), so every loan is archived there. The
+ * batch limit applies per shard.
+ */
+@Service
+public class ArchiveService {
+
+    private static final List<BookStatus> RETIRED = List.of(BookStatus.LOST, BookStatus.DAMAGED);
+
+    private static final String NEXT_LOAN_BATCH =
+            "select id from loans where closed_on < ? order by id fetch first ? rows only";
+    private static final String COPY_LOANS =
+            "insert into loans_archive (id, isbn, member_email, checked_out_on, due_date, closed_on, outcome, archived_on) " +
+            "select id, isbn, member_email, checked_out_on, due_date, closed_on, outcome, ? from loans " +
+            "where closed_on < ? and id <= ?";
+    private static final String DELETE_LOANS = "delete from loans where closed_on < ? and id <= ?";
+    private static final String COPY_BOOK =
+            "insert into books_archive (isbn, title, author, publication_date, status, retired_on, archived_on) " +
+            "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final BookRepository bookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactions;
+    private final ArchiveProperties properties;
+    private final ShardRouter shardRouter;
+
+    public ArchiveService(BookRepository bookRepository, JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager, ArchiveProperties properties,
+                          ObjectProvider<ShardRouter> shardRouter) {
+        this.bookRepository = bookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.shardRouter = shardRouter.getIfAvailable();
+    }
+
+    @Scheduled(cron = "${library.archive.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * Archives everything eligible as of {@code today}, up to the per-run batch limit.
+     */
+    public synchronized ArchiveRun run(LocalDate today) {
+        for (String shard : bookShards()) {
+            drain(() -> onShard(shard, () -> stampRetirement(today)));
+        }
+        int[] loans = drain(() -> archiveLoans(today.minusDays(properties.loanAgeDays()), today));
+        LocalDate retiredCutoff = today.minusDays(properties.retiredAgeDays());
+        int booksArchived = 0;
+        boolean booksLeft = false;
+        if (shardRouter != null && shardRouter.isMigrating()) {
+            booksLeft = true;
+        } else {
+            for (String shard : bookShards()) {
+                int[] books = drain(() -> onShard(shard, () -> archiveBooks(retiredCutoff, today)));
+                booksArchived += books[0];
+                booksLeft |= books[1] != 0;
+            }
+        }
+        return new ArchiveRun(loans[0], booksArchived, loans[1] == 0 && !booksLeft);
+    }
+
+    /**
+     * The shards holding books, or a single null (no shard selected) without sharding.
+     */
+    private List<String> bookShards() {
+        return shardRouter == null ? Collections.singletonList(null) : shardRouter.shards();
+    }
+
+    /**
+     * Runs {@code batch} with {@code shard} selected, so the transaction it opens uses that shard.
+     */
+    private static int onShard(String shard, IntSupplier batch) {
+        return shard == null ? batch.getAsInt() : ShardContext.callOn(shard, batch::getAsInt);
+    }
+
+    /**
+     * Runs {@code batch} until it moves fewer rows than a full batch or the run limit is hit.
+     *
+     * @return rows moved, and 1 if the limit stopped it with work left, else 0
+     */
+    private int[] drain(IntSupplier batch) {
+        int moved = 0;
+        for (int i = 0; i < properties.maxBatchesPerRun(); i++) {
+            int n = batch.getAsInt();
+            moved += n;
+            if (n < properties.batchSize()) {
+                return new int[]{moved, 0};
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        return new int[]{moved, 1};
+    }
+
+    /**
+     * Dates retired books that have none, so their age can be measured from now on.
+     */
+    private int stampRetirement(LocalDate today) {
+        return transactions.execute(status -> {
+            List<Book> undated = bookRepository.findByStatusInAndRetiredOnIsNull(RETIRED,
+                    Limit.of(properties.batchSize()));
+            for (Book book : undated) {
+                book.setRetiredOn(today);
+                bookRepository.save(book);
+            }
+            return undated.size();
+        });
+    }
+
+    private int archiveLoans(LocalDate cutoff, LocalDate today) {
+        return transactions.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(NEXT_LOAN_BATCH, Long.class, Date.valueOf(cutoff),
+                    properties.batchSize());
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            long last = ids.get(ids.size() - 1);
+            int copied = jdbcTemplate.update(COPY_LOANS, Date.valueOf(today), Date.valueOf(cutoff), last);
+            int deleted = jdbcTemplate.update(DELETE_LOANS, Date.valueOf(cutoff), last);
+            if (copied != deleted) {
+                throw new IllegalStateException("Archived " + copied + " loans but removed " + deleted);
+            }
+            return deleted;
+        });
+    }
+
+    private int archiveBooks(LocalDate cutoff, LocalDate today) {
+        return transactions.execute(status -> {
+            List<Book> retired = bookRepository.findByStatusInAndRetiredOnBefore(RETIRED, cutoff,
+                    Limit.of(properties.batchSize()));
+            for (Book book : retired) {
+                jdbcTemplate.update(COPY_BOOK, book.getIsbn(), book.getTitle(), book.getAuthor(),
+                        book.getPublicationDate() == null ? null : Date.valueOf(book.getPublicationDate()),
+                        book.getStatus().name(), Date.valueOf(book.getRetiredOn()), Date.valueOf(today));
+                bookRepository.delete(book);
+            }
+            return retired.size();
+        });
+    }
+
+    private boolean pause() {
+        if (properties.pauseMs() == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(properties.pauseMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package edu.trincoll.service.archive;
+
+import edu.trincoll.model.BookStatus;
+
+import java.time.LocalDate;
+
+/**
+ * A book from either tier. {@code retiredOn} is null for books in circulation.
+ */
+public record CatalogRecord(String isbn, String title, String author, BookStatus status, LocalDate retiredOn,
+                            boolean archived) {
+}
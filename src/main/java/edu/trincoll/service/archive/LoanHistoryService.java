@@ -0,0 +1,106 @@
+package edu.trincoll.service.archive;
+
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.LoanOutcome;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.shard.ShardContext;
+import edu.trincoll.repository.shard.ShardRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Historical lookups that span the hot tables and the archive tables, so callers need not know
+ * whether a row has been archived. Day-to-day circulation keeps querying the hot tables only.
+ * With book sharding loans, hot or archived, all live on the home shard next to the members, so
+ * loan history is one query there. An archived book sits on the shard that held it when it was
+ * archived, which a later shard migration does not move, so the archive lookup asks every shard.
+ */
+@Service
+public class LoanHistoryService {
+
+    private static final String LOAN_COLUMNS = "id, isbn, member_email, checked_out_on, due_date, closed_on, outcome";
+    private static final String LOANS_WHERE =
+            "select " + LOAN_COLUMNS + ", false as archived from loans where %1$s = ? " +
+            "union all " +
+            "select " + LOAN_COLUMNS + ", true as archived from loans_archive where %1$s = ? " +
+            "order by checked_out_on desc, id desc";
+    private static final String ARCHIVED_BOOK =
+            "select isbn, title, author, status, retired_on, archived_on, id from books_archive where isbn = ? " +
+            "order by archived_on desc, id desc fetch first 1 rows only";
+
+    private static final RowMapper<LoanRecord> LOAN = (rs, row) -> new LoanRecord(
+            rs.getLong("id"),
+            rs.getString("isbn"),
+            rs.getString("member_email"),
+            toLocalDate(rs.getDate("checked_out_on")),
+            toLocalDate(rs.getDate("due_date")),
+            toLocalDate(rs.getDate("closed_on")),
+            rs.getString("outcome") == null ? null : LoanOutcome.valueOf(rs.getString("outcome")),
+            rs.getBoolean("archived"));
+
+    private final BookRepository bookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    public LoanHistoryService(BookRepository bookRepository, JdbcTemplate jdbcTemplate,
+                              ObjectProvider<ShardRouter> shardRouter) {
+        this.bookRepository = bookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter.getIfAvailable();
+    }
+
+    public List<LoanRecord> loansForMember(String memberEmail) {
+        return jdbcTemplate.query(LOANS_WHERE.formatted("member_email"), LOAN, memberEmail, memberEmail);
+    }
+
+    public List<LoanRecord> loansForBook(String isbn) {
+        return jdbcTemplate.query(LOANS_WHERE.formatted("isbn"), LOAN, isbn, isbn);
+    }
+
+    /**
+     * The book as currently catalogued, or its most recent archived record.
+     */
+    public Optional<CatalogRecord> catalogRecord(String isbn) {
+        Optional<CatalogRecord> live = bookRepository.findByIsbn(isbn).map(book -> new CatalogRecord(
+                book.getIsbn(), book.getTitle(), book.getAuthor(), book.getStatus(), book.getRetiredOn(), false));
+        if (live.isPresent()) {
+            return live;
+        }
+        if (shardRouter == null) {
+            return archivedBook(isbn).map(ArchivedRow::record);
+        }
+        List<ArchivedRow> perShard = new ArrayList<>();
+        for (String shard : shardRouter.shards()) {
+            ShardContext.callOn(shard, () -> archivedBook(isbn)).ifPresent(perShard::add);
+        }
+        return perShard.stream()
+                .max(Comparator.comparing(ArchivedRow::archivedOn).thenComparing(ArchivedRow::id))
+                .map(ArchivedRow::record);
+    }
+
+    private Optional<ArchivedRow> archivedBook(String isbn) {
+        return jdbcTemplate.query(ARCHIVED_BOOK, (rs, row) -> new ArchivedRow(new CatalogRecord(
+                rs.getString("isbn"),
+                rs.getString("title"),
+                rs.getString("author"),
+                BookStatus.valueOf(rs.getString("status")),
+                toLocalDate(rs.getDate("retired_on")),
+                true), rs.getDate("archived_on").toLocalDate(), rs.getLong("id")), isbn).stream().findFirst();
+    }
+
+    private record ArchivedRow(CatalogRecord record, LocalDate archivedOn, long id) {
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
@@ -0,0 +1,12 @@
+package edu.trincoll.service.archive;
+
+import edu.trincoll.model.LoanOutcome;
+
+import java.time.LocalDate;
+
+/**
+ * A loan from either tier. {@code closedOn} and {@code outcome} are null while it is open.
+ */
+public record LoanRecord(long id, String isbn, String memberEmail, LocalDate checkedOutOn, LocalDate dueDate,
+                         LocalDate closedOn, LoanOutcome outcome, boolean archived) {
+}
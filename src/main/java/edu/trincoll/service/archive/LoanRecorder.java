@@ -0,0 +1,64 @@
+package edu.trincoll.service.archive;
+
+import edu.trincoll.model.LoanOutcome;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Opens and closes rows in {@code loans} on the current transaction's connection. Loans are
+ * recorded on the member side of a circulation change (see
+ * {@link edu.trincoll.service.CirculationUnitOfWork}): they commit or roll back with the
+ * borrower's checkout count and, with book sharding, always live on the home shard next to the
+ * members, whichever shard holds the book. The undo methods reverse an open or close whose book
+ * side then failed.
+ */
+@Component
+public class LoanRecorder {
+
+    private static final String OPEN =
+            "insert into loans (isbn, member_email, checked_out_on, due_date) values (?, ?, ?, ?)";
+    private static final String CLOSE =
+            "update loans set closed_on = ?, outcome = ? where id = " +
+            "(select min(id) from loans where isbn = ? and member_email = ? and closed_on is null)";
+    private static final String DISCARD =
+            "delete from loans where isbn = ? and member_email = ? and closed_on is null";
+    private static final String REOPEN =
+            "update loans set closed_on = null, outcome = null where id = " +
+            "(select max(id) from loans where isbn = ? and member_email = ? and outcome = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LoanRecorder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void open(String isbn, String memberEmail, LocalDate checkedOutOn, LocalDate dueDate) {
+        jdbcTemplate.update(OPEN, isbn, memberEmail, Date.valueOf(checkedOutOn), Date.valueOf(dueDate));
+    }
+
+    /**
+     * Closes the member's open loan of the book, if there is one. A member may hold several
+     * copies of a multi-copy title; the oldest of those loans is closed.
+     */
+    public void close(String isbn, String memberEmail, LoanOutcome outcome, LocalDate closedOn) {
+        jdbcTemplate.update(CLOSE, Date.valueOf(closedOn), outcome.name(), isbn, memberEmail);
+    }
+
+    /**
+     * Removes the member's open loan of the book, for a checkout that did not happen.
+     */
+    public void discard(String isbn, String memberEmail) {
+        jdbcTemplate.update(DISCARD, isbn, memberEmail);
+    }
+
+    /**
+     * Reopens the member's latest loan of the book closed with {@code outcome}, for a return or
+     * write-off that did not happen.
+     */
+    public void reopen(String isbn, String memberEmail, LoanOutcome outcome) {
+        jdbcTemplate.update(REOPEN, isbn, memberEmail, outcome.name());
+    }
+}
@@ -0,0 +1,15 @@
+package edu.trincoll.service.cardinality;
+
+/**
+ * An approximate distinct count. About two thirds of estimates fall within one
+ * {@code relativeStandardError} of the true value, and about 95% within two.
+ */
+public record CardinalityEstimate(long value, double relativeStandardError) {
+
+    /**
+     * Half-width of the ~95% interval around {@link #value()}, in absolute terms.
+     */
+    public long margin95() {
+        return Math.round(2 * relativeStandardError * value);
+    }
+}
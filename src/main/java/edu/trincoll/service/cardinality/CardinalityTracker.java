@@ -0,0 +1,166 @@
+package edu.trincoll.service.cardinality;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.CardinalityMetric;
+import edu.trincoll.model.CirculationSketch;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.CirculationSketchRepository;
+import edu.trincoll.service.event.BookLifecycleListener;
+import edu.trincoll.service.sketch.HyperLogLog;
+import edu.trincoll.service.sketch.KeyHash;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distinct active borrowers and distinct titles circulated, as daily HyperLogLog sketches.
+ * <p>
+ * Every committed checkout is added to today's in-memory sketches: active borrowers per
+ * membership tier, titles for the whole library. A periodic flush merges changed sketches into
+ * {@code circulation_sketches}; because merging is idempotent, a flush that fails or races
+ * another instance is simply retried. A sketch counts as flushed only up to the last change its
+ * successful save included, so neither a failed save nor a checkout recorded during the save is
+ * lost. Queries merge the stored days with whatever has not been flushed yet, so they see every
+ * recorded checkout. A clean shutdown flushes once more, so only a crash loses the checkouts
+ * recorded since the last flush.
+ */
+@Service
+public class CardinalityTracker implements BookLifecycleListener {
+
+    public static final String ALL = "ALL";
+
+    private final CirculationSketchRepository repository;
+    private final TransactionTemplate transactions;
+    private final TransactionTemplate readOnly;
+    private final int precision;
+    private final Map<SketchKey, Pending> pending = new ConcurrentHashMap<>();
+
+    public CardinalityTracker(CirculationSketchRepository repository, PlatformTransactionManager transactionManager,
+                              @Value("${library.cardinality.precision:12}") int precision) {
+        if (precision < 4 || precision > 14) {
+            throw new IllegalArgumentException("library.cardinality.precision must be between 4 and 14");
+        }
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.precision = precision;
+    }
+
+    @Override
+    public void onCheckout(Book book, Member member) {
+        record(LocalDate.now(), member.getEmail(), member.getMembershipType(), book.getIsbn());
+    }
+
+    @Override
+    public void onCopyCheckout(String isbn, Member member) {
+        record(LocalDate.now(), member.getEmail(), member.getMembershipType(), isbn);
+    }
+
+    public void record(LocalDate date, String memberEmail, MembershipType tier, String isbn) {
+        add(new SketchKey(CardinalityMetric.ACTIVE_BORROWERS, date, tier.name()), memberEmail);
+        add(new SketchKey(CardinalityMetric.TITLES_CIRCULATED, date, ALL), isbn);
+    }
+
+    /**
+     * Every sketch of {@code metric} from {@code from} to {@code to} inclusive, stored and pending.
+     */
+    public SketchSet sketches(CardinalityMetric metric, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        SketchSet set = new SketchSet(precision);
+        readOnly.executeWithoutResult(status -> repository.findByMetricAndDateBetween(metric, from, to)
+                .forEach(row -> set.merge(row.getDate(), row.getDimension(),
+                        HyperLogLog.fromBytes(row.getRegisters()))));
+        pending.forEach((key, entry) -> {
+            if (key.metric() == metric && !key.date().isBefore(from) && !key.date().isAfter(to)) {
+                set.merge(key.date(), key.dimension(), entry.sketch);
+            }
+        });
+        return set;
+    }
+
+    /**
+     * Saves every changed sketch. A failure leaves that sketch changed for the next flush and is
+     * rethrown once the others have been tried.
+     */
+    @Scheduled(fixedDelayString = "${library.cardinality.flush-interval-ms:60000}")
+    public void flush() {
+        LocalDate today = LocalDate.now();
+        RuntimeException failure = null;
+        for (Map.Entry<SketchKey, Pending> e : pending.entrySet()) {
+            SketchKey key = e.getKey();
+            Pending entry = e.getValue();
+            long changes = entry.changes.get();
+            if (changes > entry.flushed) {
+                try {
+                    HyperLogLog sketch = entry.sketch.copy();
+                    transactions.executeWithoutResult(status -> persist(key, sketch));
+                    entry.flushed = changes;
+                } catch (RuntimeException ex) {
+                    // e.g. lost a race with another instance's flush; merge again next time
+                    if (failure == null) {
+                        failure = ex;
+                    } else {
+                        failure.addSuppressed(ex);
+                    }
+                    continue;
+                }
+            }
+            if (key.date().isBefore(today) && entry.changes.get() == entry.flushed) {
+                pending.remove(key, entry);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void add(SketchKey key, String value) {
+        Pending entry = pending.computeIfAbsent(key, k -> new Pending(new HyperLogLog(precision)));
+        entry.sketch.add(KeyHash.of(value));
+        entry.changes.incrementAndGet();
+    }
+
+    private void persist(SketchKey key, HyperLogLog sketch) {
+        repository.findByMetricAndDateAndDimension(key.metric(), key.date(), key.dimension())
+                .ifPresentOrElse(stored -> {
+                    HyperLogLog merged = HyperLogLog.fromBytes(stored.getRegisters());
+                    merged.merge(sketch);
+                    stored.setRegisters(merged.toBytes());
+                }, () -> repository.save(
+                        new CirculationSketch(key.metric(), key.date(), key.dimension(), sketch.toBytes())));
+    }
+
+    private record SketchKey(CardinalityMetric metric, LocalDate date, String dimension) {
+    }
+
+    /**
+     * An in-memory sketch and how many changes of it are stored. {@code changes} is counted after
+     * each add, so a copy taken after reading it contains at least that many.
+     */
+    private static final class Pending {
+        private final HyperLogLog sketch;
+        private final AtomicLong changes = new AtomicLong();
+        private volatile long flushed;
+
+        private Pending(HyperLogLog sketch) {
+            this.sketch = sketch;
+        }
+    }
+}
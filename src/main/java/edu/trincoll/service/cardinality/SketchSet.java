@@ -0,0 +1,44 @@
+package edu.trincoll.service.cardinality;
+
+import edu.trincoll.service.sketch.HyperLogLog;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Daily sketches of one metric over a date range, loaded once and merged in memory for any
+ * sub-range and dimension.
+ */
+public final class SketchSet {
+
+    private final int precision;
+    private final TreeMap<LocalDate, Map<String, HyperLogLog>> days = new TreeMap<>();
+
+    SketchSet(int precision) {
+        this.precision = precision;
+    }
+
+    void merge(LocalDate date, String dimension, HyperLogLog sketch) {
+        days.computeIfAbsent(date, d -> new HashMap<>())
+                .computeIfAbsent(dimension, d -> new HyperLogLog(precision))
+                .merge(sketch);
+    }
+
+    /**
+     * Distinct keys seen between {@code from} and {@code to} inclusive in {@code dimension}, or in
+     * any dimension if it is null.
+     */
+    public CardinalityEstimate estimate(LocalDate from, LocalDate to, String dimension) {
+        HyperLogLog union = new HyperLogLog(precision);
+        for (Map<String, HyperLogLog> day : days.subMap(from, true, to, true).values()) {
+            day.forEach((dim, sketch) -> {
+                if (dimension == null || dimension.equals(dim)) {
+                    union.merge(sketch);
+                }
+            });
+        }
+        return new CardinalityEstimate(union.estimate(), union.standardError());
+    }
+}
@@ -0,0 +1,32 @@
+package edu.trincoll.service.coherence;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.ChangeLogEntityType;
+import edu.trincoll.model.Member;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on {@link Book} and {@link Member}: records every insert, update and delete made
+ * through JPA in the change log.
+ */
+public class ChangeLogEntityListener {
+
+    private final ChangeLogWriter changeLogWriter;
+
+    public ChangeLogEntityListener(ChangeLogWriter changeLogWriter) {
+        this.changeLogWriter = changeLogWriter;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Book book) {
+            changeLogWriter.append(ChangeLogEntityType.BOOK, book.getIsbn(), book.getVersion());
+        } else if (entity instanceof Member member) {
+            changeLogWriter.append(ChangeLogEntityType.MEMBER, member.getEmail(), member.getVersion());
+        }
+    }
+}
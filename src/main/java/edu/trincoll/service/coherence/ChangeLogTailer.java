@@ -0,0 +1,154 @@
+package edu.trincoll.service.coherence;
+
+import edu.trincoll.model.ChangeLogEntityType;
+import edu.trincoll.model.ChangeLogEntry;
+import edu.trincoll.repository.ChangeLogRepository;
+import edu.trincoll.repository.routing.ReadYourWrites;
+import edu.trincoll.service.report.CirculationVersion;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails {@code change_log} with a keyset poll ({@code id > position}) and invalidates the
+ * matching cache entries in one batch per entity type. Entries written by this instance are
+ * skipped; they were applied locally on commit.
+ * <p>
+ * Identity values are handed out at insert, not at commit, so a slow transaction can commit an
+ * id below the current position. Skipped ids are remembered as gaps and re-read on each poll
+ * until they show up or are older than {@code gapTimeoutMs} (the transaction rolled back).
+ * The log is always read from the primary, never a replica.
+ */
+@Component
+public class ChangeLogTailer {
+
+    private static final int MAX_GAPS_PER_BATCH = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final List<CoherentCache<?>> caches;
+    private final CirculationVersion circulationVersion;
+    private final CoherenceProperties properties;
+
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private long position = -1;
+    private long lastSyncNanos = System.nanoTime();
+    private long entriesApplied;
+    private long batches;
+    private long pollFailures;
+    private long lastLagMillis;
+    private long maxLagMillis;
+    private long totalLagMillis;
+
+    public ChangeLogTailer(ChangeLogRepository changeLogRepository, List<CoherentCache<?>> caches,
+                           CirculationVersion circulationVersion, CoherenceProperties properties) {
+        this.changeLogRepository = changeLogRepository;
+        this.caches = caches;
+        this.circulationVersion = circulationVersion;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${library.coherence.poll-interval-ms:250}")
+    public synchronized void poll() {
+        long started = System.nanoTime();
+        try {
+            List<ChangeLogEntry> changes = ReadYourWrites.onPrimary(() -> fetch(started));
+            if (started - lastSyncNanos > TimeUnit.MILLISECONDS.toNanos(properties.maxStalenessMs())) {
+                // Out of touch for longer than the bound (or the log was pruned past us): start clean.
+                caches.forEach(CoherentCache::invalidateAll);
+            }
+            apply(changes);
+            lastSyncNanos = started;
+            caches.forEach(cache -> cache.markSynced(started));
+        } catch (DataAccessException e) {
+            pollFailures++;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.coherence.prune-interval-ms:60000}")
+    public void prune() {
+        changeLogRepository.deleteOlderThan(Instant.now().minus(Duration.ofMinutes(properties.retentionMinutes())));
+    }
+
+    public synchronized CoherenceMetrics metrics() {
+        return new CoherenceMetrics(position, entriesApplied, batches, pollFailures, lastLagMillis, maxLagMillis,
+                entriesApplied == 0 ? 0.0 : (double) totalLagMillis / entriesApplied,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastSyncNanos), gaps.size());
+    }
+
+    private List<ChangeLogEntry> fetch(long started) {
+        if (position < 0) {
+            Long max = changeLogRepository.findMaxId();
+            position = max == null ? 0 : max;
+        }
+        List<ChangeLogEntry> changes = new ArrayList<>(recheckGaps(started));
+        List<ChangeLogEntry> batch;
+        do {
+            batch = changeLogRepository.findByIdGreaterThanOrderByIdAsc(position, Limit.of(properties.batchSize()));
+            for (ChangeLogEntry entry : batch) {
+                recordGaps(entry.getId(), started);
+                position = entry.getId();
+                changes.add(entry);
+            }
+        } while (batch.size() == properties.batchSize());
+        return changes;
+    }
+
+    private List<ChangeLogEntry> recheckGaps(long now) {
+        if (gaps.isEmpty()) {
+            return List.of();
+        }
+        List<ChangeLogEntry> filled = changeLogRepository.findAllById(gaps.keySet());
+        filled.forEach(entry -> gaps.remove(entry.getId()));
+        long timeout = TimeUnit.MILLISECONDS.toNanos(properties.gapTimeoutMs());
+        gaps.values().removeIf(firstSeen -> now - firstSeen > timeout);
+        return filled;
+    }
+
+    private void recordGaps(long id, long now) {
+        long from = Math.max(position + 1, id - MAX_GAPS_PER_BATCH);
+        for (long missing = from; missing < id; missing++) {
+            gaps.putIfAbsent(missing, now);
+        }
+    }
+
+    private void apply(List<ChangeLogEntry> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<ChangeLogEntityType, Set<String>> keys = new EnumMap<>(ChangeLogEntityType.class);
+        Instant now = Instant.now();
+        for (ChangeLogEntry entry : changes) {
+            if (properties.nodeId().equals(entry.getNodeId())) {
+                continue;
+            }
+            keys.computeIfAbsent(entry.getEntityType(), t -> new HashSet<>()).add(entry.getEntityKey());
+            long lag = Math.max(0, Duration.between(entry.getChangedAt(), now).toMillis());
+            lastLagMillis = lag;
+            maxLagMillis = Math.max(maxLagMillis, lag);
+            totalLagMillis += lag;
+            entriesApplied++;
+        }
+        for (CoherentCache<?> cache : caches) {
+            Set<String> changed = keys.get(cache.type());
+            if (changed != null) {
+                cache.invalidate(changed);
+            }
+        }
+        if (!keys.isEmpty()) {
+            circulationVersion.bump(); // book and member changes both feed cached reports
+        }
+        batches++;
+    }
+}
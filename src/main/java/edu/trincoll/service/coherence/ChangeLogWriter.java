@@ -0,0 +1,64 @@
+package edu.trincoll.service.coherence;
+
+import edu.trincoll.model.ChangeLogEntityType;
+import edu.trincoll.service.report.CirculationVersion;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Appends to {@code change_log} on the current transaction's connection, so the entry commits or
+ * rolls back with the change it describes, and invalidates this instance's caches after commit.
+ * Member writes also move the {@link CirculationVersion}: adding, removing or re-tiering a member
+ * changes the member activity report without any circulation event. Every write path for books and members must go through here; other instances pick the entry
+ * up through their {@link ChangeLogTailer}.
+ */
+@Component
+public class ChangeLogWriter {
+
+    private static final String APPEND =
+            "insert into change_log (entity_type, entity_key, entity_version, changed_at, node_id) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<CoherentCache<?>> caches;
+    private final CirculationVersion circulationVersion;
+    private final String nodeId;
+
+    public ChangeLogWriter(JdbcTemplate jdbcTemplate, List<CoherentCache<?>> caches,
+                           CirculationVersion circulationVersion, CoherenceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.caches = caches;
+        this.circulationVersion = circulationVersion;
+        this.nodeId = properties.nodeId();
+    }
+
+    public void append(ChangeLogEntityType type, String key, long version) {
+        jdbcTemplate.update(APPEND, type.name(), key, version, Timestamp.from(Instant.now()), nodeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateLocally(type, key);
+                }
+            });
+        } else {
+            invalidateLocally(type, key);
+        }
+    }
+
+    private void invalidateLocally(ChangeLogEntityType type, String key) {
+        for (CoherentCache<?> cache : caches) {
+            if (cache.type() == type) {
+                cache.invalidate(List.of(key));
+            }
+        }
+        if (type == ChangeLogEntityType.MEMBER) {
+            circulationVersion.bump();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package edu.trincoll.service.coherence;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.ChangeLogEntityType;
+import edu.trincoll.model.Member;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The change-log-backed caches: books by ISBN and members by email.
+ */
+@Configuration
+@EnableConfigurationProperties(CoherenceProperties.class)
+public class CoherenceConfiguration {
+
+    @Bean
+    public CoherentCache<Book> bookCache(CoherenceProperties properties) {
+        return new CoherentCache<>(ChangeLogEntityType.BOOK, properties.maxEntries(), properties.maxStalenessMs());
+    }
+
+    @Bean
+    public CoherentCache<Member> memberCache(CoherenceProperties properties) {
+        return new CoherentCache<>(ChangeLogEntityType.MEMBER, properties.maxEntries(), properties.maxStalenessMs());
+    }
+}
@@ -0,0 +1,16 @@
+package edu.trincoll.service.coherence;
+
+/**
+ * Snapshot of the change-log tailer. Lag is measured from the writer's commit timestamp to the
+ * moment this instance invalidated its caches, so it includes clock skew between instances.
+ */
+public record CoherenceMetrics(long position,
+                               long entriesApplied,
+                               long batches,
+                               long pollFailures,
+                               long lastLagMillis,
+                               long maxLagMillis,
+                               double meanLagMillis,
+                               long millisSinceSync,
+                               int pendingGaps) {
+}
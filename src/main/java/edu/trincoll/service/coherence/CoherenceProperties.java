@@ -0,0 +1,26 @@
+package edu.trincoll.service.coherence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.UUID;
+
+/**
+ * {@code library.coherence.*}: change-log tailing for the in-process book and member caches.
+ * A blank node id is replaced by a random one, so each instance gets its own.
+ */
+@ConfigurationProperties("library.coherence")
+public record CoherenceProperties(@DefaultValue("") String nodeId,
+                                  @DefaultValue("250") long pollIntervalMs,
+                                  @DefaultValue("500") int batchSize,
+                                  @DefaultValue("2000") long maxStalenessMs,
+                                  @DefaultValue("10000") long gapTimeoutMs,
+                                  @DefaultValue("60") long retentionMinutes,
+                                  @DefaultValue("10000") int maxEntries) {
+
+    public CoherenceProperties {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package edu.trincoll.service.coherence;
+
+import edu.trincoll.model.ChangeLogEntityType;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-process cache of one entity type, kept coherent across instances by {@link ChangeLogTailer}.
+ * <p>
+ * Entries are only served while the tailer has caught up with the change log within
+ * {@code maxStalenessMs}; otherwise every lookup goes to the loader, so a stalled tailer
+ * costs cache hits rather than correctness. A load that races with an invalidation of the
+ * same cache is not kept. Cached instances are shared: callers must not modify them.
+ */
+public class CoherentCache<V> {
+
+    private final ChangeLogEntityType type;
+    private final int maxEntries;
+    private final long maxStalenessNanos;
+    private final Map<String, V> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile long syncedAtNanos;
+    private volatile boolean synced;
+
+    public CoherentCache(ChangeLogEntityType type, int maxEntries, long maxStalenessMs) {
+        this.type = type;
+        this.maxEntries = maxEntries;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+
+    public ChangeLogEntityType type() {
+        return type;
+    }
+
+    public Optional<V> get(String key, Function<String, Optional<V>> loader) {
+        if (!isFresh()) {
+            return loader.apply(key);
+        }
+        V cached = entries.get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        misses.incrementAndGet();
+        long stamp = invalidations.get();
+        Optional<V> loaded = loader.apply(key);
+        loaded.ifPresent(value -> {
+            if (entries.size() >= maxEntries) {
+                evictOne();
+            }
+            entries.putIfAbsent(key, value);
+            if (invalidations.get() != stamp) {
+                entries.remove(key, value);
+            }
+        });
+        return loaded;
+    }
+
+    public void invalidate(Collection<String> keys) {
+        invalidations.incrementAndGet();
+        keys.forEach(entries::remove);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Records that every change committed before {@code startedNanos} has been applied.
+     */
+    void markSynced(long startedNanos) {
+        syncedAtNanos = startedNanos;
+        synced = true;
+    }
+
+    public boolean isFresh() {
+        return synced && System.nanoTime() - syncedAtNanos < maxStalenessNanos;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    private void evictOne() {
+        Iterator<String> keys = entries.keySet().iterator();
+        if (keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package edu.trincoll.service.dashboard;
+
+import edu.trincoll.model.MembershipType;
+
+import java.util.Map;
+
+/**
+ * Everything the admin dashboard shows, gathered in one call.
+ */
+public record Dashboard(String availabilityReport,
+                        String overdueReport,
+                        long totalMembers,
+                        Map<MembershipType, TierStatistics> tiers) {
+}
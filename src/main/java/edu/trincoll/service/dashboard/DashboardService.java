@@ -0,0 +1,118 @@
+package edu.trincoll.service.dashboard;
+
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Builds the {@link Dashboard} by running its subtasks concurrently, one virtual thread each,
+ * so the total latency is that of the slowest subtask. The subtasks are scoped to the call:
+ * if one fails or the deadline passes, the others are cancelled and the call fails.
+ * <p>
+ * Each database subtask runs in its own read-only transaction; a JDBC connection cannot be
+ * shared between threads, so one snapshot across all of them is not possible.
+ */
+@Service
+public class DashboardService {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnly;
+    private final Duration timeout;
+
+    public DashboardService(MemberRepository memberRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${library.dashboard.timeout-ms:2000}") long timeoutMillis) {
+        this.memberRepository = memberRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    public Dashboard compose(Supplier<String> availabilityReport, Supplier<String> overdueReport) {
+        ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CompletionService<Object> completion = new ExecutorCompletionService<>(scope);
+            List<Future<Object>> subtasks = new ArrayList<>();
+
+            Future<Object> availability = fork(completion, subtasks, availabilityReport::get);
+            Future<Object> overdue = fork(completion, subtasks, overdueReport::get);
+            Future<Object> totalMembers = fork(completion, subtasks, () -> inReadOnly(memberRepository::count));
+            Map<MembershipType, Future<Object>> tierTasks = new EnumMap<>(MembershipType.class);
+            for (MembershipType type : MembershipType.values()) {
+                tierTasks.put(type, fork(completion, subtasks, () -> inReadOnly(() -> tierStatistics(type))));
+            }
+
+            joinAll(completion, subtasks);
+
+            Map<MembershipType, TierStatistics> tiers = new EnumMap<>(MembershipType.class);
+            tierTasks.forEach((type, task) -> tiers.put(type, (TierStatistics) task.resultNow()));
+            return new Dashboard((String) availability.resultNow(), (String) overdue.resultNow(),
+                    (Long) totalMembers.resultNow(), tiers);
+        } finally {
+            scope.shutdownNow();
+        }
+    }
+
+    private TierStatistics tierStatistics(MembershipType type) {
+        return new TierStatistics(type,
+                memberRepository.countByMembershipType(type),
+                memberRepository.sumBooksCheckedOutByMembershipType(type));
+    }
+
+    private <T> T inReadOnly(Supplier<T> work) {
+        return readOnly.execute(status -> work.get());
+    }
+
+    private static Future<Object> fork(CompletionService<Object> completion, List<Future<Object>> subtasks,
+                                       Callable<Object> task) {
+        Future<Object> future = completion.submit(task);
+        subtasks.add(future);
+        return future;
+    }
+
+    /**
+     * Waits for every subtask in completion order, failing fast on the first error or on the deadline.
+     */
+    private void joinAll(CompletionService<Object> completion, List<Future<Object>> subtasks) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (int remaining = subtasks.size(); remaining > 0; remaining--) {
+            try {
+                Future<Object> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    cancelAll(subtasks);
+                    throw new IllegalStateException("Dashboard did not complete within " + timeout.toMillis() + " ms");
+                }
+                done.get();
+            } catch (ExecutionException e) {
+                cancelAll(subtasks);
+                throw new IllegalStateException("Dashboard subtask failed", e.getCause());
+            } catch (InterruptedException e) {
+                cancelAll(subtasks);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while building dashboard", e);
+            }
+        }
+    }
+
+    private static void cancelAll(List<Future<Object>> subtasks) {
+        subtasks.forEach(f -> f.cancel(true));
+    }
+}
@@ -0,0 +1,6 @@
+package edu.trincoll.service.dashboard;
+
+import edu.trincoll.model.MembershipType;
+
+public record TierStatistics(MembershipType membershipType, long members, long booksCheckedOut) {
+}
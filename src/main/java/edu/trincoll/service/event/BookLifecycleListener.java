@@ -0,0 +1,50 @@
+package edu.trincoll.service.event;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+
+/**
+ * Callback for circulation changes made through {@link edu.trincoll.service.BookService}, and
+ * for copies of multi-copy titles lent through
+ * {@link edu.trincoll.service.holdings.HoldingsService}.
+ * Invoked after the book has been saved, or after the surrounding transaction commits if there
+ * is one. Implementations should be cheap; anything expensive belongs on a background thread.
+ */
+public interface BookLifecycleListener {
+
+    default void onCheckout(Book book, Member member) {
+    }
+
+    /**
+     * @param previousBorrower email of the member who had the book, already cleared on {@code book}
+     */
+    default void onReturn(Book book, String previousBorrower) {
+    }
+
+    default void onHold(Book book, Member member) {
+    }
+
+    /**
+     * @param previousHolder email of the member whose hold ran out, already cleared on {@code book}
+     */
+    default void onHoldReleased(Book book, String previousHolder) {
+    }
+
+    /**
+     * @param previousHolder email of the member who had the book on loan or hold, or null
+     */
+    default void onLost(Book book, String previousHolder) {
+    }
+
+    /**
+     * A copy of the title {@code isbn} was lent to {@code member}.
+     */
+    default void onCopyCheckout(String isbn, Member member) {
+    }
+
+    /**
+     * @param previousBorrower email of the member who had the copy of the title {@code isbn}
+     */
+    default void onCopyReturn(String isbn, String previousBorrower) {
+    }
+}
@@ -0,0 +1,19 @@
+package edu.trincoll.service.feed;
+
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.BookStatusChange;
+
+import java.time.Instant;
+
+/**
+ * A book status transition as delivered to feed consumers. {@code offset} is monotonic across
+ * the whole feed; {@code fromStatus} is null for a book's first recorded transition.
+ */
+public record CatalogChange(long offset, String isbn, BookStatus fromStatus, BookStatus toStatus,
+                            String memberEmail, Instant changedAt) {
+
+    static CatalogChange from(BookStatusChange row) {
+        return new CatalogChange(row.getId(), row.getIsbn(), row.getFromStatus(), row.getToStatus(),
+                row.getMemberEmail(), row.getChangedAt());
+    }
+}
@@ -0,0 +1,226 @@
+package edu.trincoll.service.feed;
+
+import edu.trincoll.model.BookStatusChange;
+import edu.trincoll.repository.BookStatusChangeRepository;
+import edu.trincoll.repository.routing.ReadYourWrites;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves {@code book_status_changes} as an ordered feed. Consumers pass the offset of the last
+ * change they processed and get the changes after it, either by long-poll or over SSE.
+ * <p>
+ * Offsets are identity values handed out at insert, not at commit, so a slow transaction can
+ * commit an offset below one that is already visible. A batch therefore stops at the first
+ * missing offset until it shows up or the change after it is older than {@code gapTimeoutMs}
+ * (the transaction rolled back, or the row was pruned). A consumer never skips a change that
+ * commits within that window.
+ * <p>
+ * Delivery runs on one dispatcher thread, woken by local commits and by a periodic poll that
+ * picks up changes from other instances. Waiters at the same cursor share a single query.
+ */
+@Component
+public class CatalogChangeFeed {
+
+    private final BookStatusChangeRepository repository;
+    private final int maxBatchSize;
+    private final long gapTimeoutMs;
+    private final long sseTimeoutMs;
+    private final long retentionMinutes;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogChangeFeed(BookStatusChangeRepository repository,
+                             @Value("${library.feed.max-batch-size:500}") int maxBatchSize,
+                             @Value("${library.feed.gap-timeout-ms:2000}") long gapTimeoutMs,
+                             @Value("${library.feed.sse-timeout-ms:1800000}") long sseTimeoutMs,
+                             @Value("${library.feed.retention-minutes:1440}") long retentionMinutes) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("library.feed.max-batch-size must be positive");
+        }
+        this.repository = repository;
+        this.maxBatchSize = maxBatchSize;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.sseTimeoutMs = sseTimeoutMs;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    /**
+     * @return the offset of the newest change, for consumers that only want changes from now on
+     */
+    public long head() {
+        Long max = ReadYourWrites.onPrimary(repository::findMaxId);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * The next run of at most {@code max} consecutive changes after offset {@code after}.
+     */
+    public ChangeBatch read(long after, int max) {
+        int limit = clampBatch(max);
+        List<BookStatusChange> rows = ReadYourWrites.onPrimary(
+                () -> repository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit)));
+        Instant holdAfter = Instant.now().minusMillis(gapTimeoutMs);
+        List<CatalogChange> changes = new ArrayList<>(rows.size());
+        long cursor = after;
+        for (BookStatusChange row : rows) {
+            if (row.getId() != cursor + 1 && row.getChangedAt().isAfter(holdAfter)) {
+                break; // an earlier offset may still be in flight
+            }
+            changes.add(CatalogChange.from(row));
+            cursor = row.getId();
+        }
+        return new ChangeBatch(changes, cursor);
+    }
+
+    /**
+     * Completes with the next batch after {@code after} as soon as there is one, or with an
+     * empty batch at the same cursor after {@code timeoutMs}.
+     */
+    public DeferredResult<ChangeBatch> longPoll(long after, int max, long timeoutMs) {
+        DeferredResult<ChangeBatch> result = new DeferredResult<>(timeoutMs, () -> ChangeBatch.empty(after));
+        ChangeBatch ready = read(after, max);
+        if (!ready.changes().isEmpty()) {
+            result.setResult(ready);
+            return result;
+        }
+        Waiter waiter = new Waiter(after, clampBatch(max), result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        signal(); // covers a commit that landed between the read and the registration
+        return result;
+    }
+
+    /**
+     * Streams every change after {@code after} as {@code changes} events. Each event's id is
+     * its batch cursor, so a reconnecting client resumes with {@code Last-Event-ID}.
+     */
+    public SseEmitter subscribe(long after, int max) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, clampBatch(max), after);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        signal();
+        return emitter;
+    }
+
+    /**
+     * Schedules a delivery pass. Calls made while one is already queued are coalesced.
+     */
+    void signal() {
+        if (waiters.isEmpty() && subscribers.isEmpty()) {
+            return;
+        }
+        if (dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchPending.set(false);
+                deliver();
+            });
+        }
+    }
+
+    /**
+     * Picks up changes committed by other instances and offsets released by the gap timeout.
+     */
+    @Scheduled(fixedDelayString = "${library.feed.poll-interval-ms:500}")
+    public void poll() {
+        signal();
+    }
+
+    @Scheduled(fixedDelayString = "${library.feed.prune-interval-ms:60000}")
+    public void prune() {
+        repository.deleteOlderThan(Instant.now().minus(Duration.ofMinutes(retentionMinutes)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    int waiting() {
+        return waiters.size() + subscribers.size();
+    }
+
+    private void deliver() {
+        Map<Long, ChangeBatch> byCursor = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            ChangeBatch batch = byCursor.computeIfAbsent(waiter.after, after -> read(after, maxBatchSize))
+                    .limit(waiter.max);
+            if (!batch.changes().isEmpty()) {
+                waiter.result.setResult(batch);
+                waiters.remove(waiter);
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            push(subscriber, byCursor);
+        }
+    }
+
+    private void push(Subscriber subscriber, Map<Long, ChangeBatch> byCursor) {
+        try {
+            ChangeBatch batch;
+            do {
+                long cursor = subscriber.cursor;
+                batch = byCursor.computeIfAbsent(cursor, after -> read(after, maxBatchSize)).limit(subscriber.max);
+                if (batch.changes().isEmpty()) {
+                    return;
+                }
+                subscriber.emitter.send(SseEmitter.event()
+                        .name("changes")
+                        .id(Long.toString(batch.cursor()))
+                        .data(batch.changes()));
+                subscriber.cursor = batch.cursor();
+            } while (batch.changes().size() == subscriber.max);
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private int clampBatch(int max) {
+        return Math.max(1, Math.min(max, maxBatchSize));
+    }
+
+    private record Waiter(long after, int max, DeferredResult<ChangeBatch> result) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final int max;
+        private volatile long cursor;
+
+        private Subscriber(SseEmitter emitter, int max, long cursor) {
+            this.emitter = emitter;
+            this.max = max;
+            this.cursor = cursor;
+        }
+    }
+}
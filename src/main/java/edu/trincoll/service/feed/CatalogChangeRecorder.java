@@ -0,0 +1,66 @@
+package edu.trincoll.service.feed;
+
+import edu.trincoll.model.BookStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Appends to {@code book_status_changes} on the current transaction's connection, so a
+ * transition is in the feed exactly when the change it describes commits. Waiting consumers
+ * on this instance are woken after commit; other instances see it on their next poll.
+ * <p>
+ * Work that is always rolled back, such as the startup warm-up's rehearsals, runs through
+ * {@link #unrecorded}: its inserts would vanish with the rollback but still use up feed ids,
+ * leaving gaps that consumers would have to wait out.
+ */
+@Component
+public class CatalogChangeRecorder {
+
+    private static final String APPEND =
+            "insert into book_status_changes (isbn, from_status, to_status, member_email, changed_at) values (?, ?, ?, ?, ?)";
+    private static final ThreadLocal<Integer> UNRECORDED = ThreadLocal.withInitial(() -> 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogChangeFeed feed;
+
+    public CatalogChangeRecorder(JdbcTemplate jdbcTemplate, CatalogChangeFeed feed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.feed = feed;
+    }
+
+    /**
+     * Runs {@code work} without recording any transition it makes on this thread.
+     */
+    public static <T> T unrecorded(Supplier<T> work) {
+        UNRECORDED.set(UNRECORDED.get() + 1);
+        try {
+            return work.get();
+        } finally {
+            UNRECORDED.set(UNRECORDED.get() - 1);
+        }
+    }
+
+    public void record(String isbn, BookStatus from, BookStatus to, String memberEmail) {
+        if (UNRECORDED.get() > 0) {
+            return;
+        }
+        jdbcTemplate.update(APPEND, isbn, from == null ? null : from.name(), to.name(), memberEmail,
+                Timestamp.from(Instant.now()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    feed.signal();
+                }
+            });
+        } else {
+            feed.signal();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package edu.trincoll.service.feed;
+
+import java.util.List;
+
+/**
+ * A run of consecutive changes plus the cursor to resume from: the offset of the last change
+ * in the batch, or the requested cursor unchanged if the batch is empty.
+ */
+public record ChangeBatch(List<CatalogChange> changes, long cursor) {
+
+    static ChangeBatch empty(long cursor) {
+        return new ChangeBatch(List.of(), cursor);
+    }
+
+    ChangeBatch limit(int max) {
+        if (changes.size() <= max) {
+            return this;
+        }
+        List<CatalogChange> head = changes.subList(0, max);
+        return new ChangeBatch(head, head.get(max - 1).offset());
+    }
+}
@@ -0,0 +1,172 @@
+package edu.trincoll.service.holdings;
+
+import edu.trincoll.model.BookCopy;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.LoanOutcome;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.Title;
+import edu.trincoll.repository.BookCopyRepository;
+import edu.trincoll.repository.TitleAvailabilityView;
+import edu.trincoll.repository.TitleRepository;
+import edu.trincoll.service.MemberService;
+import edu.trincoll.service.archive.LoanRecorder;
+import edu.trincoll.service.event.AfterCommit;
+import edu.trincoll.service.event.BookLifecycleListener;
+import edu.trincoll.service.fee.LateFeeCalculatorFactory;
+import edu.trincoll.service.policy.CheckoutPolicy;
+import edu.trincoll.service.policy.CheckoutPolicyFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Circulation for multi-copy titles.
+ * <p>
+ * Checkout first takes one unit of the title's {@code available_copies} counter with a guarded
+ * decrement; once that succeeds a copy is guaranteed to exist, and one is claimed off the
+ * (title, status) index. Candidates are tried in random order so concurrent checkouts of the
+ * same title go after different rows. Availability is read from the counter, never by
+ * counting copies.
+ * <p>
+ * A copy on loan counts toward the borrower's checkout count like a book does, so it is also
+ * recorded in {@code loans} under the title's ISBN, bumps the {@code CirculationVersion} of
+ * cached reports and reaches the lifecycle listeners' copy callbacks after commit. It is not
+ * written to the catalog feed or the change log: those track rows of {@code books}, and titles
+ * are neither cached nor part of the feed.
+ */
+@Service
+public class HoldingsService {
+
+    private static final int CLAIM_CANDIDATES = 8;
+    private static final int MAX_CLAIM_ROUNDS = 16;
+
+    private final TitleRepository titleRepository;
+    private final BookCopyRepository copyRepository;
+    private final MemberService memberService;
+    private final CheckoutPolicyFactory checkoutPolicyFactory;
+    private final LateFeeCalculatorFactory lateFeeCalculatorFactory;
+    private final LoanRecorder loanRecorder;
+    private final List<BookLifecycleListener> listeners;
+
+    public HoldingsService(TitleRepository titleRepository, BookCopyRepository copyRepository,
+                           MemberService memberService, CheckoutPolicyFactory checkoutPolicyFactory,
+                           LateFeeCalculatorFactory lateFeeCalculatorFactory, LoanRecorder loanRecorder,
+                           List<BookLifecycleListener> listeners) {
+        this.titleRepository = titleRepository;
+        this.copyRepository = copyRepository;
+        this.memberService = memberService;
+        this.checkoutPolicyFactory = checkoutPolicyFactory;
+        this.lateFeeCalculatorFactory = lateFeeCalculatorFactory;
+        this.loanRecorder = loanRecorder;
+        this.listeners = listeners;
+    }
+
+    @Transactional
+    public Title addTitle(String isbn, String title, String author, LocalDate publicationDate) {
+        if (titleRepository.findByIsbn(isbn).isPresent()) {
+            throw new IllegalArgumentException("Title already exists with ISBN: " + isbn);
+        }
+        return titleRepository.save(new Title(isbn, title, author, publicationDate));
+    }
+
+    @Transactional
+    public BookCopy addCopy(String isbn, String barcode) {
+        Title title = findTitle(isbn);
+        if (copyRepository.findByBarcode(barcode).isPresent()) {
+            throw new IllegalArgumentException("Copy already exists with barcode: " + barcode);
+        }
+        BookCopy copy = copyRepository.save(new BookCopy(title, barcode));
+        titleRepository.addCopy(title.getId());
+        return copy;
+    }
+
+    public TitleAvailabilityView availability(String isbn) {
+        return titleRepository.findAvailabilityByIsbn(isbn)
+                .orElseThrow(() -> new IllegalArgumentException("Title not found with ISBN: " + isbn));
+    }
+
+    /**
+     * Copy counts for every title, one row per title regardless of how many copies it has.
+     */
+    public List<TitleAvailabilityView> availabilityReport() {
+        return titleRepository.findAllAvailability();
+    }
+
+    @Transactional
+    public String checkoutCopy(String isbn, String memberEmail) {
+        Title title = findTitle(isbn);
+        Member member = memberService.findByEmail(memberEmail);
+
+        CheckoutPolicy policy = checkoutPolicyFactory.getPolicyFor(member.getMembershipType());
+        if (!policy.canCheckout(member)) {
+            return "Member has reached checkout limit";
+        }
+        if (titleRepository.takeAvailableCopy(title.getId()) == 0) {
+            return "No copies available";
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate dueDate = today.plusDays(policy.getLoanPeriodDays());
+        String barcode = claimCopy(title.getId(), memberEmail, dueDate);
+        memberService.incrementCheckoutCount(member);
+        loanRecorder.open(isbn, memberEmail, today, dueDate);
+        AfterCommit.run(() -> listeners.forEach(l -> l.onCopyCheckout(isbn, member)));
+
+        return "Copy " + barcode + " checked out successfully. Due date: " + dueDate;
+    }
+
+    @Transactional
+    public String returnCopy(String barcode) {
+        BookCopy copy = copyRepository.findByBarcode(barcode)
+                .orElseThrow(() -> new IllegalArgumentException("Copy not found with barcode: " + barcode));
+        if (copy.getStatus() != BookStatus.CHECKED_OUT
+                || copyRepository.release(copy.getId(), BookStatus.CHECKED_OUT, BookStatus.AVAILABLE) == 0) {
+            return "Copy is not checked out";
+        }
+        titleRepository.releaseCopy(copy.getTitle().getId());
+
+        String isbn = copy.getTitle().getIsbn();
+        String borrower = copy.getCheckedOutBy();
+        Member member = memberService.findByEmail(borrower);
+        memberService.decrementCheckoutCount(member);
+        loanRecorder.close(isbn, borrower, LoanOutcome.RETURNED, LocalDate.now());
+        AfterCommit.run(() -> listeners.forEach(l -> l.onCopyReturn(isbn, borrower)));
+
+        double lateFee = 0.0;
+        if (copy.getDueDate().isBefore(LocalDate.now())) {
+            long daysLate = LocalDate.now().toEpochDay() - copy.getDueDate().toEpochDay();
+            lateFee = lateFeeCalculatorFactory.getCalculatorFor(member.getMembershipType()).calculateLateFee(daysLate);
+        }
+        if (lateFee > 0) {
+            return "Copy returned. Late fee: $" + String.format("%.2f", lateFee);
+        }
+        return "Copy returned successfully";
+    }
+
+    private String claimCopy(long titleId, String memberEmail, LocalDate dueDate) {
+        for (int round = 0; round < MAX_CLAIM_ROUNDS; round++) {
+            List<BookCopy> candidates = new ArrayList<>(copyRepository.findByTitleIdAndStatus(
+                    titleId, BookStatus.AVAILABLE, Limit.of(CLAIM_CANDIDATES)));
+            Collections.shuffle(candidates, ThreadLocalRandom.current());
+            for (BookCopy candidate : candidates) {
+                if (copyRepository.claim(candidate.getId(), BookStatus.AVAILABLE, BookStatus.CHECKED_OUT,
+                        memberEmail, dueDate) == 1) {
+                    return candidate.getBarcode();
+                }
+            }
+        }
+        // The counter said a copy was free but none could be claimed: roll the checkout back.
+        throw new IllegalStateException("No available copy found for title " + titleId + " despite its counter");
+    }
+
+    private Title findTitle(String isbn) {
+        return titleRepository.findByIsbn(isbn)
+                .orElseThrow(() -> new IllegalArgumentException("Title not found with ISBN: " + isbn));
+    }
+}
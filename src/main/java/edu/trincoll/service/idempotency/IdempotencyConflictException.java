@@ -0,0 +1,19 @@
+package edu.trincoll.service.idempotency;
+
+/**
+ * Thrown when a request reuses an idempotency key whose first request is still running, so
+ * there is no response to replay yet. The client should retry later with the same key.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final String key;
+
+    public IdempotencyConflictException(String key) {
+        super("A request with idempotency key " + key + " is still in progress");
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
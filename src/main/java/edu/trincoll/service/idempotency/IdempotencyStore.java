@@ -0,0 +1,188 @@
+package edu.trincoll.service.idempotency;
+
+import edu.trincoll.model.IdempotencyRecord;
+import edu.trincoll.repository.IdempotencyRecordRepository;
+import edu.trincoll.repository.routing.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs an operation at most once per idempotency key and replays its response to duplicates.
+ * <p>
+ * Completed responses are kept in a bounded LRU map in front of the {@code idempotency_keys}
+ * table, both expiring after {@code library.idempotency.ttl-minutes}. Concurrent duplicates on
+ * this instance wait for the in-flight execution; on other instances they find the claimed row
+ * and poll it until the response is written. A failed operation releases its key, so the
+ * client's retry runs it again.
+ * <p>
+ * The operation and the write of its response share the circulation transaction, so without
+ * sharding they commit together. A claim is a lease of {@code library.idempotency.lease-ms}: if
+ * the instance holding it dies before completing, the next request with that key releases the
+ * abandoned claim and runs the operation itself instead of being refused until the key expires.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final long POLL_MILLIS = 25;
+
+    record Completed(String fingerprint, String response, Instant expiresAt) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionOperations circulationTransactions;
+    private final Duration ttl;
+    private final Duration lease;
+    private final long waitTimeoutMs;
+    private final Map<String, Completed> recent;
+    private final Map<String, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            TransactionOperations circulationTransactions,
+                            @Value("${library.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${library.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${library.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+                            @Value("${library.idempotency.lease-ms:60000}") long leaseMs) {
+        this.repository = repository;
+        this.circulationTransactions = circulationTransactions;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.lease = Duration.ofMillis(leaseMs);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * @param fingerprint identifies the request; reusing a key for a different request is rejected
+     */
+    public String execute(String key, String fingerprint, Supplier<String> operation) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Completed done = recent.get(key);
+        if (done != null && done.expiresAt().isAfter(Instant.now())) {
+            return replay(key, done, fingerprint);
+        }
+
+        CompletableFuture<Completed> mine = new CompletableFuture<>();
+        CompletableFuture<Completed> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return replay(key, await(leader), fingerprint);
+        }
+        try {
+            Completed result = runOnce(key, fingerprint, operation);
+            recent.put(key, result);
+            mine.complete(result);
+            return replay(key, result, fingerprint);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.idempotency.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        repository.deleteExpired(now);
+        recent.values().removeIf(completed -> !completed.expiresAt().isAfter(now));
+    }
+
+    private Completed runOnce(String key, String fingerprint, Supplier<String> operation) {
+        while (true) {
+            Instant now = Instant.now();
+            IdempotencyRecord claim = new IdempotencyRecord(key, fingerprint, now, now.plus(ttl));
+            try {
+                repository.saveAndFlush(claim);
+            } catch (DataIntegrityViolationException alreadyClaimed) {
+                Completed elsewhere = awaitOtherInstance(key);
+                if (elsewhere != null) {
+                    return elsewhere;
+                }
+                continue; // the other claim was released, abandoned or had expired
+            }
+
+            String response;
+            try {
+                response = circulationTransactions.execute(status -> {
+                    String result = operation.get();
+                    repository.complete(key, result);
+                    return result;
+                });
+            } catch (RuntimeException e) {
+                repository.deleteById(key);
+                throw e;
+            }
+            return new Completed(fingerprint, response, claim.getExpiresAt());
+        }
+    }
+
+    private Completed awaitOtherInstance(String key) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        while (true) {
+            Optional<IdempotencyRecord> existing = ReadYourWrites.onPrimary(() -> repository.findById(key));
+            if (existing.isEmpty()) {
+                return null;
+            }
+            IdempotencyRecord record = existing.get();
+            if (!record.getExpiresAt().isAfter(Instant.now())) {
+                repository.deleteExpired(Instant.now());
+                return null;
+            }
+            if (record.isCompleted()) {
+                return new Completed(record.getRequestFingerprint(), record.getResponse(), record.getExpiresAt());
+            }
+            if (!record.getCreatedAt().plus(lease).isAfter(Instant.now())
+                    && repository.releaseAbandoned(key, record.getCreatedAt()) > 0) {
+                return null;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyConflictException(key);
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for idempotency key " + key, e);
+            }
+        }
+    }
+
+    private static String replay(String key, Completed completed, String fingerprint) {
+        if (!completed.fingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException("Idempotency key " + key + " was already used for a different request");
+        }
+        return completed.response();
+    }
+
+    private static Completed await(CompletableFuture<Completed> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package edu.trincoll.service.idempotency;
+
+import edu.trincoll.service.LibraryService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Checkout and return keyed by a client-supplied idempotency key, so a kiosk can retry after
+ * a timeout and get the original answer instead of "Book is not available" or
+ * "Book is not checked out".
+ */
+@Service
+public class IdempotentCirculationService {
+
+    private final LibraryService libraryService;
+    private final IdempotencyStore store;
+
+    public IdempotentCirculationService(LibraryService libraryService, IdempotencyStore store) {
+        this.libraryService = libraryService;
+        this.store = store;
+    }
+
+    public String checkoutBook(String idempotencyKey, String isbn, String memberEmail) {
+        return store.execute(idempotencyKey, "checkout:" + isbn + ":" + memberEmail,
+                () -> libraryService.checkoutBook(isbn, memberEmail));
+    }
+
+    public String returnBook(String idempotencyKey, String isbn) {
+        return store.execute(idempotencyKey, "return:" + isbn,
+                () -> libraryService.returnBook(isbn));
+    }
+}
@@ -0,0 +1,13 @@
+package edu.trincoll.service.job;
+
+import edu.trincoll.service.report.ReportType;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of a report job. {@code sizeBytes} is the size of the gzip-compressed
+ * result and is only set once the job has succeeded.
+ */
+public record ReportJob(String id, ReportType type, ReportJobStatus status, Instant submittedAt,
+                        Instant startedAt, Instant finishedAt, long sizeBytes, String error) {
+}
@@ -0,0 +1,9 @@
+package edu.trincoll.service.job;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ReportJobProperties.class)
+public class ReportJobConfiguration {
+}
@@ -0,0 +1,35 @@
+package edu.trincoll.service.job;
+
+import edu.trincoll.service.report.ReportType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * {@code library.report-jobs.*}: background report generation. {@code perTypeConcurrency}
+ * overrides {@code defaultPerTypeConcurrency} for individual report types. The spool holds
+ * nothing that survives a restart, so it defaults to a directory under the system temp dir.
+ */
+@ConfigurationProperties("library.report-jobs")
+public record ReportJobProperties(Path spoolDir,
+                                  @DefaultValue("4") int threads,
+                                  @DefaultValue("100") int maxQueued,
+                                  @DefaultValue("1") int defaultPerTypeConcurrency,
+                                  Map<ReportType, Integer> perTypeConcurrency,
+                                  @DefaultValue("1440") long maxAgeMinutes,
+                                  @DefaultValue("1073741824") long maxTotalBytes) {
+
+    public ReportJobProperties {
+        if (threads < 1 || maxQueued < 1 || defaultPerTypeConcurrency < 1) {
+            throw new IllegalArgumentException("library.report-jobs threads, max-queued and concurrency must be positive");
+        }
+        spoolDir = spoolDir == null ? Path.of(System.getProperty("java.io.tmpdir"), "library", "report-jobs") : spoolDir;
+        perTypeConcurrency = perTypeConcurrency == null ? Map.of() : Map.copyOf(perTypeConcurrency);
+    }
+
+    public int concurrencyFor(ReportType type) {
+        return Math.max(1, perTypeConcurrency.getOrDefault(type, defaultPerTypeConcurrency));
+    }
+}
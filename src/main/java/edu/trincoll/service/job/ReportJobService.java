@@ -0,0 +1,267 @@
+package edu.trincoll.service.job;
+
+import edu.trincoll.service.admission.LoadSheddingException;
+import edu.trincoll.service.admission.Priority;
+import edu.trincoll.service.coherence.CoherenceProperties;
+import edu.trincoll.service.report.AvailabilityReportGenerator;
+import edu.trincoll.service.report.CirculationStatsReportGenerator;
+import edu.trincoll.service.report.MemberActivityReportGenerator;
+import edu.trincoll.service.report.OverdueReportGenerator;
+import edu.trincoll.service.report.ReportGenerator;
+import edu.trincoll.service.report.ReportType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Generates reports in the background and spools them gzip-compressed to disk.
+ * <p>
+ * Jobs wait in one queue per report type and are handed to a fixed pool only while that type is
+ * under its concurrency limit, so a burst of one expensive report cannot occupy every worker.
+ * At most {@code maxQueued} jobs may be waiting in total; beyond that submissions are shed.
+ * Finished jobs are removed once older than {@code maxAgeMinutes}, and the oldest are removed
+ * early while the spool exceeds {@code maxTotalBytes}. Job state is held in memory: a restart
+ * forgets the jobs and clears the spool.
+ * <p>
+ * Each instance spools into its own subdirectory of {@code spoolDir}, named after its
+ * {@code library.coherence.node-id}, so instances sharing a spool directory never clear each
+ * other's results. The subdirectory is removed on shutdown; with a configured node id a restart
+ * also clears what a crash left behind.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(30);
+
+    private final Map<ReportType, ReportGenerator> generators = new EnumMap<>(ReportType.class);
+    private final ReportJobProperties properties;
+    private final Path spool;
+    private final ExecutorService workers;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<ReportType, Queue<Job>> pending = new EnumMap<>(ReportType.class);
+    private final Map<ReportType, Integer> running = new EnumMap<>(ReportType.class);
+    private int queued;
+
+    public ReportJobService(AvailabilityReportGenerator availabilityReportGenerator,
+                            OverdueReportGenerator overdueReportGenerator,
+                            MemberActivityReportGenerator memberActivityReportGenerator,
+                            CirculationStatsReportGenerator circulationStatsReportGenerator,
+                            ReportJobProperties properties, CoherenceProperties coherence) throws IOException {
+        generators.put(ReportType.AVAILABILITY, availabilityReportGenerator);
+        generators.put(ReportType.OVERDUE, overdueReportGenerator);
+        generators.put(ReportType.MEMBER_ACTIVITY, memberActivityReportGenerator);
+        generators.put(ReportType.CIRCULATION_STATS, circulationStatsReportGenerator);
+        this.properties = properties;
+        this.spool = properties.spoolDir().resolve(coherence.nodeId());
+        for (ReportType type : ReportType.values()) {
+            pending.put(type, new ArrayDeque<>());
+            running.put(type, 0);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.threads(), runnable -> {
+            Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        clearSpool();
+    }
+
+    public ReportJob submit(ReportType type) {
+        Job job = new Job(UUID.randomUUID().toString(), type);
+        synchronized (this) {
+            if (queued >= properties.maxQueued()) {
+                throw new LoadSheddingException(Priority.REPORT, RETRY_AFTER);
+            }
+            queued++;
+            jobs.put(job.id, job);
+            pending.get(type).add(job);
+            dispatch();
+        }
+        return job.view();
+    }
+
+    public ReportJob status(String id) {
+        return find(id).view();
+    }
+
+    public List<ReportJob> list() {
+        return jobs.values().stream()
+                .map(Job::view)
+                .sorted(Comparator.comparing(ReportJob::submittedAt))
+                .toList();
+    }
+
+    /**
+     * @return the gzip-compressed result of a succeeded job
+     */
+    public Path result(String id) {
+        Job job = find(id);
+        if (job.status != ReportJobStatus.SUCCEEDED) {
+            throw new IllegalStateException("Report job " + id + " is " + job.status);
+        }
+        return job.file;
+    }
+
+    @Scheduled(fixedDelayString = "${library.report-jobs.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(properties.maxAgeMinutes()));
+        List<Job> finished = jobs.values().stream()
+                .filter(Job::isFinished)
+                .sorted(Comparator.comparing((Job j) -> j.finishedAt))
+                .toList();
+        long spooled = finished.stream().mapToLong(j -> j.sizeBytes).sum();
+        for (Job job : finished) {
+            if (job.finishedAt.isBefore(cutoff) || spooled > properties.maxTotalBytes()) {
+                spooled -= job.sizeBytes;
+                remove(job);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+        try {
+            clearSpool();
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            // a job was still writing; its file stays until this node id starts again
+        }
+    }
+
+    /**
+     * Starts every queued job whose type is under its limit. Callers hold the monitor.
+     */
+    private void dispatch() {
+        for (ReportType type : ReportType.values()) {
+            Queue<Job> waiting = pending.get(type);
+            while (!waiting.isEmpty() && running.get(type) < properties.concurrencyFor(type)) {
+                Job job = waiting.poll();
+                queued--;
+                running.merge(type, 1, Integer::sum);
+                workers.execute(() -> run(job));
+            }
+        }
+    }
+
+    private void run(Job job) {
+        job.start();
+        Path tmp = spool.resolve(job.id + ".txt.gz.tmp");
+        Path file = spool.resolve(job.id + ".txt.gz");
+        try {
+            Files.createDirectories(spool);
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024), StandardCharsets.UTF_8))) {
+                generators.get(job.type).writeReport(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.succeed(file, Files.size(file));
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // cleared with the rest of the spool on shutdown
+            }
+            job.fail(e);
+        } finally {
+            synchronized (this) {
+                running.merge(job.type, -1, Integer::sum);
+                dispatch();
+            }
+        }
+    }
+
+    private void remove(Job job) {
+        try {
+            if (job.file != null) {
+                Files.deleteIfExists(job.file);
+            }
+            jobs.remove(job.id);
+        } catch (IOException e) {
+            // keep the job so the next cleanup tries again
+        }
+    }
+
+    private Job find(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new IllegalArgumentException("Report job not found: " + id);
+        }
+        return job;
+    }
+
+    private void clearSpool() throws IOException {
+        Files.createDirectories(spool);
+        try (var files = Files.list(spool)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().contains(".txt.gz")).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final ReportType type;
+        private final Instant submittedAt = Instant.now();
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Path file;
+        private volatile long sizeBytes;
+        private volatile String error;
+
+        private Job(String id, ReportType type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        private synchronized void start() {
+            startedAt = Instant.now();
+            status = ReportJobStatus.RUNNING;
+        }
+
+        private synchronized void succeed(Path file, long sizeBytes) {
+            this.file = file;
+            this.sizeBytes = sizeBytes;
+            finishedAt = Instant.now();
+            status = ReportJobStatus.SUCCEEDED;
+        }
+
+        private synchronized void fail(Exception e) {
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            finishedAt = Instant.now();
+            status = ReportJobStatus.FAILED;
+        }
+
+        private boolean isFinished() {
+            return status == ReportJobStatus.SUCCEEDED || status == ReportJobStatus.FAILED;
+        }
+
+        private synchronized ReportJob view() {
+            return new ReportJob(id, type, status, submittedAt, startedAt, finishedAt, sizeBytes, error);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package edu.trincoll.service.job;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -8,4 +8,6 @@ import java.time.LocalDate;
 public interface NotificationService {
     void sendCheckoutNotification(Member member, Book book, LocalDate dueDate);
     void sendReturnNotification(Member member, Book book, double lateFee);
-}
\ No newline at end of file
+    void sendDueDateReminder(Member member, Book book, LocalDate dueDate);
+    void sendHoldExpiredNotification(Member member, Book book);
+}
@@ -0,0 +1,9 @@
+package edu.trincoll.service.recommendation;
+
+/**
+ * A title borrowed by members who also borrowed the title looked up. {@code score} is the
+ * approximate number of such members; titles that entered a full neighbour list may be
+ * overstated by the weight of the entry they replaced.
+ */
+public record CoBorrowed(String isbn, int score) {
+}
@@ -0,0 +1,324 @@
+package edu.trincoll.service.recommendation;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+import edu.trincoll.service.event.BookLifecycleListener;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Patrons who borrowed this also borrowed" index, maintained from checkout events.
+ * <p>
+ * Each ISBN is interned to a dense int id, and per-title neighbours live in parallel
+ * {@code int[]} id/weight arrays indexed by that id, kept sorted by weight. A checkout pairs the
+ * title with the member's last {@code history} distinct titles. Each title keeps at most
+ * {@code neighbours} entries; a new neighbour of a full title replaces the weakest and inherits
+ * its weight plus one (Space-Saving), so a genuinely frequent pairing can still work its way in.
+ * A lookup is one hash probe and a copy of the head of an already sorted array.
+ * <p>
+ * The index and the member histories are checkpointed to {@code checkpointFile} periodically
+ * and on shutdown, and reloaded on startup; checkouts since the last checkpoint are lost on a
+ * crash.
+ */
+@Component
+public class CoBorrowingIndex implements BookLifecycleListener {
+
+    private static final int MAGIC = 0x4C434249;
+    private static final int FORMAT_VERSION = 1;
+    private static final int NONE = -1;
+
+    private final int capacity;
+    private final int historySize;
+    private final Path checkpointFile;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] isbns = new String[1024];
+    private int[][] neighbourIds = new int[1024][];
+    private int[][] neighbourWeights = new int[1024][];
+    private int[] neighbourCounts = new int[1024];
+    private final Map<String, int[]> histories = new HashMap<>();
+
+    public CoBorrowingIndex(@Value("${library.recommendations.neighbours:32}") int capacity,
+                            @Value("${library.recommendations.history:16}") int historySize,
+                            @Value("${library.recommendations.checkpoint-file:${java.io.tmpdir}/library/recommendations/co-borrowing.bin}")
+                            Path checkpointFile) {
+        if (capacity < 1 || historySize < 1) {
+            throw new IllegalArgumentException("library.recommendations neighbours and history must be positive");
+        }
+        this.capacity = capacity;
+        this.historySize = historySize;
+        this.checkpointFile = checkpointFile;
+        load();
+    }
+
+    @Override
+    public void onCheckout(Book book, Member member) {
+        record(member.getEmail(), book.getIsbn());
+    }
+
+    @Override
+    public void onCopyCheckout(String isbn, Member member) {
+        record(member.getEmail(), isbn);
+    }
+
+    public void record(String memberEmail, String isbn) {
+        lock.writeLock().lock();
+        try {
+            int title = intern(isbn);
+            int[] history = histories.computeIfAbsent(memberEmail, e -> empty(historySize));
+            int seen = indexOf(history, history.length, title);
+            if (seen >= 0) {
+                // A re-borrow only refreshes recency; its pairs were counted the first time.
+                System.arraycopy(history, 0, history, 1, seen);
+                history[0] = title;
+                return;
+            }
+            for (int other : history) {
+                if (other == NONE) {
+                    break;
+                }
+                increment(title, other);
+                increment(other, title);
+            }
+            System.arraycopy(history, 0, history, 1, history.length - 1);
+            history[0] = title;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Titles most often borrowed by members who also borrowed {@code isbn}, strongest first.
+     */
+    public List<CoBorrowed> alsoBorrowed(String isbn, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        lock.readLock().lock();
+        try {
+            Integer id = ids.get(isbn);
+            if (id == null) {
+                return List.of();
+            }
+            int n = Math.min(limit, neighbourCounts[id]);
+            List<CoBorrowed> result = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                result.add(new CoBorrowed(isbns[neighbourIds[id][i]], neighbourWeights[id][i]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the index under the read lock, then writes the copy without holding it, so
+     * checkouts are blocked only for the copy and not for the file write.
+     */
+    @Scheduled(fixedDelayString = "${library.recommendations.checkpoint-interval-ms:300000}")
+    public synchronized void checkpoint() {
+        Snapshot snapshot = snapshot();
+        Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(checkpointFile.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(snapshot.isbns().length);
+                for (int id = 0; id < snapshot.isbns().length; id++) {
+                    out.writeUTF(snapshot.isbns()[id]);
+                    out.writeInt(snapshot.neighbourIds()[id].length);
+                    for (int i = 0; i < snapshot.neighbourIds()[id].length; i++) {
+                        out.writeInt(snapshot.neighbourIds()[id][i]);
+                        out.writeInt(snapshot.neighbourWeights()[id][i]);
+                    }
+                }
+                out.writeInt(snapshot.histories().size());
+                for (Map.Entry<String, int[]> entry : snapshot.histories().entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    for (int title : entry.getValue()) {
+                        out.writeInt(title);
+                    }
+                }
+            }
+            Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not checkpoint co-borrowing index to " + checkpointFile, e);
+        }
+    }
+
+    private Snapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            int titles = ids.size();
+            int[][] snapshotIds = new int[titles][];
+            int[][] snapshotWeights = new int[titles][];
+            for (int id = 0; id < titles; id++) {
+                snapshotIds[id] = head(neighbourIds[id], neighbourCounts[id]);
+                snapshotWeights[id] = head(neighbourWeights[id], neighbourCounts[id]);
+            }
+            Map<String, int[]> snapshotHistories = new HashMap<>(histories.size() * 2);
+            histories.forEach((member, history) -> {
+                int length = indexOf(history, history.length, NONE);
+                snapshotHistories.put(member, Arrays.copyOf(history, length < 0 ? history.length : length));
+            });
+            return new Snapshot(Arrays.copyOf(isbns, titles), snapshotIds, snapshotWeights, snapshotHistories);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        checkpoint();
+    }
+
+    private void load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IllegalStateException("Not a co-borrowing checkpoint: " + checkpointFile);
+            }
+            int titles = in.readInt();
+            for (int id = 0; id < titles; id++) {
+                intern(in.readUTF());
+                int stored = in.readInt();
+                int count = Math.min(stored, capacity);
+                ensureNeighbourArrays(id, count);
+                for (int i = 0; i < stored; i++) {
+                    int neighbour = in.readInt();
+                    int weight = in.readInt();
+                    if (i < count) {
+                        neighbourIds[id][i] = neighbour;
+                        neighbourWeights[id][i] = weight;
+                    }
+                }
+                neighbourCounts[id] = count;
+            }
+            int members = in.readInt();
+            for (int m = 0; m < members; m++) {
+                String email = in.readUTF();
+                int length = in.readInt();
+                int[] history = empty(historySize);
+                for (int i = 0; i < length; i++) {
+                    int title = in.readInt();
+                    if (i < historySize) {
+                        history[i] = title;
+                    }
+                }
+                histories.put(email, history);
+            }
+        } catch (NoSuchFileException e) {
+            // first start: begin with an empty index
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load co-borrowing index from " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * Adds one to {@code from}'s weight for {@code to} and restores the descending order.
+     * Callers hold the write lock.
+     */
+    private void increment(int from, int to) {
+        int count = neighbourCounts[from];
+        int i = indexOf(neighbourIds[from], count, to);
+        if (i < 0 && count < capacity) {
+            ensureNeighbourArrays(from, count + 1);
+            i = count;
+            neighbourIds[from][i] = to;
+            neighbourWeights[from][i] = 0;
+            neighbourCounts[from] = count + 1;
+        } else if (i < 0) {
+            i = count - 1;
+            neighbourIds[from][i] = to;
+        }
+        int[] idsOf = neighbourIds[from];
+        int[] weightsOf = neighbourWeights[from];
+        int weight = ++weightsOf[i];
+        while (i > 0 && weightsOf[i - 1] < weight) {
+            idsOf[i] = idsOf[i - 1];
+            weightsOf[i] = weightsOf[i - 1];
+            i--;
+        }
+        idsOf[i] = to;
+        weightsOf[i] = weight;
+    }
+
+    private int intern(String isbn) {
+        Integer existing = ids.get(isbn);
+        if (existing != null) {
+            return existing;
+        }
+        int id = ids.size();
+        if (id == isbns.length) {
+            int grown = id * 2;
+            isbns = Arrays.copyOf(isbns, grown);
+            neighbourIds = Arrays.copyOf(neighbourIds, grown);
+            neighbourWeights = Arrays.copyOf(neighbourWeights, grown);
+            neighbourCounts = Arrays.copyOf(neighbourCounts, grown);
+        }
+        ids.put(isbn, id);
+        isbns[id] = isbn;
+        return id;
+    }
+
+    /**
+     * Grows a title's neighbour arrays geometrically up to {@code capacity}, so rarely borrowed
+     * titles stay small.
+     */
+    private void ensureNeighbourArrays(int id, int needed) {
+        int current = neighbourIds[id] == null ? 0 : neighbourIds[id].length;
+        if (needed <= current) {
+            return;
+        }
+        int size = Math.min(capacity, Math.max(needed, Math.max(4, current * 2)));
+        neighbourIds[id] = neighbourIds[id] == null ? new int[size] : Arrays.copyOf(neighbourIds[id], size);
+        neighbourWeights[id] = neighbourWeights[id] == null ? new int[size] : Arrays.copyOf(neighbourWeights[id], size);
+    }
+
+    private static int indexOf(int[] values, int length, int value) {
+        if (values == null) {
+            return -1;
+        }
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] head(int[] values, int length) {
+        return values == null ? new int[0] : Arrays.copyOf(values, length);
+    }
+
+    private static int[] empty(int size) {
+        int[] history = new int[size];
+        Arrays.fill(history, NONE);
+        return history;
+    }
+
+    private record Snapshot(String[] isbns, int[][] neighbourIds, int[][] neighbourWeights,
+                            Map<String, int[]> histories) {
+    }
+}
@@ -0,0 +1,190 @@
+package edu.trincoll.service.reminder;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookDueDateView;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryService;
+import edu.trincoll.service.coherence.CoherentCache;
+import edu.trincoll.service.event.BookLifecycleListener;
+import edu.trincoll.service.notification.NotificationService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps due-soon reminders and hold expirations in an in-process {@link TimingWheel}
+ * instead of rescanning the books table. Entries are added when a book is checked out
+ * or held, removed when it is returned, and fired into {@link NotificationService} by a
+ * daily tick. The wheel is rebuilt from the database once on startup; a reminder whose day
+ * has already passed fires on the next tick. An expired hold puts the book back on the shelf.
+ */
+@Component
+public class DueDateReminderScheduler implements BookLifecycleListener {
+
+    enum ReminderType { DUE_SOON, HOLD_EXPIRED }
+
+    record ReminderKey(String isbn, ReminderType type) {
+    }
+
+    record Reminder(String memberEmail, LocalDate dueDate) {
+    }
+
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final CoherentCache<Member> memberCache;
+    private final NotificationService notificationService;
+    private final ObjectProvider<LibraryService> libraryService;
+    private final int daysBeforeDue;
+    private final TimingWheel<ReminderKey, Reminder> wheel = new TimingWheel<>(LocalDate.now().toEpochDay());
+
+    public DueDateReminderScheduler(BookRepository bookRepository,
+                                    MemberRepository memberRepository,
+                                    CoherentCache<Member> memberCache,
+                                    NotificationService notificationService,
+                                    ObjectProvider<LibraryService> libraryService,
+                                    @Value("${library.reminders.days-before-due:2}") int daysBeforeDue) {
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+        this.memberCache = memberCache;
+        this.notificationService = notificationService;
+        this.libraryService = libraryService;
+        this.daysBeforeDue = daysBeforeDue;
+    }
+
+    @Override
+    public void onCheckout(Book book, Member member) {
+        synchronized (wheel) {
+            wheel.cancel(new ReminderKey(book.getIsbn(), ReminderType.HOLD_EXPIRED));
+            scheduleDueSoon(book.getIsbn(), member.getEmail(), book.getDueDate());
+        }
+    }
+
+    @Override
+    public void onReturn(Book book, String previousBorrower) {
+        synchronized (wheel) {
+            wheel.cancel(new ReminderKey(book.getIsbn(), ReminderType.DUE_SOON));
+            wheel.cancel(new ReminderKey(book.getIsbn(), ReminderType.HOLD_EXPIRED));
+        }
+    }
+
+    @Override
+    public void onLost(Book book, String previousHolder) {
+        onReturn(book, previousHolder);
+    }
+
+    @Override
+    public void onHold(Book book, Member member) {
+        synchronized (wheel) {
+            scheduleHoldExpiry(book.getIsbn(), member.getEmail(), book.getDueDate());
+        }
+    }
+
+    /**
+     * Repopulates the wheel with a single streaming query over books that carry a due date.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<BookDueDateView> dueDates = bookRepository.streamScheduledDueDates()) {
+            synchronized (wheel) {
+                dueDates.forEach(view -> {
+                    if (view.getStatus() == BookStatus.CHECKED_OUT) {
+                        scheduleDueSoon(view.getIsbn(), view.getCheckedOutBy(), view.getDueDate());
+                    } else if (view.getStatus() == BookStatus.RESERVED) {
+                        scheduleHoldExpiry(view.getIsbn(), view.getCheckedOutBy(), view.getDueDate());
+                    }
+                });
+            }
+        }
+    }
+
+    @Scheduled(cron = "${library.reminders.cron:0 0 0 * * *}")
+    public void tick() {
+        advanceTo(LocalDate.now());
+    }
+
+    /**
+     * Fires every reminder due on or before {@code today}. Notifications are sent outside the wheel lock.
+     */
+    void advanceTo(LocalDate today) {
+        List<Fired> fired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advanceTo(today.toEpochDay(), (key, reminder) -> fired.add(new Fired(key, reminder)));
+        }
+        for (Fired f : fired) {
+            notify(f.key(), f.reminder());
+        }
+    }
+
+    int pendingReminders() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void scheduleDueSoon(String isbn, String memberEmail, LocalDate dueDate) {
+        if (memberEmail == null || dueDate == null) {
+            return;
+        }
+        wheel.schedule(new ReminderKey(isbn, ReminderType.DUE_SOON),
+                notBeforeNextTick(dueDate.minusDays(daysBeforeDue)), new Reminder(memberEmail, dueDate));
+    }
+
+    private void scheduleHoldExpiry(String isbn, String memberEmail, LocalDate holdUntil) {
+        if (memberEmail == null || holdUntil == null) {
+            return;
+        }
+        // A hold is good through its last day and expires when the next one starts.
+        wheel.schedule(new ReminderKey(isbn, ReminderType.HOLD_EXPIRED),
+                notBeforeNextTick(holdUntil.plusDays(1)), new Reminder(memberEmail, holdUntil));
+    }
+
+    /**
+     * The wheel only takes future days; a day already passed (short loan, downtime) fires on the next tick.
+     */
+    private long notBeforeNextTick(LocalDate day) {
+        return Math.max(day.toEpochDay(), wheel.currentDay() + 1);
+    }
+
+    private void notify(ReminderKey key, Reminder reminder) {
+        if (key.type() == ReminderType.HOLD_EXPIRED && !releaseHold(key.isbn(), reminder)) {
+            return;
+        }
+        Member member = memberCache.get(reminder.memberEmail(), memberRepository::findByEmail).orElse(null);
+        Book book = bookRepository.findByIsbn(key.isbn()).orElse(null);
+        if (member == null || book == null) {
+            return;
+        }
+        switch (key.type()) {
+            case DUE_SOON -> notificationService.sendDueDateReminder(member, book, reminder.dueDate());
+            case HOLD_EXPIRED -> notificationService.sendHoldExpiredNotification(member, book);
+        }
+    }
+
+    /**
+     * @return false if the hold was picked up or changed before it could be released
+     */
+    private boolean releaseHold(String isbn, Reminder reminder) {
+        try {
+            return libraryService.getObject().releaseExpiredHold(isbn, reminder.memberEmail(), reminder.dueDate());
+        } catch (IllegalArgumentException | ObjectOptimisticLockingFailureException e) {
+            return false;
+        }
+    }
+
+    private record Fired(ReminderKey key, Reminder reminder) {
+    }
+}
@@ -0,0 +1,161 @@
+package edu.trincoll.service.reminder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Hierarchical hashed timing wheel with a resolution of one day.
+ * <p>
+ * Deadlines are epoch days. Level 0 has one slot per day and each higher level spans
+ * 64 times the level below it; entries are cascaded down as the wheel turns. Schedule
+ * and cancel are O(1), and advancing one day only touches the entries that expire or
+ * cascade on that day. Not thread-safe; callers synchronize.
+ */
+public class TimingWheel<K, V> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long HORIZON_DAYS = 1L << (SLOT_BITS * LEVELS);
+
+    private final Node<K, V>[][] slots;
+    private final Map<K, Node<K, V>> index = new HashMap<>();
+    private long currentDay;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startDay) {
+        this.slots = new Node[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[level][slot] = Node.sentinel();
+            }
+        }
+        this.currentDay = startDay;
+    }
+
+    public long currentDay() {
+        return currentDay;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Schedules {@code value} to expire at the start of {@code deadlineDay}, replacing any
+     * entry already held under {@code key}.
+     *
+     * @return false if the deadline is not after the current day, in which case nothing is scheduled
+     */
+    public boolean schedule(K key, long deadlineDay, V value) {
+        cancel(key);
+        if (deadlineDay <= currentDay) {
+            return false;
+        }
+        if (deadlineDay - currentDay >= HORIZON_DAYS) {
+            throw new IllegalArgumentException("Deadline too far in the future: " + deadlineDay);
+        }
+        Node<K, V> node = new Node<>(key, value, deadlineDay);
+        insert(node);
+        index.put(key, node);
+        return true;
+    }
+
+    /**
+     * @return the value that was scheduled under {@code key}, or null if there was none
+     */
+    public V cancel(K key) {
+        Node<K, V> node = index.remove(key);
+        if (node == null) {
+            return null;
+        }
+        node.unlink();
+        return node.value;
+    }
+
+    /**
+     * Turns the wheel forward to {@code day}, handing every entry whose deadline is
+     * reached to {@code onExpire}. The callback may schedule or cancel other entries.
+     */
+    public void advanceTo(long day, BiConsumer<K, V> onExpire) {
+        while (currentDay < day) {
+            currentDay++;
+            cascade();
+            for (Node<K, V> node : drain(slots[0][(int) (currentDay & SLOT_MASK)])) {
+                index.remove(node.key);
+                onExpire.accept(node.key, node.value);
+            }
+        }
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentDay & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            for (Node<K, V> node : drain(slots[level][(int) ((currentDay >> shift) & SLOT_MASK)])) {
+                insert(node);
+            }
+        }
+    }
+
+    private void insert(Node<K, V> node) {
+        long delta = node.deadline - currentDay;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((node.deadline >> (SLOT_BITS * level)) & SLOT_MASK);
+        slots[level][slot].append(node);
+    }
+
+    private static <K, V> List<Node<K, V>> drain(Node<K, V> head) {
+        List<Node<K, V>> drained = new ArrayList<>();
+        for (Node<K, V> node = head.next; node != head; ) {
+            Node<K, V> next = node.next;
+            node.unlink();
+            drained.add(node);
+            node = next;
+        }
+        return drained;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final long deadline;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, long deadline) {
+            this.key = key;
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        private static <K, V> Node<K, V> sentinel() {
+            Node<K, V> head = new Node<>(null, null, 0);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        private void append(Node<K, V> node) {
+            node.prev = prev;
+            node.next = this;
+            prev.next = node;
+            prev = node;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
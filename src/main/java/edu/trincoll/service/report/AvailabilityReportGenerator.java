@@ -2,12 +2,18 @@ package edu.trincoll.service.report;
 
 import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookListingView;
 import edu.trincoll.repository.BookRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Report listing books currently AVAILABLE.
@@ -22,6 +28,7 @@ public class AvailabilityReportGenerator implements ReportGenerator {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public String generateReport() {
         List<Book> available = bookRepository.findAll().stream()
                 .filter(b -> b.getStatus() == BookStatus.AVAILABLE)
@@ -41,6 +48,33 @@ public class AvailabilityReportGenerator implements ReportGenerator {
                 "Total: " + available.size() + "\n\n" + rows + "\n";
     }
 
+    /**
+     * Streams the same report straight from the database, one row at a time. With sharding
+     * enabled the shards' rows are merged by title as they stream, so the order is the same.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void writeReport(Writer out) throws IOException {
+        long total = bookRepository.countByStatus(BookStatus.AVAILABLE);
+        if (total == 0) {
+            out.write("Available Books Report\n-----------------------\nNo books are currently available.");
+            return;
+        }
+        out.write("Available Books Report\n-----------------------\nTotal: " + total + "\n\n");
+        try (Stream<BookListingView> rows = bookRepository.streamListingByStatus(BookStatus.AVAILABLE)) {
+            rows.forEach(b -> {
+                try {
+                    out.write("- " + safe(b.getTitle()) + " by " + safe(b.getAuthor()) +
+                            " (ISBN: " + safe(b.getIsbn()) + ")\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     private static String safe(String s) {
         return s == null ? "(unknown)" : s;
     }
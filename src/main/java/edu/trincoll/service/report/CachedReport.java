@@ -0,0 +1,32 @@
+package edu.trincoll.service.report;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * A generated report together with the circulation version (and its epoch) and date it was
+ * built for.
+ */
+public record CachedReport(ReportType type, String epoch, long version, LocalDate generatedOn, String content) {
+
+    public String etag() {
+        return etagFor(type, epoch, version, generatedOn);
+    }
+
+    boolean isCurrent(long currentVersion, LocalDate today) {
+        return version == currentVersion && (!type.isDateSensitive() || generatedOn.equals(today));
+    }
+
+    /**
+     * Strong ETag derived from the inputs of a report, so it can be checked without generating it.
+     * The epoch keeps a tag from another boot or instance, whose counter means something else,
+     * from ever matching.
+     */
+    static String etagFor(ReportType type, String epoch, long version, LocalDate date) {
+        String tag = type.name().toLowerCase(Locale.ROOT) + "-" + epoch + "-v" + version;
+        if (type.isDateSensitive()) {
+            tag += "-" + date.toEpochDay();
+        }
+        return "\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,65 @@
+package edu.trincoll.service.report;
+
+import edu.trincoll.model.CardinalityMetric;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.service.cardinality.CardinalityEstimate;
+import edu.trincoll.service.cardinality.CardinalityTracker;
+import edu.trincoll.service.cardinality.SketchSet;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Distinct active borrowers per day and tier over the last week, and distinct titles circulated
+ * this month, from the HyperLogLog sketches kept by {@link CardinalityTracker}. Figures are
+ * estimates and are printed with their ~95% margin.
+ */
+@Service
+public class CirculationStatsReportGenerator implements ReportGenerator {
+
+    static final int DAYS = 7;
+
+    private final CardinalityTracker cardinalityTracker;
+
+    public CirculationStatsReportGenerator(CardinalityTracker cardinalityTracker) {
+        this.cardinalityTracker = cardinalityTracker;
+    }
+
+    @Override
+    public String generateReport() {
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.minusDays(DAYS - 1);
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate from = weekStart.isBefore(monthStart) ? weekStart : monthStart;
+
+        SketchSet borrowers = cardinalityTracker.sketches(CardinalityMetric.ACTIVE_BORROWERS, from, today);
+        SketchSet titles = cardinalityTracker.sketches(CardinalityMetric.TITLES_CIRCULATED, monthStart, today);
+
+        StringBuilder report = new StringBuilder("Circulation Statistics Report\n-----------------------------\n")
+                .append("As of: ").append(today).append('\n')
+                .append("Estimates are approximate; +/- shows the ~95% margin.\n\n")
+                .append("Distinct active borrowers per day:\n");
+        for (LocalDate day = weekStart; !day.isAfter(today); day = day.plusDays(1)) {
+            report.append("  ").append(day);
+            for (MembershipType tier : MembershipType.values()) {
+                report.append("  ").append(tier).append(' ').append(format(borrowers.estimate(day, day, tier.name())));
+            }
+            report.append("  ALL ").append(format(borrowers.estimate(day, day, null))).append('\n');
+        }
+
+        report.append("\nDistinct active borrowers, last ").append(DAYS).append(" days:\n");
+        for (MembershipType tier : MembershipType.values()) {
+            report.append("  ").append(tier).append(": ")
+                    .append(format(borrowers.estimate(weekStart, today, tier.name()))).append('\n');
+        }
+        report.append("  ALL: ").append(format(borrowers.estimate(weekStart, today, null))).append('\n');
+
+        report.append("\nDistinct titles circulated since ").append(monthStart).append(": ")
+                .append(format(titles.estimate(monthStart, today, CardinalityTracker.ALL))).append('\n');
+        return report.toString();
+    }
+
+    private static String format(CardinalityEstimate estimate) {
+        return estimate.value() + " (+/-" + estimate.margin95() + ")";
+    }
+}
@@ -0,0 +1,84 @@
+package edu.trincoll.service.report;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+import edu.trincoll.service.event.BookLifecycleListener;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global counter bumped on every circulation change made through BookService or HoldingsService.
+ * Cached reports are tagged with the value they were built from.
+ * <p>
+ * The counter lives in memory: it restarts at zero on every boot and each instance counts the
+ * changes it has seen on its own. {@link #epoch()} is random per boot, so a version number only
+ * identifies a state together with it.
+ */
+@Component
+public class CirculationVersion implements BookLifecycleListener {
+
+    private final String epoch = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastChangedNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+    /**
+     * @return an id of this instance's counter, different on every boot
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public long bump() {
+        lastChangedNanos = System.nanoTime();
+        return version.incrementAndGet();
+    }
+
+    /**
+     * @return true if circulation changed less than {@code windowMillis} ago
+     */
+    public boolean changedWithin(long windowMillis) {
+        return System.nanoTime() - lastChangedNanos < TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    @Override
+    public void onCheckout(Book book, Member member) {
+        bump();
+    }
+
+    @Override
+    public void onReturn(Book book, String previousBorrower) {
+        bump();
+    }
+
+    @Override
+    public void onHold(Book book, Member member) {
+        bump();
+    }
+
+    @Override
+    public void onHoldReleased(Book book, String previousHolder) {
+        bump();
+    }
+
+    @Override
+    public void onLost(Book book, String previousHolder) {
+        bump();
+    }
+
+    @Override
+    public void onCopyCheckout(String isbn, Member member) {
+        bump();
+    }
+
+    @Override
+    public void onCopyReturn(String isbn, String previousBorrower) {
+        bump();
+    }
+}
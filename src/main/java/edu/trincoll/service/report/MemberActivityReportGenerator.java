@@ -0,0 +1,140 @@
+package edu.trincoll.service.report;
+
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.MemberLoadView;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.repository.TierCountView;
+import edu.trincoll.service.policy.CheckoutPolicy;
+import edu.trincoll.service.policy.CheckoutPolicyFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Per-tier member activity: books out, members at or near their checkout limit, overdue loans.
+ * <p>
+ * The database does the aggregation. The member id range is split into partitions and each
+ * partition is summarized with GROUP BY queries in parallel; no entities are loaded, and every
+ * member row is read once by the histogram query. Each partition runs in its own read-only
+ * transaction, so with replica routing enabled the scans are spread across replicas.
+ */
+@Service
+public class MemberActivityReportGenerator implements ReportGenerator {
+
+    private final MemberRepository memberRepository;
+    private final CheckoutPolicyFactory checkoutPolicyFactory;
+    private final TransactionTemplate readOnly;
+    private final int partitions;
+
+    public MemberActivityReportGenerator(MemberRepository memberRepository,
+                                         CheckoutPolicyFactory checkoutPolicyFactory,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${library.reports.member-activity.partitions:4}") int partitions) {
+        this.memberRepository = memberRepository;
+        this.checkoutPolicyFactory = checkoutPolicyFactory;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.partitions = Math.max(1, partitions);
+    }
+
+    @Override
+    public String generateReport() {
+        LocalDate today = LocalDate.now();
+        Map<MembershipType, TierActivity> tiers = aggregate(today);
+
+        long totalMembers = tiers.values().stream().mapToLong(t -> t.members).sum();
+        StringBuilder report = new StringBuilder("Member Activity Report\n----------------------\n")
+                .append("As of: ").append(today).append('\n')
+                .append("Total members: ").append(totalMembers).append("\n\n");
+        for (MembershipType type : MembershipType.values()) {
+            TierActivity t = tiers.get(type);
+            double average = t.members == 0 ? 0.0 : (double) t.booksOut / t.members;
+            report.append(String.format("%s: %d members, %d books out (avg %.2f), %d at limit, %d near limit, %d overdue%n",
+                    type, t.members, t.booksOut, average, t.atLimit, t.nearLimit, t.overdue));
+        }
+        return report.toString();
+    }
+
+    Map<MembershipType, TierActivity> aggregate(LocalDate today) {
+        Map<MembershipType, TierActivity> totals = emptyTotals();
+        Long minId = readOnly.execute(status -> memberRepository.findMinId());
+        Long maxId = readOnly.execute(status -> memberRepository.findMaxId());
+        if (minId == null || maxId == null) {
+            return totals;
+        }
+
+        long span = maxId - minId + 1;
+        long step = Math.max(1, (span + partitions - 1) / partitions);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<MembershipType, TierActivity>>> parts = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += step) {
+                long lo = from;
+                long hi = Math.min(maxId, from + step - 1);
+                parts.add(executor.submit(() -> readOnly.execute(status -> aggregateRange(lo, hi, today))));
+            }
+            for (Future<Map<MembershipType, TierActivity>> part : parts) {
+                part.get().forEach((type, activity) -> totals.get(type).merge(activity));
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Member activity aggregation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aggregating member activity", e);
+        }
+        return totals;
+    }
+
+    private Map<MembershipType, TierActivity> aggregateRange(long fromId, long toId, LocalDate today) {
+        Map<MembershipType, TierActivity> partial = emptyTotals();
+        for (MemberLoadView row : memberRepository.loadHistogram(fromId, toId)) {
+            CheckoutPolicy policy = checkoutPolicyFactory.getPolicyFor(row.getMembershipType());
+            TierActivity t = partial.get(row.getMembershipType());
+            t.members += row.getMembers();
+            t.booksOut += (long) row.getBooksCheckedOut() * row.getMembers();
+            if (row.getBooksCheckedOut() >= policy.getMaxBooks()) {
+                t.atLimit += row.getMembers();
+            } else if (row.getBooksCheckedOut() == policy.getMaxBooks() - 1) {
+                t.nearLimit += row.getMembers();
+            }
+        }
+        for (TierCountView row : memberRepository.countOverdueByTier(today, fromId, toId)) {
+            partial.get(row.getMembershipType()).overdue += row.getCount();
+        }
+        return partial;
+    }
+
+    private static Map<MembershipType, TierActivity> emptyTotals() {
+        Map<MembershipType, TierActivity> totals = new EnumMap<>(MembershipType.class);
+        for (MembershipType type : MembershipType.values()) {
+            totals.put(type, new TierActivity());
+        }
+        return totals;
+    }
+
+    static final class TierActivity {
+        long members;
+        long booksOut;
+        long atLimit;
+        long nearLimit;
+        long overdue;
+
+        void merge(TierActivity other) {
+            members += other.members;
+            booksOut += other.booksOut;
+            atLimit += other.atLimit;
+            nearLimit += other.nearLimit;
+            overdue += other.overdue;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
 import edu.trincoll.repository.BookRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
@@ -24,6 +25,7 @@ public class OverdueReportGenerator implements ReportGenerator {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public String generateReport() {
         LocalDate today = LocalDate.now();
 
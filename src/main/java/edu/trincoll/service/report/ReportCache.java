@@ -0,0 +1,89 @@
+package edu.trincoll.service.report;
+
+import edu.trincoll.repository.routing.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches one generated report per {@link ReportType}, valid until the {@link CirculationVersion}
+ * moves (or, for date-sensitive reports, until the date rolls over). Concurrent misses for the
+ * same type share a single generation.
+ * <p>
+ * A report cached under a version must reflect that version, so while a change is younger than
+ * the replica staleness bound the report is generated on the primary rather than a replica.
+ */
+@Component
+public class ReportCache {
+
+    private final CirculationVersion circulationVersion;
+    private final long maxStalenessMs;
+    private final Map<ReportType, CachedReport> reports = new ConcurrentHashMap<>();
+    private final Map<ReportType, CompletableFuture<CachedReport>> inFlight = new ConcurrentHashMap<>();
+
+    public ReportCache(CirculationVersion circulationVersion,
+                       @Value("${library.replicas.max-staleness-ms:2000}") long maxStalenessMs) {
+        this.circulationVersion = circulationVersion;
+        this.maxStalenessMs = maxStalenessMs;
+    }
+
+    public CachedReport get(ReportType type, Supplier<String> generator) {
+        while (true) {
+            long version = circulationVersion.current();
+            LocalDate today = LocalDate.now();
+            CachedReport cached = reports.get(type);
+            if (cached != null && cached.isCurrent(version, today)) {
+                return cached;
+            }
+
+            CompletableFuture<CachedReport> mine = new CompletableFuture<>();
+            CompletableFuture<CachedReport> leader = inFlight.putIfAbsent(type, mine);
+            if (leader != null) {
+                CachedReport shared = await(leader);
+                if (shared.version() >= version) {
+                    return shared;
+                }
+                continue; // the shared generation started before a change this caller has seen
+            }
+
+            try {
+                String content = circulationVersion.changedWithin(maxStalenessMs)
+                        ? ReadYourWrites.onPrimary(generator)
+                        : generator.get();
+                CachedReport fresh = new CachedReport(type, circulationVersion.epoch(), version, today, content);
+                reports.put(type, fresh);
+                mine.complete(fresh);
+                return fresh;
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(type, mine);
+            }
+        }
+    }
+
+    /**
+     * The ETag a report of this type would carry right now, without generating it.
+     */
+    public String currentEtag(ReportType type) {
+        return CachedReport.etagFor(type, circulationVersion.epoch(), circulationVersion.current(), LocalDate.now());
+    }
+
+    private static CachedReport await(CompletableFuture<CachedReport> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
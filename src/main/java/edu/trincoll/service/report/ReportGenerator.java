@@ -1,9 +1,19 @@
 package edu.trincoll.service.report;
 
+import java.io.IOException;
+import java.io.Writer;
+
 public interface ReportGenerator {
     /**
      * Generate a human-readable report string.
      */
     String generateReport();
-}
 
+    /**
+     * Writes the same report to {@code out}. Generators that can produce it row by row override
+     * this so a large report never has to fit in memory.
+     */
+    default void writeReport(Writer out) throws IOException {
+        out.write(generateReport());
+    }
+}
@@ -0,0 +1,34 @@
+package edu.trincoll.service.report;
+
+import java.util.Locale;
+
+/**
+ * Reports that can be served through the {@link ReportCache}.
+ */
+public enum ReportType {
+    AVAILABILITY(false),
+    OVERDUE(true),
+    MEMBER_ACTIVITY(true),
+    CIRCULATION_STATS(true);
+
+    private final boolean dateSensitive;
+
+    ReportType(boolean dateSensitive) {
+        this.dateSensitive = dateSensitive;
+    }
+
+    /**
+     * Whether the report's content depends on today's date and so goes stale at midnight.
+     */
+    public boolean isDateSensitive() {
+        return dateSensitive;
+    }
+
+    public static ReportType fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid report type: " + name);
+        }
+    }
+}
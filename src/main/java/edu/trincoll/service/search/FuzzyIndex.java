@@ -0,0 +1,402 @@
+package edu.trincoll.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable in-memory index for typo-tolerant matching of one text field, e.g. titles.
+ * <p>
+ * Texts are normalized (lower case, accents stripped) and split into words. The distinct words
+ * form a {@link TermDictionary}, and two int arrays in compressed-row form map each word to the
+ * books containing it and each book to its words. Books are numbered in ISBN order, so every
+ * posting list is in result tie-break order.
+ * <p>
+ * A query word matches the dictionary words within its edit budget: none up to two letters, one
+ * up to five, {@code maxEdits} beyond that. A book matches when every query word matches one of
+ * its words; its distance is the sum of the best edits per query word. Candidates come from the
+ * query word with the fewest postings, merged in book order, and are checked against the other
+ * words through the book's word list. The scan stops once {@code limit} hits are at the least
+ * distance the query allows, or after {@code maxCandidates} books, which only queries made of
+ * very common words reach.
+ * <p>
+ * Built in one pass by {@link Builder} and swapped in whole, so lookups need no locking.
+ */
+public final class FuzzyIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final String[] isbns;
+    private final TermDictionary dictionary;
+    private final int[] postingStart;
+    private final int[] postings;
+    private final int[] wordStart;
+    private final int[] words;
+
+    private FuzzyIndex(String[] isbns, TermDictionary dictionary, int[] postingStart, int[] postings,
+                       int[] wordStart, int[] words) {
+        this.isbns = isbns;
+        this.dictionary = dictionary;
+        this.postingStart = postingStart;
+        this.postings = postings;
+        this.wordStart = wordStart;
+        this.words = words;
+    }
+
+    public static FuzzyIndex empty() {
+        return new Builder().build();
+    }
+
+    public int books() {
+        return isbns.length;
+    }
+
+    public int terms() {
+        return dictionary.size();
+    }
+
+    /**
+     * The best {@code limit} books matching every word of {@code query}, fewest edits first, then
+     * by ISBN, looking at no more than {@code maxCandidates} books.
+     */
+    public List<FuzzyMatch> search(String query, int maxEdits, int limit, int maxCandidates) {
+        if (maxEdits < 0 || limit < 1 || maxCandidates < 1) {
+            throw new IllegalArgumentException("maxEdits must not be negative; limit and maxCandidates must be positive");
+        }
+        List<String> queryWords = new ArrayList<>(new LinkedHashSet<>(tokens(query)));
+        if (queryWords.isEmpty() || isbns.length == 0) {
+            return List.of();
+        }
+        List<Matches> matches = new ArrayList<>(queryWords.size());
+        int driver = 0;
+        int leastDistance = 0;
+        for (String word : queryWords) {
+            Matches terms = new Matches();
+            dictionary.search(word.toCharArray(), editBudget(word, maxEdits), terms::add);
+            if (terms.size == 0) {
+                return List.of();
+            }
+            if (!matches.isEmpty() && terms.postings < matches.get(driver).postings) {
+                driver = matches.size();
+            }
+            leastDistance += terms.leastDistance;
+            matches.add(terms);
+        }
+
+        // Book numbers follow ISBN order, so hits are ranked without comparing ISBN strings.
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        PostingMerge candidates = new PostingMerge(matches.get(driver));
+        for (int book = candidates.next(), seen = 0; book >= 0 && seen < maxCandidates; book = candidates.next(), seen++) {
+            // The driver word matches by construction; the others may reject the book.
+            int distance = 0;
+            for (int w = 0; w < matches.size() && distance >= 0; w++) {
+                if (w != driver) {
+                    int edits = bestEdits(book, matches.get(w));
+                    distance = edits < 0 ? -1 : distance + edits;
+                }
+            }
+            if (distance < 0) {
+                continue;
+            }
+            distance += bestEdits(book, matches.get(driver));
+            best.add(new Hit(book, distance));
+            if (best.size() > limit) {
+                best.poll();
+            }
+            if (best.size() == limit && best.peek().distance() <= leastDistance) {
+                break; // later books sort after these and cannot do better
+            }
+        }
+        Hit[] ranked = best.toArray(Hit[]::new);
+        Arrays.sort(ranked);
+        List<FuzzyMatch> results = new ArrayList<>(ranked.length);
+        for (Hit hit : ranked) {
+            results.add(new FuzzyMatch(isbns[hit.book()], hit.distance()));
+        }
+        return results;
+    }
+
+    /**
+     * Whether {@code isbn} is indexed under exactly the words of {@code text}, so indexing the
+     * text again would change nothing. A text without words is never indexed.
+     */
+    public boolean indexes(String isbn, String text) {
+        LinkedHashSet<String> distinct = new LinkedHashSet<>(tokens(text));
+        int book = Arrays.binarySearch(isbns, isbn);
+        if (book < 0) {
+            return distinct.isEmpty();
+        }
+        if (wordStart[book + 1] - wordStart[book] != distinct.size()) {
+            return false;
+        }
+        for (String token : distinct) {
+            int term = dictionary.indexOf(token.toCharArray());
+            if (term < 0 || !hasWord(book, term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasWord(int book, int term) {
+        for (int w = wordStart[book]; w < wordStart[book + 1]; w++) {
+            if (words[w] == term) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lower-cased, accent-stripped words of {@code text}.
+     */
+    public static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static int editBudget(String word, int maxEdits) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? Math.min(1, maxEdits) : maxEdits;
+    }
+
+    private int bestEdits(int book, Matches terms) {
+        int best = -1;
+        for (int w = wordStart[book]; w < wordStart[book + 1]; w++) {
+            int edits = terms.edits(words[w]);
+            if (edits >= 0 && (best < 0 || edits < best)) {
+                best = edits;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A matching book by number, ordered fewest edits first, then by book (that is, ISBN).
+     */
+    private record Hit(int book, int distance) implements Comparable<Hit> {
+        @Override
+        public int compareTo(Hit other) {
+            return distance != other.distance ? Integer.compare(distance, other.distance)
+                    : Integer.compare(book, other.book);
+        }
+    }
+
+    /**
+     * Dictionary terms matching one query word, in term order, with their edit distances.
+     */
+    private final class Matches {
+        private int[] terms = new int[16];
+        private int[] distances = new int[16];
+        private int size;
+        private long postings;
+        private int leastDistance = Integer.MAX_VALUE;
+
+        void add(int term, int distance) {
+            if (size == terms.length) {
+                terms = Arrays.copyOf(terms, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            terms[size] = term;
+            distances[size++] = distance;
+            postings += postingStart[term + 1] - postingStart[term];
+            leastDistance = Math.min(leastDistance, distance);
+        }
+
+        /**
+         * Edits to {@code term}, or -1 if it does not match.
+         */
+        int edits(int term) {
+            int at = Arrays.binarySearch(terms, 0, size, term);
+            return at < 0 ? -1 : distances[at];
+        }
+    }
+
+    /**
+     * Union of the posting lists of several terms in book order, each book once; a binary heap of
+     * list cursors keyed by their current book.
+     */
+    private final class PostingMerge {
+        private final int[] position;
+        private final int[] end;
+        private final int[] heap;
+        private int size;
+        private int last = -1;
+
+        PostingMerge(Matches terms) {
+            position = new int[terms.size];
+            end = new int[terms.size];
+            heap = new int[terms.size];
+            for (int i = 0; i < terms.size; i++) {
+                position[i] = postingStart[terms.terms[i]];
+                end[i] = postingStart[terms.terms[i] + 1];
+                if (position[i] < end[i]) {
+                    heap[size] = i;
+                    siftUp(size++);
+                }
+            }
+        }
+
+        /**
+         * The next book, or -1 when all lists are exhausted.
+         */
+        int next() {
+            while (size > 0) {
+                int list = heap[0];
+                int book = postings[position[list]++];
+                if (position[list] == end[list]) {
+                    heap[0] = heap[--size];
+                }
+                if (size > 0) {
+                    siftDown(0);
+                }
+                if (book != last) {
+                    last = book;
+                    return book;
+                }
+            }
+            return -1;
+        }
+
+        private int key(int slot) {
+            return postings[position[heap[slot]]];
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                int parent = (slot - 1) >>> 1;
+                if (key(parent) <= key(slot)) {
+                    return;
+                }
+                swap(parent, slot);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                int smallest = slot;
+                int left = 2 * slot + 1;
+                if (left < size && key(left) < key(smallest)) {
+                    smallest = left;
+                }
+                if (left + 1 < size && key(left + 1) < key(smallest)) {
+                    smallest = left + 1;
+                }
+                if (smallest == slot) {
+                    return;
+                }
+                swap(slot, smallest);
+                slot = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int list = heap[a];
+            heap[a] = heap[b];
+            heap[b] = list;
+        }
+    }
+
+    /**
+     * Collects (ISBN, text) pairs; not thread-safe.
+     */
+    public static final class Builder {
+
+        private final List<String> isbns = new ArrayList<>();
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private final List<char[]> terms = new ArrayList<>();
+        private int[] termCounts = new int[1024];
+        private int[] wordStart = new int[1024];
+        private int[] words = new int[4096];
+        private int wordCount;
+
+        public Builder add(String isbn, String text) {
+            LinkedHashSet<String> distinct = new LinkedHashSet<>(tokens(text));
+            if (distinct.isEmpty()) {
+                return this;
+            }
+            int book = isbns.size();
+            isbns.add(isbn);
+            if (book + 2 > wordStart.length) {
+                wordStart = Arrays.copyOf(wordStart, wordStart.length * 2);
+            }
+            for (String token : distinct) {
+                int term = termIds.computeIfAbsent(token, t -> {
+                    terms.add(t.toCharArray());
+                    return terms.size() - 1;
+                });
+                if (term == termCounts.length) {
+                    termCounts = Arrays.copyOf(termCounts, termCounts.length * 2);
+                }
+                termCounts[term]++;
+                if (wordCount == words.length) {
+                    words = Arrays.copyOf(words, words.length * 2);
+                }
+                words[wordCount++] = term;
+            }
+            wordStart[book + 1] = wordCount;
+            return this;
+        }
+
+        public FuzzyIndex build() {
+            // Term ids become dictionary positions, book ids ISBN positions.
+            int termTotal = terms.size();
+            Integer[] termOrder = new Integer[termTotal];
+            Arrays.setAll(termOrder, i -> i);
+            Arrays.sort(termOrder, (a, b) -> Arrays.compare(terms.get(a), terms.get(b)));
+            char[][] sortedTerms = new char[termTotal][];
+            int[] termRank = new int[termTotal];
+            int[] postingStart = new int[termTotal + 1];
+            for (int rank = 0; rank < termTotal; rank++) {
+                sortedTerms[rank] = terms.get(termOrder[rank]);
+                termRank[termOrder[rank]] = rank;
+                postingStart[rank + 1] = postingStart[rank] + termCounts[termOrder[rank]];
+            }
+
+            int books = isbns.size();
+            Integer[] bookOrder = new Integer[books];
+            Arrays.setAll(bookOrder, i -> i);
+            Arrays.sort(bookOrder, Comparator.comparing(isbns::get));
+            String[] sortedIsbns = new String[books];
+            int[] sortedWordStart = new int[books + 1];
+            int[] sortedWords = new int[wordCount];
+            int[] postings = new int[wordCount];
+            int[] next = Arrays.copyOf(postingStart, termTotal);
+            for (int book = 0; book < books; book++) {
+                int original = bookOrder[book];
+                sortedIsbns[book] = isbns.get(original);
+                int w = sortedWordStart[book];
+                for (int from = wordStart[original]; from < wordStart[original + 1]; from++) {
+                    int term = termRank[words[from]];
+                    sortedWords[w++] = term;
+                    postings[next[term]++] = book;
+                }
+                sortedWordStart[book + 1] = w;
+            }
+            return new FuzzyIndex(sortedIsbns, new TermDictionary(sortedTerms), postingStart, postings,
+                    sortedWordStart, sortedWords);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package edu.trincoll.service.search;
+
+/**
+ * A typo-tolerant hit: the book and the total edits between the query's words and its own.
+ */
+public record FuzzyMatch(String isbn, int distance) {
+}
@@ -0,0 +1,188 @@
+package edu.trincoll.service.search;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.ChangeLogEntityType;
+import edu.trincoll.model.ChangeLogEntry;
+import edu.trincoll.repository.BookListingView;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.ChangeLogRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Typo-tolerant lookup of books by title or author words, over a {@link FuzzyIndex} per field.
+ * <p>
+ * The indexes are rebuilt from the catalog on a background thread every
+ * {@code rebuild-interval-ms} and swapped in whole. A rebuild is skipped when the change log
+ * shows no write since the last build, or when every book it names still has the indexed title
+ * and author words, as after checkouts and returns. It goes ahead whenever that cannot be told:
+ * a gap in the log ids (a rolled-back or pruned entry) or more than {@value #MAX_CHECKED_BOOKS}
+ * changed books. Books added since then are only found by the exact searches until the next
+ * rebuild; books deleted since then are dropped by callers when they load the hits.
+ * <p>
+ * With book sharding the change log is read on the home shard. Writes to books on the other
+ * shards reach it through {@link edu.trincoll.repository.shard.ShardLogRelay}, so a rebuild
+ * notices them one relay pass after they commit.
+ */
+@Component
+public class FuzzySearchIndex {
+
+    private static final int CHANGE_PAGE = 500;
+    private static final int MAX_CHECKED_BOOKS = 5000;
+
+    private final BookRepository bookRepository;
+    private final ChangeLogRepository changeLogRepository;
+    private final TransactionTemplate readOnly;
+    private final FuzzySearchProperties properties;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fuzzy-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile FuzzyIndex titles = FuzzyIndex.empty();
+    private volatile FuzzyIndex authors = FuzzyIndex.empty();
+    private long builtAtChange = -1;
+
+    public FuzzySearchIndex(BookRepository bookRepository, ChangeLogRepository changeLogRepository,
+                            PlatformTransactionManager transactionManager, FuzzySearchProperties properties) {
+        this.bookRepository = bookRepository;
+        this.changeLogRepository = changeLogRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    /**
+     * Queues a rebuild; the first run builds the indexes shortly after startup.
+     */
+    @Scheduled(fixedDelayString = "${library.search.fuzzy.rebuild-interval-ms:300000}")
+    public void scheduleRebuild() {
+        if (properties.enabled() && rebuildPending.compareAndSet(false, true)) {
+            builder.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    /**
+     * Rebuilds both indexes now, unless no title or author was written since the last build.
+     *
+     * @return whether the indexes were rebuilt
+     */
+    public synchronized boolean rebuild() {
+        if (builtAtChange >= 0) {
+            Long maxId = changeLogRepository.findMaxId();
+            long position = maxId == null ? 0 : maxId;
+            if (position == builtAtChange) {
+                return false;
+            }
+            if (!wordsChanged(builtAtChange, position)) {
+                builtAtChange = position;
+                return false;
+            }
+        }
+        FuzzyIndex.Builder titleIndex = new FuzzyIndex.Builder();
+        FuzzyIndex.Builder authorIndex = new FuzzyIndex.Builder();
+        // Read in the same transaction as the books, so the two agree on a replica too.
+        long lastChange = readOnly.execute(status -> {
+            Long maxId = changeLogRepository.findMaxId();
+            long position = maxId == null ? 0 : maxId;
+            if (position == builtAtChange) {
+                return position;
+            }
+            try (Stream<BookListingView> books = bookRepository.streamListing()) {
+                books.forEach(book -> {
+                    titleIndex.add(book.getIsbn(), book.getTitle());
+                    authorIndex.add(book.getIsbn(), book.getAuthor());
+                });
+            }
+            return position;
+        });
+        if (lastChange == builtAtChange) {
+            return false;
+        }
+        titles = titleIndex.build();
+        authors = authorIndex.build();
+        builtAtChange = lastChange;
+        return true;
+    }
+
+    /**
+     * Whether the log entries in ({@code after}, {@code upTo}] may have changed the indexed words:
+     * true unless they are gap-free and every book they name is indexed as it now reads.
+     */
+    private boolean wordsChanged(long after, long upTo) {
+        Set<String> isbns = new HashSet<>();
+        long expected = after + 1;
+        while (expected <= upTo) {
+            List<ChangeLogEntry> page = changeLogRepository.findByIdGreaterThanOrderByIdAsc(expected - 1,
+                    Limit.of(CHANGE_PAGE));
+            for (ChangeLogEntry entry : page) {
+                if (entry.getId() != expected) {
+                    return true; // rolled back, pruned or not yet committed: its change is unknown
+                }
+                if (entry.getEntityType() == ChangeLogEntityType.BOOK && isbns.add(entry.getEntityKey())
+                        && isbns.size() > MAX_CHECKED_BOOKS) {
+                    return true;
+                }
+                if (++expected > upTo) {
+                    break;
+                }
+            }
+            if (page.isEmpty()) {
+                return true;
+            }
+        }
+        if (isbns.isEmpty()) {
+            return false;
+        }
+        FuzzyIndex titleIndex = titles;
+        FuzzyIndex authorIndex = authors;
+        for (Book book : bookRepository.findByIsbnIn(isbns)) {
+            if (!titleIndex.indexes(book.getIsbn(), book.getTitle())
+                    || !authorIndex.indexes(book.getIsbn(), book.getAuthor())) {
+                return true;
+            }
+            isbns.remove(book.getIsbn());
+        }
+        // Whatever is left was deleted.
+        for (String isbn : isbns) {
+            if (!titleIndex.indexes(isbn, null) || !authorIndex.indexes(isbn, null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Books whose {@code field} words are each within a few edits of a word of {@code query},
+     * closest first; empty when the index is disabled.
+     */
+    public List<FuzzyMatch> search(SearchField field, String query) {
+        if (!properties.enabled()) {
+            return List.of();
+        }
+        FuzzyIndex index = field == SearchField.TITLE ? titles : authors;
+        return index.search(query, properties.maxEdits(), properties.maxResults(), properties.maxCandidates());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        builder.shutdownNow();
+    }
+}
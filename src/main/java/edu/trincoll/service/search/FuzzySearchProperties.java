@@ -0,0 +1,25 @@
+package edu.trincoll.service.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code library.search.fuzzy.*}: the typo-tolerant title and author index.
+ *
+ * @param enabled       build the index and merge its hits into search results
+ * @param maxEdits      edits allowed per query word of six letters or more; shorter words get fewer
+ * @param maxResults    fuzzy hits returned per search
+ * @param maxCandidates books examined per search before giving up on finding better hits
+ */
+@ConfigurationProperties("library.search.fuzzy")
+public record FuzzySearchProperties(@DefaultValue("true") boolean enabled,
+                                    @DefaultValue("2") int maxEdits,
+                                    @DefaultValue("50") int maxResults,
+                                    @DefaultValue("5000") int maxCandidates) {
+
+    public FuzzySearchProperties {
+        if (maxEdits < 0 || maxEdits > 3 || maxResults < 1 || maxCandidates < 1) {
+            throw new IllegalArgumentException("library.search.fuzzy.max-edits must be 0 to 3; max-results and max-candidates must be positive");
+        }
+    }
+}
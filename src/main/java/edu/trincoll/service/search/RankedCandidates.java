@@ -0,0 +1,59 @@
+package edu.trincoll.service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded heap keeping the best {@code capacity} hits seen, worst at the head so each new hit
+ * costs one comparison once the heap is full.
+ */
+final class RankedCandidates {
+
+    /** Best first: higher score, then lower ISBN. */
+    static final Comparator<Hit> RANKING = Comparator.comparingLong(Hit::score).reversed()
+            .thenComparing(Hit::isbn);
+
+    private final int capacity;
+    private final PriorityQueue<Hit> heap;
+
+    RankedCandidates(int capacity) {
+        this.capacity = capacity;
+        this.heap = new PriorityQueue<>(capacity + 1, RANKING.reversed());
+    }
+
+    boolean isFull() {
+        return heap.size() == capacity;
+    }
+
+    /**
+     * The lowest score still kept; only meaningful once {@link #isFull()}.
+     */
+    long worstScore() {
+        return heap.peek().score();
+    }
+
+    void offer(long score, String isbn) {
+        Hit hit = new Hit(score, isbn);
+        if (!isFull()) {
+            heap.add(hit);
+        } else if (RANKING.compare(hit, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(hit);
+        }
+    }
+
+    /**
+     * The kept hits, best first.
+     */
+    List<Hit> ranked() {
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(RANKING);
+        return Collections.unmodifiableList(hits);
+    }
+
+    record Hit(long score, String isbn) {
+    }
+}
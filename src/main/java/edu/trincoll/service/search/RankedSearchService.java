@@ -0,0 +1,164 @@
+package edu.trincoll.service.search;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.SearchCandidateView;
+import edu.trincoll.service.trending.TrendingTracker;
+import edu.trincoll.service.trending.TrendingWindow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Relevance-ranked, paged title and author search.
+ * <p>
+ * Matches are streamed as projections, never entities, and scored as: exact match over prefix
+ * over substring, then available over not, then checkouts in the trending week. Books that only
+ * match within a few typos, from the {@link FuzzySearchIndex}, rank below every substring match,
+ * fewest edits first, then by checkouts. Only the best
+ * {@code size + 1} hits past the cursor are kept, in a bounded heap, and only the page's books
+ * are loaded. Pages are cut by a keyset cursor on (score, ISBN), so a page costs the same however
+ * deep it is, though a score that changes between requests can move a book across pages.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RankedSearchService {
+
+    private static final int TIER_SHIFT = 56;
+    private static final int CLOSENESS_SHIFT = 48;
+    private static final long AVAILABLE_BOOST = 1L << CLOSENESS_SHIFT;
+    private static final long POPULARITY_MASK = AVAILABLE_BOOST - 1;
+    private static final long EXACT = 3;
+    private static final long PREFIX = 2;
+    private static final long CONTAINS = 1;
+    private static final long FUZZY = 0;
+    private static final int MAX_CLOSENESS = 127;
+
+    private final BookRepository bookRepository;
+    private final TrendingTracker trendingTracker;
+    private final FuzzySearchIndex fuzzySearchIndex;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public RankedSearchService(BookRepository bookRepository, TrendingTracker trendingTracker,
+                               FuzzySearchIndex fuzzySearchIndex,
+                               @Value("${library.search.default-page-size:20}") int defaultPageSize,
+                               @Value("${library.search.max-page-size:100}") int maxPageSize) {
+        if (defaultPageSize < 1 || maxPageSize < defaultPageSize) {
+            throw new IllegalArgumentException("Page sizes must satisfy 1 <= default <= max");
+        }
+        this.bookRepository = bookRepository;
+        this.trendingTracker = trendingTracker;
+        this.fuzzySearchIndex = fuzzySearchIndex;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * One page of books whose {@code field} contains {@code query}, case-insensitively, or matches
+     * its words within a few typos.
+     *
+     * @param size   page size; null for the default, capped at the maximum
+     * @param cursor {@link SearchPage#nextCursor()} of the previous page, or null for the first
+     */
+    public SearchPage search(SearchField field, String query, Integer size, String cursor) {
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+        if (query == null || query.isBlank()) {
+            return SearchPage.empty();
+        }
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+
+        // One extra hit tells whether another page follows.
+        RankedCandidates top = new RankedCandidates(pageSize + 1);
+        ToLongFunction<String> popularity = trendingTracker.estimator(TrendingWindow.WEEK);
+        Map<String, Integer> typoMatches = new HashMap<>();
+        for (FuzzyMatch match : fuzzySearchIndex.search(field, query)) {
+            typoMatches.put(match.isbn(), match.distance());
+        }
+        try (Stream<SearchCandidateView> matches = switch (field) {
+            case TITLE -> bookRepository.streamTitleMatches(likePattern(needle));
+            case AUTHOR -> bookRepository.streamAuthorMatches(likePattern(needle));
+        }) {
+            matches.forEach(match -> {
+                typoMatches.remove(match.getIsbn());
+                long base = (tier(match.getText(), needle) << TIER_SHIFT)
+                        | (match.getStatus() == BookStatus.AVAILABLE ? AVAILABLE_BOOST : 0);
+                offer(top, after, base, match.getIsbn(), popularity);
+            });
+        }
+        typoMatches.forEach((isbn, distance) -> offer(top, after,
+                (FUZZY << TIER_SHIFT) | ((long) Math.max(0, MAX_CLOSENESS - distance) << CLOSENESS_SHIFT), isbn, popularity));
+
+        List<RankedCandidates.Hit> hits = top.ranked();
+        List<RankedCandidates.Hit> page = hits.subList(0, Math.min(pageSize, hits.size()));
+        if (page.isEmpty()) {
+            return SearchPage.empty();
+        }
+        Map<String, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findByIsbnIn(page.stream().map(RankedCandidates.Hit::isbn).toList())) {
+            books.put(book.getIsbn(), book);
+        }
+        List<Book> results = new ArrayList<>(page.size());
+        for (RankedCandidates.Hit hit : page) {
+            Book book = books.get(hit.isbn());
+            if (book != null) { // deleted since it was matched
+                results.add(book);
+            }
+        }
+        RankedCandidates.Hit last = page.get(page.size() - 1);
+        String next = hits.size() > pageSize ? new SearchCursor(last.score(), last.isbn()).encode() : null;
+        return new SearchPage(results, next);
+    }
+
+    /**
+     * Scores a hit from its {@code base} and popularity, skipping the estimate when even the most
+     * popular book with that base would not make the page.
+     */
+    private static void offer(RankedCandidates top, SearchCursor after, long base, String isbn,
+                              ToLongFunction<String> popularity) {
+        if (top.isFull() && (base | POPULARITY_MASK) < top.worstScore()) {
+            return;
+        }
+        long score = base | Math.min(popularity.applyAsLong(isbn), POPULARITY_MASK);
+        if (after == null || after.admits(score, isbn)) {
+            top.offer(score, isbn);
+        }
+    }
+
+    private static long tier(String text, String needle) {
+        String folded = text.toLowerCase(Locale.ROOT);
+        if (folded.equals(needle)) {
+            return EXACT;
+        }
+        return folded.startsWith(needle) ? PREFIX : CONTAINS;
+    }
+
+    /**
+     * Substring LIKE pattern with {@code !} escaping the needle's wildcards.
+     */
+    static String likePattern(String needle) {
+        StringBuilder pattern = new StringBuilder(needle.length() + 4).append('%');
+        for (int i = 0; i < needle.length(); i++) {
+            char c = needle.charAt(i);
+            if (c == '!' || c == '%' || c == '_') {
+                pattern.append('!');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,9 @@
+package edu.trincoll.service.search;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(FuzzySearchProperties.class)
+public class SearchConfiguration {
+}
@@ -0,0 +1,37 @@
+package edu.trincoll.service.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position after the last result of a page: its score and ISBN, the ranking's tie-breaker.
+ * ISBN rather than id, because book ids are only unique within a shard.
+ */
+record SearchCursor(long score, String isbn) {
+
+    static SearchCursor decode(String token) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int colon = text.indexOf(':');
+            if (colon < 1 || colon == text.length() - 1) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+            return new SearchCursor(Long.parseLong(text.substring(0, colon)), text.substring(colon + 1));
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed base64 and NumberFormatException.
+            throw new IllegalArgumentException("Invalid search cursor", e);
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((score + ":" + isbn).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether a hit ranks strictly after this position.
+     */
+    boolean admits(long score, String isbn) {
+        return score < this.score || (score == this.score && isbn.compareTo(this.isbn) > 0);
+    }
+}
@@ -0,0 +1,9 @@
+package edu.trincoll.service.search;
+
+/**
+ * The book field a ranked search matches against.
+ */
+public enum SearchField {
+    TITLE,
+    AUTHOR
+}
@@ -0,0 +1,16 @@
+package edu.trincoll.service.search;
+
+import edu.trincoll.model.Book;
+
+import java.util.List;
+
+/**
+ * One page of ranked results, best first. {@code nextCursor} fetches the following page and is
+ * null on the last one.
+ */
+public record SearchPage(List<Book> results, String nextCursor) {
+
+    public static SearchPage empty() {
+        return new SearchPage(List.of(), null);
+    }
+}
@@ -0,0 +1,188 @@
+package edu.trincoll.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted term dictionary answering "every term within {@code k} edits of a word".
+ * <p>
+ * The sorted terms are walked as an implicit trie: the terms sharing a prefix form a contiguous
+ * range, and a child range is found by searching on the next character. Descending one
+ * level computes one row of the Levenshtein matrix, limited to the cells within {@code k} of the
+ * diagonal, and a prefix whose row exceeds {@code k} everywhere is abandoned with all its terms.
+ * As in a Levenshtein automaton, once a character absent from the word would end the walk, only
+ * the word's own characters near the current position can continue it, so the walk seeks
+ * straight to those children instead of trying every one.
+ */
+final class TermDictionary {
+
+    private final char[][] terms;
+    private final int maxLength;
+
+    /**
+     * @param sortedTerms distinct, non-empty terms in {@link String#compareTo} order; a term's index
+     *                    is its id
+     */
+    TermDictionary(char[][] sortedTerms) {
+        this.terms = sortedTerms;
+        int longest = 0;
+        for (char[] term : sortedTerms) {
+            longest = Math.max(longest, term.length);
+        }
+        this.maxLength = longest;
+    }
+
+    interface TermVisitor {
+        void accept(int term, int distance);
+    }
+
+    int size() {
+        return terms.length;
+    }
+
+    /**
+     * The id of {@code word}, or a negative number if it is not a term.
+     */
+    int indexOf(char[] word) {
+        return Arrays.binarySearch(terms, word, Arrays::compare);
+    }
+
+    /**
+     * Calls {@code visitor} with every term within {@code maxEdits} of {@code word}, in term order.
+     */
+    void search(char[] word, int maxEdits, TermVisitor visitor) {
+        // rows[d] is the matrix row for the current prefix of length d; rows[d + 1] and the
+        // scratch row are overwritten while its children are tried.
+        Walk walk = new Walk(word, maxEdits, visitor, new int[maxLength + 1][word.length + 2],
+                new int[word.length + 2]);
+        for (int j = 0; j <= word.length + 1; j++) {
+            walk.rows[0][j] = Math.min(j, maxEdits + 1);
+        }
+        walk.descend(0, terms.length, 0);
+    }
+
+    private final class Walk {
+        private final char[] word;
+        private final int maxEdits;
+        private final TermVisitor visitor;
+        private final int[][] rows;
+        private final int[] scratch;
+
+        private Walk(char[] word, int maxEdits, TermVisitor visitor, int[][] rows, int[] scratch) {
+            this.word = word;
+            this.maxEdits = maxEdits;
+            this.visitor = visitor;
+            this.rows = rows;
+            this.scratch = scratch;
+        }
+
+        /**
+         * Visits {@code terms[from, to)}, which share a live prefix of length {@code depth}.
+         */
+        void descend(int from, int to, int depth) {
+            if (terms[from].length == depth) {
+                // Sorted first: the prefix itself is a term.
+                if (Math.abs(depth - word.length) <= maxEdits && rows[depth][word.length] <= maxEdits) {
+                    visitor.accept(from, rows[depth][word.length]);
+                }
+                from++;
+            }
+            if (from == to || depth == maxLength) {
+                return;
+            }
+            if (advance(depth, (char) 0, scratch)) {
+                // A character matching nothing keeps the prefix alive: every child is a candidate.
+                for (int start = from; start < to; ) {
+                    char c = terms[start][depth];
+                    int end = firstAbove(start, to, depth, c);
+                    tryChild(start, end, depth, c);
+                    start = end;
+                }
+                return;
+            }
+            int low = Math.max(1, depth + 1 - maxEdits);
+            int high = Math.min(word.length, depth + 1 + maxEdits);
+            char last = 0;
+            int next = from;
+            for (int j = low; j <= high && next < to; j++) {
+                char c = nextCandidate(low, high, last);
+                if (c == 0) {
+                    break;
+                }
+                last = c;
+                // Candidates come in ascending order, so each child lies beyond the previous one.
+                int start = firstAbove(next, to, depth, (char) (c - 1));
+                int end = firstAbove(start, to, depth, c);
+                if (start < end) {
+                    tryChild(start, end, depth, c);
+                }
+                next = end;
+            }
+        }
+
+        private void tryChild(int start, int end, int depth, char c) {
+            if (advance(depth, c, rows[depth + 1])) {
+                descend(start, end, depth + 1);
+            }
+        }
+
+        /**
+         * The smallest character of {@code word[low - 1, high)} above {@code after}, or 0 if none.
+         */
+        private char nextCandidate(int low, int high, char after) {
+            char next = 0;
+            for (int j = low; j <= high; j++) {
+                char c = word[j - 1];
+                if (c > after && (next == 0 || c < next)) {
+                    next = c;
+                }
+            }
+            return next;
+        }
+
+        /**
+         * Computes into {@code row} the matrix row after appending {@code c} to the prefix of
+         * length {@code depth}, and returns whether any cell is within budget. {@code c == 0}
+         * stands for a character that matches nothing in the word.
+         */
+        private boolean advance(int depth, char c, int[] row) {
+            int[] above = rows[depth];
+            int beyond = maxEdits + 1;
+            int next = depth + 1;
+            int low = Math.max(1, next - maxEdits);
+            int high = Math.min(word.length, next + maxEdits);
+            row[low - 1] = low == 1 ? Math.min(next, beyond) : beyond;
+            int best = row[low - 1];
+            for (int j = low; j <= high; j++) {
+                int cost = above[j - 1] + (c != 0 && word[j - 1] == c ? 0 : 1);
+                int cell = Math.min(Math.min(cost, Math.min(above[j], row[j - 1]) + 1), beyond);
+                row[j] = cell;
+                best = Math.min(best, cell);
+            }
+            row[high + 1] = beyond;
+            return best <= maxEdits;
+        }
+
+        /**
+         * The first of {@code terms[from, to)} whose character at {@code depth} is above {@code c}.
+         * Most children are a handful of terms, so this gallops from {@code from} before
+         * bisecting, instead of bisecting the whole range.
+         */
+        private int firstAbove(int from, int to, int depth, char c) {
+            int low = from;
+            int high = from;
+            for (int step = 1; high < to && terms[high][depth] <= c; step <<= 1) {
+                low = high + 1;
+                high = Math.min(to, high + step);
+            }
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (terms[mid][depth] <= c) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package edu.trincoll.service.sketch;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog distinct-count sketch over pre-hashed keys, with {@code 2^precision} registers and
+ * a relative standard error of about {@code 1.04 / sqrt(2^precision)}. Sketches of the same
+ * precision merge by register-wise maximum, which is idempotent: merging the same data twice
+ * does not change the estimate. Instances are thread-safe.
+ * <p>
+ * {@link #toBytes()} writes the registers sparsely (index delta, value) while few are set and
+ * packed six bits each once that is smaller, so a quiet day's sketch is a few bytes.
+ */
+public final class HyperLogLog {
+
+    private static final int DENSE = 0;
+    private static final int SPARSE = 1;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between 4 and 18: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public synchronized void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException(
+                    "Cannot merge HyperLogLog of precision " + other.precision + " into " + precision);
+        }
+        byte[] theirs = other.copyRegisters();
+        synchronized (this) {
+            for (int i = 0; i < registers.length; i++) {
+                if (theirs[i] > registers[i]) {
+                    registers[i] = theirs[i];
+                }
+            }
+        }
+    }
+
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog(precision);
+        System.arraycopy(copyRegisters(), 0, copy.registers, 0, registers.length);
+        return copy;
+    }
+
+    public long estimate() {
+        byte[] snapshot = copyRegisters();
+        int m = snapshot.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : snapshot) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros); // linear counting is more accurate while registers are empty
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Relative standard error of {@link #estimate()}; about 95% of estimates fall within twice this.
+     */
+    public double standardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public byte[] toBytes() {
+        byte[] snapshot = copyRegisters();
+        int set = 0;
+        for (byte register : snapshot) {
+            if (register != 0) {
+                set++;
+            }
+        }
+        int denseBytes = (snapshot.length * 6 + 7) / 8;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(denseBytes, set * 4) + 8);
+        out.write(precision);
+        if (set * 4 < denseBytes) {
+            out.write(SPARSE);
+            writeVarint(out, set);
+            int previous = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                if (snapshot[i] != 0) {
+                    writeVarint(out, i - previous);
+                    out.write(snapshot[i]);
+                    previous = i;
+                }
+            }
+        } else {
+            out.write(DENSE);
+            long bits = 0;
+            int pending = 0;
+            for (byte register : snapshot) {
+                bits = bits << 6 | register;
+                pending += 6;
+                while (pending >= 8) {
+                    pending -= 8;
+                    out.write((int) (bits >>> pending));
+                }
+            }
+            if (pending > 0) {
+                out.write((int) (bits << (8 - pending)));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        HyperLogLog sketch = new HyperLogLog(in.get());
+        int format = in.get();
+        if (format == SPARSE) {
+            int set = readVarint(in);
+            int index = 0;
+            for (int i = 0; i < set; i++) {
+                index += readVarint(in);
+                sketch.registers[index] = in.get();
+            }
+        } else if (format == DENSE) {
+            long bits = 0;
+            int available = 0;
+            for (int i = 0; i < sketch.registers.length; i++) {
+                while (available < 6) {
+                    bits = bits << 8 | (in.get() & 0xFF);
+                    available += 8;
+                }
+                available -= 6;
+                sketch.registers[i] = (byte) ((bits >>> available) & 0x3F);
+            }
+        } else {
+            throw new IllegalStateException("Unknown HyperLogLog encoding " + format);
+        }
+        return sketch;
+    }
+
+    private synchronized byte[] copyRegisters() {
+        return registers.clone();
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,26 @@
+package edu.trincoll.service.sketch;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit hash for sketch keys: FNV-1a followed by a murmur finaliser, so every bit, and either
+ * half on its own, is usable as an independent hash.
+ */
+public final class KeyHash {
+
+    private KeyHash() {
+    }
+
+    public static long of(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
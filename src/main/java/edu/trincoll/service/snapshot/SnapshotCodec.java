@@ -0,0 +1,204 @@
+package edu.trincoll.service.snapshot;
+
+import edu.trincoll.model.BookStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Writes the columnar snapshot format read by {@link SnapshotFile}.
+ * <pre>
+ * header   magic "LSNP", format version, snapshot epoch day, row count,
+ *          then the byte offset of each column and of the end of the file
+ * status   dictionary of status names, then (dictionary index, run length) runs
+ * author   dictionary of author names, then one dictionary index per row
+ * due      one zigzag delta per row against the previous row (epoch day + 1, 0 for none)
+ * isbn     one length-prefixed UTF-8 string per row
+ * </pre>
+ * Integers inside columns are unsigned LEB128 varints. Rows are grouped by status, so each
+ * status is a single run, and sorted by due date and ISBN within it, so due dates within a run
+ * only move forward.
+ */
+public final class SnapshotCodec {
+
+    static final int MAGIC = 0x4C534E50;
+    static final int FORMAT_VERSION = 1;
+    static final int COLUMN_COUNT = 4;
+    static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 8 * (COLUMN_COUNT + 1);
+
+    static final int STATUS = 0;
+    static final int AUTHOR = 1;
+    static final int DUE = 2;
+    static final int ISBN = 3;
+
+    private static final Comparator<SnapshotRow> ROW_ORDER = Comparator
+            .comparing(SnapshotRow::status)
+            .thenComparing(SnapshotRow::dueDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SnapshotRow::isbn);
+
+    private SnapshotCodec() {
+    }
+
+    /**
+     * Writes {@code rows} as the snapshot for {@code date}. The file is written next to
+     * {@code file} and moved into place, so readers never see a partial snapshot.
+     */
+    public static void write(Path file, LocalDate date, Collection<SnapshotRow> rows) throws IOException {
+        write(file, date, rows.stream().sorted(ROW_ORDER));
+    }
+
+    /**
+     * Writes rows as they arrive, keeping only the encoded columns in memory. Each status must
+     * arrive as one contiguous group; rows within a group compress best sorted by due date.
+     *
+     * @throws IllegalArgumentException if a status reappears after its group ended
+     */
+    public static void write(Path file, LocalDate date, Stream<SnapshotRow> rows) throws IOException {
+        Encoder encoder = new Encoder();
+        rows.forEachOrdered(encoder::add);
+        byte[][] columns = encoder.columns();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(date.toEpochDay()).putInt(encoder.rowCount);
+        long offset = HEADER_BYTES;
+        for (byte[] column : columns) {
+            header.putLong(offset);
+            offset += column.length;
+        }
+        header.putLong(offset);
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            out.write(header.array());
+            for (byte[] column : columns) {
+                out.write(column);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    static long readZigzag(ByteBuffer in) {
+        long raw = readVarint(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[(int) readVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes the columns one row at a time.
+     */
+    private static final class Encoder {
+        private final Set<BookStatus> seen = EnumSet.noneOf(BookStatus.class);
+        private final List<int[]> statusRuns = new ArrayList<>();
+        private final Map<String, Integer> authors = new LinkedHashMap<>();
+        private final Column authorIds = new Column();
+        private final Column due = new Column();
+        private final Column isbn = new Column();
+        private long previousDue;
+        private int rowCount;
+
+        void add(SnapshotRow row) {
+            int ordinal = row.status().ordinal();
+            int[] run = statusRuns.isEmpty() ? null : statusRuns.get(statusRuns.size() - 1);
+            if (run == null || run[0] != ordinal) {
+                if (!seen.add(row.status())) {
+                    throw new IllegalArgumentException("Snapshot rows are not grouped by status: "
+                            + row.status() + " appears again at row " + rowCount);
+                }
+                run = new int[]{ordinal, 0};
+                statusRuns.add(run);
+            }
+            run[1]++;
+
+            String author = row.author() == null ? "" : row.author();
+            authorIds.writeVarint(authors.computeIfAbsent(author, a -> authors.size()));
+
+            long value = row.dueDate() == null ? 0 : row.dueDate().toEpochDay() + 1;
+            long delta = value - previousDue;
+            due.writeVarint((delta << 1) ^ (delta >> 63));
+            previousDue = value;
+
+            isbn.writeString(row.isbn());
+            rowCount++;
+        }
+
+        byte[][] columns() {
+            byte[][] columns = new byte[COLUMN_COUNT][];
+
+            Column status = new Column();
+            BookStatus[] statuses = BookStatus.values();
+            status.writeVarint(statuses.length);
+            for (BookStatus each : statuses) {
+                status.writeString(each.name());
+            }
+            status.writeVarint(statusRuns.size());
+            for (int[] run : statusRuns) {
+                status.writeVarint(run[0]);
+                status.writeVarint(run[1]);
+            }
+            columns[STATUS] = status.toByteArray();
+
+            Column author = new Column();
+            author.writeVarint(authors.size());
+            authors.keySet().forEach(author::writeString);
+            authorIds.writeTo(author);
+            columns[AUTHOR] = author.toByteArray();
+
+            columns[DUE] = due.toByteArray();
+            columns[ISBN] = isbn.toByteArray();
+            return columns;
+        }
+    }
+
+    private static final class Column extends ByteArrayOutputStream {
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        void writeTo(Column other) {
+            other.write(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package edu.trincoll.service.snapshot;
+
+import edu.trincoll.model.BookStatus;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A memory-mapped snapshot written by {@link SnapshotCodec}. Each query decodes only the columns
+ * it needs: status counts come from the run-length column alone, and per-status queries decode
+ * the other columns only up to the end of that status's run. Instances are immutable once
+ * opened and safe to share between threads.
+ * <p>
+ * Closing unmaps the file as soon as the last reader that {@link #retain() retained} it is done,
+ * instead of whenever the buffer is garbage collected. A closed file must not be queried.
+ */
+public final class SnapshotFile implements AutoCloseable {
+
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final MappedByteBuffer buffer;
+    private final LocalDate date;
+    private final int rowCount;
+    private final long[] offsets = new long[SnapshotCodec.COLUMN_COUNT + 1];
+    private final BookStatus[] statuses;
+    private final int[] runStatus;
+    private final int[] runLength;
+
+    private SnapshotFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        ByteBuffer header = buffer.duplicate();
+        if (header.remaining() < SnapshotCodec.HEADER_BYTES || header.getInt() != SnapshotCodec.MAGIC) {
+            throw new IllegalStateException("Not a circulation snapshot");
+        }
+        int version = header.getInt();
+        if (version != SnapshotCodec.FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported snapshot format version " + version);
+        }
+        this.date = LocalDate.ofEpochDay(header.getLong());
+        this.rowCount = header.getInt();
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = header.getLong();
+        }
+
+        ByteBuffer status = column(SnapshotCodec.STATUS);
+        this.statuses = new BookStatus[(int) SnapshotCodec.readVarint(status)];
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = BookStatus.valueOf(SnapshotCodec.readString(status));
+        }
+        int runs = (int) SnapshotCodec.readVarint(status);
+        this.runStatus = new int[runs];
+        this.runLength = new int[runs];
+        for (int i = 0; i < runs; i++) {
+            runStatus[i] = (int) SnapshotCodec.readVarint(status);
+            runLength[i] = (int) SnapshotCodec.readVarint(status);
+        }
+    }
+
+    /**
+     * Maps {@code file} read-only. The mapping outlives the channel and is released by
+     * {@link #close()}.
+     */
+    public static SnapshotFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new SnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Keeps the mapping alive for one reader until the matching {@link #release()}.
+     *
+     * @return false if the file is already closed
+     */
+    boolean retain() {
+        for (int n = references.get(); n > 0; n = references.get()) {
+            if (references.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void release() {
+        if (references.decrementAndGet() == 0 && INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                // left mapped until the buffer is garbage collected
+            }
+        }
+    }
+
+    /**
+     * @return false once the last reader has released a closed file
+     */
+    boolean isMapped() {
+        return references.get() > 0;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    public LocalDate date() {
+        return date;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public Map<BookStatus, Integer> countByStatus() {
+        Map<BookStatus, Integer> counts = new EnumMap<>(BookStatus.class);
+        for (int i = 0; i < runStatus.length; i++) {
+            counts.merge(statuses[runStatus[i]], runLength[i], Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Books on loan whose due date was before the snapshot date.
+     */
+    public int countOverdue() {
+        int[] range = rowRange(BookStatus.CHECKED_OUT);
+        if (range[0] == range[1]) {
+            return 0;
+        }
+        long cutoff = date.toEpochDay() + 1;
+        ByteBuffer due = column(SnapshotCodec.DUE);
+        long value = 0;
+        int overdue = 0;
+        for (int row = 0; row < range[1]; row++) {
+            value += SnapshotCodec.readZigzag(due);
+            if (row >= range[0] && value != 0 && value < cutoff) {
+                overdue++;
+            }
+        }
+        return overdue;
+    }
+
+    public Map<String, Integer> countByAuthor(BookStatus status) {
+        int[] range = rowRange(status);
+        Map<String, Integer> counts = new HashMap<>();
+        if (range[0] == range[1]) {
+            return counts;
+        }
+        ByteBuffer author = column(SnapshotCodec.AUTHOR);
+        String[] dictionary = new String[(int) SnapshotCodec.readVarint(author)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = SnapshotCodec.readString(author);
+        }
+        for (int row = 0; row < range[1]; row++) {
+            int id = (int) SnapshotCodec.readVarint(author);
+            if (row >= range[0]) {
+                counts.merge(dictionary[id], 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Decodes every row, in file order.
+     */
+    public void forEachRow(Consumer<SnapshotRow> action) {
+        ByteBuffer author = column(SnapshotCodec.AUTHOR);
+        String[] dictionary = new String[(int) SnapshotCodec.readVarint(author)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = SnapshotCodec.readString(author);
+        }
+        ByteBuffer due = column(SnapshotCodec.DUE);
+        ByteBuffer isbn = column(SnapshotCodec.ISBN);
+        long value = 0;
+        int run = 0;
+        int leftInRun = runLength.length == 0 ? 0 : runLength[0];
+        for (int row = 0; row < rowCount; row++) {
+            while (leftInRun == 0) {
+                leftInRun = runLength[++run];
+            }
+            leftInRun--;
+            value += SnapshotCodec.readZigzag(due);
+            action.accept(new SnapshotRow(SnapshotCodec.readString(isbn),
+                    dictionary[(int) SnapshotCodec.readVarint(author)],
+                    statuses[runStatus[run]],
+                    value == 0 ? null : LocalDate.ofEpochDay(value - 1)));
+        }
+    }
+
+    /**
+     * @return {@code [first, end)} row indexes of {@code status}; rows are sorted by status
+     */
+    private int[] rowRange(BookStatus status) {
+        int start = 0;
+        for (int i = 0; i < runStatus.length; i++) {
+            if (statuses[runStatus[i]] == status) {
+                return new int[]{start, start + runLength[i]};
+            }
+            start += runLength[i];
+        }
+        return new int[]{0, 0};
+    }
+
+    private ByteBuffer column(int index) {
+        return buffer.slice((int) offsets[index], (int) (offsets[index + 1] - offsets[index]));
+    }
+
+    /**
+     * {@code sun.misc.Unsafe.invokeCleaner}, the only way to unmap a buffer on Java 21 without
+     * preview APIs. It is looked up reflectively so the build does not depend on the internal
+     * class; null leaves unmapping to the garbage collector.
+     */
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+            Field field = unsafe.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafe, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
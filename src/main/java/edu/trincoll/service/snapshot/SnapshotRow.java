@@ -0,0 +1,12 @@
+package edu.trincoll.service.snapshot;
+
+import edu.trincoll.model.BookStatus;
+
+import java.time.LocalDate;
+
+/**
+ * The circulation state of one book as stored in a snapshot. {@code dueDate} is null unless the
+ * book was on loan or on hold.
+ */
+public record SnapshotRow(String isbn, String author, BookStatus status, LocalDate dueDate) {
+}
@@ -0,0 +1,181 @@
+package edu.trincoll.service.snapshot;
+
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.BookSnapshotView;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Takes a columnar snapshot of every book's circulation state once a day and answers
+ * historical questions from those files instead of the live table. A snapshot labelled with a
+ * date holds the state late on that day; "overdue" means due before that date.
+ * <p>
+ * Rows are streamed from the database straight into the encoder, so only the encoded columns
+ * are held in memory. At most {@code library.snapshots.max-open} files stay mapped; the least
+ * recently used one is unmapped once its readers are done. A range query spans at most
+ * {@code library.snapshots.max-range-days} days.
+ */
+@Service
+public class SnapshotService {
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnly;
+    private final Path directory;
+    private final int maxRangeDays;
+    private final Map<LocalDate, SnapshotFile> open;
+
+    public SnapshotService(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+                           @Value("${library.snapshots.dir:${java.io.tmpdir}/library/snapshots}") Path directory,
+                           @Value("${library.snapshots.max-open:31}") int maxOpen,
+                           @Value("${library.snapshots.max-range-days:366}") int maxRangeDays) {
+        this.bookRepository = bookRepository;
+        this.maxRangeDays = maxRangeDays;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.directory = directory;
+        this.open = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, SnapshotFile> eldest) {
+                if (size() <= maxOpen) {
+                    return false;
+                }
+                eldest.getValue().close();
+                return true;
+            }
+        };
+    }
+
+    @Scheduled(cron = "${library.snapshots.cron:0 55 23 * * *}")
+    public void takeNightlySnapshot() {
+        takeSnapshot(LocalDate.now());
+    }
+
+    /**
+     * Snapshots the current state under {@code date}, replacing any earlier snapshot for it.
+     */
+    public SnapshotSummary takeSnapshot(LocalDate date) {
+        try {
+            Files.createDirectories(directory);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<BookSnapshotView> books = bookRepository.streamSnapshotRows()) {
+                    SnapshotCodec.write(fileFor(date), date,
+                            books.map(b -> new SnapshotRow(b.getIsbn(), b.getAuthor(), b.getStatus(), b.getDueDate())));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not write snapshot for " + date, e);
+                }
+            });
+            SnapshotFile file = SnapshotFile.open(fileFor(date));
+            SnapshotFile replaced;
+            synchronized (open) {
+                replaced = open.put(date, file);
+            }
+            if (replaced != null) {
+                replaced.close();
+            }
+            return read(date, SnapshotSummary::of);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot for " + date, e);
+        }
+    }
+
+    public SnapshotSummary summary(LocalDate date) {
+        return read(date, SnapshotSummary::of);
+    }
+
+    /**
+     * One summary per day in {@code [from, to]} that has a snapshot; days without one are skipped.
+     */
+    public List<SnapshotSummary> summaries(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("A snapshot range spans at most " + maxRangeDays + " days");
+        }
+        List<SnapshotSummary> summaries = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (Files.exists(fileFor(day))) {
+                summaries.add(summary(day));
+            }
+        }
+        return summaries;
+    }
+
+    public Map<String, Integer> countByAuthor(LocalDate date, BookStatus status) {
+        return read(date, file -> file.countByAuthor(status));
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (open) {
+            open.values().forEach(SnapshotFile::close);
+            open.clear();
+        }
+    }
+
+    /**
+     * The dates of the mapped snapshots, least recently used first.
+     */
+    List<LocalDate> openDates() {
+        synchronized (open) {
+            return List.copyOf(open.keySet());
+        }
+    }
+
+    /**
+     * Runs {@code query} against the snapshot for {@code date}, keeping it mapped meanwhile.
+     */
+    private <T> T read(LocalDate date, Function<SnapshotFile, T> query) {
+        while (true) {
+            SnapshotFile file = snapshot(date);
+            if (file.retain()) {
+                try {
+                    return query.apply(file);
+                } finally {
+                    file.release();
+                }
+            }
+            // evicted and closed since the lookup; map it again
+        }
+    }
+
+    private SnapshotFile snapshot(LocalDate date) {
+        synchronized (open) {
+            SnapshotFile file = open.get(date);
+            if (file == null) {
+                try {
+                    file = SnapshotFile.open(fileFor(date));
+                } catch (NoSuchFileException e) {
+                    throw new IllegalArgumentException("No snapshot for " + date);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read snapshot for " + date, e);
+                }
+                open.put(date, file);
+            }
+            return file;
+        }
+    }
+
+    private Path fileFor(LocalDate date) {
+        return directory.resolve("circulation-" + date + ".snap");
+    }
+}
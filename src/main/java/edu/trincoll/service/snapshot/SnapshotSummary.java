@@ -0,0 +1,17 @@
+package edu.trincoll.service.snapshot;
+
+import edu.trincoll.model.BookStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Circulation totals for one day, computed from that day's snapshot.
+ */
+public record SnapshotSummary(LocalDate date, int totalBooks, Map<BookStatus, Integer> booksByStatus,
+                              int overdueBooks) {
+
+    static SnapshotSummary of(SnapshotFile file) {
+        return new SnapshotSummary(file.date(), file.rowCount(), file.countByStatus(), file.countOverdue());
+    }
+}
@@ -0,0 +1,23 @@
+package edu.trincoll.service.storage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * {@code library.storage.backup.*}: online backups of the file-backed database.
+ *
+ * @param directory  where backup archives are written
+ * @param keep       newest archives kept; older ones are deleted after each backup
+ */
+@ConfigurationProperties("library.storage.backup")
+public record BackupProperties(@DefaultValue("./data/backups") Path directory,
+                               @DefaultValue("7") int keep) {
+
+    public BackupProperties {
+        if (keep < 1) {
+            throw new IllegalArgumentException("library.storage.backup.keep must be positive");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package edu.trincoll.service.storage;
+
+import java.nio.file.Path;
+
+/**
+ * One completed backup archive.
+ */
+public record BackupResult(Path file, long bytes, long elapsedMs) {
+}
@@ -0,0 +1,91 @@
+package edu.trincoll.service.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Online backups of the file-backed H2 database. {@code BACKUP TO} copies the store while it is
+ * in use without locking tables, up to its last committed version, so the copy is consistent
+ * and writers carry on throughout.
+ * <p>
+ * Each archive is written under a temporary name and moved into place, so a listed archive is
+ * always complete. Restore one offline with
+ * {@code java -cp h2.jar org.h2.tools.Restore -file <archive> -dir <storage dir> -db library}.
+ * With book sharding this backs up the home shard only.
+ */
+@Service
+@ConditionalOnProperty(name = "library.storage.backup.enabled", havingValue = "true")
+public class BackupService {
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String PREFIX = "library-";
+    private static final String SUFFIX = ".zip";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BackupProperties properties;
+
+    public BackupService(JdbcTemplate jdbcTemplate, BackupProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${library.storage.backup.cron:0 0 3 * * *}")
+    public void scheduledBackup() {
+        backup();
+    }
+
+    public synchronized BackupResult backup() {
+        long started = System.nanoTime();
+        Path target = properties.directory().resolve(PREFIX + LocalDateTime.now().format(STAMP) + SUFFIX);
+        Path partial = target.resolveSibling(target.getFileName() + ".partial");
+        try {
+            Files.createDirectories(properties.directory());
+            jdbcTemplate.execute("backup to '" + partial.toAbsolutePath().toString().replace("'", "''") + "'");
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            BackupResult result = new BackupResult(target, Files.size(target),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            prune();
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write backup " + target, e);
+        }
+    }
+
+    /**
+     * Completed archives, newest first.
+     */
+    public List<Path> backups() {
+        if (!Files.isDirectory(properties.directory())) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(properties.directory())) {
+            return files.filter(f -> f.getFileName().toString().startsWith(PREFIX)
+                            && f.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing((Path f) -> f.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list backups in " + properties.directory(), e);
+        }
+    }
+
+    private void prune() throws IOException {
+        List<Path> archives = backups();
+        for (Path old : archives.subList(Math.min(properties.keep(), archives.size()), archives.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package edu.trincoll.service.storage;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BackupProperties.class)
+public class StorageConfiguration {
+}
@@ -0,0 +1,58 @@
+package edu.trincoll.service.trending;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count-min sketch over pre-hashed keys. Estimates never undercount, and overcount by more than
+ * {@code e / width} of the total only with probability {@code e^-depth}. Updates are lock-free
+ * atomic increments, so concurrent checkouts never contend on a monitor.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray cells;
+    private final LongAdder total = new LongAdder();
+
+    CountMinSketch(int width, int depth) {
+        this.depth = depth;
+        this.mask = width - 1;
+        this.cells = new AtomicLongArray(width * depth);
+    }
+
+    void add(long hash) {
+        for (int row = 0; row < depth; row++) {
+            cells.incrementAndGet(index(hash, row));
+        }
+        total.increment();
+    }
+
+    long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, cells.get(index(hash, row)));
+        }
+        return min;
+    }
+
+    long total() {
+        return total.sum();
+    }
+
+    /**
+     * The overcount that any single estimate exceeds only with probability {@code e^-depth}.
+     */
+    long errorBound() {
+        return (long) Math.ceil(Math.E / (mask + 1) * total());
+    }
+
+    /**
+     * Row {@code i} probes {@code h1 + i * h2}, so one 64-bit hash serves every row.
+     */
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+}
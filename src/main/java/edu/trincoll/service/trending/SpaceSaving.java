@@ -0,0 +1,111 @@
+package edu.trincoll.service.trending;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters, split into stripes by key hash so concurrent updates only
+ * contend when they land on the same stripe. Keys never move between stripes, so each stripe is
+ * an independent Space-Saving summary of its share of the stream: a monitored key's count
+ * overstates its true count by at most its {@code error}, and an unmonitored key occurred at
+ * most {@link #floor} times.
+ */
+final class SpaceSaving {
+
+    record Counter(String key, long count, long error) {
+    }
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * @param stripes a power of two
+     */
+    SpaceSaving(int capacity, int stripes) {
+        this.stripes = new Stripe[stripes];
+        this.stripeMask = stripes - 1;
+        int perStripe = Math.max(1, (capacity + stripes - 1) / stripes);
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    void offer(String key, long hash) {
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            stripe.offer(key);
+        }
+    }
+
+    /**
+     * The most any key not in {@link #counters} can have occurred.
+     */
+    long floor(long hash) {
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            return stripe.counters.size() < stripe.capacity ? 0 : stripe.min().count;
+        }
+    }
+
+    List<Counter> counters() {
+        List<Counter> counters = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.counters.values().forEach(c -> counters.add(new Counter(c.key, c.count, c.error)));
+            }
+        }
+        return counters;
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> 56) & stripeMask];
+    }
+
+    private static final class Stripe {
+        private final int capacity;
+        private final Map<String, MutableCounter> counters;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+            this.counters = new HashMap<>(capacity * 2);
+        }
+
+        private void offer(String key) {
+            MutableCounter counter = counters.get(key);
+            if (counter != null) {
+                counter.count++;
+            } else if (counters.size() < capacity) {
+                counters.put(key, new MutableCounter(key, 1, 0));
+            } else {
+                // Evict the smallest counter and let the newcomer inherit its count as error.
+                MutableCounter min = min();
+                counters.remove(min.key);
+                counters.put(key, new MutableCounter(key, min.count + 1, min.count));
+            }
+        }
+
+        private MutableCounter min() {
+            MutableCounter min = null;
+            for (MutableCounter counter : counters.values()) {
+                if (min == null || counter.count < min.count) {
+                    min = counter;
+                }
+            }
+            return min;
+        }
+    }
+
+    private static final class MutableCounter {
+        private final String key;
+        private long count;
+        private final long error;
+
+        private MutableCounter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package edu.trincoll.service.trending;
+
+/**
+ * One trending title. The true checkout count lies in {@code [guaranteedCount, estimatedCount]}.
+ */
+public record TrendingEntry(String isbn, long estimatedCount, long guaranteedCount) {
+}
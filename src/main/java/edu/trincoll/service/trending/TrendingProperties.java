@@ -0,0 +1,29 @@
+package edu.trincoll.service.trending;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code library.trending.*}: sizing of the per-slot sketches. Memory is fixed by these values
+ * alone, whatever the size of the catalog.
+ *
+ * @param sketchWidth counters per count-min row, a power of two; the error is about {@code e / width} of the total
+ * @param sketchDepth count-min rows; the error bound fails with probability {@code e^-depth}
+ * @param capacity    titles tracked per slot by the Space-Saving summary
+ * @param stripes     Space-Saving lock stripes, a power of two
+ */
+@ConfigurationProperties("library.trending")
+public record TrendingProperties(@DefaultValue("1024") int sketchWidth,
+                                 @DefaultValue("4") int sketchDepth,
+                                 @DefaultValue("128") int capacity,
+                                 @DefaultValue("8") int stripes) {
+
+    public TrendingProperties {
+        if (Integer.bitCount(sketchWidth) != 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("library.trending sketch-width and stripes must be powers of two");
+        }
+        if (sketchDepth < 1 || capacity < 1) {
+            throw new IllegalArgumentException("library.trending sketch-depth and capacity must be positive");
+        }
+    }
+}
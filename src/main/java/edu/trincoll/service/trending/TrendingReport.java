@@ -0,0 +1,14 @@
+package edu.trincoll.service.trending;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Top titles in a window, most borrowed first.
+ *
+ * @param totalCheckouts checkouts recorded in the window
+ * @param errorBound     how far the sketch may overstate any estimate, with 1 - {@code failureProbability} confidence
+ */
+public record TrendingReport(TrendingWindow window, Instant since, long totalCheckouts,
+                             long errorBound, double failureProbability, List<TrendingEntry> entries) {
+}
@@ -0,0 +1,174 @@
+package edu.trincoll.service.trending;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+import edu.trincoll.service.event.BookLifecycleListener;
+import edu.trincoll.service.sketch.KeyHash;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * Streaming "most borrowed" tracker fed by every committed checkout.
+ * <p>
+ * Each {@link TrendingWindow} is a ring of slots, and each slot holds a count-min sketch and a
+ * Space-Saving summary of the checkouts in its time range. A slot that has aged out is replaced
+ * with a fresh one by compare-and-set rather than cleared, so recording never takes a lock
+ * beyond one Space-Saving stripe. A checkout racing the replacement may land in the retired
+ * slot and be lost; the bounds hold for the checkouts that were counted.
+ * <p>
+ * A query merges the live slots of one window: candidates come from the Space-Saving
+ * summaries, the estimate is the tighter of the two structures' upper bounds, and the
+ * guaranteed count is the Space-Saving lower bound.
+ */
+@Component
+public class TrendingTracker implements BookLifecycleListener {
+
+    private final TrendingProperties properties;
+    private final Map<TrendingWindow, AtomicReferenceArray<Slot>> rings = new EnumMap<>(TrendingWindow.class);
+
+    public TrendingTracker(TrendingProperties properties) {
+        this.properties = properties;
+        for (TrendingWindow window : TrendingWindow.values()) {
+            rings.put(window, new AtomicReferenceArray<>(window.slots()));
+        }
+    }
+
+    @Override
+    public void onCheckout(Book book, Member member) {
+        record(book.getIsbn(), System.currentTimeMillis());
+    }
+
+    @Override
+    public void onCopyCheckout(String isbn, Member member) {
+        record(isbn, System.currentTimeMillis());
+    }
+
+    public TrendingReport top(TrendingWindow window, int limit) {
+        return top(window, limit, System.currentTimeMillis());
+    }
+
+    /**
+     * Count-min upper bound on each ISBN's checkouts in {@code window}, over the slots live now.
+     * Cheap enough to call once per search candidate.
+     */
+    public ToLongFunction<String> estimator(TrendingWindow window) {
+        List<Slot> live = liveSlots(window, System.currentTimeMillis() / window.slotMillis());
+        return isbn -> {
+            long hash = KeyHash.of(isbn);
+            long estimate = 0;
+            for (Slot slot : live) {
+                estimate += slot.sketch.estimate(hash);
+            }
+            return estimate;
+        };
+    }
+
+    void record(String isbn, long nowMillis) {
+        long hash = KeyHash.of(isbn);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            Slot slot = currentSlot(window, nowMillis / window.slotMillis());
+            slot.sketch.add(hash);
+            slot.heavyHitters.offer(isbn, hash);
+        }
+    }
+
+    TrendingReport top(TrendingWindow window, int limit, long nowMillis) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        long epoch = nowMillis / window.slotMillis();
+        List<Slot> live = liveSlots(window, epoch);
+
+        List<Map<String, SpaceSaving.Counter>> countersBySlot = new ArrayList<>(live.size());
+        Set<String> candidates = new LinkedHashSet<>();
+        long total = 0;
+        long errorBound = 0;
+        for (Slot slot : live) {
+            Map<String, SpaceSaving.Counter> counters = new HashMap<>();
+            for (SpaceSaving.Counter counter : slot.heavyHitters.counters()) {
+                counters.put(counter.key(), counter);
+                candidates.add(counter.key());
+            }
+            countersBySlot.add(counters);
+            total += slot.sketch.total();
+            errorBound += slot.sketch.errorBound();
+        }
+
+        List<TrendingEntry> entries = new ArrayList<>(candidates.size());
+        for (String isbn : candidates) {
+            long hash = KeyHash.of(isbn);
+            long sketchUpper = 0;
+            long summaryUpper = 0;
+            long lower = 0;
+            for (int i = 0; i < live.size(); i++) {
+                Slot slot = live.get(i);
+                SpaceSaving.Counter counter = countersBySlot.get(i).get(isbn);
+                sketchUpper += slot.sketch.estimate(hash);
+                if (counter != null) {
+                    summaryUpper += counter.count();
+                    lower += counter.count() - counter.error();
+                } else {
+                    summaryUpper += slot.heavyHitters.floor(hash);
+                }
+            }
+            entries.add(new TrendingEntry(isbn, Math.min(sketchUpper, summaryUpper), lower));
+        }
+        entries.sort(Comparator.comparingLong(TrendingEntry::estimatedCount).reversed()
+                .thenComparing(Comparator.comparingLong(TrendingEntry::guaranteedCount).reversed())
+                .thenComparing(TrendingEntry::isbn));
+
+        Instant since = Instant.ofEpochMilli((epoch - window.slots() + 1) * window.slotMillis());
+        return new TrendingReport(window, since, total, errorBound, Math.exp(-properties.sketchDepth()),
+                List.copyOf(entries.subList(0, Math.min(limit, entries.size()))));
+    }
+
+    private Slot currentSlot(TrendingWindow window, long epoch) {
+        AtomicReferenceArray<Slot> ring = rings.get(window);
+        int index = (int) Math.floorMod(epoch, (long) window.slots());
+        Slot slot = ring.get(index);
+        while (slot == null || slot.epoch < epoch) {
+            Slot fresh = new Slot(epoch, properties);
+            if (ring.compareAndSet(index, slot, fresh)) {
+                return fresh;
+            }
+            slot = ring.get(index);
+        }
+        // A clock step backwards can leave a newer slot here; count into it rather than drop.
+        return slot;
+    }
+
+    private List<Slot> liveSlots(TrendingWindow window, long epoch) {
+        AtomicReferenceArray<Slot> ring = rings.get(window);
+        List<Slot> live = new ArrayList<>(window.slots());
+        for (int i = 0; i < ring.length(); i++) {
+            Slot slot = ring.get(i);
+            if (slot != null && slot.epoch > epoch - window.slots() && slot.epoch <= epoch) {
+                live.add(slot);
+            }
+        }
+        return live;
+    }
+
+    private static final class Slot {
+        private final long epoch;
+        private final CountMinSketch sketch;
+        private final SpaceSaving heavyHitters;
+
+        private Slot(long epoch, TrendingProperties properties) {
+            this.epoch = epoch;
+            this.sketch = new CountMinSketch(properties.sketchWidth(), properties.sketchDepth());
+            this.heavyHitters = new SpaceSaving(properties.capacity(), properties.stripes());
+        }
+    }
+}
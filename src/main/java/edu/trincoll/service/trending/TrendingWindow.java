@@ -0,0 +1,30 @@
+package edu.trincoll.service.trending;
+
+import java.time.Duration;
+
+/**
+ * Sliding windows over recent checkouts. Each is a ring of fixed-length slots, so a window
+ * covers between {@code slots - 1} and {@code slots} slot lengths depending on how far into
+ * the current slot we are.
+ */
+public enum TrendingWindow {
+    HOUR(Duration.ofMinutes(5), 12),
+    DAY(Duration.ofHours(1), 24),
+    WEEK(Duration.ofHours(6), 28);
+
+    private final long slotMillis;
+    private final int slots;
+
+    TrendingWindow(Duration slot, int slots) {
+        this.slotMillis = slot.toMillis();
+        this.slots = slots;
+    }
+
+    long slotMillis() {
+        return slotMillis;
+    }
+
+    int slots() {
+        return slots;
+    }
+}
@@ -0,0 +1,31 @@
+package edu.trincoll.service.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code library.warmup.*}: work done before the instance reports ready.
+ *
+ * @param hotTitles     most borrowed titles over {@code lookbackDays} to load into the book cache
+ * @param hotMembers    most active borrowers over {@code lookbackDays} to load into the member cache
+ * @param searches      title and author searches over the hot titles
+ * @param rehearsals    checkout-and-return round trips, each rolled back
+ * @param parallelism   warm-up threads
+ * @param timeoutMs     the instance reports ready after this even if warm-up has not finished
+ */
+@ConfigurationProperties("library.warmup")
+public record WarmupProperties(@DefaultValue("500") int hotTitles,
+                               @DefaultValue("200") int hotMembers,
+                               @DefaultValue("30") int lookbackDays,
+                               @DefaultValue("200") int searches,
+                               @DefaultValue("50") int rehearsals,
+                               @DefaultValue("4") int parallelism,
+                               @DefaultValue("30000") long timeoutMs) {
+
+    public WarmupProperties {
+        if (hotTitles < 0 || hotMembers < 0 || searches < 0 || rehearsals < 0 || lookbackDays < 1
+                || parallelism < 1 || timeoutMs < 1) {
+            throw new IllegalArgumentException("library.warmup counts must not be negative; lookback, parallelism and timeout must be positive");
+        }
+    }
+}
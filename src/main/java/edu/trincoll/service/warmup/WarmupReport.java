@@ -0,0 +1,8 @@
+package edu.trincoll.service.warmup;
+
+/**
+ * What the startup warm-up did. {@code complete} is false if it hit its timeout.
+ */
+public record WarmupReport(int booksLoaded, int membersLoaded, int searches, int rehearsals, int failures,
+                           long elapsedMs, boolean complete) {
+}
@@ -0,0 +1,234 @@
+package edu.trincoll.service.warmup;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.BookSearchService;
+import edu.trincoll.service.BookService;
+import edu.trincoll.service.coherence.CoherentCache;
+import edu.trincoll.service.feed.CatalogChangeRecorder;
+import edu.trincoll.service.search.RankedSearchService;
+import edu.trincoll.service.search.SearchField;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Warms a freshly started instance before it reports ready. Application runners finish before
+ * Spring Boot moves readiness to {@code ACCEPTING_TRAFFIC}, so a load balancer polling
+ * {@code /api/ready} keeps traffic away until this returns.
+ * <p>
+ * Split across {@code parallelism} threads, it loads the most borrowed titles and most active
+ * members of the last {@code lookbackDays} (or the first ones, on a database without loan
+ * history) into the coherent caches, runs the search paths over those titles, and rehearses
+ * checkout and return on available hot titles in transactions that are rolled back, so the JIT,
+ * the connection pool and the database cache have seen the real request paths. Rehearsals do not
+ * record to the change feed, whose ids they would otherwise use up, and are skipped with book
+ * sharding, where book writes do not join the local transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "library.warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final String HOT_TITLES =
+            "select isbn from loans where checked_out_on >= ? group by isbn order by count(*) desc fetch first ? rows only";
+    private static final String HOT_MEMBERS =
+            "select member_email from loans where checked_out_on >= ? group by member_email " +
+            "order by count(*) desc fetch first ? rows only";
+    private static final int REHEARSAL_LOAN_DAYS = 14;
+
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final CoherentCache<Book> bookCache;
+    private final CoherentCache<Member> memberCache;
+    private final BookSearchService searchService;
+    private final RankedSearchService rankedSearchService;
+    private final BookService bookService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate rehearsalTransactions;
+    private final WarmupProperties properties;
+    private final boolean shardingEnabled;
+    private volatile WarmupReport lastReport;
+
+    public WarmupRunner(BookRepository bookRepository, MemberRepository memberRepository,
+                        CoherentCache<Book> bookCache, CoherentCache<Member> memberCache,
+                        BookSearchService searchService, RankedSearchService rankedSearchService,
+                        BookService bookService, JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager, WarmupProperties properties,
+                        @Value("${library.sharding.enabled:false}") boolean shardingEnabled) {
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+        this.bookCache = bookCache;
+        this.memberCache = memberCache;
+        this.searchService = searchService;
+        this.rankedSearchService = rankedSearchService;
+        this.bookService = bookService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rehearsalTransactions = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.shardingEnabled = shardingEnabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        warmUp();
+    }
+
+    /**
+     * The report of the startup warm-up, or null while it is still running.
+     */
+    public WarmupReport lastReport() {
+        return lastReport;
+    }
+
+    public WarmupReport warmUp() throws InterruptedException {
+        long started = System.nanoTime();
+        LocalDate since = LocalDate.now().minusDays(properties.lookbackDays());
+        List<String> isbns = hotKeys(HOT_TITLES, since, properties.hotTitles(),
+                limit -> bookRepository.findAllBy(Limit.of(limit)).stream().map(Book::getIsbn).toList());
+        List<String> emails = hotKeys(HOT_MEMBERS, since, properties.hotMembers(),
+                limit -> memberRepository.findAll(PageRequest.of(0, limit)).map(Member::getEmail).getContent());
+
+        AtomicInteger books = new AtomicInteger();
+        AtomicInteger members = new AtomicInteger();
+        AtomicInteger searches = new AtomicInteger();
+        AtomicInteger rehearsals = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Callable<Void>> workers = new ArrayList<>(properties.parallelism());
+        for (int worker = 0; worker < properties.parallelism(); worker++) {
+            List<String> myIsbns = stripe(isbns, worker);
+            List<String> myEmails = stripe(emails, worker);
+            int mySearches = myIsbns.isEmpty() ? 0 : share(properties.searches(), worker);
+            int myRehearsals = shardingEnabled || emails.isEmpty() ? 0 : share(properties.rehearsals(), worker);
+            workers.add(() -> {
+                for (String isbn : myIsbns) {
+                    if (timedOut()) {
+                        return null;
+                    }
+                    attempt(failures, () -> bookCache.get(isbn, bookRepository::findByIsbn)
+                            .ifPresent(book -> books.incrementAndGet()));
+                }
+                for (String email : myEmails) {
+                    if (timedOut()) {
+                        return null;
+                    }
+                    attempt(failures, () -> memberCache.get(email, memberRepository::findByEmail)
+                            .ifPresent(member -> members.incrementAndGet()));
+                }
+                for (int i = 0; i < mySearches && !timedOut(); i++) {
+                    String isbn = myIsbns.get(i % myIsbns.size());
+                    attempt(failures, () -> search(isbn));
+                    searches.incrementAndGet();
+                }
+                int done = 0;
+                for (int i = 0; i < myIsbns.size() && done < myRehearsals && !timedOut(); i++) {
+                    String isbn = myIsbns.get(i);
+                    String email = emails.get(Math.floorMod(isbn.hashCode(), emails.size()));
+                    try {
+                        if (rehearseCheckout(isbn, email)) {
+                            done++;
+                            rehearsals.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        boolean complete;
+        try (ExecutorService executor = Executors.newFixedThreadPool(properties.parallelism())) {
+            complete = executor.invokeAll(workers, properties.timeoutMs(), TimeUnit.MILLISECONDS).stream()
+                    .noneMatch(Future::isCancelled);
+        }
+        lastReport = new WarmupReport(books.get(), members.get(), searches.get(), rehearsals.get(), failures.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), complete);
+        return lastReport;
+    }
+
+    private List<String> hotKeys(String sql, LocalDate since, int limit,
+                                 IntFunction<List<String>> fallback) {
+        if (limit == 0) {
+            return List.of();
+        }
+        List<String> hot = jdbcTemplate.queryForList(sql, String.class, Date.valueOf(since), limit);
+        return hot.isEmpty() ? fallback.apply(limit) : hot;
+    }
+
+    private void search(String isbn) {
+        searchService.searchByIsbn(isbn).ifPresent(book -> {
+            rankedSearchService.search(SearchField.TITLE, book.getTitle().split("\\s+")[0], null, null);
+            rankedSearchService.search(SearchField.AUTHOR, book.getAuthor(), null, null);
+        });
+    }
+
+    /**
+     * Checks the book out to the member and back in, then rolls both back.
+     *
+     * @return false if the book was not available to rehearse with
+     */
+    private boolean rehearseCheckout(String isbn, String email) {
+        return Boolean.TRUE.equals(CatalogChangeRecorder.unrecorded(() -> rehearsalTransactions.execute(status -> {
+            status.setRollbackOnly();
+            // Fresh instances: cached ones are shared and must not be modified.
+            Book book = bookRepository.findByIsbn(isbn).orElse(null);
+            Member member = memberRepository.findByEmail(email).orElse(null);
+            if (book == null || member == null || book.getStatus() != BookStatus.AVAILABLE) {
+                return false;
+            }
+            bookService.checkoutBook(book, member, REHEARSAL_LOAN_DAYS);
+            bookService.returnBook(book);
+            bookRepository.flush();
+            return true;
+        })));
+    }
+
+    private List<String> stripe(List<String> keys, int worker) {
+        List<String> mine = new ArrayList<>(keys.size() / properties.parallelism() + 1);
+        for (int i = worker; i < keys.size(); i += properties.parallelism()) {
+            mine.add(keys.get(i));
+        }
+        return mine;
+    }
+
+    private int share(int total, int worker) {
+        return total / properties.parallelism() + (worker < total % properties.parallelism() ? 1 : 0);
+    }
+
+    /**
+     * invokeAll interrupts the workers still running at the timeout.
+     */
+    private static boolean timedOut() {
+        return Thread.currentThread().isInterrupted();
+    }
+
+    private static void attempt(AtomicInteger failures, Runnable work) {
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+}
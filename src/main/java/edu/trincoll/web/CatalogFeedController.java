@@ -0,0 +1,52 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.feed.CatalogChangeFeed;
+import edu.trincoll.service.feed.ChangeBatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Book status change feed for downstream consumers. {@code after} is the offset of the last
+ * change the consumer processed; without it the feed starts at the current head. Not subject
+ * to admission control: a held long-poll does no work until there is something to send.
+ */
+@RestController
+@RequestMapping("/api/catalog/changes")
+public class CatalogFeedController {
+
+    private final CatalogChangeFeed feed;
+    private final long maxWaitMs;
+
+    public CatalogFeedController(CatalogChangeFeed feed,
+                                 @Value("${library.feed.long-poll-max-wait-ms:30000}") long maxWaitMs) {
+        this.feed = feed;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    @GetMapping
+    public DeferredResult<ChangeBatch> poll(@RequestParam(required = false) Long after,
+                                            @RequestParam(defaultValue = "100") int max,
+                                            @RequestParam(defaultValue = "30000") long waitMs) {
+        return feed.longPoll(after == null ? feed.head() : after, max, Math.min(Math.max(waitMs, 0), maxWaitMs));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long after,
+                             @RequestParam(defaultValue = "100") int max,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long cursor = lastEventId != null ? lastEventId : after != null ? after : feed.head();
+        return feed.subscribe(cursor, max);
+    }
+
+    @GetMapping("/head")
+    public long head() {
+        return feed.head();
+    }
+}
@@ -0,0 +1,56 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.LibraryService;
+import edu.trincoll.service.admission.AdaptiveConcurrencyLimiter;
+import edu.trincoll.service.admission.Priority;
+import edu.trincoll.service.idempotency.IdempotentCirculationService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Checkout, return and holds. With an {@code Idempotency-Key} header a retried checkout or
+ * return gets the original response without the operation running again; placing a hold twice
+ * is refused by its availability check. Runs at circulation priority.
+ */
+@RestController
+@RequestMapping("/api/circulation")
+public class CirculationController {
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final LibraryService libraryService;
+    private final IdempotentCirculationService idempotentCirculation;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public CirculationController(LibraryService libraryService, IdempotentCirculationService idempotentCirculation,
+                                 AdaptiveConcurrencyLimiter limiter) {
+        this.libraryService = libraryService;
+        this.idempotentCirculation = idempotentCirculation;
+        this.limiter = limiter;
+    }
+
+    @PostMapping("/checkouts")
+    public String checkout(@RequestParam String isbn,
+                           @RequestParam String memberEmail,
+                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return limiter.call(Priority.CIRCULATION, () -> idempotencyKey == null
+                ? libraryService.checkoutBook(isbn, memberEmail)
+                : idempotentCirculation.checkoutBook(idempotencyKey, isbn, memberEmail));
+    }
+
+    @PostMapping("/returns")
+    public String returnBook(@RequestParam String isbn,
+                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return limiter.call(Priority.CIRCULATION, () -> idempotencyKey == null
+                ? libraryService.returnBook(isbn)
+                : idempotentCirculation.returnBook(idempotencyKey, isbn));
+    }
+
+    @PostMapping("/holds")
+    public String placeHold(@RequestParam String isbn, @RequestParam String memberEmail) {
+        return limiter.call(Priority.CIRCULATION, () -> libraryService.placeHold(isbn, memberEmail));
+    }
+}
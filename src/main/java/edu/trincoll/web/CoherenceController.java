@@ -0,0 +1,26 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.coherence.ChangeLogTailer;
+import edu.trincoll.service.coherence.CoherenceMetrics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exposes this instance's change-log tailing position and invalidation lag.
+ */
+@RestController
+@RequestMapping("/api/coherence")
+public class CoherenceController {
+
+    private final ChangeLogTailer tailer;
+
+    public CoherenceController(ChangeLogTailer tailer) {
+        this.tailer = tailer;
+    }
+
+    @GetMapping("/metrics")
+    public CoherenceMetrics metrics() {
+        return tailer.metrics();
+    }
+}
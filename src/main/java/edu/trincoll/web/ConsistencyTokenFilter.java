@@ -0,0 +1,50 @@
+package edu.trincoll.web;
+
+import edu.trincoll.repository.routing.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs each request in its client's read-your-writes session: the client sends back the
+ * {@value #HEADER} it got from its last write, and a request that writes returns a new one.
+ * A token is the time of that write, so one from the future is taken as a write just now: a
+ * client cannot pin its reads to the primary for longer than a real write would. Only
+ * registered with replica routing.
+ */
+@Component
+@ConditionalOnProperty(name = "library.replicas.enabled", havingValue = "true")
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "X-Consistency-Token";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long lastWrite = parse(request.getHeader(HEADER), System.currentTimeMillis());
+        try (ReadYourWrites.Scope session = ReadYourWrites.openSession(lastWrite,
+                token -> response.setHeader(HEADER, Long.toString(token)))) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    /**
+     * @return the client's token, clamped to {@code [0, nowMillis]}
+     */
+    static long parse(String token, long nowMillis) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Math.min(Long.parseLong(token.trim()), nowMillis));
+        } catch (NumberFormatException e) {
+            return 0; // a client that lost its token reads like a new one
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.admission.AdaptiveConcurrencyLimiter;
+import edu.trincoll.service.admission.Priority;
+import edu.trincoll.service.archive.ArchiveRun;
+import edu.trincoll.service.archive.ArchiveService;
+import edu.trincoll.service.archive.CatalogRecord;
+import edu.trincoll.service.archive.LoanHistoryService;
+import edu.trincoll.service.archive.LoanRecord;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Loan and catalog history across the hot and archive tiers, and on-demand archive runs.
+ * History queries run at report priority.
+ */
+@RestController
+@RequestMapping("/api/history")
+public class HistoryController {
+
+    private final LoanHistoryService historyService;
+    private final ArchiveService archiveService;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public HistoryController(LoanHistoryService historyService, ArchiveService archiveService,
+                             AdaptiveConcurrencyLimiter limiter) {
+        this.historyService = historyService;
+        this.archiveService = archiveService;
+        this.limiter = limiter;
+    }
+
+    @GetMapping("/loans")
+    public List<LoanRecord> loans(@RequestParam(required = false) String member,
+                                  @RequestParam(required = false) String isbn) {
+        if ((member == null) == (isbn == null)) {
+            throw new IllegalArgumentException("Specify exactly one of member or isbn");
+        }
+        return limiter.call(Priority.REPORT, () -> member != null
+                ? historyService.loansForMember(member)
+                : historyService.loansForBook(isbn));
+    }
+
+    @GetMapping("/books/{isbn}")
+    public ResponseEntity<CatalogRecord> book(@PathVariable String isbn) {
+        return ResponseEntity.of(limiter.call(Priority.REPORT, () -> historyService.catalogRecord(isbn)));
+    }
+
+    @PostMapping("/archive-runs")
+    public ArchiveRun archive() {
+        return archiveService.run(LocalDate.now());
+    }
+}
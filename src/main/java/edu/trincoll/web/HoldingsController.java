@@ -0,0 +1,69 @@
+package edu.trincoll.web;
+
+import edu.trincoll.repository.TitleAvailabilityView;
+import edu.trincoll.service.admission.AdaptiveConcurrencyLimiter;
+import edu.trincoll.service.admission.Priority;
+import edu.trincoll.service.holdings.HoldingsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Multi-copy titles: adding titles and copies, per-title availability, and copy checkout and
+ * return. Checkout and return run at circulation priority.
+ */
+@RestController
+@RequestMapping("/api")
+public class HoldingsController {
+
+    private final HoldingsService holdingsService;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public HoldingsController(HoldingsService holdingsService, AdaptiveConcurrencyLimiter limiter) {
+        this.holdingsService = holdingsService;
+        this.limiter = limiter;
+    }
+
+    @PostMapping("/titles")
+    public TitleAvailabilityView addTitle(@RequestParam String isbn,
+                                          @RequestParam String title,
+                                          @RequestParam String author,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publicationDate) {
+        holdingsService.addTitle(isbn, title, author, publicationDate);
+        return holdingsService.availability(isbn);
+    }
+
+    @PostMapping("/titles/{isbn}/copies")
+    public TitleAvailabilityView addCopy(@PathVariable String isbn, @RequestParam String barcode) {
+        holdingsService.addCopy(isbn, barcode);
+        return holdingsService.availability(isbn);
+    }
+
+    @GetMapping("/titles")
+    public List<TitleAvailabilityView> availabilityReport() {
+        return limiter.call(Priority.REPORT, holdingsService::availabilityReport);
+    }
+
+    @GetMapping("/titles/{isbn}/availability")
+    public TitleAvailabilityView availability(@PathVariable String isbn) {
+        return limiter.call(Priority.SEARCH, () -> holdingsService.availability(isbn));
+    }
+
+    @PostMapping("/titles/{isbn}/checkouts")
+    public String checkout(@PathVariable String isbn, @RequestParam String memberEmail) {
+        return limiter.call(Priority.CIRCULATION, () -> holdingsService.checkoutCopy(isbn, memberEmail));
+    }
+
+    @PostMapping("/copies/{barcode}/returns")
+    public String returnCopy(@PathVariable String barcode) {
+        return limiter.call(Priority.CIRCULATION, () -> holdingsService.returnCopy(barcode));
+    }
+}
@@ -0,0 +1,42 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.warmup.WarmupReport;
+import edu.trincoll.service.warmup.WarmupRunner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Readiness probe for load balancers and rolling restarts: 503 until startup, including any
+ * warm-up, has finished. Not subject to admission control.
+ */
+@RestController
+@RequestMapping("/api/ready")
+public class ReadinessController {
+
+    private final ApplicationAvailability availability;
+    private final ObjectProvider<WarmupRunner> warmup;
+
+    public ReadinessController(ApplicationAvailability availability, ObjectProvider<WarmupRunner> warmup) {
+        this.availability = availability;
+        this.warmup = warmup;
+    }
+
+    @GetMapping
+    public ResponseEntity<Readiness> ready() {
+        ReadinessState state = availability.getReadinessState();
+        WarmupRunner runner = warmup.getIfAvailable();
+        Readiness body = new Readiness(state, runner == null ? null : runner.lastReport());
+        return state == ReadinessState.ACCEPTING_TRAFFIC
+                ? ResponseEntity.ok(body)
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
+    public record Readiness(ReadinessState state, WarmupReport warmup) {
+    }
+}
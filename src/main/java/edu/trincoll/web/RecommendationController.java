@@ -0,0 +1,31 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.recommendation.CoBorrowed;
+import edu.trincoll.service.recommendation.CoBorrowingIndex;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * "Patrons who borrowed this also borrowed" for the book page. Answered from the in-memory
+ * co-borrowing index in constant time, so not subject to admission control.
+ */
+@RestController
+@RequestMapping("/api/books/{isbn}/also-borrowed")
+public class RecommendationController {
+
+    private final CoBorrowingIndex index;
+
+    public RecommendationController(CoBorrowingIndex index) {
+        this.index = index;
+    }
+
+    @GetMapping
+    public List<CoBorrowed> alsoBorrowed(@PathVariable String isbn, @RequestParam(defaultValue = "10") int limit) {
+        return index.alsoBorrowed(isbn, limit);
+    }
+}
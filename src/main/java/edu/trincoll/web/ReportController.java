@@ -0,0 +1,62 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.LibraryFacade;
+import edu.trincoll.service.admission.AdaptiveConcurrencyLimiter;
+import edu.trincoll.service.admission.Priority;
+import edu.trincoll.service.report.CachedReport;
+import edu.trincoll.service.report.ReportType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+
+/**
+ * Serves cached reports with ETags. A matching {@code If-None-Match} is answered with
+ * 304 before the report is looked up, so polling clients cost no generation or serialization.
+ * Report requests run at the lowest admission priority.
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final LibraryFacade facade;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ReportController(LibraryFacade facade, AdaptiveConcurrencyLimiter limiter) {
+        this.facade = facade;
+        this.limiter = limiter;
+    }
+
+    @GetMapping("/{type}")
+    public ResponseEntity<String> report(@PathVariable String type,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ReportType reportType = ReportType.fromName(type);
+
+        String etag = facade.currentReportEtag(reportType);
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        CachedReport report = limiter.call(Priority.REPORT, () -> facade.getReport(reportType));
+        return ResponseEntity.ok()
+                .eTag(report.etag())
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(report.content());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag));
+    }
+}
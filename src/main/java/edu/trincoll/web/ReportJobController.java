@@ -0,0 +1,73 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.job.ReportJob;
+import edu.trincoll.service.job.ReportJobService;
+import edu.trincoll.service.job.ReportJobStatus;
+import edu.trincoll.service.report.ReportType;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Background report jobs: submit, poll status, download the gzip result. Downloads honour
+ * {@code Range} requests, so an interrupted transfer can be resumed.
+ */
+@RestController
+@RequestMapping("/api/report-jobs")
+public class ReportJobController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final ReportJobService reportJobService;
+
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReportJob> submit(@RequestParam String type) {
+        ReportJob job = reportJobService.submit(ReportType.fromName(type));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/report-jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping
+    public List<ReportJob> list() {
+        return reportJobService.list();
+    }
+
+    @GetMapping("/{id}")
+    public ReportJob status(@PathVariable String id) {
+        return reportJobService.status(id);
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<Resource> result(@PathVariable String id) {
+        ReportJob job = reportJobService.status(id);
+        if (job.status() != ReportJobStatus.SUCCEEDED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Resource body = new FileSystemResource(reportJobService.result(id));
+        return ResponseEntity.ok()
+                .contentType(GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(job.type().name().toLowerCase() + "-report-" + id + ".txt.gz")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,48 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.BookSearchService;
+import edu.trincoll.service.admission.AdaptiveConcurrencyLimiter;
+import edu.trincoll.service.admission.Priority;
+import edu.trincoll.service.search.RankedSearchService;
+import edu.trincoll.service.search.SearchField;
+import edu.trincoll.service.search.SearchPage;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Book search by title, author or ISBN, at search admission priority. Title and author results
+ * are ranked and paged; pass {@code nextCursor} back as {@code cursor} for the next page.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class SearchController {
+
+    private final BookSearchService bookSearchService;
+    private final RankedSearchService rankedSearchService;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public SearchController(BookSearchService bookSearchService, RankedSearchService rankedSearchService,
+                            AdaptiveConcurrencyLimiter limiter) {
+        this.bookSearchService = bookSearchService;
+        this.rankedSearchService = rankedSearchService;
+        this.limiter = limiter;
+    }
+
+    @GetMapping("/search")
+    public SearchPage search(@RequestParam String type, @RequestParam String q,
+                             @RequestParam(required = false) Integer size,
+                             @RequestParam(required = false) String cursor) {
+        return limiter.call(Priority.SEARCH, () -> switch (type.toLowerCase()) {
+            case "title" -> rankedSearchService.search(SearchField.TITLE, q, size, cursor);
+            case "author" -> rankedSearchService.search(SearchField.AUTHOR, q, size, cursor);
+            case "isbn" -> bookSearchService.searchByIsbn(q)
+                    .map(book -> new SearchPage(List.of(book), null))
+                    .orElse(SearchPage.empty());
+            default -> throw new IllegalArgumentException("Invalid search type");
+        });
+    }
+}
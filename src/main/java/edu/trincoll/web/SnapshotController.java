@@ -0,0 +1,56 @@
+package edu.trincoll.web;
+
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.service.admission.AdaptiveConcurrencyLimiter;
+import edu.trincoll.service.admission.Priority;
+import edu.trincoll.service.snapshot.SnapshotService;
+import edu.trincoll.service.snapshot.SnapshotSummary;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historical circulation reports served from the daily snapshots, at report priority.
+ */
+@RestController
+@RequestMapping("/api/snapshots")
+public class SnapshotController {
+
+    private final SnapshotService snapshotService;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public SnapshotController(SnapshotService snapshotService, AdaptiveConcurrencyLimiter limiter) {
+        this.snapshotService = snapshotService;
+        this.limiter = limiter;
+    }
+
+    @GetMapping
+    public List<SnapshotSummary> range(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return limiter.call(Priority.REPORT, () -> snapshotService.summaries(from, to));
+    }
+
+    @GetMapping("/{date}")
+    public SnapshotSummary summary(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return limiter.call(Priority.REPORT, () -> snapshotService.summary(date));
+    }
+
+    @GetMapping("/{date}/authors")
+    public Map<String, Integer> authors(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                        @RequestParam(defaultValue = "CHECKED_OUT") BookStatus status) {
+        return limiter.call(Priority.REPORT, () -> snapshotService.countByAuthor(date, status));
+    }
+
+    @PostMapping
+    public SnapshotSummary takeSnapshot() {
+        return snapshotService.takeSnapshot(LocalDate.now());
+    }
+}
@@ -0,0 +1,37 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.storage.BackupResult;
+import edu.trincoll.service.storage.BackupService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * On-demand online backups of the file-backed database (durable profile).
+ */
+@RestController
+@RequestMapping("/api/storage/backups")
+@ConditionalOnProperty(name = "library.storage.backup.enabled", havingValue = "true")
+public class StorageController {
+
+    private final BackupService backupService;
+
+    public StorageController(BackupService backupService) {
+        this.backupService = backupService;
+    }
+
+    @PostMapping
+    public BackupResult backup() {
+        return backupService.backup();
+    }
+
+    @GetMapping
+    public List<String> backups() {
+        return backupService.backups().stream().map(Path::getFileName).map(Path::toString).toList();
+    }
+}
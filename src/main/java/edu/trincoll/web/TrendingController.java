@@ -0,0 +1,30 @@
+package edu.trincoll.web;
+
+import edu.trincoll.service.trending.TrendingReport;
+import edu.trincoll.service.trending.TrendingTracker;
+import edu.trincoll.service.trending.TrendingWindow;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Most borrowed titles over a recent window. Answered from fixed-size in-memory sketches
+ * without touching the database, so not subject to admission control.
+ */
+@RestController
+@RequestMapping("/api/trending")
+public class TrendingController {
+
+    private final TrendingTracker tracker;
+
+    public TrendingController(TrendingTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @GetMapping
+    public TrendingReport top(@RequestParam(defaultValue = "WEEK") TrendingWindow window,
+                              @RequestParam(defaultValue = "10") int limit) {
+        return tracker.top(window, limit);
+    }
+}
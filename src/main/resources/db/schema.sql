@@ -0,0 +1,145 @@
+-- Schema for the fast-startup profile, which validates the mapping instead of generating it.
+-- Mirrors what Hibernate generates for the H2 dialect; FastStartupSpringIT fails if the two drift.
+
+create table if not exists books (
+    id bigint generated by default as identity,
+    isbn varchar(255) not null,
+    title varchar(255) not null,
+    author varchar(255) not null,
+    publication_date date not null,
+    status enum ('AVAILABLE','CHECKED_OUT','RESERVED','LOST','DAMAGED') not null,
+    checked_out_by varchar(255),
+    due_date date,
+    retired_on date,
+    version bigint not null,
+    primary key (id),
+    constraint uk_books_isbn unique (isbn)
+);
+
+create table if not exists members (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    email varchar(255) not null,
+    membership_type enum ('REGULAR','PREMIUM','STUDENT') not null,
+    member_since date not null,
+    books_checked_out integer not null,
+    version bigint not null,
+    primary key (id),
+    constraint uk_members_email unique (email)
+);
+
+create table if not exists titles (
+    id bigint generated by default as identity,
+    isbn varchar(255) not null,
+    title varchar(255) not null,
+    author varchar(255) not null,
+    publication_date date,
+    total_copies integer not null,
+    available_copies integer not null,
+    primary key (id),
+    constraint uk_titles_isbn unique (isbn)
+);
+
+create table if not exists book_copies (
+    id bigint generated by default as identity,
+    title_id bigint not null,
+    barcode varchar(255) not null,
+    status enum ('AVAILABLE','CHECKED_OUT','RESERVED','LOST','DAMAGED') not null,
+    checked_out_by varchar(255),
+    due_date date,
+    version bigint not null,
+    primary key (id),
+    constraint uk_book_copies_barcode unique (barcode),
+    constraint fk_book_copies_title foreign key (title_id) references titles
+);
+create index if not exists idx_book_copies_title_status on book_copies (title_id, status);
+
+create table if not exists loans (
+    id bigint generated by default as identity,
+    isbn varchar(255) not null,
+    member_email varchar(255) not null,
+    checked_out_on date not null,
+    due_date date not null,
+    closed_on date,
+    outcome enum ('RETURNED','LOST'),
+    primary key (id)
+);
+create index if not exists idx_loans_member_email on loans (member_email);
+create index if not exists idx_loans_isbn_closed_on on loans (isbn, closed_on);
+create index if not exists idx_loans_closed_on on loans (closed_on);
+
+create table if not exists loans_archive (
+    id bigint not null,
+    isbn varchar(255) not null,
+    member_email varchar(255) not null,
+    checked_out_on date not null,
+    due_date date not null,
+    closed_on date not null,
+    outcome enum ('RETURNED','LOST') not null,
+    archived_on date not null,
+    primary key (id)
+);
+create index if not exists idx_loans_archive_member_email on loans_archive (member_email);
+create index if not exists idx_loans_archive_isbn on loans_archive (isbn);
+
+create table if not exists books_archive (
+    id bigint generated by default as identity,
+    isbn varchar(255) not null,
+    title varchar(255) not null,
+    author varchar(255) not null,
+    publication_date date,
+    status enum ('AVAILABLE','CHECKED_OUT','RESERVED','LOST','DAMAGED') not null,
+    retired_on date not null,
+    archived_on date not null,
+    primary key (id)
+);
+create index if not exists idx_books_archive_isbn on books_archive (isbn);
+
+create table if not exists book_status_changes (
+    id bigint generated by default as identity,
+    isbn varchar(255) not null,
+    from_status enum ('AVAILABLE','CHECKED_OUT','RESERVED','LOST','DAMAGED'),
+    to_status enum ('AVAILABLE','CHECKED_OUT','RESERVED','LOST','DAMAGED') not null,
+    member_email varchar(255),
+    changed_at timestamp(6) with time zone not null,
+    source_shard varchar(255),
+    source_id bigint,
+    primary key (id),
+    constraint uk_book_status_changes_source unique (source_shard, source_id)
+);
+create index if not exists idx_book_status_changes_changed_at on book_status_changes (changed_at);
+
+create table if not exists change_log (
+    id bigint generated by default as identity,
+    entity_type enum ('BOOK','MEMBER') not null,
+    entity_key varchar(255) not null,
+    entity_version bigint not null,
+    changed_at timestamp(6) with time zone not null,
+    node_id varchar(255) not null,
+    source_shard varchar(255),
+    source_id bigint,
+    primary key (id),
+    constraint uk_change_log_source unique (source_shard, source_id)
+);
+create index if not exists idx_change_log_changed_at on change_log (changed_at);
+
+create table if not exists idempotency_keys (
+    idempotency_key varchar(128) not null,
+    request_fingerprint varchar(255) not null,
+    response varchar(1000),
+    created_at timestamp(6) with time zone not null,
+    expires_at timestamp(6) with time zone not null,
+    primary key (idempotency_key)
+);
+create index if not exists idx_idempotency_expires_at on idempotency_keys (expires_at);
+
+create table if not exists circulation_sketches (
+    id bigint generated by default as identity,
+    metric enum ('ACTIVE_BORROWERS','TITLES_CIRCULATED') not null,
+    sketch_date date not null,
+    dimension varchar(32) not null,
+    registers varbinary(16384) not null,
+    version bigint,
+    primary key (id),
+    constraint uk_circulation_sketches_key unique (metric, sketch_date, dimension)
+);
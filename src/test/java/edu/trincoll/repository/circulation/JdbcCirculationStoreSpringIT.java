@@ -0,0 +1,145 @@
+package edu.trincoll.repository.circulation;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the circulation scenarios with {@code library.circulation.store=jdbc}. Its speed against
+ * the JPA store is measured by the {@code circulationStoreBenchmark} load test.
+ */
+@SpringBootTest(properties = {
+        "library.circulation.store=jdbc",
+        "spring.jpa.show-sql=false"
+})
+@DirtiesContext
+class JdbcCirculationStoreSpringIT {
+
+    @Autowired private LibraryService libraryService;
+    @Autowired private CirculationStore circulationStore;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        jdbcTemplate.update("delete from change_log");
+        bookRepository.save(new Book("jdbc-1", "Fast Path", "Author", LocalDate.of(2000, 1, 1)));
+        bookRepository.save(new Book("jdbc-2", "Second", "Author", LocalDate.of(2000, 1, 1)));
+        memberRepository.save(new Member("Regular", "regular@example.com", MembershipType.REGULAR));
+    }
+
+    @Test
+    void usesTheJdbcStore() {
+        assertThat(circulationStore).isInstanceOf(JdbcCirculationStore.class);
+    }
+
+    @Test
+    void checkoutAndReturn_updateOnlyCirculationColumns_andBumpVersions() {
+        String result = libraryService.checkoutBook("jdbc-1", "regular@example.com");
+
+        assertThat(result).startsWith("Book checked out successfully. Due date: " + LocalDate.now().plusDays(14));
+        Book book = bookRepository.findByIsbn("jdbc-1").orElseThrow();
+        assertThat(book.getStatus()).isEqualTo(BookStatus.CHECKED_OUT);
+        assertThat(book.getCheckedOutBy()).isEqualTo("regular@example.com");
+        assertThat(book.getTitle()).isEqualTo("Fast Path");
+        assertThat(book.getVersion()).isEqualTo(1);
+        Member member = memberRepository.findByEmail("regular@example.com").orElseThrow();
+        assertThat(member.getBooksCheckedOut()).isEqualTo(1);
+        assertThat(member.getVersion()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from change_log where entity_key = 'jdbc-1' and entity_version = 1", Long.class))
+                .isEqualTo(1L);
+
+        assertThat(libraryService.checkoutBook("jdbc-1", "regular@example.com")).isEqualTo("Book is not available");
+        assertThat(libraryService.returnBook("jdbc-1")).isEqualTo("Book returned successfully");
+        assertThat(libraryService.returnBook("jdbc-1")).isEqualTo("Book is not checked out");
+        assertThat(memberRepository.findByEmail("regular@example.com").orElseThrow().getBooksCheckedOut()).isZero();
+    }
+
+    @Test
+    void lateReturn_chargesTheTierFee() {
+        libraryService.checkoutBook("jdbc-2", "regular@example.com");
+        jdbcTemplate.update("update books set due_date = ? where isbn = 'jdbc-2'",
+                Date.valueOf(LocalDate.now().minusDays(5)));
+
+        assertThat(libraryService.returnBook("jdbc-2")).isEqualTo("Book returned. Late fee: $2.50");
+    }
+
+    @Test
+    void checkoutLimit_isEnforced() {
+        Member member = memberRepository.findByEmail("regular@example.com").orElseThrow();
+        member.setBooksCheckedOut(3);
+        memberRepository.save(member);
+
+        assertThat(libraryService.checkoutBook("jdbc-1", "regular@example.com"))
+                .isEqualTo("Member has reached checkout limit");
+    }
+
+    @Test
+    void staleEntity_isRejected() {
+        Book stale = bookRepository.findByIsbn("jdbc-1").orElseThrow();
+        libraryService.checkoutBook("jdbc-1", "regular@example.com");
+
+        stale.setStatus(BookStatus.RESERVED);
+        assertThatThrownBy(() -> circulationStore.saveCirculationState(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void staleMember_isRejected() {
+        Member stale = memberRepository.findByEmail("regular@example.com").orElseThrow();
+        libraryService.checkoutBook("jdbc-1", "regular@example.com");
+
+        stale.setBooksCheckedOut(0);
+        assertThatThrownBy(() -> circulationStore.saveCheckoutCount(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(memberRepository.findByEmail("regular@example.com").orElseThrow().getBooksCheckedOut()).isEqualTo(1);
+    }
+
+    @Test
+    void everyCirculationWrite_appendsOneChangeLogRowPerEntityVersion() {
+        libraryService.checkoutBook("jdbc-1", "regular@example.com");
+        libraryService.returnBook("jdbc-1");
+
+        assertThat(changeLogVersions("BOOK", "jdbc-1")).containsExactly(1L, 2L);
+        assertThat(changeLogVersions("MEMBER", "regular@example.com")).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void rejectedWrite_appendsNoChangeLogRow() {
+        Book stale = bookRepository.findByIsbn("jdbc-1").orElseThrow();
+        libraryService.checkoutBook("jdbc-1", "regular@example.com");
+
+        stale.setStatus(BookStatus.RESERVED);
+        assertThatThrownBy(() -> circulationStore.saveCirculationState(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(changeLogVersions("BOOK", "jdbc-1")).containsExactly(1L);
+    }
+
+    private List<Long> changeLogVersions(String type, String key) {
+        return jdbcTemplate.queryForList(
+                "select entity_version from change_log where entity_type = ? and entity_key = ? and entity_version > 0 "
+                        + "order by entity_version", Long.class, type, key);
+    }
+}
@@ -0,0 +1,103 @@
+package edu.trincoll.repository.routing;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.service.BookSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Primary plus two in-memory H2 replicas kept in sync by the replication stand-in. Replication
+ * and health checks are driven explicitly by each test.
+ */
+@SpringBootTest(properties = {
+        "library.replicas.enabled=true",
+        "library.replicas.urls=jdbc:h2:mem:replica0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1",
+        "library.replicas.max-staleness-ms=60000",
+        "library.replicas.health-check-interval-ms=3600000"
+})
+@Import(ReplicationSimulator.class)
+@DirtiesContext
+class ReadWriteRoutingSpringIT {
+
+    @Autowired private BookRepository bookRepository;
+    @Autowired private BookSearchService bookSearchService;
+    @Autowired private ReadWriteRoutingDataSource routing;
+    @Autowired private ReplicationSimulator replication;
+    @Autowired private ReplicaHealthChecker healthChecker;
+
+    @BeforeEach
+    void syncReplicas() {
+        healthChecker.check();
+        replication.replicate();
+        healthChecker.check();
+    }
+
+    @Test
+    void readOnlyTransactionsSeeTheReplica_untilItCatchesUp() {
+        assertThat(routing.replicas()).allMatch(ReplicaNode::healthy);
+
+        bookRepository.save(new Book("rw-1", "Replicated", "Author", LocalDate.of(2001, 1, 1)));
+
+        assertThat(onAnotherThread(() -> bookSearchService.searchByIsbn("rw-1"))).isEmpty();
+
+        syncReplicas();
+        assertThat(onAnotherThread(() -> bookSearchService.searchByIsbn("rw-1"))).isPresent();
+    }
+
+    @Test
+    void writerReadsItsOwnWrites_andOnPrimaryBypassesReplicas() {
+        bookRepository.save(new Book("rw-2", "Fresh", "Author", LocalDate.of(2002, 1, 1)));
+
+        // This thread just wrote, so it is pinned to the primary.
+        assertThat(bookSearchService.searchByIsbn("rw-2")).isPresent();
+        assertThat(onAnotherThread(() -> ReadYourWrites.onPrimary(() -> bookSearchService.searchByIsbn("rw-2"))))
+                .isPresent();
+    }
+
+    @Test
+    void clientSession_readsItsOwnWrites_onAnyThread() {
+        AtomicLong token = new AtomicLong();
+        onAnotherThread(() -> {
+            try (ReadYourWrites.Scope session = ReadYourWrites.openSession(0, token::set)) {
+                return bookRepository.save(new Book("rw-4", "Session", "Author", LocalDate.of(2004, 1, 1)));
+            }
+        });
+        assertThat(token.get()).isPositive();
+
+        assertThat(onAnotherThread(() -> bookSearchService.searchByIsbn("rw-4"))).isEmpty();
+        assertThat(onAnotherThread(() -> {
+            try (ReadYourWrites.Scope session = ReadYourWrites.openSession(token.get(), t -> { })) {
+                return bookSearchService.searchByIsbn("rw-4");
+            }
+        })).isPresent();
+    }
+
+    @Test
+    void laggingReplicasAreSkipped() {
+        bookRepository.save(new Book("rw-3", "Lagged", "Author", LocalDate.of(2003, 1, 1)));
+        routing.replicas().forEach(replica -> replica.update(true, Long.MAX_VALUE));
+
+        assertThat(onAnotherThread(() -> bookSearchService.searchByIsbn("rw-3"))).isPresent();
+    }
+
+    private static <T> T onAnotherThread(Supplier<T> read) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executor.submit(read::get).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
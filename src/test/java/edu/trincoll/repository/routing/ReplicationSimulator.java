@@ -0,0 +1,65 @@
+package edu.trincoll.repository.routing;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stand-in for real replication between local H2 databases. Copies the primary's schema to each
+ * replica once; each {@link #replicate()} then replaces each replica table's rows with the
+ * primary's in a single replica transaction, so readers see either the old or the new copy.
+ * Tests import it and replicate explicitly.
+ */
+public class ReplicationSimulator implements SmartInitializingSingleton {
+
+    private final JdbcTemplate primary;
+    private final List<ReplicaNode> replicas;
+
+    public ReplicationSimulator(ReadWriteRoutingDataSource routing) {
+        this.primary = new JdbcTemplate(routing.primary());
+        this.replicas = routing.replicas();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> ddl = primary.queryForList("script nodata", String.class);
+        for (ReplicaNode replica : replicas) {
+            JdbcTemplate target = new JdbcTemplate(replica.dataSource());
+            target.execute("drop all objects");
+            ddl.stream()
+                    .filter(sql -> !sql.startsWith("--") && !sql.toUpperCase().startsWith("CREATE USER"))
+                    .forEach(target::execute);
+        }
+        replicate();
+    }
+
+    public void replicate() {
+        List<String> tables = primary.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'",
+                String.class);
+        for (ReplicaNode replica : replicas) {
+            JdbcTemplate target = new JdbcTemplate(replica.dataSource());
+            new TransactionTemplate(new DataSourceTransactionManager(replica.dataSource())).executeWithoutResult(status -> {
+                for (String table : tables) {
+                    copy(table, target);
+                }
+            });
+        }
+    }
+
+    private void copy(String table, JdbcTemplate target) {
+        List<Map<String, Object>> rows = primary.queryForList("select * from " + table);
+        target.update("delete from " + table);
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = List.copyOf(rows.get(0).keySet());
+        String sql = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + String.join(", ", columns.stream().map(c -> "?").toList()) + ")";
+        target.batchUpdate(sql, rows.stream().map(row -> columns.stream().map(row::get).toArray()).toList());
+    }
+}
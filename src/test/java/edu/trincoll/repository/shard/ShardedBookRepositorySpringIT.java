@@ -0,0 +1,179 @@
+package edu.trincoll.repository.shard;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookListingView;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.service.archive.ArchiveService;
+import edu.trincoll.service.archive.LoanHistoryService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the sharding layer against two file-backed H2 shards, then adds a third.
+ */
+@SpringBootTest(properties = {
+        "library.sharding.enabled=true",
+        "library.sharding.urls=jdbc:h2:file:./build/test-shards/shard0,jdbc:h2:file:./build/test-shards/shard1",
+        "library.sharding.virtual-nodes=64",
+        "library.sharding.rebalance-batch-size=7"
+})
+@DirtiesContext
+class ShardedBookRepositorySpringIT {
+
+    private static final Path SHARD_DIR = Path.of("build", "test-shards");
+    private static final int BOOKS = 60;
+
+    @Autowired private BookRepository bookRepository;
+    @Autowired private ShardRoutingDataSource shards;
+    @Autowired private ShardRouter router;
+    @Autowired private ShardRebalancer rebalancer;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ArchiveService archiveService;
+    @Autowired private LoanHistoryService historyService;
+
+    @BeforeAll
+    static void cleanShardFiles() throws IOException {
+        FileSystemUtils.deleteRecursively(SHARD_DIR);
+    }
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book("isbn-" + i, "Title " + i, "Author", LocalDate.of(2000, 1, 1));
+            if (i % 3 == 0) {
+                book.setStatus(BookStatus.CHECKED_OUT);
+            }
+            bookRepository.save(book);
+        }
+    }
+
+    @Test
+    void booksAreSpreadByIsbn_andQueriesScatterGather() {
+        long total = 0;
+        for (String shard : router.shards()) {
+            long rows = rowsOn(shard);
+            assertThat(rows).as(shard).isPositive();
+            total += rows;
+        }
+        assertThat(total).isEqualTo(BOOKS);
+
+        assertThat(bookRepository.count()).isEqualTo(BOOKS);
+        assertThat(bookRepository.countByStatus(BookStatus.CHECKED_OUT)).isEqualTo(BOOKS / 3);
+        assertThat(bookRepository.findByTitleContainingIgnoreCase("title 1")).hasSize(11); // 1, 10-19
+        assertThat(bookRepository.findAllBy(Limit.of(25))).hasSize(25).doesNotHaveDuplicates();
+        assertThat(bookRepository.findByIsbn("isbn-42")).isPresent();
+    }
+
+    @Test
+    void addingAShard_movesOnlyItsKeys_andEverythingStaysReachable() {
+        long moved = rebalancer.addShard("jdbc:h2:file:./build/test-shards/shard2");
+
+        assertThat(moved).isPositive();
+        assertThat(rowsOn("shard-2")).isEqualTo(moved);
+        assertThat(rowsOn("shard-0") + rowsOn("shard-1") + rowsOn("shard-2")).isEqualTo(BOOKS);
+        assertThat(router.isMigrating()).isFalse();
+
+        for (int i = 0; i < BOOKS; i++) {
+            String isbn = "isbn-" + i;
+            assertThat(new JdbcTemplate(shards.shard(router.shardFor(isbn)))
+                    .queryForObject("select count(*) from books where isbn = ?", Long.class, isbn)).isEqualTo(1L);
+            assertThat(bookRepository.findByIsbn(isbn)).isPresent();
+        }
+        assertThat(bookRepository.countByStatus(BookStatus.CHECKED_OUT)).isEqualTo(BOOKS / 3);
+    }
+
+    @Test
+    void idKeyedAndUnmergeableCalls_areRejected() {
+        assertThatThrownBy(() -> bookRepository.findById(1L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> bookRepository.existsById(1L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> bookRepository.deleteById(1L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> bookRepository.findAll(PageRequest.of(0, 10))).isInstanceOf(IllegalStateException.class);
+        assertThat(bookRepository.count()).isEqualTo(BOOKS);
+    }
+
+    @Test
+    void isbnBatchCalls_goToTheOwningShards() {
+        List<String> isbns = IntStream.range(0, BOOKS).mapToObj(i -> "isbn-" + i).toList();
+        assertThat(bookRepository.findByIsbnIn(isbns)).hasSize(BOOKS);
+
+        bookRepository.deleteAll(bookRepository.findByIsbnIn(isbns.subList(0, 10)));
+        assertThat(bookRepository.count()).isEqualTo(BOOKS - 10);
+        assertThat(rowsOn("shard-0") + rowsOn("shard-1")).isEqualTo(BOOKS - 10);
+    }
+
+    @Test
+    void orderedStream_isMergedInOrderAcrossShards() {
+        List<String> titles;
+        try (Stream<BookListingView> listing = bookRepository.streamListingByStatus(BookStatus.AVAILABLE)) {
+            titles = listing.map(BookListingView::getTitle).toList();
+        }
+
+        assertThat(titles).hasSize(BOOKS - BOOKS / 3);
+        assertThat(titles).isSortedAccordingTo(Comparator.comparing(String::toLowerCase));
+    }
+
+    @Test
+    void switchingShardsInsideATransaction_failsFast() {
+        String first = "isbn-0";
+        String other = IntStream.range(1, BOOKS).mapToObj(i -> "isbn-" + i)
+                .filter(isbn -> !router.shardFor(isbn).equals(router.shardFor(first)))
+                .findFirst().orElseThrow();
+
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookRepository.findByIsbn(first).orElseThrow();
+            bookRepository.findByIsbn(other);
+        })).isInstanceOf(IllegalStateException.class).hasMessageContaining("cannot switch");
+    }
+
+    @Test
+    void retiredBooks_areArchivedOnTheShardThatHeldThem_andStayFindable() {
+        for (String shard : router.shards()) {
+            new JdbcTemplate(shards.shard(shard)).update("delete from books_archive");
+        }
+        List<String> retired = IntStream.range(0, BOOKS).filter(i -> i % 3 == 1).mapToObj(i -> "isbn-" + i).toList();
+        for (String isbn : retired) {
+            Book book = bookRepository.findByIsbn(isbn).orElseThrow();
+            book.setStatus(BookStatus.DAMAGED);
+            book.setRetiredOn(LocalDate.now().minusYears(1));
+            bookRepository.save(book);
+        }
+
+        assertThat(archiveService.run(LocalDate.now()).booksArchived()).isEqualTo(retired.size());
+
+        assertThat(bookRepository.count()).isEqualTo(BOOKS - retired.size());
+        for (String isbn : retired) {
+            assertThat(new JdbcTemplate(shards.shard(router.shardFor(isbn)))
+                    .queryForObject("select count(*) from books_archive where isbn = ?", Long.class, isbn))
+                    .as(isbn).isEqualTo(1L);
+            assertThat(historyService.catalogRecord(isbn)).get()
+                    .satisfies(record -> assertThat(record.archived()).isTrue());
+        }
+    }
+
+    private long rowsOn(String shard) {
+        return new JdbcTemplate(shards.shard(shard)).queryForObject("select count(*) from books", Long.class);
+    }
+}
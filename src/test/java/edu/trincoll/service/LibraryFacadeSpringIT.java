@@ -2,7 +2,10 @@ package edu.trincoll.service;
 
 import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
 import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +29,7 @@ class LibraryFacadeSpringIT {
 
     @Autowired private LibraryFacade facade;
     @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
 
     @BeforeEach
     void seedData() {
@@ -89,4 +93,41 @@ class LibraryFacadeSpringIT {
         assertThat(report).contains("Borrower: a@example.com");
         assertThat(report).contains("Borrower: z@example.com");
     }
+
+    @Test
+    void memberActivityReport_aggregatesPerTier() {
+        Member z = new Member("Zed", "z@example.com", MembershipType.REGULAR);
+        z.setBooksCheckedOut(3); // at the regular limit
+        Member a = new Member("Ann", "a@example.com", MembershipType.REGULAR);
+        a.setBooksCheckedOut(2); // one below the limit
+        Member m = new Member("Mo", "m@example.com", MembershipType.STUDENT);
+        m.setBooksCheckedOut(1);
+        memberRepository.save(z);
+        memberRepository.save(a);
+        memberRepository.save(m);
+
+        String report = facade.generateMemberActivityReport();
+
+        assertThat(report).startsWith("Member Activity Report");
+        assertThat(report).contains("Total members: 3");
+        assertThat(report).contains("REGULAR: 2 members, 5 books out (avg 2.50), 1 at limit, 1 near limit, 2 overdue");
+        assertThat(report).contains("STUDENT: 1 members, 1 books out (avg 1.00), 0 at limit, 0 near limit, 0 overdue");
+        assertThat(report).contains("PREMIUM: 0 members");
+    }
+
+    @Test
+    void memberActivityReport_reflectsMemberWritesAfterCaching() {
+        memberRepository.save(new Member("Zed", "z@example.com", MembershipType.REGULAR));
+        assertThat(facade.generateMemberActivityReport()).contains("Total members: 1");
+
+        Member premium = memberRepository.save(new Member("Ann", "a@example.com", MembershipType.REGULAR));
+        assertThat(facade.generateMemberActivityReport()).contains("Total members: 2");
+
+        premium.setMembershipType(MembershipType.PREMIUM);
+        memberRepository.save(premium);
+        assertThat(facade.generateMemberActivityReport()).contains("PREMIUM: 1 members");
+
+        memberRepository.delete(premium);
+        assertThat(facade.generateMemberActivityReport()).contains("Total members: 1");
+    }
 }
@@ -2,10 +2,19 @@ package edu.trincoll.service;
 
 import edu.trincoll.model.Book;
 import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.ChangeLogEntityType;
 import edu.trincoll.model.Member;
 import edu.trincoll.model.MembershipType;
 import edu.trincoll.repository.BookRepository;
 import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.repository.circulation.JpaCirculationStore;
+import edu.trincoll.repository.shard.ConsistentHashRing;
+import edu.trincoll.repository.shard.ShardContext;
+import edu.trincoll.repository.shard.ShardRouter;
+import edu.trincoll.service.archive.LoanRecorder;
+import edu.trincoll.service.coherence.CoherentCache;
+import edu.trincoll.service.dashboard.Dashboard;
+import edu.trincoll.service.dashboard.DashboardService;
 import edu.trincoll.service.fee.LateFeeCalculator;
 import edu.trincoll.service.fee.LateFeeCalculatorFactory;
 import edu.trincoll.service.fee.PremiumLateFeeCalculator;
@@ -15,15 +24,29 @@ import edu.trincoll.service.policy.CheckoutPolicyFactory;
 import edu.trincoll.service.policy.PremiumCheckoutPolicy;
 import edu.trincoll.service.policy.RegularCheckoutPolicy;
 import edu.trincoll.service.report.AvailabilityReportGenerator;
+import edu.trincoll.service.report.CirculationStatsReportGenerator;
+import edu.trincoll.service.report.CirculationVersion;
+import edu.trincoll.service.report.MemberActivityReportGenerator;
 import edu.trincoll.service.report.OverdueReportGenerator;
+import edu.trincoll.service.report.ReportCache;
+import edu.trincoll.service.report.ReportType;
+import edu.trincoll.service.search.RankedSearchService;
+import edu.trincoll.service.search.SearchField;
+import edu.trincoll.service.search.SearchPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,6 +71,8 @@ class LibraryServiceTest {
     @Mock private CheckoutPolicyFactory checkoutPolicyFactory;
     @Mock private LateFeeCalculatorFactory lateFeeCalculatorFactory;
     @Mock private NotificationService notificationService;
+    @Mock private LoanRecorder loanRecorder;
+    @Mock private BookSearchService bookSearchService;
 
     private LibraryService libraryService;
 
@@ -58,9 +83,12 @@ class LibraryServiceTest {
 
     @BeforeEach
     void setUp() {
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        lenient().when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
         libraryService = new LibraryService(
                 bookService, memberService, checkoutPolicyFactory,
-                bookRepository, memberRepository, lateFeeCalculatorFactory, notificationService);
+                bookRepository, memberRepository, lateFeeCalculatorFactory, notificationService,
+                loanRecorder, unitOfWork(txManager), bookSearchService);
 
         availableBook = new Book("978-0-123456-78-9", "Clean Code", "Robert Martin",
                 LocalDate.of(2008, 8, 1));
@@ -146,6 +174,104 @@ class LibraryServiceTest {
         verify(memberService, never()).incrementCheckoutCount(any());
     }
 
+    @Test
+    @DisplayName("Checkout updates book and member in a single transaction")
+    void checkout_commitsOnce() {
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        libraryService = new LibraryService(
+                bookService, memberService, checkoutPolicyFactory,
+                bookRepository, memberRepository, lateFeeCalculatorFactory, notificationService,
+                loanRecorder, unitOfWork(txManager), bookSearchService);
+        when(bookService.findByIsbn(availableBook.getIsbn())).thenReturn(availableBook);
+        when(memberService.findByEmail(regularMember.getEmail())).thenReturn(regularMember);
+        when(checkoutPolicyFactory.getPolicyFor(MembershipType.REGULAR)).thenReturn(new RegularCheckoutPolicy());
+
+        libraryService.checkoutBook(availableBook.getIsbn(), regularMember.getEmail());
+
+        InOrder order = inOrder(checkoutPolicyFactory, txManager, bookService, memberService, notificationService);
+        order.verify(checkoutPolicyFactory).getPolicyFor(MembershipType.REGULAR);
+        order.verify(txManager).getTransaction(any());
+        order.verify(bookService).checkoutBook(availableBook, regularMember, 14);
+        order.verify(memberService).incrementCheckoutCount(regularMember);
+        order.verify(txManager).commit(any());
+        verify(loanRecorder).open(availableBook.getIsbn(), regularMember.getEmail(), LocalDate.now(),
+                LocalDate.now().plusDays(14));
+        order.verify(notificationService).sendCheckoutNotification(eq(regularMember), eq(availableBook), any());
+        verify(txManager, times(1)).getTransaction(any());
+        verify(txManager, never()).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Return computes the fee first and commits once")
+    void return_commitsOnce_andRejectedCheckoutOpensNoTransaction() {
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        libraryService = new LibraryService(
+                bookService, memberService, checkoutPolicyFactory,
+                bookRepository, memberRepository, lateFeeCalculatorFactory, notificationService,
+                loanRecorder, unitOfWork(txManager), bookSearchService);
+        availableBook.setStatus(BookStatus.CHECKED_OUT);
+        availableBook.setCheckedOutBy(regularMember.getEmail());
+        availableBook.setDueDate(LocalDate.now().minusDays(2));
+        when(bookService.findByIsbn(availableBook.getIsbn())).thenReturn(availableBook);
+        when(memberService.findByEmail(regularMember.getEmail())).thenReturn(regularMember);
+        when(lateFeeCalculatorFactory.getCalculatorFor(MembershipType.REGULAR)).thenReturn(new RegularLateFeeCalculator());
+
+        assertThat(libraryService.checkoutBook(availableBook.getIsbn(), regularMember.getEmail()))
+                .isEqualTo("Book is not available");
+        verifyNoInteractions(txManager);
+
+        libraryService.returnBook(availableBook.getIsbn());
+
+        InOrder order = inOrder(lateFeeCalculatorFactory, txManager, bookService, memberService);
+        order.verify(lateFeeCalculatorFactory).getCalculatorFor(MembershipType.REGULAR);
+        order.verify(txManager).getTransaction(any());
+        order.verify(bookService).returnBook(availableBook);
+        order.verify(memberService).decrementCheckoutCount(regularMember);
+        order.verify(txManager).commit(any());
+        verify(txManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Sharded checkout commits the member side first and undoes it when the book side fails")
+    void shardedCheckout_undoesTheMemberSide_whenTheBookSideFails() {
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ShardRouter router = new ShardRouter(new ConsistentHashRing(List.of("shard-0", "shard-1"), 16));
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ShardRouter> sharded = mock(ObjectProvider.class);
+        when(sharded.getIfAvailable()).thenReturn(router);
+        libraryService = new LibraryService(
+                bookService, memberService, checkoutPolicyFactory,
+                bookRepository, memberRepository, lateFeeCalculatorFactory, notificationService,
+                loanRecorder, new CirculationUnitOfWork(txManager, bookRepository, sharded), bookSearchService);
+        String isbn = availableBook.getIsbn();
+        String email = regularMember.getEmail();
+        when(bookService.findByIsbn(isbn)).thenReturn(availableBook);
+        when(memberService.findByEmail(email)).thenReturn(regularMember);
+        when(checkoutPolicyFactory.getPolicyFor(MembershipType.REGULAR)).thenReturn(new RegularCheckoutPolicy());
+        List<String> bookSideShards = new ArrayList<>();
+        doAnswer(invocation -> {
+            bookSideShards.add(ShardContext.current());
+            throw new ObjectOptimisticLockingFailureException(Book.class, 1L);
+        }).when(bookService).checkoutBook(any(Book.class), any(Member.class), anyInt());
+
+        assertThatThrownBy(() -> libraryService.checkoutBook(isbn, email))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(bookSideShards).containsExactly(router.shardFor(isbn));
+        InOrder order = inOrder(memberService, loanRecorder, bookService);
+        order.verify(memberService).incrementCheckoutCount(regularMember);
+        order.verify(loanRecorder).open(eq(isbn), eq(email), any(), any());
+        order.verify(bookService).checkoutBook(availableBook, regularMember, 14);
+        order.verify(memberService).decrementCheckoutCount(regularMember);
+        order.verify(loanRecorder).discard(isbn, email);
+        verify(txManager, times(2)).commit(any());
+        verify(txManager).rollback(any());
+        verifyNoInteractions(notificationService);
+    }
+
     @Test
     @DisplayName("Should throw exception when book not found")
     void shouldThrowExceptionWhenBookNotFound() {
@@ -217,10 +343,27 @@ class LibraryServiceTest {
         verify(memberService).decrementCheckoutCount(eq(premiumMember));
     }
 
+    @Test
+    @DisplayName("A hold is placed on an available book only")
+    void placeHold_onlyOnAnAvailableBook() {
+        when(bookService.findByIsbn(availableBook.getIsbn())).thenReturn(availableBook);
+        when(memberService.findByEmail(regularMember.getEmail())).thenReturn(regularMember);
+
+        assertThat(libraryService.placeHold(availableBook.getIsbn(), regularMember.getEmail()))
+                .startsWith("Book on hold until");
+        verify(bookService).placeHold(availableBook, regularMember, LibraryService.HOLD_DAYS);
+
+        availableBook.setStatus(BookStatus.CHECKED_OUT);
+        assertThat(libraryService.placeHold(availableBook.getIsbn(), regularMember.getEmail()))
+                .isEqualTo("Book is not available");
+        verify(bookService, times(1)).placeHold(any(), any(), anyInt());
+        verify(memberService, never()).incrementCheckoutCount(any());
+    }
+
     @Test
     @DisplayName("Should search books by title")
     void shouldSearchBooksByTitle() {
-        when(bookRepository.findByTitleContainingIgnoreCase("Clean"))
+        when(bookSearchService.searchByTitle("Clean"))
                 .thenReturn(java.util.List.of(availableBook));
 
         var results = libraryService.searchBooks("Clean", "title");
@@ -237,40 +380,48 @@ class LibraryServiceTest {
                 .hasMessage("Invalid search type");
     }
 
+    private static CoherentCache<Book> bookCache() {
+        return new CoherentCache<>(ChangeLogEntityType.BOOK, 100, 2000);
+    }
+
     @Test
-    void searchByTitle_trimsAndDelegates() {
-        var repo = mock(BookRepository.class);
-        var svc  = new BookSearchService(repo);
+    void searchByTitle_trimsAndReturnsTheFirstRankedPage() {
+        var ranked = mock(RankedSearchService.class);
+        var svc  = new BookSearchService(mock(BookRepository.class), bookCache(), ranked);
 
-        when(repo.findByTitleContainingIgnoreCase("dune")).thenReturn(List.of(new Book()));
+        when(ranked.search(SearchField.TITLE, "dune", null, null))
+                .thenReturn(new SearchPage(List.of(new Book()), "next"));
 
         var result = svc.searchByTitle("  dune  ");
         assertThat(result).hasSize(1);
-        verify(repo).findByTitleContainingIgnoreCase("dune");
+        verify(ranked).search(SearchField.TITLE, "dune", null, null);
     }
 
     @Test
     void searchByTitle_blankReturnsEmpty() {
-        var svc = new BookSearchService(mock(BookRepository.class));
+        var ranked = mock(RankedSearchService.class);
+        var svc = new BookSearchService(mock(BookRepository.class), bookCache(), ranked);
         assertThat(svc.searchByTitle("  ")).isEmpty();
+        verifyNoInteractions(ranked);
     }
 
     @Test
-    void searchByAuthor_trimsAndDelegates() {
-        var repo = mock(BookRepository.class);
-        var svc  = new BookSearchService(repo);
+    void searchByAuthor_trimsAndReturnsTheFirstRankedPage() {
+        var ranked = mock(RankedSearchService.class);
+        var svc  = new BookSearchService(mock(BookRepository.class), bookCache(), ranked);
 
-        when(repo.findByAuthor("Le Guin")).thenReturn(List.of(new Book()));
+        when(ranked.search(SearchField.AUTHOR, "Le Guin", null, null))
+                .thenReturn(new SearchPage(List.of(new Book()), null));
 
         var result = svc.searchByAuthor("  Le Guin ");
         assertThat(result).hasSize(1);
-        verify(repo).findByAuthor("Le Guin");
+        verify(ranked).search(SearchField.AUTHOR, "Le Guin", null, null);
     }
 
     @Test
     void searchByIsbn_trimsAndDelegates() {
         var repo = mock(BookRepository.class);
-        var svc  = new BookSearchService(repo);
+        var svc  = new BookSearchService(repo, bookCache(), mock(RankedSearchService.class));
 
         when(repo.findByIsbn("9780143111580")).thenReturn(Optional.of(new Book()));
 
@@ -279,9 +430,20 @@ class LibraryServiceTest {
         verify(repo).findByIsbn("9780143111580");
     }
 
+    @Test
+    void searchByIsbn_returnsACopy_soCallersCannotCorruptTheCache() {
+        var repo = mock(BookRepository.class);
+        var svc  = new BookSearchService(repo, bookCache(), mock(RankedSearchService.class));
+        when(repo.findByIsbn("111")).thenReturn(Optional.of(mkBook("Dune", "Herbert", "111", BookStatus.AVAILABLE, null, null)));
+
+        svc.searchByIsbn("111").orElseThrow().setStatus(BookStatus.CHECKED_OUT);
+
+        assertThat(svc.searchByIsbn("111")).get().extracting(Book::getStatus).isEqualTo(BookStatus.AVAILABLE);
+    }
+
     @Test
     void searchByIsbn_blankReturnsEmptyOptional() {
-        var svc = new BookSearchService(mock(BookRepository.class));
+        var svc = new BookSearchService(mock(BookRepository.class), bookCache(), mock(RankedSearchService.class));
         assertThat(svc.searchByIsbn(" ")).isEmpty();
     }
 
@@ -397,7 +559,9 @@ class LibraryServiceTest {
 
         when(availability.generateReport()).thenReturn("avail-report");
 
-        var facade = new LibraryFacade(availability, overdue);
+        var facade = new LibraryFacade(availability, overdue, mock(MemberActivityReportGenerator.class),
+                mock(CirculationStatsReportGenerator.class), new ReportCache(new CirculationVersion(), 0),
+                mock(DashboardService.class));
         String out = facade.generateAvailabilityReport();
 
         assertEquals("avail-report", out);
@@ -412,7 +576,9 @@ class LibraryServiceTest {
 
         when(overdue.generateReport()).thenReturn("overdue-report");
 
-        var facade = new LibraryFacade(availability, overdue);
+        var facade = new LibraryFacade(availability, overdue, mock(MemberActivityReportGenerator.class),
+                mock(CirculationStatsReportGenerator.class), new ReportCache(new CirculationVersion(), 0),
+                mock(DashboardService.class));
         String out = facade.generateOverdueReport();
 
         assertEquals("overdue-report", out);
@@ -420,10 +586,70 @@ class LibraryServiceTest {
         verifyNoInteractions(availability);
     }
 
+    @Test
+    void facadeReports_servedFromCacheUntilCirculationChanges() {
+        var availability = mock(AvailabilityReportGenerator.class);
+        var version      = new CirculationVersion();
+        var facade       = new LibraryFacade(availability, mock(OverdueReportGenerator.class),
+                mock(MemberActivityReportGenerator.class), mock(CirculationStatsReportGenerator.class),
+                new ReportCache(version, 0), mock(DashboardService.class));
+
+        when(availability.generateReport()).thenReturn("v0", "v1");
+
+        assertEquals("v0", facade.generateAvailabilityReport());
+        String etag = facade.getReport(ReportType.AVAILABILITY).etag();
+        assertEquals(etag, facade.currentReportEtag(ReportType.AVAILABILITY));
+        verify(availability, times(1)).generateReport();
+
+        version.onCheckout(availableBook, regularMember);
+
+        assertThat(facade.currentReportEtag(ReportType.AVAILABILITY)).isNotEqualTo(etag);
+        assertEquals("v1", facade.generateAvailabilityReport());
+        verify(availability, times(2)).generateReport();
+    }
+
+    @Test
+    void reportEtags_fromAnotherBootOrInstance_neverMatch() {
+        var before = new ReportCache(new CirculationVersion(), 0);
+        var afterRestart = new ReportCache(new CirculationVersion(), 0);
+
+        String etag = before.get(ReportType.AVAILABILITY, () -> "report").etag();
+
+        assertEquals(etag, before.currentEtag(ReportType.AVAILABILITY));
+        assertThat(afterRestart.currentEtag(ReportType.AVAILABILITY)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void dashboard_combinesReportsAndTierStatistics() {
+        when(memberRepository.count()).thenReturn(6L);
+        when(memberRepository.countByMembershipType(any())).thenReturn(2L);
+        when(memberRepository.sumBooksCheckedOutByMembershipType(any())).thenReturn(0L);
+        when(memberRepository.sumBooksCheckedOutByMembershipType(MembershipType.PREMIUM)).thenReturn(7L);
+
+        var dashboards = new DashboardService(memberRepository, mock(PlatformTransactionManager.class), 2000);
+        Dashboard dashboard = dashboards.compose(() -> "avail", () -> "overdue");
+
+        assertEquals("avail", dashboard.availabilityReport());
+        assertEquals("overdue", dashboard.overdueReport());
+        assertEquals(6L, dashboard.totalMembers());
+        assertThat(dashboard.tiers()).hasSize(MembershipType.values().length);
+        assertEquals(7L, dashboard.tiers().get(MembershipType.PREMIUM).booksCheckedOut());
+    }
+
+    @Test
+    void dashboard_failsWhenASubtaskFails() {
+        var dashboards = new DashboardService(memberRepository, mock(PlatformTransactionManager.class), 2000);
+
+        assertThatThrownBy(() -> dashboards.compose(() -> "avail", () -> { throw new IllegalStateException("boom"); }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Dashboard subtask failed")
+                .hasRootCauseMessage("boom");
+    }
+
     @Test
     void incrementCheckoutCount_increasesAndSaves() {
         MemberRepository repo = mock(MemberRepository.class);
-        MemberService svc = new MemberService(repo);
+        MemberService svc = new MemberService(repo, new JpaCirculationStore(mock(BookRepository.class), repo));
 
         Member m = new Member("John", "john@example.com");
         m.setBooksCheckedOut(2);
@@ -438,7 +664,7 @@ class LibraryServiceTest {
     @Test
     void findByEmail_returnsMember_whenPresent() {
         MemberRepository repo = mock(MemberRepository.class);
-        MemberService svc = new MemberService(repo);
+        MemberService svc = new MemberService(repo, new JpaCirculationStore(mock(BookRepository.class), repo));
 
         Member m = new Member("Jane", "jane@example.com");
         when(repo.findByEmail("jane@example.com")).thenReturn(Optional.of(m));
@@ -463,4 +689,9 @@ class LibraryServiceTest {
         assertThat(calc.calculateLateFee(0)).isEqualTo(0.0);
         assertThat(calc.calculateLateFee(7)).isEqualTo(0.0);
     }
+
+    @SuppressWarnings("unchecked")
+    private CirculationUnitOfWork unitOfWork(PlatformTransactionManager txManager) {
+        return new CirculationUnitOfWork(txManager, bookRepository, mock(ObjectProvider.class));
+    }
 }
@@ -0,0 +1,171 @@
+package edu.trincoll.service;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.repository.shard.ShardLogRelay;
+import edu.trincoll.repository.shard.ShardRouter;
+import edu.trincoll.repository.shard.ShardRoutingDataSource;
+import edu.trincoll.service.feed.CatalogChange;
+import edu.trincoll.service.feed.CatalogChangeFeed;
+import edu.trincoll.service.search.FuzzyMatch;
+import edu.trincoll.service.search.FuzzySearchIndex;
+import edu.trincoll.service.search.SearchField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Checkouts and returns through {@link LibraryService} with the books on two shards. The relay
+ * is driven by the test.
+ */
+@SpringBootTest(properties = {
+        "library.sharding.enabled=true",
+        "library.sharding.urls=jdbc:h2:mem:circulation-shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:circulation-shard1;DB_CLOSE_DELAY=-1",
+        "library.sharding.virtual-nodes=64",
+        "library.sharding.relay-interval-ms=3600000"
+})
+@DirtiesContext
+class ShardedCirculationSpringIT {
+
+    private static final String READER = "reader@example.com";
+
+    @Autowired private LibraryService libraryService;
+    @Autowired private BookSearchService bookSearchService;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private CatalogChangeFeed feed;
+    @Autowired private ShardLogRelay relay;
+    @Autowired private FuzzySearchIndex fuzzySearchIndex;
+    @Autowired private ShardRouter router;
+    @Autowired private ShardRoutingDataSource shards;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private List<String> onePerShard;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from loans");
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        for (int i = 0; i < 20; i++) {
+            bookRepository.save(new Book("circ-" + i, "Circulating " + i, "Author", LocalDate.of(2000, 1, 1)));
+        }
+        memberRepository.save(new Member("Reader", READER));
+        relay.relay();
+        onePerShard = router.shards().stream()
+                .map(shard -> IntStream.range(0, 20).mapToObj(i -> "circ-" + i)
+                        .filter(isbn -> router.shardFor(isbn).equals(shard)).findFirst().orElseThrow())
+                .toList();
+    }
+
+    @Test
+    void checkoutAndReturn_onEveryShard_recordLoansFeedAndInvalidations() {
+        long head = feed.head();
+        List<String> expectedFeed = new ArrayList<>();
+
+        for (String isbn : onePerShard) {
+            assertThat(bookSearchService.searchByIsbn(isbn)).get()
+                    .extracting(Book::getStatus).isEqualTo(BookStatus.AVAILABLE);
+
+            assertThat(libraryService.checkoutBook(isbn, READER)).startsWith("Book checked out successfully");
+            assertThat(statusOnOwningShard(isbn)).isEqualTo("CHECKED_OUT");
+            assertThat(bookSearchService.searchByIsbn(isbn)).get()
+                    .extracting(Book::getStatus).isEqualTo(BookStatus.CHECKED_OUT);
+            assertThat(memberRepository.findByEmail(READER)).get()
+                    .extracting(Member::getBooksCheckedOut).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject(
+                    "select count(*) from loans where isbn = ? and member_email = ? and closed_on is null",
+                    Integer.class, isbn, READER)).isEqualTo(1);
+
+            assertThat(libraryService.returnBook(isbn)).isEqualTo("Book returned successfully");
+            assertThat(statusOnOwningShard(isbn)).isEqualTo("AVAILABLE");
+            assertThat(bookSearchService.searchByIsbn(isbn)).get()
+                    .extracting(Book::getStatus).isEqualTo(BookStatus.AVAILABLE);
+            assertThat(memberRepository.findByEmail(READER)).get()
+                    .extracting(Member::getBooksCheckedOut).isEqualTo(0);
+            assertThat(jdbcTemplate.queryForObject(
+                    "select count(*) from loans where isbn = ? and outcome = 'RETURNED'", Integer.class, isbn))
+                    .isEqualTo(1);
+
+            expectedFeed.add(isbn + " CHECKED_OUT");
+            expectedFeed.add(isbn + " AVAILABLE");
+        }
+
+        relay.relay();
+
+        assertThat(feed.read(head, 100).changes())
+                .extracting(change -> change.isbn() + " " + change.toStatus())
+                .containsExactlyElementsOf(expectedFeed);
+        for (String isbn : onePerShard) {
+            assertThat(jdbcTemplate.queryForObject(
+                    "select count(*) from change_log where entity_type = 'BOOK' and entity_key = ?", Integer.class, isbn))
+                    .as("change log entries of %s on the home shard", isbn).isGreaterThanOrEqualTo(2);
+        }
+        for (String shard : router.shards()) {
+            if (!shard.equals(router.homeShard())) {
+                JdbcTemplate onShard = new JdbcTemplate(shards.shard(shard));
+                assertThat(onShard.queryForObject("select count(*) from book_status_changes", Integer.class)).isZero();
+                assertThat(onShard.queryForObject("select count(*) from change_log", Integer.class)).isZero();
+                assertThat(onShard.queryForObject("select count(*) from loans", Integer.class)).isZero();
+            }
+        }
+    }
+
+    @Test
+    void relayingTwice_appendsEachRowOnce() {
+        String isbn = onePerShard.get(onePerShard.size() - 1);
+        long head = feed.head();
+        libraryService.checkoutBook(isbn, READER);
+        JdbcTemplate owner = new JdbcTemplate(shards.shard(router.shardFor(isbn)));
+        List<Object[]> pending = owner.query("select id, isbn, to_status, changed_at from book_status_changes",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3), rs.getTimestamp(4)});
+
+        relay.relay();
+        // A pass that died after the append but before the delete leaves the rows behind
+        for (Object[] row : pending) {
+            owner.update("insert into book_status_changes (id, isbn, to_status, changed_at) values (?, ?, ?, ?)", row);
+        }
+        relay.relay();
+
+        assertThat(feed.read(head, 100).changes())
+                .extracting(CatalogChange::isbn, CatalogChange::toStatus)
+                .containsExactly(tuple(isbn, BookStatus.CHECKED_OUT));
+    }
+
+    @Test
+    void renameOnAnotherShard_reachesTheFuzzyIndexOnceRelayed() {
+        String isbn = onePerShard.stream().filter(i -> !router.shardFor(i).equals(router.homeShard()))
+                .findFirst().orElseThrow();
+        fuzzySearchIndex.rebuild();
+
+        Book book = bookRepository.findByIsbn(isbn).orElseThrow();
+        book.setTitle("Quixotic Wanderings");
+        bookRepository.save(book);
+        // The change-log row is still on the book's shard
+        assertThat(fuzzySearchIndex.rebuild()).isFalse();
+
+        relay.relay();
+        assertThat(fuzzySearchIndex.rebuild()).isTrue();
+        assertThat(fuzzySearchIndex.search(SearchField.TITLE, "Quixotik Wanderins"))
+                .extracting(FuzzyMatch::isbn).containsExactly(isbn);
+    }
+
+    private String statusOnOwningShard(String isbn) {
+        return new JdbcTemplate(shards.shard(router.shardFor(isbn)))
+                .queryForObject("select status from books where isbn = ?", String.class, isbn);
+    }
+}
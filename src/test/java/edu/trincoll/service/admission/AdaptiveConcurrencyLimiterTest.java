@@ -0,0 +1,140 @@
+package edu.trincoll.service.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The limiter runs on a hand-driven clock here, so every latency sample is exact. Its behaviour
+ * under real overload is measured by the {@code admissionBenchmark} load test.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private long now;
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit, long circulationMaxWaitMs) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, 5, circulationMaxWaitMs, () -> now);
+    }
+
+    @Test
+    void eachPriorityIsShedBeyondItsShareOfTheLimit() {
+        var limiter = limiter(4, 1, 4, 0);
+
+        var report1 = limiter.acquire(Priority.REPORT);
+        var report2 = limiter.acquire(Priority.REPORT);
+        assertThatThrownBy(() -> limiter.acquire(Priority.REPORT))
+                .isInstanceOf(LoadSheddingException.class)
+                .satisfies(e -> assertThat(((LoadSheddingException) e).getRetryAfter().toSeconds()).isPositive());
+
+        var search = limiter.acquire(Priority.SEARCH);
+        assertThatThrownBy(() -> limiter.acquire(Priority.SEARCH)).isInstanceOf(LoadSheddingException.class);
+
+        var circulation = limiter.acquire(Priority.CIRCULATION);
+        assertThatThrownBy(() -> limiter.acquire(Priority.CIRCULATION)).isInstanceOf(LoadSheddingException.class);
+        assertThat(limiter.inFlight()).isEqualTo(4);
+
+        report1.close();
+        report2.close();
+        assertThatThrownBy(() -> limiter.acquire(Priority.REPORT)).isInstanceOf(LoadSheddingException.class);
+        limiter.acquire(Priority.SEARCH).close();
+
+        search.close();
+        circulation.close();
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.shedCount(Priority.REPORT)).isEqualTo(2);
+        assertThat(limiter.shedCount(Priority.SEARCH)).isEqualTo(1);
+        assertThat(limiter.shedCount(Priority.CIRCULATION)).isEqualTo(1);
+        assertThat(limiter.admittedCount(Priority.SEARCH)).isEqualTo(2);
+    }
+
+    @Test
+    void circulationWaitsForAPermit_whileOthersAreShed() throws Exception {
+        var limiter = limiter(2, 1, 2, 10_000);
+        var first = limiter.acquire(Priority.CIRCULATION);
+        var second = limiter.acquire(Priority.CIRCULATION);
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> limiter.acquire(Priority.CIRCULATION).close());
+        assertThatThrownBy(() -> limiter.acquire(Priority.SEARCH)).isInstanceOf(LoadSheddingException.class);
+        first.close();
+        waiting.get(5, TimeUnit.SECONDS);
+
+        second.close();
+        assertThat(limiter.shedCount(Priority.CIRCULATION)).isZero();
+        assertThat(limiter.admittedCount(Priority.CIRCULATION)).isEqualTo(3);
+    }
+
+    @Test
+    void slowCall_cutsTheLimitByTheBackoffFactor_oncePerTargetInterval() {
+        var limiter = limiter(20, 2, 40, 0);
+
+        var a = limiter.acquire(Priority.CIRCULATION);
+        var b = limiter.acquire(Priority.CIRCULATION);
+        now += 20 * MS;
+        a.close();
+        assertThat(limiter.limit()).isEqualTo(18);
+        b.close(); // same burst: not counted again
+        assertThat(limiter.limit()).isEqualTo(18);
+
+        now += 6 * MS;
+        slowCall(limiter);
+        assertThat(limiter.limit()).isEqualTo(16); // 18 * 0.9 = 16.2
+    }
+
+    @Test
+    void slowCalls_neverCutTheLimitBelowTheMinimum() {
+        var limiter = limiter(4, 3, 40, 0);
+
+        for (int i = 0; i < 10; i++) {
+            slowCall(limiter);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void fastCallsAtHalfUtilisation_addOneOverTheLimitEach() {
+        var limiter = limiter(4, 1, 40, 0);
+        var held1 = limiter.acquire(Priority.CIRCULATION);
+        var held2 = limiter.acquire(Priority.CIRCULATION);
+
+        // 4 -> 4.25 -> 4.49 -> 4.71 -> 4.92 -> 5.12
+        for (int i = 0; i < 4; i++) {
+            limiter.call(Priority.CIRCULATION, () -> null);
+        }
+        assertThat(limiter.limit()).isEqualTo(4);
+        limiter.call(Priority.CIRCULATION, () -> null);
+        assertThat(limiter.limit()).isEqualTo(5);
+
+        held1.close();
+        held2.close();
+    }
+
+    @Test
+    void fastCallsOnAnIdleLimiter_doNotGrowIt_andGrowthStopsAtTheMaximum() {
+        var limiter = limiter(4, 1, 5, 0);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.call(Priority.CIRCULATION, () -> null);
+        }
+        assertThat(limiter.limit()).isEqualTo(4);
+
+        var held1 = limiter.acquire(Priority.CIRCULATION);
+        var held2 = limiter.acquire(Priority.CIRCULATION);
+        for (int i = 0; i < 100; i++) {
+            limiter.call(Priority.CIRCULATION, () -> null);
+        }
+        held1.close();
+        held2.close();
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    private void slowCall(AdaptiveConcurrencyLimiter limiter) {
+        limiter.call(Priority.CIRCULATION, () -> now += 20 * MS);
+    }
+}
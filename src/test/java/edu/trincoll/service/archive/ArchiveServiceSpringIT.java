@@ -0,0 +1,114 @@
+package edu.trincoll.service.archive;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.LoanOutcome;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.repository.shard.ShardRouter;
+import edu.trincoll.service.LibraryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"library.archive.batch-size=2", "library.archive.pause-ms=0"})
+@DirtiesContext
+class ArchiveServiceSpringIT {
+
+    @Autowired private ArchiveService archiveService;
+    @Autowired private LoanHistoryService historyService;
+    @Autowired private LibraryService libraryService;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ObjectProvider<ShardRouter> shardRouter;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.update("delete from loans");
+        jdbcTemplate.update("delete from loans_archive");
+        jdbcTemplate.update("delete from books_archive");
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        memberRepository.save(new Member("Reader", "reader@example.com"));
+    }
+
+    @Test
+    void closedLoansPastTheirAge_moveInBatches_andHistorySpansBothTiers() {
+        bookRepository.save(new Book("arch-1", "One", "Author", LocalDate.of(2020, 1, 1)));
+        for (int i = 0; i < 5; i++) {
+            libraryService.checkoutBook("arch-1", "reader@example.com");
+            libraryService.returnBook("arch-1");
+        }
+        libraryService.checkoutBook("arch-1", "reader@example.com");
+        jdbcTemplate.update("update loans set closed_on = ? where closed_on is not null", LocalDate.now().minusYears(2));
+
+        assertThat(archiveService.run(LocalDate.now())).isEqualTo(new ArchiveRun(5, 0, true));
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from loans", Integer.class)).isEqualTo(1);
+        var history = historyService.loansForMember("reader@example.com");
+        assertThat(history).hasSize(6);
+        assertThat(history.get(0).archived()).isFalse();
+        assertThat(history.get(0).closedOn()).isNull();
+        assertThat(history.subList(1, 6)).allSatisfy(loan -> {
+            assertThat(loan.archived()).isTrue();
+            assertThat(loan.outcome()).isEqualTo(LoanOutcome.RETURNED);
+        });
+        assertThat(historyService.loansForBook("arch-1")).hasSize(6);
+        assertThat(archiveService.run(LocalDate.now())).isEqualTo(new ArchiveRun(0, 0, true));
+    }
+
+    @Test
+    void batchLimit_leavesTheRestForTheNextRun() {
+        bookRepository.save(new Book("arch-2", "Two", "Author", LocalDate.of(2020, 1, 1)));
+        for (int i = 0; i < 5; i++) {
+            libraryService.checkoutBook("arch-2", "reader@example.com");
+            libraryService.returnBook("arch-2");
+        }
+        jdbcTemplate.update("update loans set closed_on = ?", LocalDate.now().minusYears(2));
+        var oneBatchPerRun = new ArchiveService(bookRepository, jdbcTemplate, transactionManager,
+                new ArchiveProperties(365, 90, 2, 0, 1), shardRouter);
+
+        assertThat(oneBatchPerRun.run(LocalDate.now())).isEqualTo(new ArchiveRun(2, 0, false));
+        assertThat(archiveService.run(LocalDate.now())).isEqualTo(new ArchiveRun(3, 0, true));
+    }
+
+    @Test
+    void retiredBooks_moveToTheArchive_andStayFindableByIsbn() {
+        bookRepository.save(new Book("lost-1", "Lost", "Author", LocalDate.of(2020, 1, 1)));
+        Book damaged = new Book("damaged-1", "Damaged", "Author", LocalDate.of(2020, 1, 1));
+        damaged.setStatus(BookStatus.DAMAGED);
+        bookRepository.save(damaged);
+        libraryService.checkoutBook("lost-1", "reader@example.com");
+        libraryService.markLost("lost-1");
+
+        // The damaged book has no retirement date yet; the first run stamps it.
+        assertThat(archiveService.run(LocalDate.now()).booksArchived()).isZero();
+        assertThat(bookRepository.findByIsbn("damaged-1")).get()
+                .extracting(Book::getRetiredOn).isEqualTo(LocalDate.now());
+
+        jdbcTemplate.update("update books set retired_on = ?", LocalDate.now().minusYears(1));
+        assertThat(archiveService.run(LocalDate.now()).booksArchived()).isEqualTo(2);
+
+        assertThat(bookRepository.findByIsbn("lost-1")).isEmpty();
+        assertThat(historyService.catalogRecord("lost-1")).get().satisfies(record -> {
+            assertThat(record.archived()).isTrue();
+            assertThat(record.status()).isEqualTo(BookStatus.LOST);
+            assertThat(record.title()).isEqualTo("Lost");
+        });
+        assertThat(historyService.loansForBook("lost-1")).singleElement()
+                .extracting(LoanRecord::outcome).isEqualTo(LoanOutcome.LOST);
+        assertThat(historyService.catalogRecord("missing")).isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package edu.trincoll.service.cardinality;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.CardinalityMetric;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.CirculationSketchRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryFacade;
+import edu.trincoll.service.LibraryService;
+import edu.trincoll.service.report.ReportType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext
+class CardinalityTrackerSpringIT {
+
+    @Autowired private CardinalityTracker tracker;
+    @Autowired private CirculationSketchRepository sketchRepository;
+    @Autowired private LibraryService libraryService;
+    @Autowired private LibraryFacade facade;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
+
+    @BeforeEach
+    void clean() {
+        tracker.flush();
+        sketchRepository.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    void dailySketches_mergeAcrossDaysAndFlushes() {
+        LocalDate firstDay = LocalDate.of(2020, 3, 1);
+        LocalDate secondDay = firstDay.plusDays(1);
+        for (int i = 0; i < 40; i++) {
+            tracker.record(firstDay, "reader" + i + "@example.com", MembershipType.REGULAR, "isbn-" + i);
+        }
+        tracker.flush();
+        for (int i = 20; i < 60; i++) {
+            tracker.record(secondDay, "reader" + i + "@example.com", MembershipType.REGULAR, "isbn-" + i);
+            tracker.record(secondDay, "reader" + i + "@example.com", MembershipType.REGULAR, "isbn-" + i);
+        }
+
+        SketchSet borrowers = tracker.sketches(CardinalityMetric.ACTIVE_BORROWERS, firstDay, secondDay);
+        assertThat(borrowers.estimate(firstDay, firstDay, "REGULAR").value()).isBetween(38L, 42L);
+        assertThat(borrowers.estimate(firstDay, secondDay, null).value()).isBetween(58L, 62L);
+        assertThat(borrowers.estimate(secondDay, secondDay, "STUDENT").value()).isZero();
+
+        tracker.flush();
+        tracker.flush();
+        assertThat(sketchRepository.count()).isEqualTo(4);
+        assertThat(tracker.sketches(CardinalityMetric.TITLES_CIRCULATED, firstDay, secondDay)
+                .estimate(firstDay, secondDay, CardinalityTracker.ALL).value()).isBetween(58L, 62L);
+    }
+
+    @Test
+    void circulationStatsReport_countsCommittedCheckoutsPerTier() {
+        Member student = new Member("Student", "student@example.com", MembershipType.STUDENT);
+        memberRepository.save(student);
+        memberRepository.save(new Member("Regular", "regular@example.com"));
+        bookRepository.save(new Book("stats-1", "One", "Author", LocalDate.of(2020, 1, 1)));
+        bookRepository.save(new Book("stats-2", "Two", "Author", LocalDate.of(2020, 1, 1)));
+
+        libraryService.checkoutBook("stats-1", "student@example.com");
+        libraryService.checkoutBook("stats-2", "regular@example.com");
+
+        String report = facade.getReport(ReportType.CIRCULATION_STATS).content();
+        assertThat(report).startsWith("Circulation Statistics Report")
+                .contains(LocalDate.now() + "  REGULAR 1 (+/-0)  PREMIUM 0 (+/-0)  STUDENT 1 (+/-0)  ALL 2 (+/-0)")
+                .contains("Distinct titles circulated since " + LocalDate.now().withDayOfMonth(1) + ": 2 (+/-0)");
+    }
+}
@@ -0,0 +1,102 @@
+package edu.trincoll.service.cardinality;
+
+import edu.trincoll.model.CardinalityMetric;
+import edu.trincoll.model.CirculationSketch;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.CirculationSketchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CardinalityTrackerTest {
+
+    private static final LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+
+    private CirculationSketchRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private CardinalityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CirculationSketchRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.findByMetricAndDateAndDimension(any(), any(), any())).thenReturn(Optional.empty());
+        when(repository.findByMetricAndDateBetween(any(), any(), any())).thenReturn(List.of());
+        tracker = new CardinalityTracker(repository, transactionManager, 12);
+    }
+
+    @Test
+    void failedCommit_keepsTheSketchPendingUntilAFlushSucceeds() {
+        tracker.record(YESTERDAY, "jane@example.com", MembershipType.REGULAR, "111");
+        doThrow(new TransactionSystemException("commit failed"))
+                .doThrow(new TransactionSystemException("commit failed"))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        assertThatThrownBy(tracker::flush).isInstanceOf(TransactionSystemException.class);
+        assertThat(estimate(CardinalityMetric.ACTIVE_BORROWERS)).isOne();
+        assertThat(estimate(CardinalityMetric.TITLES_CIRCULATED)).isOne();
+
+        tracker.flush();
+        verify(repository, times(4)).save(any(CirculationSketch.class));
+
+        // Yesterday's sketches are stored now, so they leave memory; the repository mock has none
+        assertThat(estimate(CardinalityMetric.ACTIVE_BORROWERS)).isZero();
+        tracker.flush();
+        verify(repository, times(4)).save(any(CirculationSketch.class));
+    }
+
+    @Test
+    void unexpectedFailure_isRethrown_afterTheOtherSketchesAreFlushed() {
+        tracker.record(YESTERDAY, "jane@example.com", MembershipType.REGULAR, "111");
+        when(repository.findByMetricAndDateAndDimension(eq(CardinalityMetric.ACTIVE_BORROWERS), any(), any()))
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(Optional.empty());
+
+        assertThatThrownBy(tracker::flush).hasMessage("boom");
+        verify(repository, times(1)).save(any(CirculationSketch.class));
+        assertThat(estimate(CardinalityMetric.ACTIVE_BORROWERS)).isOne();
+
+        tracker.flush();
+        verify(repository, times(2)).save(any(CirculationSketch.class));
+        assertThat(estimate(CardinalityMetric.ACTIVE_BORROWERS)).isZero();
+    }
+
+    @Test
+    void shutdown_flushesWhatIsPending() {
+        tracker.record(LocalDate.now(), "jane@example.com", MembershipType.REGULAR, "111");
+
+        tracker.shutdown();
+
+        verify(repository, times(2)).save(any(CirculationSketch.class));
+    }
+
+    @Test
+    void checkoutRecordedAfterAFlush_isFlushedAgain() {
+        LocalDate today = LocalDate.now();
+        tracker.record(today, "jane@example.com", MembershipType.REGULAR, "111");
+        tracker.flush();
+        tracker.flush();
+        verify(repository, times(2)).save(any(CirculationSketch.class));
+
+        tracker.record(today, "john@example.com", MembershipType.REGULAR, "222");
+        tracker.flush();
+        verify(repository, times(4)).save(any(CirculationSketch.class));
+    }
+
+    private long estimate(CardinalityMetric metric) {
+        return tracker.sketches(metric, YESTERDAY, YESTERDAY).estimate(YESTERDAY, YESTERDAY, null).value();
+    }
+}
@@ -0,0 +1,86 @@
+package edu.trincoll.service.coherence;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.service.BookSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A second instance is simulated by writing straight to the database and the change log under
+ * another node id. Scheduled polling is pushed out so the test drives the tailer itself.
+ */
+@SpringBootTest(properties = {
+        "library.coherence.node-id=node-a",
+        "library.coherence.poll-interval-ms=3600000",
+        "library.coherence.max-staleness-ms=60000"
+})
+@DirtiesContext
+class ChangeLogCoherenceSpringIT {
+
+    @Autowired private BookRepository bookRepository;
+    @Autowired private BookSearchService bookSearchService;
+    @Autowired private ChangeLogTailer tailer;
+    @Autowired private CoherentCache<Book> bookCache;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        bookRepository.save(new Book("coh-1", "Coherent", "Author", LocalDate.of(2000, 1, 1)));
+        tailer.poll();
+        bookCache.invalidateAll();
+    }
+
+    @Test
+    void localChangesAreLogged_andInvalidateOnCommit() {
+        assertThat(bookSearchService.searchByIsbn("coh-1")).isPresent();
+        assertThat(bookCache.size()).isEqualTo(1);
+
+        Book book = bookRepository.findByIsbn("coh-1").orElseThrow();
+        book.setStatus(BookStatus.CHECKED_OUT);
+        bookRepository.save(book);
+
+        assertThat(bookCache.size()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "select max(entity_version) from change_log where entity_key = 'coh-1' and node_id = 'node-a'", Long.class))
+                .isEqualTo(1L);
+        assertThat(bookSearchService.searchByIsbn("coh-1")).get()
+                .extracting(Book::getStatus).isEqualTo(BookStatus.CHECKED_OUT);
+    }
+
+    @Test
+    void remoteChangesAreInvalidatedByTheNextPoll() {
+        assertThat(bookSearchService.searchByIsbn("coh-1")).get()
+                .extracting(Book::getStatus).isEqualTo(BookStatus.AVAILABLE);
+        long appliedBefore = tailer.metrics().entriesApplied();
+
+        jdbcTemplate.update("update books set status = 'CHECKED_OUT', version = version + 1 where isbn = 'coh-1'");
+        jdbcTemplate.update("insert into change_log (entity_type, entity_key, entity_version, changed_at, node_id) "
+                + "values ('BOOK', 'coh-1', 1, ?, 'node-b')", Timestamp.from(Instant.now()));
+
+        // Still cached until the tailer sees the entry.
+        assertThat(bookSearchService.searchByIsbn("coh-1")).get()
+                .extracting(Book::getStatus).isEqualTo(BookStatus.AVAILABLE);
+
+        tailer.poll();
+
+        assertThat(bookSearchService.searchByIsbn("coh-1")).get()
+                .extracting(Book::getStatus).isEqualTo(BookStatus.CHECKED_OUT);
+        CoherenceMetrics metrics = tailer.metrics();
+        assertThat(metrics.entriesApplied()).isEqualTo(appliedBefore + 1);
+        assertThat(metrics.pendingGaps()).isZero();
+        assertThat(metrics.pollFailures()).isZero();
+    }
+}
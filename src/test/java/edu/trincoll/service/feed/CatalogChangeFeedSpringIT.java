@@ -0,0 +1,151 @@
+package edu.trincoll.service.feed;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.BookService;
+import edu.trincoll.service.LibraryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "library.feed.gap-timeout-ms=300")
+@DirtiesContext
+class CatalogChangeFeedSpringIT {
+
+    @Autowired private CatalogChangeFeed feed;
+    @Autowired private CatalogChangeRecorder recorder;
+    @Autowired private LibraryService libraryService;
+    @Autowired private BookService bookService;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private long head;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        bookRepository.save(new Book("feed-1", "Delta", "Author", LocalDate.of(2000, 1, 1)));
+        bookRepository.save(new Book("feed-2", "Epsilon", "Author", LocalDate.of(2000, 1, 1)));
+        memberRepository.save(new Member("Reader", "reader@example.com"));
+        head = feed.head();
+    }
+
+    @Test
+    void everyTransition_isEmittedInOrder_withResumableCursors() {
+        libraryService.checkoutBook("feed-1", "reader@example.com");
+        libraryService.returnBook("feed-1");
+        bookService.placeHold(bookService.findByIsbn("feed-2"), member(), 3);
+        libraryService.markLost("feed-1");
+
+        ChangeBatch first = feed.read(head, 2);
+        assertThat(first.changes()).extracting(CatalogChange::toStatus)
+                .containsExactly(BookStatus.CHECKED_OUT, BookStatus.AVAILABLE);
+        assertThat(first.changes().get(0).fromStatus()).isEqualTo(BookStatus.AVAILABLE);
+        assertThat(first.changes().get(0).memberEmail()).isEqualTo("reader@example.com");
+        assertThat(first.cursor()).isEqualTo(first.changes().get(1).offset());
+
+        ChangeBatch rest = feed.read(first.cursor(), 10);
+        assertThat(rest.changes()).extracting(CatalogChange::isbn, CatalogChange::toStatus)
+                .containsExactly(
+                        tuple("feed-2", BookStatus.RESERVED),
+                        tuple("feed-1", BookStatus.LOST));
+        assertThat(rest.changes().get(0).offset()).isEqualTo(first.cursor() + 1);
+        assertThat(feed.read(rest.cursor(), 10).changes()).isEmpty();
+        assertThat(feed.head()).isEqualTo(rest.cursor());
+    }
+
+    @Test
+    void markLost_releasesTheBorrowersCheckout() {
+        libraryService.checkoutBook("feed-1", "reader@example.com");
+
+        assertThat(libraryService.markLost("feed-1")).isEqualTo("Book marked as lost");
+        assertThat(libraryService.markLost("feed-1")).isEqualTo("Book is already marked as lost");
+        assertThat(member().getBooksCheckedOut()).isZero();
+        assertThat(bookService.findByIsbn("feed-1").getCheckedOutBy()).isNull();
+    }
+
+    @Test
+    void longPoll_completesWhenAChangeCommits() throws Exception {
+        DeferredResult<ChangeBatch> result = feed.longPoll(head, 10, 5000);
+        assertThat(result.hasResult()).isFalse();
+
+        libraryService.checkoutBook("feed-1", "reader@example.com");
+
+        ChangeBatch batch = awaitResult(result);
+        assertThat(batch.changes()).singleElement()
+                .extracting(CatalogChange::toStatus).isEqualTo(BookStatus.CHECKED_OUT);
+    }
+
+    @Test
+    void aLaterOffset_isHeldUntilAnEarlierInFlightOneCommits() throws Exception {
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    recorder.record("feed-1", BookStatus.AVAILABLE, BookStatus.DAMAGED, null);
+                    recorded.countDown();
+                    await(release);
+                }));
+        assertThat(recorded.await(5, TimeUnit.SECONDS)).isTrue();
+
+        recorder.record("feed-2", BookStatus.AVAILABLE, BookStatus.DAMAGED, null);
+        assertThat(feed.read(head, 10).changes()).isEmpty();
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        assertThat(feed.read(head, 10).changes()).extracting(CatalogChange::isbn)
+                .containsExactly("feed-1", "feed-2");
+    }
+
+    @Test
+    void aRolledBackOffset_isSkippedAfterTheGapTimeout() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            recorder.record("feed-1", BookStatus.AVAILABLE, BookStatus.DAMAGED, null);
+            status.setRollbackOnly();
+        });
+        recorder.record("feed-2", BookStatus.AVAILABLE, BookStatus.DAMAGED, null);
+        assertThat(feed.read(head, 10).changes()).isEmpty();
+
+        Thread.sleep(400);
+        assertThat(feed.read(head, 10).changes()).extracting(CatalogChange::isbn).containsExactly("feed-2");
+    }
+
+    private Member member() {
+        return memberRepository.findByEmail("reader@example.com").orElseThrow();
+    }
+
+    private static ChangeBatch awaitResult(DeferredResult<ChangeBatch> result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(result.hasResult()).isTrue();
+        return (ChangeBatch) result.getResult();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package edu.trincoll.service.holdings;
+
+import edu.trincoll.model.BookCopy;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookCopyRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.repository.TitleRepository;
+import edu.trincoll.service.report.CirculationVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@DirtiesContext
+class HoldingsServiceSpringIT {
+
+    private static final String ISBN = "bestseller-1";
+
+    @Autowired private HoldingsService holdingsService;
+    @Autowired private TitleRepository titleRepository;
+    @Autowired private BookCopyRepository copyRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private CirculationVersion circulationVersion;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from loans");
+        copyRepository.deleteAll();
+        titleRepository.deleteAll();
+        memberRepository.deleteAll();
+        holdingsService.addTitle(ISBN, "Bestseller", "Author", LocalDate.of(2024, 1, 1));
+        memberRepository.save(new Member("Reader", "reader@example.com"));
+    }
+
+    @Test
+    void copies_areCountedByTheTitleCounters() {
+        addCopies(3);
+
+        var availability = holdingsService.availability(ISBN);
+        assertThat(availability.getTotalCopies()).isEqualTo(3);
+        assertThat(availability.getAvailableCopies()).isEqualTo(3);
+        assertThatThrownBy(() -> holdingsService.addCopy(ISBN, "BC-0"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> holdingsService.addTitle(ISBN, "Again", "Author", LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void checkoutAndReturn_moveOneCopyAndTheCounter() {
+        addCopies(2);
+        long version = circulationVersion.current();
+
+        String result = holdingsService.checkoutCopy(ISBN, "reader@example.com");
+
+        assertThat(result).matches("Copy BC-\\d checked out successfully\\. Due date: .*");
+        String barcode = result.split(" ")[1];
+        BookCopy copy = copyRepository.findByBarcode(barcode).orElseThrow();
+        assertThat(copy.getStatus()).isEqualTo(BookStatus.CHECKED_OUT);
+        assertThat(copy.getCheckedOutBy()).isEqualTo("reader@example.com");
+        assertThat(copy.getDueDate()).isEqualTo(LocalDate.now().plusDays(14));
+        assertThat(holdingsService.availability(ISBN).getAvailableCopies()).isEqualTo(1);
+        assertThat(member().getBooksCheckedOut()).isEqualTo(1);
+        assertThat(openLoans()).isEqualTo(1);
+        assertThat(circulationVersion.current()).isEqualTo(version + 1);
+
+        assertThat(holdingsService.returnCopy(barcode)).isEqualTo("Copy returned successfully");
+        assertThat(holdingsService.returnCopy(barcode)).isEqualTo("Copy is not checked out");
+        assertThat(holdingsService.availability(ISBN).getAvailableCopies()).isEqualTo(2);
+        assertThat(member().getBooksCheckedOut()).isZero();
+        assertThat(openLoans()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from loans where isbn = ? and outcome = 'RETURNED'", Integer.class, ISBN)).isEqualTo(1);
+        assertThat(circulationVersion.current()).isEqualTo(version + 2);
+    }
+
+    @Test
+    void checkout_withNoCopyLeft_isRefused() {
+        addCopies(1);
+        memberRepository.save(new Member("Other", "other@example.com"));
+        holdingsService.checkoutCopy(ISBN, "reader@example.com");
+
+        assertThat(holdingsService.checkoutCopy(ISBN, "other@example.com")).isEqualTo("No copies available");
+        assertThat(holdingsService.availability(ISBN).getAvailableCopies()).isZero();
+    }
+
+    @Test
+    void lateReturn_chargesTheTierFee() {
+        addCopies(1);
+        String barcode = holdingsService.checkoutCopy(ISBN, "reader@example.com").split(" ")[1];
+        jdbcTemplate.update("update book_copies set due_date = ? where barcode = ?",
+                Date.valueOf(LocalDate.now().minusDays(5)), barcode);
+
+        assertThat(holdingsService.returnCopy(barcode)).isEqualTo("Copy returned. Late fee: $2.50");
+    }
+
+    @Test
+    void concurrentCheckouts_neverLendMoreCopiesThanExist() throws Exception {
+        int copies = 40;
+        int borrowers = 60;
+        addCopies(copies);
+        for (int i = 0; i < borrowers; i++) {
+            memberRepository.save(new Member("Borrower " + i, "borrower" + i + "@example.com"));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < borrowers; i++) {
+                String email = "borrower" + i + "@example.com";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return holdingsService.checkoutCopy(ISBN, email);
+                }));
+            }
+            start.countDown();
+            int lent = 0;
+            for (Future<String> result : results) {
+                if (result.get().startsWith("Copy ")) {
+                    lent++;
+                } else {
+                    assertThat(result.get()).isEqualTo("No copies available");
+                }
+            }
+            assertThat(lent).isEqualTo(copies);
+        }
+
+        assertThat(holdingsService.availability(ISBN).getAvailableCopies()).isZero();
+        List<BookCopy> all = copyRepository.findAll();
+        assertThat(all).allMatch(c -> c.getStatus() == BookStatus.CHECKED_OUT);
+        assertThat(all).extracting(BookCopy::getCheckedOutBy).doesNotHaveDuplicates();
+    }
+
+    private void addCopies(int count) {
+        for (int i = 0; i < count; i++) {
+            holdingsService.addCopy(ISBN, "BC-" + i);
+        }
+    }
+
+    private int openLoans() {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from loans where isbn = ? and member_email = ? and closed_on is null",
+                Integer.class, ISBN, "reader@example.com");
+    }
+
+    private Member member() {
+        return memberRepository.findByEmail("reader@example.com").orElseThrow();
+    }
+}
@@ -0,0 +1,122 @@
+package edu.trincoll.service.idempotency;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.IdempotencyRecord;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.IdempotencyRecordRepository;
+import edu.trincoll.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "library.idempotency.wait-timeout-ms=200",
+        "library.idempotency.lease-ms=5000"
+})
+@DirtiesContext
+class IdempotentCirculationSpringIT {
+
+    @Autowired private IdempotentCirculationService circulation;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private IdempotencyRecordRepository idempotencyRecords;
+
+    @BeforeEach
+    void seed() {
+        idempotencyRecords.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        bookRepository.save(new Book("idem-1", "Retry", "Author", LocalDate.of(2000, 1, 1)));
+        memberRepository.save(new Member("Kiosk User", "kiosk@example.com"));
+    }
+
+    @Test
+    void retriedCheckoutAndReturn_replayTheOriginalResponse() {
+        String first = circulation.checkoutBook("k-1", "idem-1", "kiosk@example.com");
+        String retry = circulation.checkoutBook("k-1", "idem-1", "kiosk@example.com");
+
+        assertThat(first).startsWith("Book checked out successfully");
+        assertThat(retry).isEqualTo(first);
+        assertThat(booksCheckedOut()).isEqualTo(1);
+
+        assertThat(circulation.returnBook("k-2", "idem-1")).isEqualTo("Book returned successfully");
+        assertThat(circulation.returnBook("k-2", "idem-1")).isEqualTo("Book returned successfully");
+        assertThat(booksCheckedOut()).isZero();
+    }
+
+    @Test
+    void concurrentDuplicates_runTheCheckoutOnce() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return circulation.checkoutBook("k-3", "idem-1", "kiosk@example.com");
+                }));
+            }
+            start.countDown();
+            String expected = responses.get(0).get();
+            assertThat(expected).startsWith("Book checked out successfully");
+            for (Future<String> response : responses) {
+                assertThat(response.get()).isEqualTo(expected);
+            }
+        }
+        assertThat(booksCheckedOut()).isEqualTo(1);
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequest_isRejected() {
+        circulation.checkoutBook("k-4", "idem-1", "kiosk@example.com");
+
+        assertThatThrownBy(() -> circulation.returnBook("k-4", "idem-1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different request");
+    }
+
+    @Test
+    void keyClaimedByARunningRequest_isAConflict() {
+        Instant now = Instant.now();
+        idempotencyRecords.saveAndFlush(new IdempotencyRecord("k-5", "checkout:idem-1:kiosk@example.com",
+                now, now.plus(Duration.ofDays(1))));
+
+        assertThatThrownBy(() -> circulation.checkoutBook("k-5", "idem-1", "kiosk@example.com"))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(booksCheckedOut()).isZero();
+    }
+
+    @Test
+    void claimAbandonedPastItsLease_isTakenOverByTheRetry() {
+        Instant crashedAt = Instant.now().minus(Duration.ofMinutes(1));
+        idempotencyRecords.saveAndFlush(new IdempotencyRecord("k-6", "checkout:idem-1:kiosk@example.com",
+                crashedAt, crashedAt.plus(Duration.ofDays(1))));
+
+        String response = circulation.checkoutBook("k-6", "idem-1", "kiosk@example.com");
+
+        assertThat(response).startsWith("Book checked out successfully");
+        assertThat(idempotencyRecords.findById("k-6")).get()
+                .extracting(IdempotencyRecord::getResponse).isEqualTo(response);
+        assertThat(booksCheckedOut()).isEqualTo(1);
+    }
+
+    private int booksCheckedOut() {
+        return memberRepository.findByEmail("kiosk@example.com").orElseThrow().getBooksCheckedOut();
+    }
+}
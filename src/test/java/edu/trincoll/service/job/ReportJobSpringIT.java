@@ -0,0 +1,165 @@
+package edu.trincoll.service.job;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.service.coherence.CoherenceProperties;
+import edu.trincoll.service.report.AvailabilityReportGenerator;
+import edu.trincoll.service.report.CirculationStatsReportGenerator;
+import edu.trincoll.service.report.MemberActivityReportGenerator;
+import edu.trincoll.service.report.OverdueReportGenerator;
+import edu.trincoll.service.report.ReportType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+class ReportJobSpringIT {
+
+    @Autowired private ReportJobService reportJobService;
+    @Autowired private AvailabilityReportGenerator availabilityReportGenerator;
+    @Autowired private OverdueReportGenerator overdueReportGenerator;
+    @Autowired private MemberActivityReportGenerator memberActivityReportGenerator;
+    @Autowired private CirculationStatsReportGenerator circulationStatsReportGenerator;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private TestRestTemplate http;
+
+    @TempDir
+    Path spool;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        bookRepository.save(new Book("job-1", "beta", "Author B", LocalDate.of(2000, 1, 1)));
+        bookRepository.save(new Book("job-2", "Alpha", "Author A", LocalDate.of(2000, 1, 1)));
+        Book out = new Book("job-3", "Gamma", "Author C", LocalDate.of(2000, 1, 1));
+        out.setStatus(BookStatus.CHECKED_OUT);
+        bookRepository.save(out);
+    }
+
+    @Test
+    void availabilityJob_spoolsTheSameReportTheSynchronousPathReturns() throws Exception {
+        ReportJob job = http.postForObject("/api/report-jobs?type=availability", null, ReportJob.class);
+        assertThat(job.status()).isIn(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING);
+
+        ReportJob done = awaitFinished(reportJobService, job.id());
+        assertThat(done.status()).isEqualTo(ReportJobStatus.SUCCEEDED);
+        assertThat(done.sizeBytes()).isPositive();
+
+        ResponseEntity<byte[]> download = http.getForEntity("/api/report-jobs/" + job.id() + "/result", byte[].class);
+        assertThat(download.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(download.getHeaders().getContentType().toString()).isEqualTo("application/gzip");
+        assertThat(gunzip(download.getBody())).isEqualTo(availabilityReportGenerator.generateReport());
+    }
+
+    @Test
+    void download_honoursRangeRequests() throws Exception {
+        String id = reportJobService.submit(ReportType.OVERDUE).id();
+        awaitFinished(reportJobService, id);
+        byte[] whole = Files.readAllBytes(reportJobService.result(id));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=5-14");
+        ResponseEntity<byte[]> part = http.exchange("/api/report-jobs/" + id + "/result", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+
+        assertThat(part.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(part.getBody()).isEqualTo(Arrays.copyOfRange(whole, 5, 15));
+    }
+
+    @Test
+    void unknownJob_isNotFound_andUnfinishedResult_isRejected() {
+        assertThat(http.getForEntity("/api/report-jobs/nope", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThatThrownBy(() -> reportJobService.result("nope")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cleanup_removesTheOldestResultsOverTheSizeBudget() throws Exception {
+        ReportJobService small = new ReportJobService(availabilityReportGenerator, overdueReportGenerator,
+                memberActivityReportGenerator, circulationStatsReportGenerator,
+                new ReportJobProperties(spool, 2, 10, 1, Map.of(), 1440, 1), node("small"));
+        try {
+            String first = small.submit(ReportType.AVAILABILITY).id();
+            awaitFinished(small, first);
+            Path firstFile = small.result(first);
+
+            small.cleanup();
+
+            assertThat(firstFile).doesNotExist();
+            assertThatThrownBy(() -> small.status(first)).isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void instancesSharingASpoolDir_keepTheirResultsApart() throws Exception {
+        ReportJobProperties shared = new ReportJobProperties(spool, 1, 10, 1, Map.of(), 1440, 1 << 30);
+        ReportJobService first = new ReportJobService(availabilityReportGenerator, overdueReportGenerator,
+                memberActivityReportGenerator, circulationStatsReportGenerator, shared, node("node-a"));
+        ReportJobService second = null;
+        try {
+            String id = first.submit(ReportType.AVAILABILITY).id();
+            awaitFinished(first, id);
+            Path result = first.result(id);
+
+            second = new ReportJobService(availabilityReportGenerator, overdueReportGenerator,
+                    memberActivityReportGenerator, circulationStatsReportGenerator, shared, node("node-b"));
+
+            assertThat(result).exists().hasParent(spool.resolve("node-a"));
+        } finally {
+            first.shutdown();
+            if (second != null) {
+                second.shutdown();
+            }
+        }
+        assertThat(spool.resolve("node-a")).doesNotExist();
+        assertThat(spool.resolve("node-b")).doesNotExist();
+    }
+
+    private static CoherenceProperties node(String nodeId) {
+        return new CoherenceProperties(nodeId, 250, 500, 2000, 10000, 60, 10000);
+    }
+
+    private static ReportJob awaitFinished(ReportJobService service, String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ReportJob job = service.status(id);
+        while ((job.status() == ReportJobStatus.QUEUED || job.status() == ReportJobStatus.RUNNING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            job = service.status(id);
+        }
+        return job;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
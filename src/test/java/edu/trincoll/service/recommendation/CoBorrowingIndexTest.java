@@ -0,0 +1,87 @@
+package edu.trincoll.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoBorrowingIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void titlesBorrowedByTheSameMembers_rankByHowManyMembersSharedThem() {
+        var index = new CoBorrowingIndex(8, 4, dir.resolve("index.bin"));
+        for (int m = 0; m < 5; m++) {
+            index.record("m" + m + "@example.com", "dune");
+            index.record("m" + m + "@example.com", "foundation");
+        }
+        index.record("m0@example.com", "hyperion");
+        index.record("m1@example.com", "hyperion");
+        index.record("m9@example.com", "emma");
+
+        assertThat(index.alsoBorrowed("dune", 10)).containsExactly(
+                new CoBorrowed("foundation", 5),
+                new CoBorrowed("hyperion", 2));
+        assertThat(index.alsoBorrowed("hyperion", 1)).hasSize(1);
+        assertThat(index.alsoBorrowed("emma", 10)).isEmpty();
+        assertThat(index.alsoBorrowed("unknown", 10)).isEmpty();
+    }
+
+    @Test
+    void reborrowingATitle_doesNotCountItsPairsAgain() {
+        var index = new CoBorrowingIndex(8, 4, dir.resolve("index.bin"));
+        index.record("a@example.com", "dune");
+        index.record("a@example.com", "emma");
+        index.record("a@example.com", "dune");
+        index.record("a@example.com", "dune");
+
+        assertThat(index.alsoBorrowed("dune", 10)).containsExactly(new CoBorrowed("emma", 1));
+    }
+
+    @Test
+    void historyIsBounded_andFullNeighbourListsKeepTheStrongest() {
+        var index = new CoBorrowingIndex(2, 2, dir.resolve("index.bin"));
+        index.record("a@example.com", "t1");
+        index.record("a@example.com", "t2");
+        index.record("a@example.com", "t3");
+        index.record("a@example.com", "t4"); // t1 has left the history: no t1-t4 pair
+        assertThat(index.alsoBorrowed("t4", 10)).extracting(CoBorrowed::isbn).containsExactlyInAnyOrder("t2", "t3");
+
+        for (int m = 0; m < 3; m++) {
+            index.record("b" + m + "@example.com", "t1");
+            index.record("b" + m + "@example.com", "t2");
+        }
+        index.record("c@example.com", "t1");
+        index.record("c@example.com", "t9");
+
+        assertThat(index.alsoBorrowed("t1", 10)).hasSize(2)
+                .first().isEqualTo(new CoBorrowed("t2", 4));
+    }
+
+    @Test
+    void checkpoint_roundTripsTheIndexAndMemberHistories() {
+        Path file = dir.resolve("nested/index.bin");
+        var index = new CoBorrowingIndex(8, 4, file);
+        index.record("a@example.com", "dune");
+        index.record("a@example.com", "emma");
+        index.checkpoint();
+
+        var restored = new CoBorrowingIndex(8, 4, file);
+        assertThat(restored.alsoBorrowed("dune", 10)).containsExactly(new CoBorrowed("emma", 1));
+
+        restored.record("a@example.com", "hyperion");
+        assertThat(restored.alsoBorrowed("hyperion", 10)).extracting(CoBorrowed::isbn)
+                .containsExactlyInAnyOrder("dune", "emma");
+    }
+
+    @Test
+    void rejectsNonPositiveLimits() {
+        var index = new CoBorrowingIndex(8, 4, dir.resolve("index.bin"));
+        assertThatThrownBy(() -> index.alsoBorrowed("dune", 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,151 @@
+package edu.trincoll.service.reminder;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.ChangeLogEntityType;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryService;
+import edu.trincoll.service.coherence.CoherentCache;
+import edu.trincoll.service.notification.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DueDateReminderSchedulerTest {
+
+    private BookRepository bookRepository;
+    private MemberRepository memberRepository;
+    private NotificationService notificationService;
+    private LibraryService libraryService;
+    private DueDateReminderScheduler scheduler;
+
+    private Book book;
+    private Member member;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        memberRepository = mock(MemberRepository.class);
+        notificationService = mock(NotificationService.class);
+        libraryService = mock(LibraryService.class);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<LibraryService> libraryServiceProvider = mock(ObjectProvider.class);
+        when(libraryServiceProvider.getObject()).thenReturn(libraryService);
+        scheduler = new DueDateReminderScheduler(bookRepository, memberRepository,
+                new CoherentCache<>(ChangeLogEntityType.MEMBER, 100, 2000), notificationService,
+                libraryServiceProvider, 2);
+
+        book = new Book("111", "Dune", "Herbert", LocalDate.of(1965, 8, 1));
+        member = new Member("Jane", "jane@example.com");
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(book));
+        when(memberRepository.findByEmail("jane@example.com")).thenReturn(Optional.of(member));
+    }
+
+    @Test
+    void wheel_firesEachEntryOnItsDeadline_acrossLevels() {
+        TimingWheel<String, Long> wheel = new TimingWheel<>(1_000);
+        long[] deadlines = {1_001, 1_063, 1_064, 1_065, 5_095, 5_096, 300_000};
+        for (long d : deadlines) {
+            wheel.schedule("k" + d, d, d);
+        }
+
+        List<long[]> fired = new ArrayList<>();
+        wheel.advanceTo(300_000, (key, deadline) -> fired.add(new long[]{deadline, wheel.currentDay()}));
+
+        assertThat(fired).hasSize(deadlines.length);
+        assertThat(fired).allSatisfy(f -> assertThat(f[1]).isEqualTo(f[0]));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void wheel_cancelRemovesEntry_andPastDeadlinesAreRejected() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(10);
+
+        assertThat(wheel.schedule("past", 10, "x")).isFalse();
+        assertThat(wheel.schedule("a", 20, "a")).isTrue();
+        assertThat(wheel.cancel("a")).isEqualTo("a");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(30, (k, v) -> fired.add(v));
+        assertThat(fired).isEmpty();
+    }
+
+    @Test
+    void checkout_sendsReminderTwoDaysBeforeDue() {
+        LocalDate due = LocalDate.now().plusDays(14);
+        book.setStatus(BookStatus.CHECKED_OUT);
+        book.setDueDate(due);
+
+        scheduler.onCheckout(book, member);
+        scheduler.advanceTo(due.minusDays(3));
+        verifyNoInteractions(notificationService);
+
+        scheduler.advanceTo(due.minusDays(2));
+        verify(notificationService).sendDueDateReminder(member, book, due);
+        assertThat(scheduler.pendingReminders()).isZero();
+    }
+
+    @Test
+    void return_cancelsPendingReminder() {
+        book.setDueDate(LocalDate.now().plusDays(14));
+        scheduler.onCheckout(book, member);
+
+        scheduler.onReturn(book, member.getEmail());
+        scheduler.advanceTo(LocalDate.now().plusDays(30));
+
+        assertThat(scheduler.pendingReminders()).isZero();
+        verify(notificationService, never()).sendDueDateReminder(any(), any(), any());
+    }
+
+    @Test
+    void loanShorterThanReminderLead_firesOnNextTick() {
+        LocalDate due = LocalDate.now().plusDays(1);
+        book.setStatus(BookStatus.CHECKED_OUT);
+        book.setDueDate(due);
+
+        scheduler.onCheckout(book, member);
+        assertThat(scheduler.pendingReminders()).isOne();
+
+        scheduler.advanceTo(LocalDate.now().plusDays(1));
+        verify(notificationService).sendDueDateReminder(member, book, due);
+    }
+
+    @Test
+    void hold_expiresTheDayAfterItsLastDay_andReleasesTheBook() {
+        LocalDate holdUntil = LocalDate.now().plusDays(3);
+        book.setStatus(BookStatus.RESERVED);
+        book.setDueDate(holdUntil);
+        when(libraryService.releaseExpiredHold("111", "jane@example.com", holdUntil)).thenReturn(true);
+
+        scheduler.onHold(book, member);
+        scheduler.advanceTo(holdUntil);
+        verifyNoInteractions(notificationService, libraryService);
+
+        scheduler.advanceTo(holdUntil.plusDays(1));
+        verify(libraryService).releaseExpiredHold("111", "jane@example.com", holdUntil);
+        verify(notificationService).sendHoldExpiredNotification(member, book);
+    }
+
+    @Test
+    void hold_pickedUpBeforeRelease_sendsNoExpiryNotice() {
+        LocalDate holdUntil = LocalDate.now().plusDays(1);
+        book.setDueDate(holdUntil);
+        when(libraryService.releaseExpiredHold(any(), any(), any())).thenReturn(false);
+
+        scheduler.onHold(book, member);
+        scheduler.advanceTo(holdUntil.plusDays(1));
+
+        verify(notificationService, never()).sendHoldExpiredNotification(any(), any());
+    }
+}
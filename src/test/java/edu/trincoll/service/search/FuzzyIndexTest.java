@@ -0,0 +1,108 @@
+package edu.trincoll.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FuzzyIndexTest {
+
+    private final FuzzyIndex index = new FuzzyIndex.Builder()
+            .add("3", "Harry Potter and the Chamber of Secrets")
+            .add("1", "Harry Potter and the Philosopher's Stone")
+            .add("2", "Hairy Pottery Techniques")
+            .add("4", "Les Mis\u00e9rables")
+            .add("5", "The Pottery Barn")
+            .add("6", "   ")
+            .build();
+
+    @Test
+    void findsTitlesWithATypoInEveryWord_fewestEditsFirstThenByIsbn() {
+        assertThat(index.search("Hary Poter", 2, 10, 1000)).containsExactly(
+                new FuzzyMatch("1", 2), new FuzzyMatch("3", 2));
+        assertThat(index.search("Hairy Potery", 2, 10, 1000)).containsExactly(
+                new FuzzyMatch("2", 1), new FuzzyMatch("1", 3), new FuzzyMatch("3", 3));
+    }
+
+    @Test
+    void everyQueryWordMustMatch() {
+        assertThat(index.search("Harry Stone", 2, 10, 1000)).containsExactly(new FuzzyMatch("1", 0));
+        assertThat(index.search("Harry Zebra", 2, 10, 1000)).isEmpty();
+    }
+
+    @Test
+    void shortWordsGetFewerEdits() {
+        // "of" must match exactly; "bar" (3 letters) allows one edit.
+        assertThat(index.search("if", 2, 10, 1000)).isEmpty();
+        assertThat(index.search("bar", 2, 10, 1000)).containsExactly(new FuzzyMatch("5", 1));
+        assertThat(index.search("Hary", 0, 10, 1000)).isEmpty();
+    }
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertThat(index.search("MISERABLES", 2, 10, 1000)).containsExactly(new FuzzyMatch("4", 0));
+        assertThat(FuzzyIndex.tokens("Les Mis\u00e9rables, vol. 2")).containsExactly("les", "miserables", "vol", "2");
+    }
+
+    @Test
+    void limitKeepsTheBest_andBlankTextsAreNotIndexed() {
+        assertThat(index.search("Potter", 2, 1, 1000)).containsExactly(new FuzzyMatch("1", 0));
+        assertThat(index.books()).isEqualTo(5);
+        assertThat(FuzzyIndex.empty().search("anything", 2, 10, 1000)).isEmpty();
+        assertThatThrownBy(() -> index.search("x", 2, 0, 1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void indexes_isTrueOnlyWhenReindexingTheTextWouldChangeNothing() {
+        assertThat(index.indexes("5", "the pottery barn!")).isTrue();
+        assertThat(index.indexes("5", "Pottery Barn, The")).isTrue();
+        assertThat(index.indexes("5", "The Pottery Barn Cookbook")).isFalse();
+        assertThat(index.indexes("5", "The Pottery")).isFalse();
+        assertThat(index.indexes("5", null)).isFalse();
+        assertThat(index.indexes("6", "")).isTrue();
+        assertThat(index.indexes("7", null)).isTrue();
+        assertThat(index.indexes("7", "New Arrival")).isFalse();
+    }
+
+    @Test
+    void dictionaryLookupAgreesWithBruteForce() {
+        List<String> words = List.of("a", "ab", "abc", "abd", "abcd", "acbd", "b", "bcd", "bd", "dcba", "xyz");
+        char[][] terms = words.stream().map(String::toCharArray).toArray(char[][]::new);
+        TermDictionary dictionary = new TermDictionary(terms);
+        for (String query : List.of("abcd", "bd", "x", "abdc", "zzzz")) {
+            for (int k = 0; k <= 3; k++) {
+                Map<Integer, Integer> found = new TreeMap<>();
+                dictionary.search(query.toCharArray(), k, found::put);
+                Map<Integer, Integer> expected = new TreeMap<>();
+                for (int term = 0; term < words.size(); term++) {
+                    int distance = levenshtein(query, words.get(term));
+                    if (distance <= k) {
+                        expected.put(term, distance);
+                    }
+                }
+                assertThat(found).as("%s within %d", query, k).isEqualTo(expected);
+            }
+        }
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                d[i][j] = Math.min(substitution, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
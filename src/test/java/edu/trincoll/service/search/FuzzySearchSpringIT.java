@@ -0,0 +1,79 @@
+package edu.trincoll.service.search;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.service.BookSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext
+class FuzzySearchSpringIT {
+
+    @Autowired private FuzzySearchIndex fuzzySearchIndex;
+    @Autowired private BookSearchService bookSearchService;
+    @Autowired private RankedSearchService rankedSearchService;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void catalog() {
+        jdbcTemplate.update("delete from loans");
+        bookRepository.deleteAll();
+        bookRepository.save(new Book("fz-1", "Harry Potter and the Goblet of Fire", "J. K. Rowling", LocalDate.of(2000, 7, 8)));
+        bookRepository.save(new Book("fz-2", "The Hobbit", "J. R. R. Tolkien", LocalDate.of(1937, 9, 21)));
+        bookRepository.save(new Book("fz-3", "Harry's Pottery Guide", "Harriet Potts", LocalDate.of(2015, 1, 1)));
+        fuzzySearchIndex.rebuild();
+    }
+
+    @Test
+    void typosFindTitlesAndAuthors_afterTheExactMatches() {
+        assertThat(bookSearchService.searchByTitle("Hary Poter")).extracting(Book::getIsbn).containsExactly("fz-1");
+        assertThat(bookSearchService.searchByTitle("Hobit")).extracting(Book::getIsbn).containsExactly("fz-2");
+        assertThat(bookSearchService.searchByAuthor("Tolkein")).extracting(Book::getIsbn).containsExactly("fz-2");
+        // Authors match on a substring, as titles do
+        assertThat(bookSearchService.searchByAuthor("tolkien")).extracting(Book::getIsbn).containsExactly("fz-2");
+        assertThat(bookSearchService.searchByTitle("Potter")).extracting(Book::getIsbn)
+                .containsExactlyInAnyOrder("fz-1", "fz-3");
+
+        assertThat(rankedSearchService.search(SearchField.TITLE, "Hary Poter", null, null).results())
+                .extracting(Book::getIsbn).containsExactly("fz-1");
+    }
+
+    @Test
+    void rebuildsOnlyAfterTheCatalogChanges_andDropsDeletedBooks() {
+        assertThat(fuzzySearchIndex.rebuild()).isFalse();
+
+        bookRepository.delete(bookRepository.findByIsbn("fz-2").orElseThrow());
+        assertThat(bookSearchService.searchByTitle("Hobit")).isEmpty();
+
+        assertThat(fuzzySearchIndex.rebuild()).isTrue();
+        assertThat(fuzzySearchIndex.search(SearchField.TITLE, "Hobit")).isEmpty();
+    }
+
+    @Test
+    void skipsTheRebuild_whenOnlyCirculationFieldsChanged() {
+        Book hobbit = bookRepository.findByIsbn("fz-2").orElseThrow();
+        hobbit.setStatus(BookStatus.CHECKED_OUT);
+        bookRepository.save(hobbit);
+        assertThat(fuzzySearchIndex.rebuild()).isFalse();
+        assertThat(fuzzySearchIndex.search(SearchField.TITLE, "Hobit")).extracting(FuzzyMatch::isbn)
+                .containsExactly("fz-2");
+
+        Book renamed = bookRepository.findByIsbn("fz-2").orElseThrow();
+        renamed.setTitle("The Hobbit, or There and Back Again");
+        bookRepository.save(renamed);
+        assertThat(fuzzySearchIndex.rebuild()).isTrue();
+        assertThat(fuzzySearchIndex.search(SearchField.TITLE, "Bak Agan")).extracting(FuzzyMatch::isbn)
+                .containsExactly("fz-2");
+    }
+}
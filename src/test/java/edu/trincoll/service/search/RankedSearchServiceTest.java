@@ -0,0 +1,144 @@
+package edu.trincoll.service.search;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.SearchCandidateView;
+import edu.trincoll.service.trending.TrendingTracker;
+import edu.trincoll.service.trending.TrendingWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class RankedSearchServiceTest {
+
+    private BookRepository bookRepository;
+    private FuzzySearchIndex fuzzySearchIndex;
+    private RankedSearchService service;
+    private final List<SearchCandidateView> candidates = new ArrayList<>();
+    private final Map<String, Long> checkouts = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        fuzzySearchIndex = mock(FuzzySearchIndex.class);
+        TrendingTracker trendingTracker = mock(TrendingTracker.class);
+        when(trendingTracker.estimator(TrendingWindow.WEEK))
+                .thenReturn(isbn -> checkouts.getOrDefault(isbn, 0L));
+        when(bookRepository.streamTitleMatches(any())).thenAnswer(invocation -> candidates.stream());
+        when(bookRepository.findByIsbnIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> isbns = invocation.getArgument(0);
+            return isbns.stream()
+                    .map(isbn -> new Book(isbn, "Title " + isbn, "Author", LocalDate.of(2020, 1, 1)))
+                    .toList();
+        });
+        service = new RankedSearchService(bookRepository, trendingTracker, fuzzySearchIndex, 2, 3);
+    }
+
+    @Test
+    void ranksExactThenPrefixThenContains_thenAvailability_thenPopularity() {
+        candidates.add(new Candidate("contains", "Learning Java", BookStatus.AVAILABLE));
+        candidates.add(new Candidate("prefix-popular", "Java Concurrency", BookStatus.AVAILABLE));
+        candidates.add(new Candidate("prefix-out", "Java Puzzlers", BookStatus.CHECKED_OUT));
+        candidates.add(new Candidate("prefix", "Java Generics", BookStatus.AVAILABLE));
+        candidates.add(new Candidate("exact", "JAVA", BookStatus.CHECKED_OUT));
+        checkouts.put("prefix-popular", 7L);
+        checkouts.put("prefix-out", 50L);
+        checkouts.put("contains", 1_000L);
+
+        List<String> ranked = allPages("  java ", 3);
+
+        assertThat(ranked).containsExactly("exact", "prefix-popular", "prefix", "prefix-out", "contains");
+        verify(bookRepository, atLeastOnce()).streamTitleMatches("%java%");
+    }
+
+    @Test
+    void typoMatchesRankBelowSubstringMatches_closestFirst_andAreNotRepeated() {
+        candidates.add(new Candidate("contains", "Harry Potter Collection", BookStatus.CHECKED_OUT));
+        when(fuzzySearchIndex.search(SearchField.TITLE, "Harry Potter")).thenReturn(List.of(
+                new FuzzyMatch("contains", 0), new FuzzyMatch("one-typo", 1), new FuzzyMatch("two-typos", 2)));
+        checkouts.put("two-typos", 100L);
+
+        assertThat(allPages("Harry Potter", 2)).containsExactly("contains", "one-typo", "two-typos");
+    }
+
+    @Test
+    void pagesCoverEveryMatchOnce_andLoadOnlyThePageBeingReturned() {
+        for (int i = 0; i < 7; i++) {
+            candidates.add(new Candidate("isbn-" + i, "Same Title", BookStatus.AVAILABLE));
+        }
+
+        SearchPage first = service.search(SearchField.TITLE, "title", null, null);
+
+        assertThat(first.results()).extracting(Book::getIsbn).containsExactly("isbn-0", "isbn-1");
+        assertThat(first.nextCursor()).isNotNull();
+        verify(bookRepository).findByIsbnIn(List.of("isbn-0", "isbn-1"));
+        assertThat(allPages("title", 2)).containsExactly(
+                "isbn-0", "isbn-1", "isbn-2", "isbn-3", "isbn-4", "isbn-5", "isbn-6");
+    }
+
+    @Test
+    void pageSizeIsCappedAndValidated() {
+        for (int i = 0; i < 10; i++) {
+            candidates.add(new Candidate("isbn-" + i, "Dune", BookStatus.AVAILABLE));
+        }
+
+        assertThat(service.search(SearchField.TITLE, "dune", 50, null).results()).hasSize(3);
+        assertThatThrownBy(() -> service.search(SearchField.TITLE, "dune", 0, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void blankQueryIsEmpty_andBadCursorIsRejected() {
+        assertThat(service.search(SearchField.TITLE, " ", null, null)).isEqualTo(SearchPage.empty());
+        verifyNoInteractions(bookRepository, fuzzySearchIndex);
+        assertThatThrownBy(() -> service.search(SearchField.TITLE, "dune", null, "not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid search cursor");
+    }
+
+    @Test
+    void likePatternEscapesWildcards() {
+        assertThat(RankedSearchService.likePattern("100%_sure!")).isEqualTo("%100!%!_sure!!%");
+    }
+
+    private List<String> allPages(String query, int size) {
+        List<String> isbns = new ArrayList<>();
+        String cursor = null;
+        do {
+            SearchPage page = service.search(SearchField.TITLE, query, size, cursor);
+            page.results().forEach(book -> isbns.add(book.getIsbn()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return isbns;
+    }
+
+    private record Candidate(String isbn, String text, BookStatus status) implements SearchCandidateView {
+        @Override
+        public String getIsbn() {
+            return isbn;
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public BookStatus getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package edu.trincoll.service.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesStayWithinFourStandardErrors() {
+        for (int n : new int[]{10, 1_000, 50_000, 500_000}) {
+            HyperLogLog sketch = new HyperLogLog(12);
+            for (int i = 0; i < n; i++) {
+                sketch.add(KeyHash.of("member-" + i + "@example.com"));
+            }
+            assertThat((double) sketch.estimate())
+                    .as("estimate of %d distinct keys", n)
+                    .isBetween(n * (1 - 4 * sketch.standardError()), n * (1 + 4 * sketch.standardError()));
+        }
+    }
+
+    @Test
+    void duplicatesAndRepeatedMergesDoNotInflateTheCount() {
+        HyperLogLog a = new HyperLogLog(10);
+        HyperLogLog b = new HyperLogLog(10);
+        for (int i = 0; i < 3_000; i++) {
+            a.add(KeyHash.of("isbn-" + i));
+            a.add(KeyHash.of("isbn-" + i));
+            b.add(KeyHash.of("isbn-" + (i + 1_500)));
+        }
+
+        HyperLogLog union = a.copy();
+        union.merge(b);
+        long once = union.estimate();
+        union.merge(b);
+        union.merge(a);
+
+        assertThat(union.estimate()).isEqualTo(once);
+        assertThat((double) once).isBetween(4_500 * 0.85, 4_500 * 1.15);
+    }
+
+    @Test
+    void serializesSparselyWhenNearlyEmptyAndRoundTripsBothEncodings() {
+        HyperLogLog small = new HyperLogLog(12);
+        for (int i = 0; i < 20; i++) {
+            small.add(KeyHash.of("k" + i));
+        }
+        byte[] sparse = small.toBytes();
+        assertThat(sparse.length).isLessThan(100);
+        assertThat(HyperLogLog.fromBytes(sparse).estimate()).isEqualTo(small.estimate());
+
+        HyperLogLog large = new HyperLogLog(12);
+        for (int i = 0; i < 100_000; i++) {
+            large.add(KeyHash.of("k" + i));
+        }
+        byte[] dense = large.toBytes();
+        assertThat(dense.length).isEqualTo(2 + 4096 * 6 / 8);
+        assertThat(HyperLogLog.fromBytes(dense).toBytes()).isEqualTo(dense);
+        assertThat(HyperLogLog.fromBytes(dense).estimate()).isEqualTo(large.estimate());
+    }
+
+    @Test
+    void rejectsMergingDifferentPrecisions() {
+        assertThatThrownBy(() -> new HyperLogLog(10).merge(new HyperLogLog(12)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,122 @@
+package edu.trincoll.service.snapshot;
+
+import edu.trincoll.model.BookStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotCodecTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 15);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrip_preservesEveryRow_sortedByStatusAndDueDate() throws Exception {
+        List<SnapshotRow> rows = List.of(
+                new SnapshotRow("3", "Le Guin", BookStatus.CHECKED_OUT, DAY.plusDays(3)),
+                new SnapshotRow("1", "Le Guin", BookStatus.AVAILABLE, null),
+                new SnapshotRow("4", "Butler", BookStatus.CHECKED_OUT, DAY.minusDays(2)),
+                new SnapshotRow("2", "Butler", BookStatus.RESERVED, DAY.plusDays(1)),
+                new SnapshotRow("5", "Ishiguro", BookStatus.LOST, null));
+        Path file = dir.resolve("s.snap");
+
+        SnapshotCodec.write(file, DAY, rows);
+        SnapshotFile snapshot = SnapshotFile.open(file);
+
+        List<SnapshotRow> decoded = new ArrayList<>();
+        snapshot.forEachRow(decoded::add);
+        assertThat(snapshot.date()).isEqualTo(DAY);
+        assertThat(snapshot.rowCount()).isEqualTo(5);
+        assertThat(decoded).containsExactly(
+                new SnapshotRow("1", "Le Guin", BookStatus.AVAILABLE, null),
+                new SnapshotRow("4", "Butler", BookStatus.CHECKED_OUT, DAY.minusDays(2)),
+                new SnapshotRow("3", "Le Guin", BookStatus.CHECKED_OUT, DAY.plusDays(3)),
+                new SnapshotRow("2", "Butler", BookStatus.RESERVED, DAY.plusDays(1)),
+                new SnapshotRow("5", "Ishiguro", BookStatus.LOST, null));
+    }
+
+    @Test
+    void aggregates_matchTheRows() throws Exception {
+        List<SnapshotRow> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            BookStatus status = i % 4 == 0 ? BookStatus.CHECKED_OUT : BookStatus.AVAILABLE;
+            LocalDate due = status == BookStatus.CHECKED_OUT ? DAY.plusDays(i % 40 - 20) : null;
+            rows.add(new SnapshotRow("isbn-" + i, "Author " + (i % 7), status, due));
+        }
+        Path file = dir.resolve("big.snap");
+
+        SnapshotCodec.write(file, DAY, rows);
+        SnapshotFile snapshot = SnapshotFile.open(file);
+
+        assertThat(snapshot.countByStatus())
+                .containsEntry(BookStatus.CHECKED_OUT, 250)
+                .containsEntry(BookStatus.AVAILABLE, 750)
+                .hasSize(2);
+        long expectedOverdue = rows.stream()
+                .filter(r -> r.status() == BookStatus.CHECKED_OUT && r.dueDate().isBefore(DAY))
+                .count();
+        assertThat(snapshot.countOverdue()).isEqualTo((int) expectedOverdue);
+        assertThat(snapshot.countByAuthor(BookStatus.CHECKED_OUT).values().stream().mapToInt(Integer::intValue).sum())
+                .isEqualTo(250);
+        assertThat(snapshot.countByAuthor(BookStatus.DAMAGED)).isEmpty();
+        // Dictionary + RLE + delta columns stay well under the size of the ISBN column alone plus a few bytes a row.
+        assertThat(Files.size(file)).isLessThan(1000L * 16);
+    }
+
+    @Test
+    void emptySnapshot_hasNoRows() throws Exception {
+        Path file = dir.resolve("empty.snap");
+        SnapshotCodec.write(file, DAY, List.of());
+
+        SnapshotFile snapshot = SnapshotFile.open(file);
+
+        assertThat(snapshot.rowCount()).isZero();
+        assertThat(snapshot.countByStatus()).isEmpty();
+        assertThat(snapshot.countOverdue()).isZero();
+    }
+
+    @Test
+    void otherFiles_areRejected() throws Exception {
+        Path file = dir.resolve("junk.snap");
+        Files.write(file, new byte[64]);
+
+        assertThatThrownBy(() -> SnapshotFile.open(file)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void streamedRows_mustArriveGroupedByStatus() {
+        Stream<SnapshotRow> ungrouped = Stream.of(
+                new SnapshotRow("1", "Butler", BookStatus.CHECKED_OUT, DAY),
+                new SnapshotRow("2", "Butler", BookStatus.AVAILABLE, null),
+                new SnapshotRow("3", "Butler", BookStatus.CHECKED_OUT, DAY));
+
+        assertThatThrownBy(() -> SnapshotCodec.write(dir.resolve("ungrouped.snap"), DAY, ungrouped))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("CHECKED_OUT");
+    }
+
+    @Test
+    void closedSnapshot_staysMappedUntilItsLastReaderReleasesIt() throws Exception {
+        Path file = dir.resolve("closed.snap");
+        SnapshotCodec.write(file, DAY, List.of(new SnapshotRow("1", "Butler", BookStatus.AVAILABLE, null)));
+        SnapshotFile snapshot = SnapshotFile.open(file);
+
+        assertThat(snapshot.retain()).isTrue();
+        snapshot.close();
+        assertThat(snapshot.countByStatus()).containsEntry(BookStatus.AVAILABLE, 1);
+        snapshot.release();
+
+        assertThat(snapshot.retain()).isFalse();
+    }
+}
@@ -0,0 +1,129 @@
+package edu.trincoll.service.snapshot;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Snapshots taken from books on two shards, and the bookkeeping of the mapped files.
+ */
+@SpringBootTest(properties = {
+        "library.sharding.enabled=true",
+        "library.sharding.urls=jdbc:h2:mem:snapshot-shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:snapshot-shard1;DB_CLOSE_DELAY=-1",
+        "library.sharding.virtual-nodes=64",
+        "library.snapshots.max-open=2",
+        "library.snapshots.max-range-days=31"
+})
+@DirtiesContext
+class SnapshotServiceSpringIT {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 15);
+    private static final BookStatus[] STATUSES = {
+            BookStatus.AVAILABLE, BookStatus.CHECKED_OUT, BookStatus.RESERVED, BookStatus.LOST};
+    private static final int BOOKS = 40;
+
+    @Autowired private SnapshotService snapshotService;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private ShardRouter router;
+    @Value("${library.snapshots.dir}") private Path directory;
+
+    @BeforeEach
+    void seed() {
+        snapshotService.close();
+        bookRepository.deleteAll();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book("snap-" + i, "Title " + i, "Author " + i % 3, LocalDate.of(2000, 1, 1));
+            book.setStatus(STATUSES[i % STATUSES.length]);
+            if (book.getStatus() == BookStatus.CHECKED_OUT) {
+                book.setDueDate(DAY.plusDays(i % 7 - 3));
+            }
+            bookRepository.save(book);
+        }
+    }
+
+    @Test
+    void shardedRows_areMergedInStatusOrder() throws Exception {
+        for (String shard : router.shards()) {
+            assertThat(IntStream.range(0, BOOKS).filter(i -> router.shardFor("snap-" + i).equals(shard)))
+                    .as("books on %s", shard).isNotEmpty();
+        }
+
+        SnapshotSummary summary = snapshotService.takeSnapshot(DAY);
+
+        assertThat(summary.totalBooks()).isEqualTo(BOOKS);
+        assertThat(summary.booksByStatus()).isEqualTo(Map.of(
+                BookStatus.AVAILABLE, 10, BookStatus.CHECKED_OUT, 10, BookStatus.RESERVED, 10, BookStatus.LOST, 10));
+        // checked out: i = 1, 5, ..., 37; due DAY + (i % 7 - 3), overdue when i % 7 < 3
+        assertThat(summary.overdueBooks()).isEqualTo(5);
+
+        List<SnapshotRow> rows = new ArrayList<>();
+        try (SnapshotFile file = SnapshotFile.open(directory.resolve("circulation-" + DAY + ".snap"))) {
+            file.forEachRow(rows::add);
+        }
+        assertThat(rows).hasSize(BOOKS).isSortedAccordingTo(Comparator
+                .comparing((SnapshotRow row) -> row.status().name())
+                .thenComparing(SnapshotRow::dueDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(SnapshotRow::isbn));
+    }
+
+    @Test
+    void leastRecentlyUsedSnapshot_isUnmappedFirst() {
+        snapshotService.takeSnapshot(DAY);
+        snapshotService.takeSnapshot(DAY.plusDays(1));
+        snapshotService.takeSnapshot(DAY.plusDays(2));
+        assertThat(snapshotService.openDates()).containsExactly(DAY.plusDays(1), DAY.plusDays(2));
+
+        snapshotService.summary(DAY.plusDays(1));
+        assertThat(snapshotService.openDates()).containsExactly(DAY.plusDays(2), DAY.plusDays(1));
+
+        assertThat(snapshotService.summary(DAY).totalBooks()).isEqualTo(BOOKS);
+        assertThat(snapshotService.openDates()).containsExactly(DAY.plusDays(1), DAY);
+    }
+
+    @Test
+    void closedSnapshot_staysMappedUntilTheLastReaderReleasesIt() throws Exception {
+        snapshotService.takeSnapshot(DAY);
+        SnapshotFile file = SnapshotFile.open(directory.resolve("circulation-" + DAY + ".snap"));
+
+        assertThat(file.retain()).isTrue();
+        file.close();
+        assertThat(file.isMapped()).isTrue();
+        assertThat(file.rowCount()).isEqualTo(BOOKS);
+
+        file.release();
+        assertThat(file.isMapped()).isFalse();
+        assertThat(file.retain()).isFalse();
+        file.close();
+        assertThat(file.isMapped()).isFalse();
+    }
+
+    @Test
+    void summaries_spanAtMostTheConfiguredRange() {
+        LocalDate from = DAY.minusYears(1);
+        snapshotService.takeSnapshot(from.plusDays(30));
+
+        assertThat(snapshotService.summaries(from, from.plusDays(30))).extracting(SnapshotSummary::date)
+                .containsExactly(from.plusDays(30));
+        assertThatThrownBy(() -> snapshotService.summaries(from, from.plusDays(31)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("31 days");
+    }
+}
@@ -0,0 +1,107 @@
+package edu.trincoll.service.storage;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "library.storage.dir=${java.io.tmpdir}/library-durable-it/${random.uuid}",
+        "library.storage.backup.directory=${java.io.tmpdir}/library-durable-it/backups-${random.uuid}",
+        "library.storage.backup.keep=2"})
+@ActiveProfiles("durable")
+@DirtiesContext
+class BackupServiceSpringIT {
+
+    private static final int BOOKS = 40;
+
+    @Autowired private BackupService backupService;
+    @Autowired private LibraryService libraryService;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from loans");
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        for (int i = 0; i < BOOKS; i++) {
+            bookRepository.save(new Book("backup-" + i, "Backup " + i, "Author", LocalDate.of(2020, 1, 1)));
+            memberRepository.save(new Member("Backup Member " + i, "backup-" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void backupTakenWhileCheckoutsRun_opensAsAConsistentDatabase() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger operations = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            try {
+                for (int n = 0; running.get(); n++) {
+                    int i = n % BOOKS;
+                    String isbn = "backup-" + i;
+                    if (n / BOOKS % 2 == 0) {
+                        libraryService.checkoutBook(isbn, "backup-" + i + "@example.com");
+                    } else {
+                        libraryService.returnBook(isbn);
+                    }
+                    operations.incrementAndGet();
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        while (operations.get() < 50) {
+            Thread.sleep(5);
+        }
+
+        BackupResult backup = backupService.backup();
+        int afterBackup = operations.get();
+        Thread.sleep(50);
+        running.set(false);
+        writer.join();
+
+        assertThat(failure.get()).isNull();
+        assertThat(operations.get()).as("writers kept going after the backup").isGreaterThan(afterBackup);
+        assertThat(backup.bytes()).isPositive().isEqualTo(Files.size(backup.file()));
+        // H2 opens a database inside a backup archive read-only, without restoring it first.
+        String url = "jdbc:h2:zip:" + backup.file().toAbsolutePath() + "!/library";
+        SingleConnectionDataSource archive = new SingleConnectionDataSource(url, "sa", "", true);
+        try {
+            JdbcTemplate restored = new JdbcTemplate(archive);
+            assertThat(restored.queryForObject("select count(*) from books", Integer.class)).isEqualTo(BOOKS);
+            DurableStorageCrashRecoverySpringIT.assertConsistent(restored);
+        } finally {
+            archive.destroy();
+        }
+    }
+
+    @Test
+    void keepsOnlyTheNewestArchives() {
+        BackupResult first = backupService.backup();
+        BackupResult second = backupService.backup();
+        BackupResult third = backupService.backup();
+
+        assertThat(backupService.backups()).containsExactly(third.file(), second.file());
+        assertThat(first.file()).doesNotExist();
+    }
+}
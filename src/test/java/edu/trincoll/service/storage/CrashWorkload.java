@@ -0,0 +1,110 @@
+package edu.trincoll.service.storage;
+
+import edu.trincoll.LibraryApplication;
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Child process for {@link DurableStorageCrashRecoverySpringIT}. Opens the durable store in
+ * {@code args[0]}, seeds it on first start, then toggles books between checked out and returned
+ * in transactions of {@link #BATCH} operations, printing {@code COMMITTED n} after the n-th
+ * batch commits, until it is killed. Batch n always touches the same books, so a restarted
+ * process carries on where the store says the last one stopped.
+ */
+final class CrashWorkload {
+
+    static final int BOOKS = 100;
+    static final int BATCH = 10;
+    static final String COMMITTED = "COMMITTED ";
+
+    private CrashWorkload() {
+    }
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = start(Path.of(args[0]));
+        seedIfEmpty(context);
+        for (int batch = committedBatches(context.getBean(JdbcTemplate.class)); ; batch++) {
+            runBatch(context, batch);
+            System.out.println(COMMITTED + (batch + 1));
+            System.out.flush();
+        }
+    }
+
+    static ConfigurableApplicationContext start(Path storage) {
+        return new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("durable")
+                .properties("library.storage.dir=" + storage.resolve("db").toAbsolutePath(),
+                        "library.storage.backup.enabled=false",
+                        "library.recommendations.checkpoint-file=" + storage.resolve("co-borrowing.bin").toAbsolutePath(),
+                        "spring.main.banner-mode=off",
+                        "logging.level.edu.trincoll=WARN")
+                .run();
+    }
+
+    /**
+     * Batches whose operations are all in the store: every checkout opened one loan row and
+     * every return closed one.
+     */
+    static int committedBatches(JdbcTemplate jdbc) {
+        return toggles(jdbc) / BATCH;
+    }
+
+    static int toggles(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("select count(*) + count(closed_on) from loans", Integer.class);
+    }
+
+    static void runBatch(ConfigurableApplicationContext context, int batch) {
+        LibraryService library = context.getBean(LibraryService.class);
+        BookRepository books = context.getBean(BookRepository.class);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            for (int j = 0; j < BATCH; j++) {
+                int i = (batch * BATCH + j) % BOOKS;
+                boolean available = books.findByIsbn(isbn(i)).orElseThrow().getStatus() == BookStatus.AVAILABLE;
+                String result = available ? library.checkoutBook(isbn(i), email(i)) : library.returnBook(isbn(i));
+                if (!result.startsWith(available ? "Book checked out" : "Book returned")) {
+                    throw new IllegalStateException("Batch " + batch + ", book " + i + ": " + result);
+                }
+                // Widen the window a kill can land in.
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+            }
+        });
+    }
+
+    static String isbn(int i) {
+        return "crash-" + i;
+    }
+
+    static String email(int i) {
+        return "crash-" + i + "@example.com";
+    }
+
+    private static void seedIfEmpty(ConfigurableApplicationContext context) {
+        BookRepository books = context.getBean(BookRepository.class);
+        MemberRepository members = context.getBean(MemberRepository.class);
+        if (books.count() > 0) {
+            return;
+        }
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            for (int i = 0; i < BOOKS; i++) {
+                books.save(new Book(isbn(i), "Crash Title " + i, "Author", LocalDate.of(2020, 1, 1)));
+                members.save(new Member("Crash Member " + i, email(i)));
+            }
+        });
+    }
+}
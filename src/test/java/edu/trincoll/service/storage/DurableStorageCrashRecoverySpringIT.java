@@ -0,0 +1,82 @@
+package edu.trincoll.service.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kills a process running on the durable profile in the middle of a circulation batch, twice,
+ * and checks what the next start finds: every batch the process acknowledged, no part of the
+ * batch it was killed in, and book, loan and member counts that agree.
+ */
+class DurableStorageCrashRecoverySpringIT {
+
+    @TempDir
+    Path storage;
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void killedMidBatch_restartsWithEveryAcknowledgedBatchAndNoPartialOne() throws Exception {
+        int acknowledged = runUntilKilled(15);
+        acknowledged = runUntilKilled(acknowledged + 15);
+
+        try (ConfigurableApplicationContext context = CrashWorkload.start(storage)) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            int toggles = CrashWorkload.toggles(jdbc);
+            assertThat(toggles % CrashWorkload.BATCH).as("operations of a partial batch survived").isZero();
+            // The batch in flight may have committed before the kill without being acknowledged.
+            assertThat(toggles / CrashWorkload.BATCH).isBetween(acknowledged, acknowledged + 1);
+            assertConsistent(jdbc);
+
+            CrashWorkload.runBatch(context, toggles / CrashWorkload.BATCH);
+            assertThat(CrashWorkload.toggles(jdbc)).isEqualTo(toggles + CrashWorkload.BATCH);
+            assertConsistent(jdbc);
+        }
+    }
+
+    /**
+     * Starts the workload in its own JVM and kills it with SIGKILL once batch {@code target}
+     * has been acknowledged, while it is inside the next one.
+     */
+    private int runUntilKilled(int target) throws IOException, InterruptedException {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Process child = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                CrashWorkload.class.getName(), storage.toString())
+                .redirectErrorStream(true)
+                .start();
+        int acknowledged = -1;
+        try (BufferedReader output = child.inputReader()) {
+            String line;
+            while (acknowledged < target && (line = output.readLine()) != null) {
+                if (line.startsWith(CrashWorkload.COMMITTED)) {
+                    acknowledged = Integer.parseInt(line.substring(CrashWorkload.COMMITTED.length()).trim());
+                }
+            }
+        } finally {
+            child.destroyForcibly();
+            child.waitFor(1, TimeUnit.MINUTES);
+        }
+        assertThat(acknowledged).as("workload exited before acknowledging batch " + target).isGreaterThanOrEqualTo(target);
+        return acknowledged;
+    }
+
+    static void assertConsistent(JdbcTemplate jdbc) {
+        int checkedOut = jdbc.queryForObject("select count(*) from books where status = 'CHECKED_OUT'", Integer.class);
+        int openLoans = jdbc.queryForObject("select count(*) from loans where closed_on is null", Integer.class);
+        int memberCounts = jdbc.queryForObject("select coalesce(sum(books_checked_out), 0) from members", Integer.class);
+        assertThat(openLoans).isEqualTo(checkedOut);
+        assertThat(memberCounts).isEqualTo(checkedOut);
+        assertThat(jdbc.queryForObject(
+                "select count(*) from books b join loans l on l.isbn = b.isbn and l.closed_on is null " +
+                "where b.checked_out_by <> l.member_email", Integer.class)).isZero();
+    }
+}
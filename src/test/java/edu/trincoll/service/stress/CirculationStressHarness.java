@@ -0,0 +1,214 @@
+package edu.trincoll.service.stress;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.model.MembershipType;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.LibraryService;
+import edu.trincoll.service.policy.CheckoutPolicyFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs thousands of interleaved checkouts, returns and return-all batches from many threads
+ * against the real H2 database, then checks the circulation invariants:
+ * <ul>
+ *   <li>no book is lent twice: per book, successful checkouts minus successful returns is 0 or 1
+ *       and matches its final status;</li>
+ *   <li>every member's {@code booksCheckedOut} equals the books out to them and their open
+ *       rows in {@code loans};</li>
+ *   <li>no member is over their {@code CheckoutPolicy.getMaxBooks()}.</li>
+ * </ul>
+ * A small pool of books and members keeps contention high. Operations that lose an optimistic
+ * or lock conflict are retried and counted; throughput and conflict rates are part of every
+ * assertion message, so a failure says how the store behaved. Subclasses choose the store.
+ * <p>
+ * Tagged {@code stress}: excluded from {@code test} and run by {@code stressTest}. Size with
+ * {@code -Dlibrary.stress.operations} and {@code -Dlibrary.stress.threads}.
+ */
+@Tag("stress")
+abstract class CirculationStressHarness {
+
+    private static final int OPERATIONS = Integer.getInteger("library.stress.operations", 4000);
+    private static final int THREADS = Integer.getInteger("library.stress.threads", 16);
+    private static final int BOOKS = 40;
+    private static final int MEMBERS = 24;
+    private static final int MAX_ATTEMPTS = 50;
+
+    @Autowired private LibraryService libraryService;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private CheckoutPolicyFactory checkoutPolicyFactory;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, AtomicInteger> lentMinusReturned = new ConcurrentHashMap<>();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder returns = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    abstract String storeName();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from loans");
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        for (int i = 0; i < BOOKS; i++) {
+            bookRepository.save(new Book("stress-" + i, "Stress " + i, "Author " + (i % 5), LocalDate.of(2000, 1, 1)));
+            lentMinusReturned.put("stress-" + i, new AtomicInteger());
+        }
+        MembershipType[] tiers = MembershipType.values();
+        for (int i = 0; i < MEMBERS; i++) {
+            memberRepository.save(new Member("Member " + i, email(i), tiers[i % tiers.length]));
+        }
+    }
+
+    @Test
+    void interleavedCirculation_preservesInvariants() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger remaining = new AtomicInteger(OPERATIONS);
+        List<Future<?>> workers = new ArrayList<>();
+        long began;
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    while (remaining.getAndDecrement() > 0) {
+                        runOne();
+                    }
+                    return null;
+                }));
+            }
+            began = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+        }
+        String summary = summary(System.nanoTime() - began);
+
+        assertInvariants(summary);
+        assertThat(abandoned.sum()).as("operations that never got past a conflict; %s", summary).isZero();
+    }
+
+    private void runOne() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        String isbn = "stress-" + random.nextInt(BOOKS);
+        if (roll < 55) {
+            String member = email(random.nextInt(MEMBERS));
+            String result = withRetry(() -> libraryService.checkoutBook(isbn, member));
+            if (result != null && result.startsWith("Book checked out successfully")) {
+                lentMinusReturned.get(isbn).incrementAndGet();
+                checkouts.increment();
+            } else if (result != null) {
+                refused.increment();
+            }
+        } else if (roll < 92) {
+            returnOne(isbn);
+        } else {
+            // Batch: a member hands back everything they have
+            String member = email(random.nextInt(MEMBERS));
+            for (Book book : bookRepository.findByCheckedOutBy(member)) {
+                returnOne(book.getIsbn());
+            }
+        }
+    }
+
+    private void returnOne(String isbn) {
+        String result = withRetry(() -> libraryService.returnBook(isbn));
+        if (result != null && result.startsWith("Book returned")) {
+            lentMinusReturned.get(isbn).decrementAndGet();
+            returns.increment();
+        } else if (result != null) {
+            refused.increment();
+        }
+    }
+
+    private String withRetry(Supplier<String> operation) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            attempts.increment();
+            try {
+                return operation.get();
+            } catch (ConcurrencyFailureException e) {
+                conflicts.increment();
+                Thread.onSpinWait();
+            }
+        }
+        abandoned.increment();
+        return null;
+    }
+
+    private void assertInvariants(String summary) {
+        List<Book> books = bookRepository.findAll();
+        for (Book book : books) {
+            int net = lentMinusReturned.get(book.getIsbn()).get();
+            assertThat(net).as("checkouts minus returns for %s; %s", book.getIsbn(), summary).isBetween(0, 1);
+            assertThat(book.getStatus() == BookStatus.CHECKED_OUT ? 1 : 0)
+                    .as("status of %s; %s", book.getIsbn(), summary).isEqualTo(net);
+        }
+
+        Map<String, Long> openLoans = books.stream()
+                .filter(b -> b.getStatus() == BookStatus.CHECKED_OUT)
+                .collect(Collectors.groupingBy(Book::getCheckedOutBy, Collectors.counting()));
+        Map<String, Long> loanRows = new HashMap<>();
+        jdbcTemplate.query("select member_email, count(*) from loans where closed_on is null group by member_email",
+                rs -> {
+                    loanRows.put(rs.getString(1), rs.getLong(2));
+                });
+        for (Member member : memberRepository.findAll()) {
+            long loans = openLoans.getOrDefault(member.getEmail(), 0L);
+            assertThat((long) member.getBooksCheckedOut())
+                    .as("counter of %s; %s", member.getEmail(), summary).isEqualTo(loans);
+            assertThat(loanRows.getOrDefault(member.getEmail(), 0L))
+                    .as("open loan rows of %s; %s", member.getEmail(), summary).isEqualTo(loans);
+            assertThat(member.getBooksCheckedOut())
+                    .as("limit of %s; %s", member.getEmail(), summary)
+                    .isLessThanOrEqualTo(checkoutPolicyFactory.getPolicyFor(member.getMembershipType()).getMaxBooks());
+        }
+    }
+
+    private String summary(long elapsedNanos) {
+        long ops = checkouts.sum() + returns.sum() + refused.sum();
+        double seconds = elapsedNanos / 1e9;
+        return String.format(Locale.ROOT, "circulation stress [%s]: %d threads, %d operations in %.2fs (%.0f ops/s); "
+                        + "%d checkouts, %d returns, %d refused; %d conflicts over %d attempts (%.1f%% conflict rate), %d abandoned",
+                storeName(), THREADS, ops, seconds, ops / seconds,
+                checkouts.sum(), returns.sum(), refused.sum(),
+                conflicts.sum(), attempts.sum(), 100.0 * conflicts.sum() / Math.max(1, attempts.sum()),
+                abandoned.sum());
+    }
+
+    private static String email(int i) {
+        return "stress" + i + "@example.com";
+    }
+}
@@ -0,0 +1,14 @@
+package edu.trincoll.service.stress;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+@SpringBootTest(properties = {"library.circulation.store=jdbc", "spring.jpa.show-sql=false"})
+@DirtiesContext
+class JdbcCirculationStressSpringIT extends CirculationStressHarness {
+
+    @Override
+    String storeName() {
+        return "jdbc";
+    }
+}
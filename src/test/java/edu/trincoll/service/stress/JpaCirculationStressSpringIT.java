@@ -0,0 +1,14 @@
+package edu.trincoll.service.stress;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+@SpringBootTest(properties = {"library.circulation.store=jpa", "spring.jpa.show-sql=false"})
+@DirtiesContext
+class JpaCirculationStressSpringIT extends CirculationStressHarness {
+
+    @Override
+    String storeName() {
+        return "jpa";
+    }
+}
@@ -0,0 +1,23 @@
+package edu.trincoll.service.stress;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Books on two in-memory shards: each checkout and return commits the member side on the home
+ * shard and the book side on the book's shard, and undoes the member side when the book side
+ * loses a race.
+ */
+@SpringBootTest(properties = {
+        "library.sharding.enabled=true",
+        "library.sharding.urls=jdbc:h2:mem:stress-shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:stress-shard1;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@DirtiesContext
+class ShardedCirculationStressSpringIT extends CirculationStressHarness {
+
+    @Override
+    String storeName() {
+        return "jpa, sharded";
+    }
+}
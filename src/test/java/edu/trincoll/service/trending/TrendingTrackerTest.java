@@ -0,0 +1,107 @@
+package edu.trincoll.service.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrendingTrackerTest {
+
+    private static final long NOW = Duration.ofDays(20_000).toMillis();
+
+    @Test
+    void heavyHittersSurfaceAboveALongTail_withBoundsAroundTheTrueCount() {
+        var tracker = new TrendingTracker(new TrendingProperties(1024, 4, 64, 4));
+        var random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            tracker.record("tail-" + random.nextInt(5_000), NOW);
+        }
+        for (int i = 0; i < 500; i++) {
+            tracker.record("hot-a", NOW);
+        }
+        for (int i = 0; i < 300; i++) {
+            tracker.record("hot-b", NOW);
+        }
+
+        TrendingReport report = tracker.top(TrendingWindow.HOUR, 2, NOW);
+
+        assertThat(report.totalCheckouts()).isEqualTo(20_800);
+        assertThat(report.entries()).extracting(TrendingEntry::isbn).containsExactly("hot-a", "hot-b");
+        TrendingEntry first = report.entries().get(0);
+        assertThat(first.guaranteedCount()).isLessThanOrEqualTo(500);
+        assertThat(first.estimatedCount()).isGreaterThanOrEqualTo(500)
+                .isLessThanOrEqualTo(500 + report.errorBound());
+    }
+
+    @Test
+    void windowsForgetCheckoutsOlderThanTheirSpan() {
+        var tracker = new TrendingTracker(new TrendingProperties(64, 2, 8, 1));
+        for (int i = 0; i < 10; i++) {
+            tracker.record("old", NOW);
+        }
+        tracker.record("new", NOW + Duration.ofHours(2).toMillis());
+
+        long later = NOW + Duration.ofHours(2).toMillis();
+        assertThat(tracker.top(TrendingWindow.HOUR, 5, later).entries())
+                .extracting(TrendingEntry::isbn).containsExactly("new");
+        assertThat(tracker.top(TrendingWindow.DAY, 5, later).entries())
+                .extracting(TrendingEntry::isbn).containsExactly("old", "new");
+        assertThat(tracker.top(TrendingWindow.DAY, 5, later).totalCheckouts()).isEqualTo(11);
+    }
+
+    @Test
+    void exactCountsWhileUnderCapacity() {
+        var tracker = new TrendingTracker(new TrendingProperties(1024, 4, 64, 2));
+        tracker.record("a", NOW);
+        tracker.record("a", NOW);
+        tracker.record("b", NOW);
+
+        assertThat(tracker.top(TrendingWindow.WEEK, 10, NOW).entries()).containsExactly(
+                new TrendingEntry("a", 2, 2),
+                new TrendingEntry("b", 1, 1));
+    }
+
+    @Test
+    void concurrentRecordingLosesNothingWithinASlot() throws Exception {
+        var tracker = new TrendingTracker(new TrendingProperties(1024, 4, 256, 8));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 4_800; i++) {
+                        tracker.record("isbn-" + (i + thread) % 16, NOW);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        TrendingReport report = tracker.top(TrendingWindow.DAY, 16, NOW);
+        assertThat(report.totalCheckouts()).isEqualTo(38_400);
+        assertThat(report.entries()).hasSize(16)
+                .allSatisfy(e -> assertThat(e.guaranteedCount()).isEqualTo(2_400));
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new TrendingProperties(1000, 4, 64, 8))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TrendingTracker(new TrendingProperties(64, 2, 8, 1))
+                .top(TrendingWindow.HOUR, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
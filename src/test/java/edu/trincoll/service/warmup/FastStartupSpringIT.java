@@ -0,0 +1,97 @@
+package edu.trincoll.service.warmup;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.model.BookStatus;
+import edu.trincoll.model.Member;
+import edu.trincoll.repository.BookRepository;
+import edu.trincoll.repository.MemberRepository;
+import edu.trincoll.service.feed.CatalogChangeRecorder;
+import edu.trincoll.web.ReadinessController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the fast-startup profile, whose context only starts if {@code db/schema.sql} matches
+ * the entity mapping.
+ */
+@SpringBootTest(properties = "library.warmup.parallelism=2")
+@ActiveProfiles("fast-startup")
+@DirtiesContext
+class FastStartupSpringIT {
+
+    @Autowired private WarmupRunner warmupRunner;
+    @Autowired private ReadinessController readinessController;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private CatalogChangeRecorder changeRecorder;
+
+    @Test
+    void reportsReadyOnlyAfterTheStartupWarmup() {
+        var response = readinessController.ready();
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getBody().state()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(response.getBody().warmup()).isNotNull();
+        assertThat(response.getBody().warmup().complete()).isTrue();
+    }
+
+    @Test
+    void warmupLoadsHotKeysAndRehearsesCheckoutWithoutChangingAnything() throws InterruptedException {
+        jdbcTemplate.update("delete from loans");
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        memberRepository.save(new Member("Reader", "warm-reader@example.com"));
+        for (int i = 0; i < 10; i++) {
+            bookRepository.save(new Book("warm-" + i, "Warm Title " + i, "Warm Author", LocalDate.of(2020, 1, 1)));
+        }
+        int changes = jdbcTemplate.queryForObject("select count(*) from change_log", Integer.class);
+        int statusChanges = jdbcTemplate.queryForObject("select count(*) from book_status_changes", Integer.class);
+
+        WarmupReport report = warmupRunner.warmUp();
+
+        assertThat(report.complete()).isTrue();
+        assertThat(report.failures()).isZero();
+        assertThat(report.booksLoaded()).isEqualTo(10);
+        assertThat(report.membersLoaded()).isEqualTo(1);
+        assertThat(report.rehearsals()).isEqualTo(10);
+        assertThat(bookRepository.findAll()).allSatisfy(book -> {
+            assertThat(book.getStatus()).isEqualTo(BookStatus.AVAILABLE);
+            assertThat(book.getVersion()).isZero();
+        });
+        assertThat(memberRepository.findByEmail("warm-reader@example.com")).get()
+                .extracting(Member::getBooksCheckedOut).isEqualTo(0);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from loans", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from change_log", Integer.class)).isEqualTo(changes);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from book_status_changes", Integer.class))
+                .isEqualTo(statusChanges);
+    }
+
+    @Test
+    void rehearsals_useUpNoChangeFeedIds() throws InterruptedException {
+        jdbcTemplate.update("delete from loans");
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        memberRepository.save(new Member("Reader", "warm-reader@example.com"));
+        for (int i = 0; i < 10; i++) {
+            bookRepository.save(new Book("warm-" + i, "Warm Title " + i, "Warm Author", LocalDate.of(2020, 1, 1)));
+        }
+        changeRecorder.record("warm-0", null, BookStatus.AVAILABLE, null);
+        long before = jdbcTemplate.queryForObject("select max(id) from book_status_changes", Long.class);
+
+        assertThat(warmupRunner.warmUp().rehearsals()).isEqualTo(10);
+
+        changeRecorder.record("warm-0", null, BookStatus.AVAILABLE, null);
+        assertThat(jdbcTemplate.queryForObject("select max(id) from book_status_changes", Long.class))
+                .isEqualTo(before + 1);
+    }
+}
@@ -0,0 +1,30 @@
+package edu.trincoll.web;
+
+import edu.trincoll.model.Book;
+import edu.trincoll.service.idempotency.IdempotencyConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiExceptionHandlerTest {
+
+    private final ApiExceptionHandler handler = new ApiExceptionHandler();
+
+    @Test
+    void lostVersionRace_isAConflict() {
+        var response = handler.concurrentUpdate(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).contains("retry");
+    }
+
+    @Test
+    void idempotencyKeyInProgress_isAConflict() {
+        var response = handler.conflict(new IdempotencyConflictException("k-1"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).contains("k-1");
+    }
+}
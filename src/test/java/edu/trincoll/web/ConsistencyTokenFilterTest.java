@@ -0,0 +1,29 @@
+package edu.trincoll.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistencyTokenFilterTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void tokenFromThePast_isKept() {
+        assertThat(ConsistencyTokenFilter.parse(" " + (NOW - 500) + " ", NOW)).isEqualTo(NOW - 500);
+    }
+
+    @Test
+    void tokenFromTheFuture_isClampedToNow() {
+        assertThat(ConsistencyTokenFilter.parse(Long.toString(Long.MAX_VALUE), NOW)).isEqualTo(NOW);
+        assertThat(ConsistencyTokenFilter.parse(Long.toString(NOW + 60_000), NOW)).isEqualTo(NOW);
+    }
+
+    @Test
+    void missingNegativeOrGarbledToken_readsLikeANewClient() {
+        assertThat(ConsistencyTokenFilter.parse(null, NOW)).isZero();
+        assertThat(ConsistencyTokenFilter.parse("", NOW)).isZero();
+        assertThat(ConsistencyTokenFilter.parse("-5", NOW)).isZero();
+        assertThat(ConsistencyTokenFilter.parse("abc", NOW)).isZero();
+    }
+}